@@ -20,6 +20,7 @@ import java.util.UUID;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -33,7 +34,9 @@ import org.hibernate.annotations.UpdateTimestamp;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "inbox_notification", schema = "public")
+@Table(name = "inbox_notification", schema = "public", indexes = @Index(
+    name = "ix_inbox_notification__recipient_id__created_at__id",
+    columnList = "recipient_id, created_at desc, id"))
 public class InboxNotification {
 
   @Id
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.entity;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Processed shard of a {@link NotificationBroadcast}, with the outcome of its latest processing.
+ * The table is created by the platform schema migrations.
+ */
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "notification_broadcast_shard", schema = "public", indexes = @Index(
+    name = "ix_notification_broadcast_shard__broadcast_id",
+    columnList = "broadcast_id"))
+public class NotificationBroadcastShard {
+
+  @Id
+  private UUID id;
+  private UUID broadcastId;
+  private int shardIndex;
+  private int recipientCount;
+  private boolean succeeded;
+  private LocalDateTime completedAt;
+}
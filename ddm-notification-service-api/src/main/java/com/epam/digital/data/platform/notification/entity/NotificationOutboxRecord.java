@@ -0,0 +1,53 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.entity;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Channel message that is stored together with the rest of the user notification fan-out and
+ * published to the channel topic by the outbox relay. The table is created by the platform schema
+ * migrations, where the index of the unsent records is partial ({@code where sent_at is null}).
+ */
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "notification_outbox", schema = "public", indexes = @Index(
+    name = "ix_notification_outbox__created_at__unsent",
+    columnList = "created_at"))
+public class NotificationOutboxRecord {
+
+  @Id
+  private UUID id;
+  private String topic;
+  private String messageKey;
+  private String payloadType;
+  private String payload;
+  private LocalDateTime createdAt;
+  private LocalDateTime sentAt;
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.exception;
+
+import java.time.Duration;
+import lombok.Getter;
+
+/**
+ * The notification can not be delivered now and has to be redelivered after the delay, e.g.
+ * because a send rate limit is exceeded. It is not a delivery failure.
+ */
+@Getter
+public class NotificationDeferredException extends RuntimeException {
+
+  private final Duration delay;
+
+  public NotificationDeferredException(String message, Duration delay) {
+    super(message);
+    this.delay = delay;
+  }
+}
@@ -17,6 +17,10 @@ package com.epam.digital.data.platform.notification.exception;
 
 public class ParsingException extends RuntimeException {
 
+  public ParsingException(String message) {
+    super(message);
+  }
+
   public ParsingException(String message, Throwable cause) {
     super(message, cause);
   }
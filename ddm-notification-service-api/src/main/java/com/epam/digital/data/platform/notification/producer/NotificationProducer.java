@@ -22,6 +22,7 @@ import com.epam.digital.data.platform.notification.dto.UserNotificationMessageDt
 import com.epam.digital.data.platform.notification.dto.audit.NotificationMessageDto;
 import com.epam.digital.data.platform.settings.model.dto.Channel;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Notification producer that sends message to specific channel topic.
@@ -30,10 +31,37 @@ public interface NotificationProducer<T extends NotificationMessageDto> {
 
   void send(Recipient recipient, UserNotificationMessageDto message);
 
+  /**
+   * @param notificationMessageDto channel message
+   * @return future completed when the broker acknowledges the message
+   */
+  CompletableFuture<Void> send(T notificationMessageDto);
+
   Channel getChannel();
 
+  /**
+   * @return name of the channel topic the messages are sent to
+   */
+  String getTopic();
+
+  /**
+   * @param notificationMessageDto channel message
+   * @return Kafka key of the channel message, messages of the same recipient have the same key
+   */
+  String getMessageKey(T notificationMessageDto);
+
   T createMessageDto(Recipient recipient, UserNotificationMessageDto message);
 
+  /**
+   * Create channel message for the recipient reusing already rendered notification of the
+   * message that was created for another recipient with the same template model.
+   *
+   * @param renderedMessageDto message with rendered notification
+   * @param recipient          recipient of the new message
+   * @return channel message addressed to the recipient
+   */
+  T copyForRecipient(T renderedMessageDto, Recipient recipient);
+
   String getTitle(UserNotificationMessageDto message);
 
   ChannelObject getChannelObject(List<ChannelObject> channelObjectList);
@@ -15,8 +15,29 @@
  */
 package com.epam.digital.data.platform.notification.service;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 public interface NotificationService<T> {
 
   void notify(T message);
 
+  /**
+   * Process the messages as a unit. Default implementation notifies messages one by one.
+   *
+   * @param messages messages to notify
+   * @return failures keyed by index of the failed message in the list, empty if all succeeded
+   */
+  default Map<Integer, RuntimeException> notifyBatch(List<T> messages) {
+    var failures = new LinkedHashMap<Integer, RuntimeException>();
+    for (var i = 0; i < messages.size(); i++) {
+      try {
+        notify(messages.get(i));
+      } catch (RuntimeException exception) {
+        failures.put(i, exception);
+      }
+    }
+    return failures;
+  }
 }
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.epam.digital.data.platform.notification.benchmark;
+
+import com.epam.digital.data.platform.notification.config.FreemarkerTemplateConfig;
+import com.epam.digital.data.platform.notification.core.template.FreemarkerTemplateResolver;
+import com.epam.digital.data.platform.notification.dto.ChannelObject;
+import com.epam.digital.data.platform.notification.dto.NotificationContextDto;
+import com.epam.digital.data.platform.notification.dto.Recipient;
+import com.epam.digital.data.platform.notification.dto.Recipient.RecipientRealm;
+import com.epam.digital.data.platform.notification.dto.UserNotificationDto;
+import com.epam.digital.data.platform.notification.dto.UserNotificationMessageDto;
+import com.epam.digital.data.platform.notification.entity.NotificationTemplate;
+import com.epam.digital.data.platform.notification.exception.NotificationTemplateNotFoundException;
+import com.epam.digital.data.platform.notification.template.NotificationTemplateService;
+import com.epam.digital.data.platform.settings.model.dto.Channel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Data and offline stubs of the external collaborators shared by the benchmarks
+ */
+final class BenchmarkFixtures {
+
+  static final String TEMPLATE_NAME = "task-assigned";
+  static final String TITLE = "New task is assigned";
+  static final String CONTENT = "<html><body>"
+      + "<p>Dear ${fullName},</p>"
+      + "<p>task <b>${taskName}</b> of the process ${processName} is assigned to you.</p>"
+      + "[#if link??]<p><a href=\"${link}\">Open the task</a></p>[/#if]"
+      + "<p>Registry administration</p>"
+      + "</body></html>";
+  static final String CHECKSUM = "4f2a6c1d9e0b7a35";
+  static final String EXT_TEMPLATE_ID = "16";
+
+  private BenchmarkFixtures() {
+  }
+
+  static FreemarkerTemplateResolver templateResolver() {
+    return new FreemarkerTemplateResolver(new FreemarkerTemplateConfig().freemarkerConfig(), 500);
+  }
+
+  static NotificationTemplateService<String> templateService() {
+    return new InMemoryNotificationTemplateService();
+  }
+
+  /**
+   * @param index number of the recipient, so that every recipient is a distinct user
+   * @param model template model of the recipient, it's copied as the facade modifies it
+   */
+  static Recipient recipient(int index, Map<String, Object> model) {
+    return Recipient.builder()
+        .id("user-" + index)
+        .realm(RecipientRealm.CITIZEN)
+        .channels(List.of(
+            ChannelObject.builder().channel(Channel.EMAIL.getValue())
+                .email("user-" + index + "@registry.gov.ua").build(),
+            ChannelObject.builder().channel(Channel.INBOX.getValue()).build(),
+            ChannelObject.builder().channel(Channel.DIIA.getValue())
+                .rnokpp(String.format("%010d", index)).build()))
+        .parameters(new HashMap<>(model))
+        .build();
+  }
+
+  static Map<String, Object> model(int index) {
+    return Map.of(
+        "fullName", "User " + index,
+        "taskName", "Sign the application",
+        "processName", "Registration of the laboratory",
+        "link", "https://officer-portal/tasks/" + index);
+  }
+
+  static UserNotificationMessageDto message(List<Recipient> recipients,
+      boolean ignoreChannelPreferences) {
+    return UserNotificationMessageDto.builder()
+        .context(NotificationContextDto.builder()
+            .system("Low-code Platform")
+            .application("ddm-bpm")
+            .businessProcess("laboratory-registration")
+            .businessProcessInstanceId("1f5b7b2e-6d5f-11ee-b962-0242ac120002")
+            .build())
+        .notification(UserNotificationDto.builder()
+            .templateName(TEMPLATE_NAME)
+            .ignoreChannelPreferences(ignoreChannelPreferences)
+            .build())
+        .recipients(new ArrayList<>(recipients))
+        .build();
+  }
+
+  /**
+   * Template service that returns the same template for every channel instead of reading it from
+   * database
+   */
+  private static final class InMemoryNotificationTemplateService implements
+      NotificationTemplateService<String> {
+
+    private final Map<Channel, NotificationTemplate> templates = new HashMap<>();
+
+    private InMemoryNotificationTemplateService() {
+      for (var channel : Channel.values()) {
+        templates.put(channel, NotificationTemplate.builder()
+            .name(TEMPLATE_NAME)
+            .channel(channel.getValue())
+            .title(TITLE)
+            .content(CONTENT)
+            .checksum(CHECKSUM)
+            .extTemplateId(EXT_TEMPLATE_ID)
+            .build());
+      }
+    }
+
+    @Override
+    public String getContentByNameAndChannel(String templateName, Channel channel) {
+      return getTemplate(templateName, channel).getContent();
+    }
+
+    @Override
+    public String getTitleByNameAndChannel(String templateName, Channel channel) {
+      return getTemplate(templateName, channel).getTitle();
+    }
+
+    @Override
+    public NotificationTemplate getTemplate(String templateName, Channel channel) {
+      var template = templates.get(channel);
+      if (!TEMPLATE_NAME.equals(templateName) || Objects.isNull(template)) {
+        throw new NotificationTemplateNotFoundException(templateName);
+      }
+      return template;
+    }
+  }
+}
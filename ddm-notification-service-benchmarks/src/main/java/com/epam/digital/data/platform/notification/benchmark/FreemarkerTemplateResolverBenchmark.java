@@ -0,0 +1,67 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.epam.digital.data.platform.notification.benchmark;
+
+import com.epam.digital.data.platform.notification.core.template.FreemarkerTemplateResolver;
+import com.epam.digital.data.platform.settings.model.dto.Channel;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Rendering of a notification template with a compiled template taken from the cache by the
+ * template checksum and by the template content when the checksum is absent.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FreemarkerTemplateResolverBenchmark {
+
+  private FreemarkerTemplateResolver templateResolver;
+  private Map<String, Object> model;
+
+  @Setup
+  public void setUp() {
+    templateResolver = BenchmarkFixtures.templateResolver();
+    model = BenchmarkFixtures.model(1);
+  }
+
+  @Benchmark
+  public String resolveByChecksum() {
+    return templateResolver.resolve(BenchmarkFixtures.TEMPLATE_NAME, Channel.EMAIL,
+        BenchmarkFixtures.CHECKSUM, BenchmarkFixtures.CONTENT, model);
+  }
+
+  @Benchmark
+  public String resolveByContent() {
+    return templateResolver.resolve(BenchmarkFixtures.TEMPLATE_NAME, BenchmarkFixtures.CONTENT,
+        model);
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.epam.digital.data.platform.notification.benchmark;
+
+import com.epam.digital.data.platform.notification.diia.producer.DiiaNotificationProducer;
+import com.epam.digital.data.platform.notification.dto.Recipient;
+import com.epam.digital.data.platform.notification.dto.UserNotificationMessageDto;
+import com.epam.digital.data.platform.notification.dto.diia.DiiaNotificationMessageDto;
+import com.epam.digital.data.platform.notification.dto.email.EmailNotificationMessageDto;
+import com.epam.digital.data.platform.notification.dto.inbox.InboxNotificationMessageDto;
+import com.epam.digital.data.platform.notification.email.producer.EmailNotificationProducer;
+import com.epam.digital.data.platform.notification.email.service.EmailNotificationService;
+import com.epam.digital.data.platform.notification.inbox.producer.InboxNotificationProducer;
+import com.epam.digital.data.platform.notification.inbox.service.InboxNotificationService;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Creation of the channel message for one recipient by each channel producer. The producers are
+ * not sending anything, so no Kafka broker is needed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NotificationProducerBenchmark {
+
+  private static final String TOPIC = "benchmark-notifications";
+
+  private EmailNotificationProducer emailProducer;
+  private InboxNotificationProducer inboxProducer;
+  private DiiaNotificationProducer diiaProducer;
+  private Recipient recipient;
+  private UserNotificationMessageDto message;
+
+  @Setup
+  public void setUp() {
+    var templateService = BenchmarkFixtures.templateService();
+    var templateResolver = BenchmarkFixtures.templateResolver();
+    emailProducer = new EmailNotificationProducer(templateService, null, TOPIC,
+        new EmailNotificationService(templateService, templateResolver, null));
+    inboxProducer = new InboxNotificationProducer(templateService, null, TOPIC,
+        new InboxNotificationService(templateService, templateResolver, null, null, null, null));
+    diiaProducer = new DiiaNotificationProducer(templateService, null, TOPIC);
+    recipient = BenchmarkFixtures.recipient(1, BenchmarkFixtures.model(1));
+    message = BenchmarkFixtures.message(List.of(recipient), false);
+  }
+
+  @Benchmark
+  public EmailNotificationMessageDto email() {
+    return emailProducer.createMessageDto(recipient, message);
+  }
+
+  @Benchmark
+  public InboxNotificationMessageDto inbox() {
+    return inboxProducer.createMessageDto(recipient, message);
+  }
+
+  @Benchmark
+  public DiiaNotificationMessageDto diia() {
+    return diiaProducer.createMessageDto(recipient, message);
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.epam.digital.data.platform.notification.benchmark;
+
+import com.epam.digital.data.platform.notification.diia.service.TokenCacheService;
+import com.epam.digital.data.platform.notification.inbox.service.TokenParserService;
+import com.epam.digital.data.platform.notification.model.JwtClaims;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+/**
+ * Parsing of the user access token on each inbox request and reading of the cached Diia token
+ * on each Diia call, by one thread and by concurrent threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenBenchmark {
+
+  private static final String CACHE_NAME = "diia-token";
+  private static final String SERVICE_NAME = "diia";
+  private static final byte[] SECRET =
+      "benchmark-secret-that-is-at-least-256-bits-long".getBytes(StandardCharsets.UTF_8);
+
+  private String token;
+  private TokenParserService tokenParserService;
+  private TokenCacheService tokenCacheService;
+
+  @Setup
+  public void setUp() throws JOSEException {
+    token = generateJwt(Instant.now().plus(Duration.ofDays(365)));
+    tokenParserService = new TokenParserService(new ObjectMapper());
+    tokenCacheService = new TokenCacheService(new ConcurrentMapCacheManager(CACHE_NAME));
+    // the first call stores the token, so the benchmarks measure the cache hits
+    tokenCacheService.getCachedTokenOrElse(CACHE_NAME, SERVICE_NAME, () -> token);
+  }
+
+  @Benchmark
+  public JwtClaims parseClaims() {
+    return tokenParserService.parseClaims(token);
+  }
+
+  @Benchmark
+  public String getCachedToken() {
+    return tokenCacheService.getCachedTokenOrElse(CACHE_NAME, SERVICE_NAME, this::newToken);
+  }
+
+  @Benchmark
+  @Threads(8)
+  public String getCachedTokenConcurrently() {
+    return tokenCacheService.getCachedTokenOrElse(CACHE_NAME, SERVICE_NAME, this::newToken);
+  }
+
+  private String newToken() {
+    throw new IllegalStateException("Cached token is expected to be unexpired");
+  }
+
+  private static String generateJwt(Instant expirationTime) throws JOSEException {
+    var header = new JWSHeader.Builder(JWSAlgorithm.HS256)
+        .type(JOSEObjectType.JWT)
+        .build();
+    var payload = new JWTClaimsSet.Builder()
+        .issuer("http://keycloak:8080")
+        .subject("admin_user")
+        .expirationTime(Date.from(expirationTime))
+        .build();
+    var signedJwt = new SignedJWT(header, payload);
+    signedJwt.sign(new MACSigner(SECRET));
+    return signedJwt.serialize();
+  }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.epam.digital.data.platform.notification.benchmark;
+
+import com.epam.digital.data.platform.notification.audit.UserNotificationAuditFacade;
+import com.epam.digital.data.platform.notification.concurrent.RecipientFanOutExecutor;
+import com.epam.digital.data.platform.notification.core.metrics.NotificationMetrics;
+import com.epam.digital.data.platform.notification.dto.Recipient;
+import com.epam.digital.data.platform.notification.dto.UserNotificationMessageDto;
+import com.epam.digital.data.platform.notification.dto.email.EmailNotificationMessageDto;
+import com.epam.digital.data.platform.notification.dto.inbox.InboxNotificationMessageDto;
+import com.epam.digital.data.platform.notification.email.mapper.EmailChannelMapper;
+import com.epam.digital.data.platform.notification.email.producer.EmailNotificationProducer;
+import com.epam.digital.data.platform.notification.email.service.EmailNotificationService;
+import com.epam.digital.data.platform.notification.facade.UserNotificationFacade;
+import com.epam.digital.data.platform.notification.inbox.mapper.InboxChannelMapper;
+import com.epam.digital.data.platform.notification.inbox.producer.InboxNotificationProducer;
+import com.epam.digital.data.platform.notification.inbox.service.InboxNotificationService;
+import com.epam.digital.data.platform.notification.mapper.ChannelMapper;
+import com.epam.digital.data.platform.notification.producer.NotificationProducer;
+import com.epam.digital.data.platform.notification.service.RecipientDetails;
+import com.epam.digital.data.platform.notification.service.UserService;
+import com.epam.digital.data.platform.settings.model.dto.Channel;
+import com.epam.digital.data.platform.settings.model.dto.ChannelReadDto;
+import com.epam.digital.data.platform.settings.model.dto.SettingsReadDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Fan-out of one user notification message to the email and inbox channels of every recipient.
+ * Keycloak, settings service and Kafka are replaced by stubs, so the benchmark measures grouping,
+ * rendering and creation of the channel messages only.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserNotificationFacadeBenchmark {
+
+  private static final int FAN_OUT_CONCURRENCY = 8;
+  private static final int FAN_OUT_CHUNK_SIZE = 100;
+  private static final String TOPIC = "benchmark-notifications";
+
+  @Param({"1", "100", "1000"})
+  public int recipients;
+  /**
+   * Whether all recipients share the same template model, so the notification is rendered once
+   * per channel instead of once per recipient
+   */
+  @Param({"true", "false"})
+  public boolean sharedModel;
+
+  private final LongAdder sentMessages = new LongAdder();
+  private ExecutorService executorService;
+  private UserNotificationFacade userNotificationFacade;
+  private UserNotificationMessageDto message;
+
+  @Setup
+  public void setUp() {
+    executorService = Executors.newFixedThreadPool(FAN_OUT_CONCURRENCY);
+    var fanOutExecutor = new RecipientFanOutExecutor(executorService, FAN_OUT_CONCURRENCY,
+        FAN_OUT_CHUNK_SIZE);
+    var templateService = BenchmarkFixtures.templateService();
+    var templateResolver = BenchmarkFixtures.templateResolver();
+
+    var emailProducer = new EmailNotificationProducer(templateService, null, TOPIC,
+        new EmailNotificationService(templateService, templateResolver, null)) {
+      @Override
+      public CompletableFuture<Void> send(EmailNotificationMessageDto notificationMessageDto) {
+        sentMessages.increment();
+        return CompletableFuture.completedFuture(null);
+      }
+    };
+    var inboxProducer = new InboxNotificationProducer(templateService, null, TOPIC,
+        new InboxNotificationService(templateService, templateResolver, null, null, null, null)) {
+      @Override
+      public CompletableFuture<Void> send(InboxNotificationMessageDto notificationMessageDto) {
+        sentMessages.increment();
+        return CompletableFuture.completedFuture(null);
+      }
+    };
+    Map<Channel, NotificationProducer> channelProducerMap = Map.of(
+        Channel.EMAIL, emailProducer,
+        Channel.INBOX, inboxProducer);
+    Map<Channel, ChannelMapper> channelMapperMap = Map.of(
+        Channel.EMAIL, new EmailChannelMapper(),
+        Channel.INBOX, new InboxChannelMapper());
+
+    var recipientList = new ArrayList<Recipient>(recipients);
+    var recipientsDetails = new ArrayList<RecipientDetails>(recipients);
+    for (var i = 0; i < recipients; i++) {
+      recipientList.add(BenchmarkFixtures.recipient(i,
+          BenchmarkFixtures.model(sharedModel ? 0 : i)));
+      recipientsDetails.add(RecipientDetails.builder()
+          .roles(List.of("citizen", "unregistered-individual"))
+          .settings(settings("user-" + i + "@registry.gov.ua"))
+          .build());
+    }
+    message = BenchmarkFixtures.message(recipientList, false);
+
+    var notificationMetrics = new NotificationMetrics(new SimpleMeterRegistry());
+    var userService = new UserService(null, null, fanOutExecutor, notificationMetrics) {
+      @Override
+      public List<RecipientDetails> getRecipientsDetails(List<Recipient> recipients,
+          boolean withSettings) {
+        return recipientsDetails;
+      }
+    };
+    var auditFacade = new UserNotificationAuditFacade(null, "ddm-notification-service",
+        Clock.systemUTC(), notificationMetrics);
+    userNotificationFacade = new UserNotificationFacade(userService, auditFacade,
+        channelProducerMap, channelMapperMap, fanOutExecutor, notificationMetrics);
+  }
+
+  @TearDown
+  public void tearDown() {
+    executorService.shutdownNow();
+  }
+
+  @Benchmark
+  public long sendNotification() {
+    userNotificationFacade.sendNotification(message);
+    return sentMessages.sum();
+  }
+
+  private static SettingsReadDto settings(String email) {
+    var emailChannel = new ChannelReadDto();
+    emailChannel.setChannel(Channel.EMAIL);
+    emailChannel.setActivated(true);
+    emailChannel.setAddress(email);
+    var settings = new SettingsReadDto();
+    settings.setChannels(Collections.singletonList(emailChannel));
+    return settings;
+  }
+}
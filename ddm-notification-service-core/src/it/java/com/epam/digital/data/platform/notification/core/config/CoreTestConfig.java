@@ -15,7 +15,9 @@
  */
 package com.epam.digital.data.platform.notification.core.config;
 
+import com.epam.digital.data.platform.notification.core.metrics.NotificationMetrics;
 import com.epam.digital.data.platform.notification.core.repository.CoreNotificationTemplateRepository;
+import com.epam.digital.data.platform.notification.core.service.NotificationTemplateCache;
 import com.epam.digital.data.platform.notification.core.service.NotificationTemplateServiceImpl;
 import com.epam.digital.data.platform.notification.template.NotificationTemplateService;
 import freemarker.template.TemplateExceptionHandler;
@@ -31,8 +33,11 @@ public class CoreTestConfig {
   @Bean
   @Qualifier("coreNotificationTemplateService")
   public NotificationTemplateService<String> coreNotificationTemplateService(
-      CoreNotificationTemplateRepository notificationTemplateRepository) {
-    return new NotificationTemplateServiceImpl(notificationTemplateRepository);
+      CoreNotificationTemplateRepository notificationTemplateRepository,
+      NotificationTemplateCache notificationTemplateCache,
+      NotificationMetrics notificationMetrics) {
+    return new NotificationTemplateServiceImpl(notificationTemplateRepository,
+        notificationTemplateCache, notificationMetrics);
   }
 
   @Bean
@@ -16,6 +16,8 @@
 package com.epam.digital.data.platform.notification.core.audit;
 
 import com.epam.digital.data.platform.notification.audit.NotificationAuditFacade;
+import com.epam.digital.data.platform.notification.core.metrics.NotificationMetrics;
+import com.epam.digital.data.platform.notification.core.metrics.NotificationMetrics.Stage;
 import com.epam.digital.data.platform.notification.dto.NotificationContextDto;
 import com.epam.digital.data.platform.notification.dto.audit.AuditResultDto;
 import com.epam.digital.data.platform.notification.dto.audit.DeliveryAuditDto;
@@ -37,11 +39,26 @@ public abstract class AbstractNotificationAuditFacade<T extends NotificationMess
 
   private static final String MDC_TRACE_ID_HEADER = "X-B3-TraceId";
 
+  private final AuditEventEmitter auditEventEmitter;
+  private final NotificationMetrics notificationMetrics;
+
+  public AbstractNotificationAuditFacade(
+      AuditService auditService,
+      String appName,
+      Clock clock,
+      NotificationMetrics notificationMetrics) {
+    this(auditService, appName, clock, auditService::sendAudit, notificationMetrics);
+  }
+
   public AbstractNotificationAuditFacade(
       AuditService auditService,
       String appName,
-      Clock clock) {
+      Clock clock,
+      AuditEventEmitter auditEventEmitter,
+      NotificationMetrics notificationMetrics) {
     super(auditService, appName, clock);
+    this.auditEventEmitter = auditEventEmitter;
+    this.notificationMetrics = notificationMetrics;
   }
 
   public void sendAuditOnSuccess(Channel channel, T notification) {
@@ -81,7 +98,9 @@ public abstract class AbstractNotificationAuditFacade<T extends NotificationMess
     event.setSourceInfo(Objects.nonNull(notificationDto) ?
         toAuditSourceDto(notificationDto.getContext()) : null);
 
-    auditService.sendAudit(event.build());
+    var auditEvent = event.build();
+    notificationMetrics.record(Stage.AUDIT_EMIT, channel, null,
+        () -> auditEventEmitter.emit(auditEvent));
   }
 
 
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.core.audit;
+
+import com.epam.digital.data.platform.starter.audit.model.AuditEvent;
+import com.epam.digital.data.platform.starter.audit.service.AuditService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.lang.NonNull;
+
+/**
+ * Emits audit events from a background worker, so notification delivery does not wait for the
+ * audit produce.
+ * <p>
+ * Events are put into a bounded queue and sent by the worker one by one. When the queue is full
+ * the caller either waits for room
+ * ({@link OverflowPolicy#BLOCK}) or the event is appended to a spill file on disk
+ * ({@link OverflowPolicy#SPILL}) and replayed once the queue drains. On shutdown the queue and the
+ * spill file are flushed before the application stops. An event that races with the shutdown
+ * and lands in the queue or the spill file after the worker is gone is sent by the caller.
+ * <p>
+ * The caller returns before the event is produced, so a Kafka listener may commit the offset of a
+ * notification whose audit is still queued. Events that are queued or spilled to a non-persistent
+ * directory are lost if the process crashes.
+ */
+@Slf4j
+public class AsyncAuditEventEmitter implements AuditEventEmitter, DisposableBean, MeterBinder {
+
+  private static final long POLL_TIMEOUT_MS = 100;
+
+  public enum OverflowPolicy {
+    BLOCK,
+    SPILL
+  }
+
+  private final AuditService auditService;
+  private final OverflowPolicy overflowPolicy;
+  private final Duration shutdownTimeout;
+  private final AuditSpillFile spillFile;
+
+  private final BlockingQueue<AuditEvent> queue;
+  private final Thread worker;
+  private final AtomicLong spilled = new AtomicLong();
+  private final AtomicLong failed = new AtomicLong();
+  private volatile boolean running = true;
+
+  public AsyncAuditEventEmitter(AuditService auditService, int capacity,
+      OverflowPolicy overflowPolicy, Path spillDirectory, ObjectMapper objectMapper,
+      Duration shutdownTimeout) {
+    this.auditService = auditService;
+    this.overflowPolicy = overflowPolicy;
+    this.shutdownTimeout = shutdownTimeout;
+    this.spillFile = overflowPolicy == OverflowPolicy.SPILL
+        ? new AuditSpillFile(spillDirectory, objectMapper) : null;
+    this.queue = new ArrayBlockingQueue<>(capacity);
+    this.worker = new Thread(this::run, "audit-emitter");
+    this.worker.setDaemon(true);
+    this.worker.start();
+  }
+
+  @Override
+  public void emit(AuditEvent event) {
+    if (!running) {
+      send(event);
+      return;
+    }
+    if (queue.offer(event)) {
+      flushIfStopped();
+      return;
+    }
+    if (overflowPolicy == OverflowPolicy.SPILL) {
+      spillFile.append(event);
+      spilled.incrementAndGet();
+      flushIfStopped();
+      return;
+    }
+    try {
+      while (!queue.offer(event, POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+        if (!running) {
+          send(event);
+          return;
+        }
+      }
+      flushIfStopped();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      send(event);
+    }
+  }
+
+  public int getQueueSize() {
+    return queue.size();
+  }
+
+  @Override
+  public void bindTo(@NonNull MeterRegistry registry) {
+    Gauge.builder("audit.emitter.queue.size", this, AsyncAuditEventEmitter::getQueueSize)
+        .description("Audit events waiting to be sent")
+        .register(registry);
+    Gauge.builder("audit.emitter.queue.remaining", queue, BlockingQueue::remainingCapacity)
+        .description("Free space in the audit event queue")
+        .register(registry);
+    FunctionCounter.builder("audit.emitter.spilled", spilled, AtomicLong::get)
+        .description("Audit events spilled to disk because the queue was full")
+        .register(registry);
+    FunctionCounter.builder("audit.emitter.failed", failed, AtomicLong::get)
+        .description("Audit events the audit service failed to send")
+        .register(registry);
+  }
+
+  @Override
+  public void destroy() throws InterruptedException {
+    running = false;
+    worker.join(shutdownTimeout.toMillis());
+    if (worker.isAlive()) {
+      log.warn("Audit emitter did not flush {} events in {}", queue.size(), shutdownTimeout);
+      return;
+    }
+    flushIfStopped();
+  }
+
+  private void run() {
+    replaySpilled();
+    while (running || !queue.isEmpty()) {
+      try {
+        var event = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        if (Objects.isNull(event)) {
+          replaySpilled();
+          continue;
+        }
+        send(event);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+    }
+    sendQueued();
+    replaySpilled();
+  }
+
+  /**
+   * Send events left behind by the worker's final drain. The queue hands every event out once, so
+   * concurrent flushes and the worker never send an event twice.
+   */
+  private void flushIfStopped() {
+    if (running) {
+      return;
+    }
+    sendQueued();
+    replaySpilled();
+  }
+
+  private void sendQueued() {
+    for (var event = queue.poll(); Objects.nonNull(event); event = queue.poll()) {
+      send(event);
+    }
+  }
+
+  private void replaySpilled() {
+    if (Objects.isNull(spillFile) || spillFile.isEmpty()) {
+      return;
+    }
+    try {
+      var replayed = spillFile.replay(this::send);
+      log.info("Replayed {} spilled audit events", replayed);
+    } catch (RuntimeException ex) {
+      log.error("Couldn't replay spilled audit events", ex);
+    }
+  }
+
+  private void send(AuditEvent event) {
+    try {
+      auditService.sendAudit(event);
+    } catch (RuntimeException ex) {
+      failed.incrementAndGet();
+      log.error("Couldn't send audit event", ex);
+    }
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.core.audit;
+
+import com.epam.digital.data.platform.starter.audit.model.AuditEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only file of audit events, one json document per line, that did not fit into the
+ * emitter queue. Events are replayed from a separate file, so appending is never blocked by a
+ * replay in progress. Replays hold their own lock from the move to the delete of that file, so
+ * concurrent replays cannot pass an event twice.
+ */
+@Slf4j
+class AuditSpillFile {
+
+  private static final String SPILL_FILE_NAME = "audit-events.jsonl";
+  private static final String REPLAY_FILE_NAME = "audit-events.replaying.jsonl";
+
+  private final Path spillFile;
+  private final Path replayFile;
+  private final ObjectMapper objectMapper;
+  private final Object replayLock = new Object();
+
+  AuditSpillFile(Path directory, ObjectMapper objectMapper) {
+    try {
+      Files.createDirectories(directory);
+    } catch (IOException ex) {
+      throw new UncheckedIOException("Couldn't create audit spill directory " + directory, ex);
+    }
+    this.spillFile = directory.resolve(SPILL_FILE_NAME);
+    this.replayFile = directory.resolve(REPLAY_FILE_NAME);
+    this.objectMapper = objectMapper;
+  }
+
+  synchronized void append(AuditEvent event) {
+    try {
+      var line = objectMapper.writeValueAsString(event) + System.lineSeparator();
+      Files.write(spillFile, line.getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE,
+          StandardOpenOption.APPEND);
+    } catch (IOException ex) {
+      throw new UncheckedIOException("Couldn't spill audit event to " + spillFile, ex);
+    }
+  }
+
+  synchronized boolean isEmpty() {
+    return Files.notExists(spillFile) && Files.notExists(replayFile);
+  }
+
+  /**
+   * Pass every spilled event to {@code consumer} and remove them from disk. Events left by a
+   * replay that did not complete are replayed first.
+   *
+   * @return number of replayed events
+   */
+  int replay(Consumer<AuditEvent> consumer) {
+    synchronized (replayLock) {
+      synchronized (this) {
+        if (Files.notExists(replayFile) && Files.exists(spillFile)) {
+          try {
+            Files.move(spillFile, replayFile, StandardCopyOption.ATOMIC_MOVE);
+          } catch (IOException ex) {
+            throw new UncheckedIOException("Couldn't replay audit events from " + spillFile, ex);
+          }
+        }
+      }
+      if (Files.notExists(replayFile)) {
+        return 0;
+      }
+      var replayed = 0;
+      try (var lines = Files.lines(replayFile, StandardCharsets.UTF_8)) {
+        for (var line : (Iterable<String>) lines::iterator) {
+          if (line.isBlank()) {
+            continue;
+          }
+          try {
+            consumer.accept(objectMapper.readValue(line, AuditEvent.class));
+            replayed++;
+          } catch (JsonProcessingException ex) {
+            log.error("Skipping spilled audit event that couldn't be read: {}", ex.getMessage());
+          }
+        }
+        Files.delete(replayFile);
+      } catch (IOException ex) {
+        throw new UncheckedIOException("Couldn't replay audit events from " + replayFile, ex);
+      }
+      return replayed;
+    }
+  }
+}
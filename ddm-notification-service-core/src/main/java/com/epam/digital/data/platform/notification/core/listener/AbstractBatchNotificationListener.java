@@ -0,0 +1,110 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.core.listener;
+
+import com.epam.digital.data.platform.notification.audit.NotificationAuditFacade;
+import com.epam.digital.data.platform.notification.core.metrics.NotificationMetrics;
+import com.epam.digital.data.platform.notification.core.metrics.NotificationMetrics.Stage;
+import com.epam.digital.data.platform.notification.dto.audit.NotificationMessageDto;
+import com.epam.digital.data.platform.notification.exception.NotificationDeferredException;
+import com.epam.digital.data.platform.notification.exception.NotificationException;
+import com.epam.digital.data.platform.notification.service.NotificationService;
+import com.epam.digital.data.platform.settings.model.dto.Channel;
+import com.epam.digital.data.platform.starter.audit.model.Step;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+
+/**
+ * Base class for listeners consuming a whole poll of channel messages at once.
+ * <p>
+ * Messages are passed to {@link NotificationService#notifyBatch(List)} as a unit, each message
+ * is audited on its own and every failed record is published to the dead letter topic, so the
+ * batch itself is acknowledged. The only exception are messages deferred with
+ * {@link NotificationDeferredException}: the batch fails at the first of them, and
+ * {@link DeferringErrorHandler} redelivers it with the records after it once the delay passes.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public abstract class AbstractBatchNotificationListener<T extends NotificationMessageDto> {
+
+  private final NotificationService<T> notificationService;
+  private final NotificationAuditFacade<T> notificationAuditFacade;
+  private final ConsumerRecordRecoverer deadLetterRecoverer;
+  private final NotificationMetrics notificationMetrics;
+
+  public abstract void notify(List<ConsumerRecord<String, T>> records);
+
+  public void sendNotifications(List<ConsumerRecord<String, T>> records, Channel channel) {
+    var deserialized = new ArrayList<ConsumerRecord<String, T>>(records.size());
+    for (var record : records) {
+      if (Objects.isNull(record.value())) {
+        log.warn("Notification message at offset {} of {} could not be deserialized",
+            record.offset(), record.topic());
+        deadLetterRecoverer.accept(record,
+            new NotificationException("Notification message could not be deserialized"));
+      } else {
+        deserialized.add(record);
+      }
+    }
+    if (deserialized.isEmpty()) {
+      return;
+    }
+
+    var messages = deserialized.stream().map(ConsumerRecord::value).collect(Collectors.toList());
+    var sample = notificationMetrics.start();
+    var failures = notifyBatch(messages);
+    notificationMetrics.stop(sample, Stage.delivery(channel), channel, null, failures.isEmpty());
+    for (var i = 0; i < deserialized.size(); i++) {
+      var record = deserialized.get(i);
+      var failure = failures.get(i);
+      if (failure instanceof NotificationDeferredException) {
+        log.info("{} {} notifications deferred", deserialized.size() - i, channel);
+        throw new BatchListenerFailedException(failure.getMessage(), failure, record);
+      }
+      if (Objects.isNull(failure)) {
+        notificationAuditFacade.sendAuditOnSuccess(channel, record.value());
+      } else {
+        notificationAuditFacade.sendAuditOnFailure(channel, record.value(), Step.AFTER,
+            failure.getMessage());
+        deadLetterRecoverer.accept(record,
+            new NotificationException(failure.getMessage(), failure));
+      }
+    }
+    log.info("Processed {} {} notifications, {} failed", records.size(), channel,
+        failures.size() + records.size() - deserialized.size());
+  }
+
+  private Map<Integer, RuntimeException> notifyBatch(List<T> messages) {
+    try {
+      return notificationService.notifyBatch(messages);
+    } catch (RuntimeException exception) {
+      log.error("Batch of {} notifications failed as a whole", messages.size(), exception);
+      return IntStream.range(0, messages.size()).boxed()
+          .collect(Collectors.toMap(Function.identity(), index -> exception));
+    }
+  }
+}
@@ -17,7 +17,10 @@
 package com.epam.digital.data.platform.notification.core.listener;
 
 import com.epam.digital.data.platform.notification.audit.NotificationAuditFacade;
+import com.epam.digital.data.platform.notification.core.metrics.NotificationMetrics;
+import com.epam.digital.data.platform.notification.core.metrics.NotificationMetrics.Stage;
 import com.epam.digital.data.platform.notification.dto.audit.NotificationMessageDto;
+import com.epam.digital.data.platform.notification.exception.NotificationDeferredException;
 import com.epam.digital.data.platform.notification.exception.NotificationException;
 import com.epam.digital.data.platform.notification.listener.NotificationListener;
 import com.epam.digital.data.platform.notification.service.NotificationService;
@@ -33,11 +36,16 @@ public abstract class AbstractNotificationListener<T extends NotificationMessage
 
   private final NotificationService<T> notificationService;
   private final NotificationAuditFacade<T> notificationAuditFacade;
+  private final NotificationMetrics notificationMetrics;
 
   public void sendNotification(T message, Channel channel) {
     try {
-      notificationService.notify(message);
+      notificationMetrics.record(Stage.delivery(channel), channel, null,
+          () -> notificationService.notify(message));
       notificationAuditFacade.sendAuditOnSuccess(channel, message);
+    } catch (NotificationDeferredException exception) {
+      // not a failure, the container redelivers the message after the delay
+      throw exception;
     } catch (RuntimeException exception) {
       notificationAuditFacade.sendAuditOnFailure(channel, message, Step.AFTER,
           exception.getMessage());
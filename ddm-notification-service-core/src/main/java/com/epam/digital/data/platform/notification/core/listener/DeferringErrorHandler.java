@@ -0,0 +1,169 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.core.listener;
+
+import com.epam.digital.data.platform.notification.exception.NotificationDeferredException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.listener.CommonErrorHandler;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.TopicPartitionOffset;
+
+/**
+ * Redelivers records deferred with {@link NotificationDeferredException} once the delay passes,
+ * without blocking the consumer thread: the partitions of the deferred record and of the records
+ * after it are sought back to them and paused in the container until the delay passes, so the
+ * consumer keeps polling. Deferred records are neither retried nor recovered, other errors are
+ * handled by the delegate.
+ */
+@Slf4j
+public class DeferringErrorHandler implements CommonErrorHandler {
+
+  private final CommonErrorHandler delegate;
+  private final ScheduledExecutorService scheduler;
+
+  public DeferringErrorHandler(CommonErrorHandler delegate) {
+    this.delegate = delegate;
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      var thread = new Thread(runnable, "notification-deferral");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  @Override
+  public boolean remainingRecords() {
+    return true;
+  }
+
+  @Override
+  public void handleRemaining(Exception thrownException, List<ConsumerRecord<?, ?>> records,
+      Consumer<?, ?> consumer, MessageListenerContainer container) {
+    var deferral = findCause(thrownException, NotificationDeferredException.class);
+    if (Objects.isNull(deferral)) {
+      if (delegate.remainingRecords()) {
+        delegate.handleRemaining(thrownException, records, consumer, container);
+      } else {
+        delegate.handleRecord(thrownException, records.get(0), consumer, container);
+      }
+      return;
+    }
+    defer(records, consumer, container, deferral.getDelay());
+  }
+
+  @Override
+  public void handleBatch(Exception thrownException, ConsumerRecords<?, ?> data,
+      Consumer<?, ?> consumer, MessageListenerContainer container, Runnable invokeListener) {
+    var deferral = findCause(thrownException, NotificationDeferredException.class);
+    var failedBatch = findCause(thrownException, BatchListenerFailedException.class);
+    var records = new ArrayList<ConsumerRecord<?, ?>>(data.count());
+    data.forEach(records::add);
+    var index = Objects.isNull(failedBatch) ? -1 : Objects.nonNull(failedBatch.getRecord())
+        ? records.indexOf(failedBatch.getRecord()) : failedBatch.getIndex();
+    if (Objects.isNull(deferral) || index < 0 || index >= records.size()) {
+      delegate.handleBatch(thrownException, data, consumer, container, invokeListener);
+      return;
+    }
+    // records before the deferred one are processed, they are committed as the container does
+    // not commit a failed batch
+    var processed = new HashMap<TopicPartition, OffsetAndMetadata>();
+    records.subList(0, index).forEach(record -> processed.put(
+        new TopicPartition(record.topic(), record.partition()),
+        new OffsetAndMetadata(record.offset() + 1)));
+    if (!processed.isEmpty()) {
+      consumer.commitSync(processed);
+    }
+    defer(records.subList(index, records.size()), consumer, container, deferral.getDelay());
+  }
+
+  @Override
+  public void handleRecord(Exception thrownException, ConsumerRecord<?, ?> record,
+      Consumer<?, ?> consumer, MessageListenerContainer container) {
+    handleRemaining(thrownException, List.of(record), consumer, container);
+  }
+
+  @Override
+  public void handleOtherException(Exception thrownException, Consumer<?, ?> consumer,
+      MessageListenerContainer container) {
+    delegate.handleOtherException(thrownException, consumer, container);
+  }
+
+  @Override
+  public int deliveryAttempt(TopicPartitionOffset topicPartitionOffset) {
+    return delegate.deliveryAttempt(topicPartitionOffset);
+  }
+
+  @Override
+  public boolean deliveryAttemptHeader() {
+    return delegate.deliveryAttemptHeader();
+  }
+
+  @Override
+  public void clearThreadState() {
+    delegate.clearThreadState();
+  }
+
+  @Override
+  public boolean isAckAfterHandle() {
+    return delegate.isAckAfterHandle();
+  }
+
+  @Override
+  public void setAckAfterHandle(boolean ack) {
+    delegate.setAckAfterHandle(ack);
+  }
+
+  private void defer(Collection<ConsumerRecord<?, ?>> records, Consumer<?, ?> consumer,
+      MessageListenerContainer container, Duration delay) {
+    var offsets = new LinkedHashMap<TopicPartition, Long>();
+    records.forEach(record -> offsets.putIfAbsent(
+        new TopicPartition(record.topic(), record.partition()), record.offset()));
+    offsets.forEach(consumer::seek);
+    var partitions = List.copyOf(offsets.keySet());
+    log.info("Partitions {} are paused for {} ms by a deferred notification", partitions,
+        delay.toMillis());
+    partitions.forEach(container::pausePartition);
+    scheduler.schedule(() -> partitions.forEach(container::resumePartition), delay.toNanos(),
+        TimeUnit.NANOSECONDS);
+  }
+
+  private static <E extends Throwable> E findCause(Throwable exception, Class<E> type) {
+    var cause = exception;
+    while (Objects.nonNull(cause)) {
+      if (type.isInstance(cause)) {
+        return type.cast(cause);
+      }
+      cause = cause.getCause() == cause ? null : cause.getCause();
+    }
+    return null;
+  }
+}
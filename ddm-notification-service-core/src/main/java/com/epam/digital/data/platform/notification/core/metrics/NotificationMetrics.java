@@ -0,0 +1,173 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.core.metrics;
+
+import com.epam.digital.data.platform.settings.model.dto.Channel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Objects;
+import java.util.function.Supplier;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Timers, counters and summaries of the notification pipeline stages.
+ * <p>
+ * Every stage is recorded by the same {@value #STAGE_DURATION} timer tagged with the stage,
+ * channel, template name and outcome, so a latency spike can be traced to a single stage.
+ * {@value #NONE} is used for tags that are unknown at the stage.
+ */
+@RequiredArgsConstructor
+public class NotificationMetrics {
+
+  public static final String STAGE_DURATION = "notification.stage.duration";
+  public static final String CHANNEL_MESSAGES = "notification.channel.messages";
+  public static final String FAN_OUT_RECIPIENTS = "notification.fan-out.recipients";
+  public static final String FAN_OUT_GROUPS = "notification.fan-out.rendering-groups";
+  public static final String NONE = "none";
+
+  private final MeterRegistry registry;
+
+  /**
+   * Run the stage and record its duration with the outcome it completed with
+   *
+   * @return result of the stage
+   */
+  public <T> T record(Stage stage, Channel channel, String template, Supplier<T> action) {
+    var sample = Timer.start(registry);
+    var success = false;
+    try {
+      var result = action.get();
+      success = true;
+      return result;
+    } finally {
+      stop(sample, stage, channel, template, success);
+    }
+  }
+
+  /**
+   * Run the stage and record its duration with the outcome it completed with
+   */
+  public void record(Stage stage, Channel channel, String template, Runnable action) {
+    record(stage, channel, template, () -> {
+      action.run();
+      return null;
+    });
+  }
+
+  /**
+   * Start timing a stage that completes asynchronously
+   */
+  public Timer.Sample start() {
+    return Timer.start(registry);
+  }
+
+  /**
+   * Record the duration of the stage started with {@link #start()}
+   */
+  public void stop(Timer.Sample sample, Stage stage, Channel channel, String template,
+      boolean success) {
+    sample.stop(Timer.builder(STAGE_DURATION)
+        .description("Duration of the notification pipeline stage")
+        .tag("stage", stage.getTag())
+        .tag("channel", channelTag(channel))
+        .tag("template", Objects.requireNonNullElse(template, NONE))
+        .tag("outcome", outcomeTag(success))
+        .register(registry));
+  }
+
+  /**
+   * Count a channel message produced for a recipient of the user notification
+   */
+  public void countChannelMessage(Channel channel, String template, boolean success) {
+    Counter.builder(CHANNEL_MESSAGES)
+        .description("Channel messages produced for user notification recipients")
+        .tag("channel", channelTag(channel))
+        .tag("template", Objects.requireNonNullElse(template, NONE))
+        .tag("outcome", outcomeTag(success))
+        .register(registry)
+        .increment();
+  }
+
+  /**
+   * Record the size of the user notification fan-out
+   *
+   * @param recipients      number of recipients of the user notification
+   * @param renderingGroups number of groups the notification is rendered for
+   */
+  public void recordFanOut(String template, int recipients, int renderingGroups) {
+    DistributionSummary.builder(FAN_OUT_RECIPIENTS)
+        .description("Recipients of a user notification")
+        .tag("template", Objects.requireNonNullElse(template, NONE))
+        .register(registry)
+        .record(recipients);
+    DistributionSummary.builder(FAN_OUT_GROUPS)
+        .description("Rendering groups of a user notification")
+        .tag("template", Objects.requireNonNullElse(template, NONE))
+        .register(registry)
+        .record(renderingGroups);
+  }
+
+  private static String channelTag(Channel channel) {
+    return Objects.isNull(channel) ? NONE : channel.getValue();
+  }
+
+  private static String outcomeTag(boolean success) {
+    return success ? "success" : "failure";
+  }
+
+  @Getter
+  @RequiredArgsConstructor
+  public enum Stage {
+
+    SETTINGS_LOOKUP("settings-lookup"),
+    ROLE_LOOKUP("role-lookup"),
+    TEMPLATE_FETCH("template-fetch"),
+    RENDER("render"),
+    /**
+     * Until the broker acknowledges the channel message
+     */
+    KAFKA_PRODUCE("kafka-produce"),
+    SMTP_SEND("smtp-send"),
+    DIIA_CALL("diia-call"),
+    INBOX_INSERT("inbox-insert"),
+    /**
+     * Handing the audit event over to the audit emitter, which may produce it later
+     */
+    AUDIT_EMIT("audit-emit");
+
+    private final String tag;
+
+    /**
+     * @return stage that delivers the channel message to the recipient
+     */
+    public static Stage delivery(Channel channel) {
+      switch (channel) {
+        case EMAIL:
+          return SMTP_SEND;
+        case DIIA:
+          return DIIA_CALL;
+        case INBOX:
+          return INBOX_INSERT;
+        default:
+          throw new IllegalArgumentException("Channel " + channel + " has no delivery stage");
+      }
+    }
+  }
+}
@@ -23,6 +23,7 @@ import com.epam.digital.data.platform.notification.producer.NotificationProducer
 import com.epam.digital.data.platform.notification.template.NotificationTemplateService;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.core.KafkaTemplate;
@@ -38,17 +39,45 @@ public abstract class AbstractNotificationProducer<T extends NotificationMessage
 
   @Override
   public void send(Recipient recipient, UserNotificationMessageDto message) {
-    log.info("Sending {} notification Kafka message", getChannel().getValue());
-    var notificationMessageDto = createMessageDto(recipient, message);
+    send(createMessageDto(recipient, message));
+  }
 
-    if (Objects.nonNull(notificationMessageDto)) {
-      kafkaTemplate.send(topic, notificationMessageDto);
-      log.info("{} notification Kafka message is sent, context: {}",
-          getChannel().getValue(),
-          message.getContext());
+  @Override
+  public CompletableFuture<Void> send(T notificationMessageDto) {
+    log.info("Sending {} notification Kafka message", getChannel().getValue());
+    if (Objects.isNull(notificationMessageDto)) {
+      return CompletableFuture.completedFuture(null);
     }
+    var sent = kafkaTemplate.send(topic, getMessageKey(notificationMessageDto),
+        notificationMessageDto).completable();
+    log.info("{} notification Kafka message is sent, context: {}",
+        getChannel().getValue(),
+        notificationMessageDto.getContext());
+    return sent.thenApply(result -> null);
   }
 
+  @Override
+  public String getTopic() {
+    return topic;
+  }
+
+  /**
+   * The key is the recipient id, so all messages of one recipient are sent to the same partition
+   * and consumed in the order they were sent, whatever the number of partitions is. Messages
+   * without recipient id are not keyed. With the outbox enabled the order is not guaranteed, see
+   * {@code NotificationOutboxRelay}.
+   */
+  @Override
+  public String getMessageKey(T notificationMessageDto) {
+    return getRecipientId(notificationMessageDto);
+  }
+
+  /**
+   * @param notificationMessageDto channel message
+   * @return the only id the recipient is keyed by within the channel, may be {@code null}
+   */
+  protected abstract String getRecipientId(T notificationMessageDto);
+
   public String getTitle(UserNotificationMessageDto message) {
     var title = message.getNotification().getTitle();
     var templateName = message.getNotification().getTemplateName();
@@ -16,15 +16,19 @@
 
 package com.epam.digital.data.platform.notification.core.service;
 
+import com.epam.digital.data.platform.integration.idm.model.IdmUser;
 import com.epam.digital.data.platform.integration.idm.service.IdmService;
 import com.epam.digital.data.platform.notification.dto.Recipient.RecipientRealm;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.keycloak.representations.idm.RoleRepresentation;
 
 @RequiredArgsConstructor
 public class IdmServiceProvider {
 
   private final IdmService officerIdmService;
   private final IdmService citizenIdmService;
+  private final IdmUserCache idmUserCache;
 
   public IdmService getIdmService(RecipientRealm realm) {
     switch (realm) {
@@ -36,4 +40,20 @@ public class IdmServiceProvider {
         throw new IllegalArgumentException("Realm must be one of ['officer', 'citizen']");
     }
   }
+
+  /**
+   * Get users of the realm by username, served from the short-living user cache if present
+   */
+  public List<IdmUser> getUserByUserName(RecipientRealm realm, String username) {
+    return idmUserCache.getUsers(realm, username,
+        () -> getIdmService(realm).getUserByUserName(username));
+  }
+
+  /**
+   * Get realm roles of the user, served from the short-living user cache if present
+   */
+  public List<RoleRepresentation> getUserRoles(RecipientRealm realm, String username) {
+    return idmUserCache.getRoles(realm, username,
+        () -> getIdmService(realm).getUserRoles(username));
+  }
 }
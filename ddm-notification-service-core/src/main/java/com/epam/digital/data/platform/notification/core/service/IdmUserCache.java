@@ -0,0 +1,98 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.core.service;
+
+import com.epam.digital.data.platform.integration.idm.model.IdmUser;
+import com.epam.digital.data.platform.notification.dto.Recipient.RecipientRealm;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.keycloak.representations.idm.RoleRepresentation;
+import org.springframework.lang.NonNull;
+
+/**
+ * Short-living cache of keycloak users and their realm roles keyed by realm and username.
+ * <p>
+ * Empty lookup results are not cached, so a user created in keycloak becomes visible
+ * immediately.
+ */
+public class IdmUserCache implements MeterBinder {
+
+  static final String USERS_CACHE_NAME = "idmUsers";
+  static final String ROLES_CACHE_NAME = "idmUserRoles";
+
+  private final Cache<UserKey, List<IdmUser>> users;
+  private final Cache<UserKey, List<RoleRepresentation>> roles;
+
+  public IdmUserCache(long maxSize, Duration ttl) {
+    this.users = createCache(maxSize, ttl);
+    this.roles = createCache(maxSize, ttl);
+  }
+
+  public List<IdmUser> getUsers(RecipientRealm realm, String username,
+      Supplier<List<IdmUser>> loader) {
+    return get(users, new UserKey(realm, username), loader);
+  }
+
+  public List<RoleRepresentation> getRoles(RecipientRealm realm, String username,
+      Supplier<List<RoleRepresentation>> loader) {
+    return get(roles, new UserKey(realm, username), loader);
+  }
+
+  @Override
+  public void bindTo(@NonNull MeterRegistry registry) {
+    CaffeineCacheMetrics.monitor(registry, users, USERS_CACHE_NAME);
+    CaffeineCacheMetrics.monitor(registry, roles, ROLES_CACHE_NAME);
+  }
+
+  private <V> Cache<UserKey, List<V>> createCache(long maxSize, Duration ttl) {
+    return Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(ttl)
+        .recordStats()
+        .build();
+  }
+
+  private <V> List<V> get(Cache<UserKey, List<V>> cache, UserKey key,
+      Supplier<List<V>> loader) {
+    var cached = cache.getIfPresent(key);
+    if (Objects.nonNull(cached)) {
+      return cached;
+    }
+    var loaded = loader.get();
+    if (Objects.nonNull(loaded) && !loaded.isEmpty()) {
+      cache.put(key, List.copyOf(loaded));
+    }
+    return loaded;
+  }
+
+  @EqualsAndHashCode
+  @RequiredArgsConstructor
+  private static final class UserKey {
+
+    private final RecipientRealm realm;
+    private final String username;
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.core.service;
+
+import com.epam.digital.data.platform.notification.dto.NotificationTemplateChangedEventDto;
+import com.epam.digital.data.platform.notification.entity.NotificationTemplate;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.function.Supplier;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Read-through cache of {@link NotificationTemplate} rows keyed by template name and channel.
+ * <p>
+ * Entries are dropped on {@link NotificationTemplateChangedEventDto} after the changing
+ * transaction is committed. The expiration is only a safety net for lost change events.
+ */
+@Slf4j
+@Component
+public class NotificationTemplateCache implements MeterBinder {
+
+  static final String CACHE_NAME = "notificationTemplates";
+
+  private final Cache<TemplateKey, NotificationTemplate> templates;
+
+  public NotificationTemplateCache(
+      @Value("${notifications.template-cache.max-size:500}") long maxSize,
+      @Value("${notifications.template-cache.ttl:1h}") Duration ttl) {
+    this.templates = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(ttl)
+        .recordStats()
+        .build();
+  }
+
+  public NotificationTemplate get(String name, String channel,
+      Supplier<NotificationTemplate> loader) {
+    return templates.get(new TemplateKey(name, channel), key -> loader.get());
+  }
+
+  public void evict(String name, String channel) {
+    log.info("Evicting {} template of {} channel from cache", name, channel);
+    templates.invalidate(new TemplateKey(name, channel));
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onTemplateChanged(NotificationTemplateChangedEventDto event) {
+    evict(event.getName(), event.getChannel());
+  }
+
+  public CacheStats getCacheStats() {
+    return templates.stats();
+  }
+
+  @Override
+  public void bindTo(@NonNull MeterRegistry registry) {
+    CaffeineCacheMetrics.monitor(registry, templates, CACHE_NAME);
+  }
+
+  @EqualsAndHashCode
+  @RequiredArgsConstructor
+  private static final class TemplateKey {
+
+    private final String name;
+    private final String channel;
+  }
+}
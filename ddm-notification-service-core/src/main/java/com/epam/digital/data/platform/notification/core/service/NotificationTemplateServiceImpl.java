@@ -15,6 +15,8 @@
  */
 package com.epam.digital.data.platform.notification.core.service;
 
+import com.epam.digital.data.platform.notification.core.metrics.NotificationMetrics;
+import com.epam.digital.data.platform.notification.core.metrics.NotificationMetrics.Stage;
 import com.epam.digital.data.platform.notification.entity.NotificationTemplate;
 import com.epam.digital.data.platform.notification.exception.NotificationTemplateNotFoundException;
 import com.epam.digital.data.platform.notification.repository.NotificationTemplateRepository;
@@ -28,6 +30,8 @@ import lombok.extern.slf4j.Slf4j;
 public class NotificationTemplateServiceImpl implements NotificationTemplateService<String> {
 
   private final NotificationTemplateRepository repository;
+  private final NotificationTemplateCache templateCache;
+  private final NotificationMetrics notificationMetrics;
 
   @Override
   public String getContentByNameAndChannel(String templateName, Channel channel) {
@@ -47,7 +51,9 @@ public class NotificationTemplateServiceImpl implements NotificationTemplateServ
 
   @Override
   public NotificationTemplate getTemplate(String templateName, Channel channel) {
-    return repository.findByNameAndChannel(templateName, channel.getValue())
-        .orElseThrow(() -> new NotificationTemplateNotFoundException(templateName));
+    return notificationMetrics.record(Stage.TEMPLATE_FETCH, channel, templateName,
+        () -> templateCache.get(templateName, channel.getValue(),
+            () -> repository.findByNameAndChannel(templateName, channel.getValue())
+                .orElseThrow(() -> new NotificationTemplateNotFoundException(templateName))));
   }
 }
\ No newline at end of file
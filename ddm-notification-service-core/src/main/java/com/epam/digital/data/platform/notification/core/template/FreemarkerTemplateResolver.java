@@ -18,31 +18,116 @@ package com.epam.digital.data.platform.notification.core.template;
 
 import com.epam.digital.data.platform.notification.exception.TemplateProcessingException;
 import com.epam.digital.data.platform.notification.template.TemplateResolver;
+import com.epam.digital.data.platform.settings.model.dto.Channel;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import freemarker.template.Configuration;
 import freemarker.template.Template;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.io.IOException;
 import java.io.StringWriter;
 import java.util.Map;
+import java.util.Objects;
+import lombok.EqualsAndHashCode;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Component;
 
 /**
- * The template resolver that uses Apache FreeMarker template engine
+ * The template resolver that uses Apache FreeMarker template engine.
+ * <p>
+ * Compiled templates are kept in a bounded cache keyed by template name, channel and checksum, so
+ * a template is parsed once per version instead of once per recipient. Replaced versions are not
+ * looked up anymore and leave the cache by its size bound.
  */
+@Slf4j
 @Component
-@RequiredArgsConstructor
-public class FreemarkerTemplateResolver implements TemplateResolver<String, String> {
+public class FreemarkerTemplateResolver implements TemplateResolver<String, String>,
+    MeterBinder {
+
+  static final String CACHE_NAME = "compiledNotificationTemplates";
 
   private final Configuration freemarkerConfig;
+  private final Cache<CompiledTemplateKey, Template> compiledTemplates;
+
+  public FreemarkerTemplateResolver(Configuration freemarkerConfig,
+      @Value("${notifications.template-cache.max-size:500}") long maxSize) {
+    this.freemarkerConfig = freemarkerConfig;
+    this.compiledTemplates = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .recordStats()
+        .build();
+  }
 
   @Override
   public String resolve(String templateName, String template, Map<String, Object> model)
       throws TemplateProcessingException {
+    return resolve(templateName, null, null, template, model);
+  }
+
+  /**
+   * Populate template using template model data, reusing the compiled template for the given
+   * checksum. When checksum is absent the template content itself identifies the version.
+   *
+   * @param templateName specified template name
+   * @param channel      channel the template belongs to, templates of different channels share
+   *                     the name
+   * @param checksum     checksum of the template content stored with the template
+   * @param template     to fill
+   * @param model        contains data that populates the template
+   * @return populated template
+   * @throws TemplateProcessingException if during the process an error occurred
+   */
+  public String resolve(String templateName, Channel channel, String checksum, String template,
+      Map<String, Object> model) throws TemplateProcessingException {
     try (var out = new StringWriter()) {
-      var freemarkerTemplate = new Template(templateName, template, freemarkerConfig);
+      var freemarkerTemplate = getCompiledTemplate(templateName, channel, checksum, template);
       freemarkerTemplate.process(model, out);
       return out.toString();
+    } catch (TemplateProcessingException ex) {
+      throw ex;
     } catch (Exception ex) {
       throw new TemplateProcessingException(templateName, ex);
     }
   }
+
+  public CacheStats getCacheStats() {
+    return compiledTemplates.stats();
+  }
+
+  @Override
+  public void bindTo(@NonNull MeterRegistry registry) {
+    CaffeineCacheMetrics.monitor(registry, compiledTemplates, CACHE_NAME);
+  }
+
+  private Template getCompiledTemplate(String templateName, Channel channel, String checksum,
+      String template) {
+    var version = Objects.isNull(checksum) ? template : checksum;
+    var key = new CompiledTemplateKey(templateName, channel, version);
+    // concurrent misses of the same version wait for a single compilation
+    return compiledTemplates.get(key, missing -> compile(templateName, template));
+  }
+
+  private Template compile(String templateName, String template) {
+    log.debug("Compiling template {}", templateName);
+    try {
+      return new Template(templateName, template, freemarkerConfig);
+    } catch (IOException ex) {
+      throw new TemplateProcessingException(templateName, ex);
+    }
+  }
+
+  @EqualsAndHashCode
+  @RequiredArgsConstructor
+  private static final class CompiledTemplateKey {
+
+    private final String templateName;
+    private final Channel channel;
+    private final String version;
+  }
 }
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.core.audit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.epam.digital.data.platform.notification.core.audit.AsyncAuditEventEmitter.OverflowPolicy;
+import com.epam.digital.data.platform.starter.audit.model.AuditEvent;
+import com.epam.digital.data.platform.starter.audit.service.AuditService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncAuditEventEmitterTest {
+
+  @Mock
+  private AuditService auditService;
+  @TempDir
+  Path spillDirectory;
+
+  @Test
+  @SneakyThrows
+  void shouldSendQueuedEventsAndFlushOnShutdown() {
+    var emitter = createEmitter(10, OverflowPolicy.BLOCK);
+    var first = mock(AuditEvent.class);
+    var second = mock(AuditEvent.class);
+
+    emitter.emit(first);
+    emitter.emit(second);
+    emitter.destroy();
+
+    verify(auditService).sendAudit(first);
+    verify(auditService).sendAudit(second);
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldKeepSendingAfterAuditServiceFailure() {
+    var emitter = createEmitter(10, OverflowPolicy.BLOCK);
+    var meterRegistry = new SimpleMeterRegistry();
+    emitter.bindTo(meterRegistry);
+    var failing = mock(AuditEvent.class);
+    var next = mock(AuditEvent.class);
+    doThrow(new IllegalStateException("kafka is down")).when(auditService).sendAudit(failing);
+
+    emitter.emit(failing);
+    emitter.emit(next);
+    emitter.destroy();
+
+    verify(auditService).sendAudit(next);
+    assertThat(meterRegistry.get("audit.emitter.failed").functionCounter().count()).isEqualTo(1);
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldSpillEventsThatDoNotFitIntoQueueAndReplayThem() {
+    var sending = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    var inFlight = mock(AuditEvent.class);
+    var queued = mock(AuditEvent.class);
+    var spilled = AuditEvent.builder()
+        .name("spilled")
+        .requestId("request-id")
+        .application("ddm-notification-service")
+        .build();
+    doAnswer(invocation -> {
+      sending.countDown();
+      release.await(5, TimeUnit.SECONDS);
+      return null;
+    }).when(auditService).sendAudit(inFlight);
+    var emitter = createEmitter(1, OverflowPolicy.SPILL);
+
+    emitter.emit(inFlight);
+    assertThat(sending.await(5, TimeUnit.SECONDS)).isTrue();
+    emitter.emit(queued);
+    emitter.emit(spilled);
+
+    assertThat(Files.list(spillDirectory)).isNotEmpty();
+
+    release.countDown();
+    emitter.destroy();
+
+    var sent = ArgumentCaptor.forClass(AuditEvent.class);
+    verify(auditService, times(3)).sendAudit(sent.capture());
+    assertThat(sent.getAllValues()).contains(inFlight, queued);
+    assertThat(sent.getAllValues().get(2)).isNotSameAs(spilled)
+        .usingRecursiveComparison().isEqualTo(spilled);
+    assertThat(Files.list(spillDirectory)).isEmpty();
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldSendSynchronouslyAfterShutdown() {
+    var emitter = createEmitter(10, OverflowPolicy.BLOCK);
+    emitter.destroy();
+    var event = mock(AuditEvent.class);
+
+    emitter.emit(event);
+
+    verify(auditService).sendAudit(event);
+  }
+
+  private AsyncAuditEventEmitter createEmitter(int capacity, OverflowPolicy overflowPolicy) {
+    return new AsyncAuditEventEmitter(auditService, capacity, overflowPolicy, spillDirectory,
+        new ObjectMapper(), Duration.ofSeconds(5));
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.core.audit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.epam.digital.data.platform.starter.audit.model.AuditEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AuditSpillFileTest {
+
+  @TempDir
+  Path spillDirectory;
+
+  private AuditSpillFile spillFile;
+
+  @BeforeEach
+  void setUp() {
+    spillFile = new AuditSpillFile(spillDirectory, new ObjectMapper());
+  }
+
+  @Test
+  void shouldReplayAppendedEvents() {
+    var first = AuditEvent.builder().name("first").requestId("request-1").build();
+    var second = AuditEvent.builder().name("second").requestId("request-2").build();
+    spillFile.append(first);
+    spillFile.append(second);
+    var replayed = new ArrayList<AuditEvent>();
+
+    assertThat(spillFile.replay(replayed::add)).isEqualTo(2);
+
+    assertThat(replayed).usingRecursiveFieldByFieldElementComparator()
+        .containsExactly(first, second);
+    assertThat(spillFile.isEmpty()).isTrue();
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldReplayEventsOnceWhenReplaysRunConcurrently() {
+    spillFile.append(AuditEvent.builder().name("first").build());
+    spillFile.append(AuditEvent.builder().name("second").build());
+    var replaying = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    var replayed = new ArrayList<AuditEvent>();
+
+    var firstReplay = CompletableFuture.supplyAsync(() -> spillFile.replay(event -> {
+      replaying.countDown();
+      await(release);
+      replayed.add(event);
+    }));
+    assertThat(replaying.await(5, TimeUnit.SECONDS)).isTrue();
+    var secondReplay = CompletableFuture.supplyAsync(() -> spillFile.replay(replayed::add));
+    release.countDown();
+
+    assertThat(List.of(firstReplay.get(5, TimeUnit.SECONDS),
+        secondReplay.get(5, TimeUnit.SECONDS))).containsExactly(2, 0);
+    assertThat(replayed).hasSize(2);
+  }
+
+  @SneakyThrows
+  private static void await(CountDownLatch latch) {
+    latch.await(5, TimeUnit.SECONDS);
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.core.listener;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.epam.digital.data.platform.notification.exception.NotificationDeferredException;
+import com.epam.digital.data.platform.notification.exception.NotificationException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.listener.CommonErrorHandler;
+import org.springframework.kafka.listener.ListenerExecutionFailedException;
+import org.springframework.kafka.listener.MessageListenerContainer;
+
+@ExtendWith(MockitoExtension.class)
+class DeferringErrorHandlerTest {
+
+  private static final String TOPIC = "email-notifications";
+  private static final TopicPartition PARTITION = new TopicPartition(TOPIC, 0);
+
+  @Mock
+  private CommonErrorHandler delegate;
+  @Mock
+  private Consumer<?, ?> consumer;
+  @Mock
+  private MessageListenerContainer container;
+
+  private DeferringErrorHandler errorHandler;
+
+  @BeforeEach
+  void setUp() {
+    errorHandler = new DeferringErrorHandler(delegate);
+  }
+
+  @Test
+  void shouldSeekBackAndPauseDeferredRecord() {
+    var deferral = new ListenerExecutionFailedException("listener failed",
+        new NotificationDeferredException("rate limit", Duration.ofMillis(50)));
+    List<ConsumerRecord<?, ?>> records = List.of(record(1), record(2));
+
+    errorHandler.handleRemaining(deferral, records, consumer, container);
+
+    verify(consumer).seek(PARTITION, 1L);
+    verify(container).pausePartition(PARTITION);
+    verify(container, timeout(1000)).resumePartition(PARTITION);
+    verify(delegate, never()).handleRemaining(any(), any(), any(), any());
+  }
+
+  @Test
+  void shouldPassOtherErrorsToDelegate() {
+    var failure = new ListenerExecutionFailedException("listener failed",
+        new NotificationException("error"));
+    List<ConsumerRecord<?, ?>> records = List.of(record(1));
+    when(delegate.remainingRecords()).thenReturn(true);
+
+    errorHandler.handleRemaining(failure, records, consumer, container);
+
+    verify(delegate).handleRemaining(failure, records, consumer, container);
+    verify(container, never()).pausePartition(any());
+  }
+
+  @Test
+  void shouldCommitProcessedRecordsOfDeferredBatch() {
+    var first = record(1);
+    var second = record(2);
+    var third = record(3);
+    var data = new ConsumerRecords<>(Map.of(PARTITION, List.of(first, second, third)));
+    var deferral = new ListenerExecutionFailedException("listener failed",
+        new BatchListenerFailedException("rate limit",
+            new NotificationDeferredException("rate limit", Duration.ofMillis(50)), second));
+
+    errorHandler.handleBatch(deferral, data, consumer, container, () -> {
+    });
+
+    verify(consumer).commitSync(Map.of(PARTITION, new OffsetAndMetadata(2L)));
+    verify(consumer).seek(PARTITION, 2L);
+    verify(container).pausePartition(PARTITION);
+    verify(delegate, never()).handleBatch(any(), any(), any(), any(), any());
+  }
+
+  private static ConsumerRecord<String, Object> record(long offset) {
+    return new ConsumerRecord<>(TOPIC, 0, offset, null, "message");
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.core.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.epam.digital.data.platform.notification.core.metrics.NotificationMetrics.Stage;
+import com.epam.digital.data.platform.settings.model.dto.Channel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class NotificationMetricsTest {
+
+  private SimpleMeterRegistry registry;
+  private NotificationMetrics notificationMetrics;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+    notificationMetrics = new NotificationMetrics(registry);
+  }
+
+  @Test
+  void shouldRecordStageDurationWithSuccessOutcome() {
+    var result = notificationMetrics.record(Stage.RENDER, Channel.EMAIL, "template",
+        () -> "rendered");
+
+    assertThat(result).isEqualTo("rendered");
+    var timer = registry.get(NotificationMetrics.STAGE_DURATION)
+        .tag("stage", "render")
+        .tag("channel", "email")
+        .tag("template", "template")
+        .tag("outcome", "success")
+        .timer();
+    assertThat(timer.count()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldRecordStageDurationWithFailureOutcome() {
+    assertThrows(IllegalStateException.class,
+        () -> notificationMetrics.record(Stage.SMTP_SEND, Channel.EMAIL, null, () -> {
+          throw new IllegalStateException("smtp is down");
+        }));
+
+    var timer = registry.get(NotificationMetrics.STAGE_DURATION)
+        .tag("stage", "smtp-send")
+        .tag("template", NotificationMetrics.NONE)
+        .tag("outcome", "failure")
+        .timer();
+    assertThat(timer.count()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldUseSameTagsForStagesWithoutChannel() {
+    notificationMetrics.record(Stage.SETTINGS_LOOKUP, null, null, () -> {
+    });
+
+    var timer = registry.get(NotificationMetrics.STAGE_DURATION)
+        .tag("stage", "settings-lookup")
+        .tag("channel", NotificationMetrics.NONE)
+        .timer();
+    assertThat(timer.getId().getTags()).hasSize(4);
+  }
+
+  @Test
+  void shouldCountChannelMessagesAndRecordFanOut() {
+    notificationMetrics.countChannelMessage(Channel.INBOX, "template", true);
+    notificationMetrics.countChannelMessage(Channel.INBOX, "template", false);
+    notificationMetrics.recordFanOut("template", 10, 2);
+
+    assertThat(registry.get(NotificationMetrics.CHANNEL_MESSAGES).tag("outcome", "success")
+        .counter().count()).isEqualTo(1);
+    assertThat(registry.get(NotificationMetrics.CHANNEL_MESSAGES).tag("outcome", "failure")
+        .counter().count()).isEqualTo(1);
+    assertThat(registry.get(NotificationMetrics.FAN_OUT_RECIPIENTS).summary().totalAmount())
+        .isEqualTo(10);
+    assertThat(registry.get(NotificationMetrics.FAN_OUT_GROUPS).summary().totalAmount())
+        .isEqualTo(2);
+  }
+
+  @Test
+  void shouldMapChannelToDeliveryStage() {
+    assertThat(Stage.delivery(Channel.EMAIL)).isEqualTo(Stage.SMTP_SEND);
+    assertThat(Stage.delivery(Channel.DIIA)).isEqualTo(Stage.DIIA_CALL);
+    assertThat(Stage.delivery(Channel.INBOX)).isEqualTo(Stage.INBOX_INSERT);
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.core.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.epam.digital.data.platform.integration.idm.model.IdmUser;
+import com.epam.digital.data.platform.integration.idm.service.IdmService;
+import com.epam.digital.data.platform.notification.dto.Recipient.RecipientRealm;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.keycloak.representations.idm.RoleRepresentation;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class IdmServiceProviderTest {
+
+  @Mock
+  private IdmService officerIdmService;
+  @Mock
+  private IdmService citizenIdmService;
+
+  private IdmServiceProvider idmServiceProvider;
+
+  @BeforeEach
+  void setUp() {
+    idmServiceProvider = new IdmServiceProvider(officerIdmService, citizenIdmService,
+        new IdmUserCache(10, Duration.ofMinutes(1)));
+  }
+
+  @Test
+  void shouldLoadUserOncePerRealm() {
+    var officer = IdmUser.builder().id("officer-id").build();
+    var citizen = IdmUser.builder().id("citizen-id").build();
+    when(officerIdmService.getUserByUserName("user")).thenReturn(List.of(officer));
+    when(citizenIdmService.getUserByUserName("user")).thenReturn(List.of(citizen));
+
+    idmServiceProvider.getUserByUserName(RecipientRealm.OFFICER, "user");
+    var officerUsers = idmServiceProvider.getUserByUserName(RecipientRealm.OFFICER, "user");
+    var citizenUsers = idmServiceProvider.getUserByUserName(RecipientRealm.CITIZEN, "user");
+
+    assertThat(officerUsers).containsExactly(officer);
+    assertThat(citizenUsers).containsExactly(citizen);
+    verify(officerIdmService, times(1)).getUserByUserName("user");
+    verify(citizenIdmService, times(1)).getUserByUserName("user");
+  }
+
+  @Test
+  void shouldLoadUserRolesOnce() {
+    var role = new RoleRepresentation("officer", null, false);
+    when(officerIdmService.getUserRoles("user")).thenReturn(List.of(role));
+
+    idmServiceProvider.getUserRoles(RecipientRealm.OFFICER, "user");
+    var roles = idmServiceProvider.getUserRoles(RecipientRealm.OFFICER, "user");
+
+    assertThat(roles).containsExactly(role);
+    verify(officerIdmService, times(1)).getUserRoles("user");
+  }
+
+  @Test
+  void shouldNotCacheMissingUser() {
+    when(citizenIdmService.getUserByUserName("user")).thenReturn(List.of());
+
+    idmServiceProvider.getUserByUserName(RecipientRealm.CITIZEN, "user");
+    var users = idmServiceProvider.getUserByUserName(RecipientRealm.CITIZEN, "user");
+
+    assertThat(users).isEmpty();
+    verify(citizenIdmService, times(2)).getUserByUserName("user");
+  }
+}
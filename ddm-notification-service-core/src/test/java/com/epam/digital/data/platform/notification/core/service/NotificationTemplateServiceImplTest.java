@@ -19,12 +19,18 @@ import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.epam.digital.data.platform.notification.core.metrics.NotificationMetrics;
+import com.epam.digital.data.platform.notification.entity.NotificationTemplate;
 import com.epam.digital.data.platform.notification.exception.NotificationTemplateNotFoundException;
 import com.epam.digital.data.platform.notification.repository.NotificationTemplateRepository;
 import com.epam.digital.data.platform.notification.template.NotificationTemplateService;
 import com.epam.digital.data.platform.settings.model.dto.Channel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -42,7 +48,9 @@ class NotificationTemplateServiceImplTest {
 
   @BeforeEach
   void setUp() {
-    service = new NotificationTemplateServiceImpl(repository);
+    service = new NotificationTemplateServiceImpl(repository,
+        new NotificationTemplateCache(10, Duration.ofHours(1)),
+        new NotificationMetrics(new SimpleMeterRegistry()));
   }
 
   @Test
@@ -57,4 +65,18 @@ class NotificationTemplateServiceImplTest {
     assertThat(exception.getMessage())
         .isEqualTo(String.format(NotificationTemplateNotFoundException.MESSAGE_FORMAT, name));
   }
-}
\ No newline at end of file
+
+  @Test
+  void shouldReadTemplateFromDatabaseOnlyOnce() {
+    var name = "name";
+    var template = NotificationTemplate.builder().name(name).channel("email")
+        .title("title").content("content").build();
+    when(repository.findByNameAndChannel(name, "email")).thenReturn(Optional.of(template));
+
+    service.getTitleByNameAndChannel(name, Channel.EMAIL);
+    var content = service.getContentByNameAndChannel(name, Channel.EMAIL);
+
+    assertThat(content).isEqualTo("content");
+    verify(repository, times(1)).findByNameAndChannel(name, "email");
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.core.template;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.epam.digital.data.platform.notification.exception.TemplateProcessingException;
+import com.epam.digital.data.platform.settings.model.dto.Channel;
+import freemarker.template.Configuration;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class FreemarkerTemplateResolverTest {
+
+  private FreemarkerTemplateResolver templateResolver;
+
+  @BeforeEach
+  void init() {
+    var freemarkerConfig = new Configuration(Configuration.VERSION_2_3_31);
+    freemarkerConfig.setTagSyntax(Configuration.SQUARE_BRACKET_TAG_SYNTAX);
+    templateResolver = new FreemarkerTemplateResolver(freemarkerConfig, 10);
+  }
+
+  @Test
+  void shouldReuseCompiledTemplateForSameChecksum() {
+    var template = "Hello, ${name}";
+
+    var first = templateResolver.resolve("greeting", Channel.EMAIL, "checksum", template,
+        Map.of("name", "John"));
+    var second = templateResolver.resolve("greeting", Channel.EMAIL, "checksum", template,
+        Map.of("name", "Jane"));
+
+    assertThat(first).isEqualTo("Hello, John");
+    assertThat(second).isEqualTo("Hello, Jane");
+    var stats = templateResolver.getCacheStats();
+    assertThat(stats.missCount()).isEqualTo(1);
+    assertThat(stats.hitCount()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldRecompileTemplateWhenChecksumChanged() {
+    templateResolver.resolve("greeting", Channel.EMAIL, "checksum1", "Hello, ${name}",
+        Map.of("name", "John"));
+
+    var result = templateResolver.resolve("greeting", Channel.EMAIL, "checksum2", "Bye, ${name}",
+        Map.of("name", "John"));
+
+    assertThat(result).isEqualTo("Bye, John");
+    assertThat(templateResolver.getCacheStats().missCount()).isEqualTo(2);
+    assertThat(templateResolver.getCacheStats().hitCount()).isZero();
+  }
+
+  @Test
+  void shouldKeepCompiledTemplatesOfChannelsSharingName() {
+    Map<String, Object> model = Map.of("name", "John");
+    templateResolver.resolve("greeting", Channel.EMAIL, "checksum", "Hello, ${name}", model);
+    templateResolver.resolve("greeting", Channel.INBOX, "checksum", "Hi, ${name}", model);
+
+    var email = templateResolver.resolve("greeting", Channel.EMAIL, "checksum", "Hello, ${name}",
+        model);
+    var inbox = templateResolver.resolve("greeting", Channel.INBOX, "checksum", "Hi, ${name}",
+        model);
+
+    assertThat(email).isEqualTo("Hello, John");
+    assertThat(inbox).isEqualTo("Hi, John");
+    var stats = templateResolver.getCacheStats();
+    assertThat(stats.missCount()).isEqualTo(2);
+    assertThat(stats.hitCount()).isEqualTo(2);
+  }
+
+  @Test
+  void shouldUseTemplateContentWhenChecksumIsAbsent() {
+    templateResolver.resolve("greeting", "Hello, ${name}", Map.of("name", "John"));
+    var result = templateResolver.resolve("greeting", "Bye, ${name}", Map.of("name", "John"));
+
+    assertThat(result).isEqualTo("Bye, John");
+    assertThat(templateResolver.getCacheStats().missCount()).isEqualTo(2);
+  }
+
+  @Test
+  void shouldThrowTemplateProcessingExceptionOnInvalidTemplate() {
+    Map<String, Object> model = Map.of();
+
+    assertThrows(TemplateProcessingException.class,
+        () -> templateResolver.resolve("broken", Channel.EMAIL, "checksum", "[#if]", model));
+  }
+}
@@ -16,6 +16,8 @@
 
 package com.epam.digital.data.platform.notification.diia;
 
+import com.epam.digital.data.platform.notification.core.metrics.NotificationMetricsConfig;
+import com.epam.digital.data.platform.notification.core.service.NotificationTemplateCache;
 import com.epam.digital.data.platform.notification.diia.repository.DiiaNotificationTemplateRepository;
 import com.epam.digital.data.platform.notification.entity.NotificationTemplate;
 import java.time.LocalDateTime;
@@ -25,6 +27,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 
@@ -32,6 +35,7 @@ import org.springframework.test.context.junit4.SpringRunner;
 @RunWith(SpringRunner.class)
 @SpringBootTest(properties = {"data-platform.kafka.enabled=false"})
 @ComponentScan(basePackages = "com.epam.digital.data.platform.notification.diia")
+@Import({NotificationTemplateCache.class, NotificationMetricsConfig.class})
 @EntityScan("com.epam.digital.data.platform.notification.entity")
 public abstract class BaseIT {
 
@@ -23,6 +23,8 @@ import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.post;
 import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import com.epam.digital.data.platform.notification.diia.BaseIT;
 import com.epam.digital.data.platform.notification.dto.NotificationContextDto;
@@ -30,8 +32,10 @@ import com.epam.digital.data.platform.notification.dto.diia.DiiaNotificationDto;
 import com.epam.digital.data.platform.notification.dto.diia.DiiaNotificationMessageDto;
 import com.epam.digital.data.platform.notification.dto.diia.DiiaRecipientDto;
 import com.epam.digital.data.platform.notification.dto.diia.DiiaRecipientDto.KeyValue;
+import com.epam.digital.data.platform.notification.exception.NotificationException;
 import com.github.tomakehurst.wiremock.WireMockServer;
 import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
@@ -43,6 +47,11 @@ class DiiaServiceTestIT extends BaseIT {
   @Autowired
   WireMockServer mockDiiaServer;
 
+  @BeforeEach
+  void setUp() {
+    mockDiiaServer.resetAll();
+  }
+
     @Test
   void shouldSendNotification() {
       mockDiiaServer.
@@ -74,6 +83,50 @@ class DiiaServiceTestIT extends BaseIT {
                       + "[{\"key\":\"some-key\",\"value\":\"some-value\"}]}]}")));
   }
   
+  @Test
+  void shouldSendNotificationAsync() {
+    mockDiiaServer.stubFor(get(urlEqualTo("/api/v1/auth/partner/partnerToken"))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+            .withBody("{\"token\":\"diia_access_token\"}")));
+    mockDiiaServer.stubFor(post(urlEqualTo("/api/v1/notification/distribution/push"))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+            .withBody("{\"distributionId\":\"currentDistributionId\"}")));
+    var message = createMessage();
+
+    service.notifyAsync(message).join();
+
+    assertThat(message.getDistributionId()).isEqualTo("currentDistributionId");
+    mockDiiaServer.verify(1,
+        getRequestedFor(urlEqualTo("/api/v1/auth/partner/partnerToken")));
+    mockDiiaServer.verify(1,
+        postRequestedFor(urlEqualTo("/api/v1/notification/distribution/push"))
+            .withHeader("Authorization", equalTo("Bearer diia_access_token"))
+            .withHeader("Content-Type", equalTo("application/json"))
+            .withRequestBody(
+                equalTo("{\"templateId\":\"externalTemplateId\",\"recipients\":"
+                    + "[{\"rnokpp\":\"rnokpp\",\"id\":\"keycloak-username\",\"parameters\":"
+                    + "[{\"key\":\"some-key\",\"value\":\"some-value\"}]}]}")));
+  }
+
+  @Test
+  void shouldCompleteExceptionallyWhenDiiaRejectsAsyncNotification() {
+    mockDiiaServer.stubFor(get(urlEqualTo("/api/v1/auth/partner/partnerToken"))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+            .withBody("{\"token\":\"diia_access_token\"}")));
+    mockDiiaServer.stubFor(post(urlEqualTo("/api/v1/notification/distribution/push"))
+        .willReturn(aResponse().withStatus(500)));
+
+    var result = service.notifyAsync(createMessage());
+
+    assertThatThrownBy(result::join).hasCauseInstanceOf(NotificationException.class);
+  }
+
   private DiiaNotificationMessageDto createMessage() {
       return DiiaNotificationMessageDto.builder()
           .context(NotificationContextDto.builder()
@@ -17,6 +17,8 @@
 package com.epam.digital.data.platform.notification.diia.audit;
 
 import com.epam.digital.data.platform.notification.core.audit.AbstractNotificationAuditFacade;
+import com.epam.digital.data.platform.notification.core.audit.AuditEventEmitter;
+import com.epam.digital.data.platform.notification.core.metrics.NotificationMetrics;
 import com.epam.digital.data.platform.notification.dto.audit.NotificationAuditDto;
 import com.epam.digital.data.platform.notification.dto.diia.DiiaNotificationAuditDto;
 import com.epam.digital.data.platform.notification.dto.diia.DiiaNotificationMessageDto;
@@ -27,8 +29,15 @@ import java.time.Clock;
 public class DiiaNotificationAuditFacade extends
     AbstractNotificationAuditFacade<DiiaNotificationMessageDto> {
 
-  public DiiaNotificationAuditFacade(AuditService auditService, String appName, Clock clock) {
-    super(auditService, appName, clock);
+  public DiiaNotificationAuditFacade(AuditService auditService, String appName, Clock clock,
+      NotificationMetrics notificationMetrics) {
+    super(auditService, appName, clock, notificationMetrics);
+  }
+
+  public DiiaNotificationAuditFacade(AuditService auditService, String appName, Clock clock,
+      AuditEventEmitter auditEventEmitter,
+      NotificationMetrics notificationMetrics) {
+    super(auditService, appName, clock, auditEventEmitter, notificationMetrics);
   }
 
   @Override
@@ -16,34 +16,80 @@
 
 package com.epam.digital.data.platform.notification.diia.config;
 
+import com.epam.digital.data.platform.notification.core.audit.AuditEventEmitter;
+import com.epam.digital.data.platform.notification.core.metrics.NotificationMetrics;
+import com.epam.digital.data.platform.notification.core.service.NotificationTemplateCache;
 import com.epam.digital.data.platform.notification.core.service.NotificationTemplateServiceImpl;
 import com.epam.digital.data.platform.notification.diia.audit.DiiaNotificationAuditFacade;
+import com.epam.digital.data.platform.notification.diia.listener.DiiaAsyncNotificationListener;
+import com.epam.digital.data.platform.notification.diia.listener.DiiaBatchNotificationListener;
 import com.epam.digital.data.platform.notification.diia.listener.DiiaNotificationListener;
 import com.epam.digital.data.platform.notification.diia.producer.DiiaNotificationProducer;
 import com.epam.digital.data.platform.notification.diia.repository.DiiaNotificationTemplateRepository;
+import com.epam.digital.data.platform.notification.diia.service.DiiaAsyncClient;
+import com.epam.digital.data.platform.notification.diia.service.DiiaDistributionBatcher;
 import com.epam.digital.data.platform.notification.diia.service.DiiaRestClient;
 import com.epam.digital.data.platform.notification.diia.service.DiiaService;
 import com.epam.digital.data.platform.notification.diia.service.TokenCacheService;
 import com.epam.digital.data.platform.notification.template.NotificationTemplateService;
 import com.epam.digital.data.platform.starter.audit.service.AuditService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.net.http.HttpClient;
+import java.net.http.HttpClient.Version;
 import java.time.Clock;
+import java.time.Duration;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
 
 @Configuration
 public class DiiaNotificationConfig {
 
+  private static final String SINGLE_LISTENER_ENABLED =
+      "${data-platform.kafka.enabled:false} and !${notifications.batch-listener.enabled:false}"
+          + " and !${notifications.diia.async-client.enabled:false}";
+  private static final String ASYNC_LISTENER_ENABLED =
+      "${data-platform.kafka.enabled:false} and !${notifications.batch-listener.enabled:false}"
+          + " and ${notifications.diia.async-client.enabled:false}";
+  private static final String BATCH_LISTENER_ENABLED =
+      "${data-platform.kafka.enabled:false} and ${notifications.batch-listener.enabled:false}";
+
   @Bean
   public DiiaService diiaService(
       DiiaRestClient diiaRestClient,
+      DiiaAsyncClient diiaAsyncClient,
       @Value("${external-systems.diia.auth.secret.token}") String partnerToken,
-      TokenCacheService tokenCacheService) {
-    return new DiiaService(diiaRestClient, partnerToken, tokenCacheService);
+      TokenCacheService tokenCacheService,
+      DiiaDistributionBatcher diiaDistributionBatcher,
+      @Value("${notifications.diia.async-client.enabled:false}") boolean asyncClientEnabled) {
+    return new DiiaService(diiaRestClient, diiaAsyncClient, partnerToken, tokenCacheService,
+        diiaDistributionBatcher, asyncClientEnabled);
+  }
+
+  @Bean
+  public DiiaDistributionBatcher diiaDistributionBatcher(
+      @Value("${notifications.diia.distribution.max-batch-size:100}") int maxBatchSize,
+      @Value("${notifications.diia.distribution.linger:50ms}") Duration linger) {
+    return new DiiaDistributionBatcher(maxBatchSize, linger);
+  }
+
+  @Bean
+  public DiiaAsyncClient diiaAsyncClient(ObjectMapper objectMapper,
+      @Value("${external-systems.diia.url}") String diiaUrl,
+      @Value("${notifications.diia.async-client.connect-timeout:5s}") Duration connectTimeout,
+      @Value("${notifications.diia.async-client.request-timeout:30s}") Duration requestTimeout) {
+    var httpClient = HttpClient.newBuilder()
+        .version(Version.HTTP_2)
+        .connectTimeout(connectTimeout)
+        .build();
+    return new DiiaAsyncClient(httpClient, diiaUrl, requestTimeout, objectMapper);
   }
 
   @Bean
@@ -56,16 +102,45 @@ public class DiiaNotificationConfig {
   }
 
   @Bean
-  @ConditionalOnProperty(prefix = "data-platform.kafka", name = "enabled", havingValue = "true")
+  @ConditionalOnExpression(SINGLE_LISTENER_ENABLED)
   public DiiaNotificationListener diiaNotificationListener(
-      DiiaService diiaService, DiiaNotificationAuditFacade diiaNotificationAuditFacade) {
-    return new DiiaNotificationListener(diiaService, diiaNotificationAuditFacade);
+      DiiaService diiaService, DiiaNotificationAuditFacade diiaNotificationAuditFacade,
+      NotificationMetrics notificationMetrics) {
+    return new DiiaNotificationListener(diiaService, diiaNotificationAuditFacade,
+        notificationMetrics);
+  }
+
+  @Bean
+  @ConditionalOnExpression(ASYNC_LISTENER_ENABLED)
+  public DiiaAsyncNotificationListener diiaAsyncNotificationListener(
+      DiiaService diiaService, DiiaNotificationAuditFacade diiaNotificationAuditFacade,
+      ConsumerRecordRecoverer notificationDeadLetterRecoverer,
+      @Value("${notifications.diia.async-client.max-in-flight:32}") int maxInFlight,
+      @Value("${notifications.diia.async-client.retry-interval:10s}") Duration retryInterval,
+      @Value("${notifications.diia.async-client.max-retries:2}") int maxRetries,
+      NotificationMetrics notificationMetrics) {
+    return new DiiaAsyncNotificationListener(diiaService, diiaNotificationAuditFacade,
+        notificationDeadLetterRecoverer, maxInFlight, retryInterval, maxRetries,
+        notificationMetrics);
+  }
+
+  @Bean
+  @ConditionalOnExpression(BATCH_LISTENER_ENABLED)
+  public DiiaBatchNotificationListener diiaBatchNotificationListener(
+      DiiaService diiaService, DiiaNotificationAuditFacade diiaNotificationAuditFacade,
+      ConsumerRecordRecoverer notificationDeadLetterRecoverer,
+      NotificationMetrics notificationMetrics) {
+    return new DiiaBatchNotificationListener(diiaService, diiaNotificationAuditFacade,
+        notificationDeadLetterRecoverer, notificationMetrics);
   }
 
   @Bean
   public DiiaNotificationAuditFacade diiaNotificationAuditFacade(AuditService auditService,
-      @Value("${spring.application.name}") String appName, Clock clock) {
-    return new DiiaNotificationAuditFacade(auditService, appName, clock);
+      @Value("${spring.application.name}") String appName, Clock clock,
+      ObjectProvider<AuditEventEmitter> auditEventEmitter,
+      NotificationMetrics notificationMetrics) {
+    return new DiiaNotificationAuditFacade(auditService, appName, clock,
+        auditEventEmitter.getIfAvailable(() -> auditService::sendAudit), notificationMetrics);
   }
 
   @Bean
@@ -74,14 +149,20 @@ public class DiiaNotificationConfig {
   }
 
   @Bean
-  public TokenCacheService tokenCacheService(CacheManager cacheManager) {
-    return new TokenCacheService(cacheManager);
+  public TokenCacheService tokenCacheService(CacheManager cacheManager,
+      @Value("${notifications.diia.token.refresh-ahead:60s}") Duration refreshAhead) {
+    var tokenCacheService = new TokenCacheService(cacheManager);
+    tokenCacheService.setRefreshAhead(refreshAhead);
+    return tokenCacheService;
   }
 
   @Bean
   @Qualifier("diiaNotificationTemplateService")
   public NotificationTemplateService<String> diiaNotificationTemplateService(
-      DiiaNotificationTemplateRepository diiaNotificationTemplateRepository) {
-    return new NotificationTemplateServiceImpl(diiaNotificationTemplateRepository);
+      DiiaNotificationTemplateRepository diiaNotificationTemplateRepository,
+      NotificationTemplateCache notificationTemplateCache,
+      NotificationMetrics notificationMetrics) {
+    return new NotificationTemplateServiceImpl(diiaNotificationTemplateRepository,
+        notificationTemplateCache, notificationMetrics);
   }
 }
@@ -0,0 +1,271 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.diia.listener;
+
+import com.epam.digital.data.platform.notification.audit.NotificationAuditFacade;
+import com.epam.digital.data.platform.notification.core.metrics.NotificationMetrics;
+import com.epam.digital.data.platform.notification.core.metrics.NotificationMetrics.Stage;
+import com.epam.digital.data.platform.notification.diia.service.DiiaService;
+import com.epam.digital.data.platform.notification.dto.diia.DiiaNotificationMessageDto;
+import com.epam.digital.data.platform.notification.exception.NotificationException;
+import com.epam.digital.data.platform.settings.model.dto.Channel;
+import com.epam.digital.data.platform.starter.audit.model.Step;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.MDC;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.kafka.support.Acknowledgment;
+
+/**
+ * Listener that hands diia notifications to the non-blocking client and returns to the container
+ * right away.
+ * <p>
+ * A record is acknowledged once its notification is sent or published to the dead letter topic,
+ * so offsets are committed in order as sends complete. The container thread only waits when
+ * {@code maxInFlight} notifications are being sent. Records with the same key, i.e. of the same
+ * recipient, are sent one after another in the order they were received.
+ * <p>
+ * A failed send is retried up to {@code maxRetries} times every {@code retryInterval} before the
+ * record is published to the dead letter topic, the later records of the recipient wait for it.
+ * The completion callbacks run on the client threads with the logging context of the listener.
+ * <p>
+ * An unacknowledged record holds back the commits of its partition, so a failed dead letter
+ * publish is retried with a backoff until it succeeds rather than leaving the record behind. The
+ * record keeps its {@code maxInFlight} permit meanwhile, which slows the listener down while
+ * Kafka is unavailable. Audit failures are logged and do not hold back the acknowledgment.
+ */
+@Slf4j
+public class DiiaAsyncNotificationListener {
+
+  private static final long DEAD_LETTER_RETRY_INITIAL_DELAY_MS = 500;
+  private static final long DEAD_LETTER_RETRY_MAX_DELAY_MS = 30_000;
+
+  private final DiiaService diiaService;
+  private final NotificationAuditFacade<DiiaNotificationMessageDto> notificationAuditFacade;
+  private final ConsumerRecordRecoverer deadLetterRecoverer;
+  private final Semaphore inFlight;
+  private final Duration retryInterval;
+  private final int maxRetries;
+  private final LongFunction<Executor> retryExecutor;
+  private final NotificationMetrics notificationMetrics;
+  private final ConcurrentMap<String, CompletableFuture<Void>> lastSentByKey =
+      new ConcurrentHashMap<>();
+
+  public DiiaAsyncNotificationListener(DiiaService diiaService,
+      NotificationAuditFacade<DiiaNotificationMessageDto> notificationAuditFacade,
+      ConsumerRecordRecoverer deadLetterRecoverer, int maxInFlight, Duration retryInterval,
+      int maxRetries, NotificationMetrics notificationMetrics) {
+    this(diiaService, notificationAuditFacade, deadLetterRecoverer, maxInFlight, retryInterval,
+        maxRetries, delayMs -> CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS),
+        notificationMetrics);
+  }
+
+  DiiaAsyncNotificationListener(DiiaService diiaService,
+      NotificationAuditFacade<DiiaNotificationMessageDto> notificationAuditFacade,
+      ConsumerRecordRecoverer deadLetterRecoverer, int maxInFlight, Duration retryInterval,
+      int maxRetries, LongFunction<Executor> retryExecutor,
+      NotificationMetrics notificationMetrics) {
+    this.diiaService = diiaService;
+    this.notificationAuditFacade = notificationAuditFacade;
+    this.deadLetterRecoverer = deadLetterRecoverer;
+    this.inFlight = new Semaphore(maxInFlight);
+    this.retryInterval = retryInterval;
+    this.maxRetries = maxRetries;
+    this.retryExecutor = retryExecutor;
+    this.notificationMetrics = notificationMetrics;
+  }
+
+  @KafkaListener(
+      topics = "\u0023{kafkaProperties.topics['diia-notifications']}",
+      groupId = "\u0023{kafkaProperties.consumer.groupId}",
+      containerFactory = "asyncAckKafkaListenerContainerFactory",
+      concurrency = "${notifications.channel-listener.concurrency:1}")
+  public void notify(ConsumerRecord<String, DiiaNotificationMessageDto> record,
+      Acknowledgment acknowledgment) {
+    var message = record.value();
+    if (Objects.isNull(message)) {
+      log.warn("Notification message at offset {} of {} could not be deserialized",
+          record.offset(), record.topic());
+      deadLetterRecoverer.accept(record,
+          new NotificationException("Notification message could not be deserialized"));
+      acknowledgment.acknowledge();
+      return;
+    }
+    log.info("Kafka event received. RecipientId: '{}', template: '{}'",
+        message.getRecipient().getId(), message.getDiiaNotificationDto().toString());
+
+    try {
+      inFlight.acquire();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new NotificationException("Interrupted while waiting to send diia notification", ex);
+    }
+    var mdc = MDC.getCopyOfContextMap();
+    var sample = notificationMetrics.start();
+    notifyInOrder(record.key(), message, mdc).whenComplete(
+        (result, exception) -> runWithMdc(mdc, () -> {
+          notificationMetrics.stop(sample, Stage.DIIA_CALL, Channel.DIIA, null,
+              Objects.isNull(exception));
+          audit(record, exception);
+          if (Objects.isNull(exception)) {
+            acknowledge(acknowledgment);
+          } else {
+            publishToDeadLetterTopic(record, cause(exception), acknowledgment, mdc, 0);
+          }
+        }));
+  }
+
+  private void acknowledge(Acknowledgment acknowledgment) {
+    try {
+      acknowledgment.acknowledge();
+      log.info("Kafka event processed");
+    } finally {
+      inFlight.release();
+    }
+  }
+
+  private void publishToDeadLetterTopic(ConsumerRecord<String, DiiaNotificationMessageDto> record,
+      Throwable cause, Acknowledgment acknowledgment, Map<String, String> mdc, int attempt) {
+    try {
+      deadLetterRecoverer.accept(record, new NotificationException(cause.getMessage(), cause));
+    } catch (RuntimeException ex) {
+      var delayMs = Math.min(DEAD_LETTER_RETRY_INITIAL_DELAY_MS << Math.min(attempt, 16),
+          DEAD_LETTER_RETRY_MAX_DELAY_MS);
+      log.error("Dead letter publish of Kafka event at offset {} of {} failed, retrying in {} ms",
+          record.offset(), record.topic(), delayMs, ex);
+      retryExecutor.apply(delayMs).execute(() -> runWithMdc(mdc,
+          () -> publishToDeadLetterTopic(record, cause, acknowledgment, mdc, attempt + 1)));
+      return;
+    }
+    acknowledge(acknowledgment);
+  }
+
+  /**
+   * Send the notification once the previous notification with the same record key is completed
+   */
+  private CompletableFuture<Void> notifyInOrder(String key, DiiaNotificationMessageDto message,
+      Map<String, String> mdc) {
+    if (Objects.isNull(key)) {
+      return notifyWithRetries(message, mdc, 0);
+    }
+    var completed = new CompletableFuture<Void>();
+    var previous = lastSentByKey.put(key, completed);
+    var sent = Objects.isNull(previous) ? notifyWithRetries(message, mdc, 0)
+        : previous.handle((result, exception) -> null)
+            .thenCompose(ignored -> notifyWithRetries(message, mdc, 0));
+    sent.whenComplete((result, exception) -> {
+      lastSentByKey.remove(key, completed);
+      if (Objects.isNull(exception)) {
+        completed.complete(result);
+      } else {
+        completed.completeExceptionally(exception);
+      }
+    });
+    return completed;
+  }
+
+  /**
+   * Send the notification, a failed send is retried every {@code retryInterval} until
+   * {@code maxRetries} is reached
+   */
+  private CompletableFuture<Void> notifyWithRetries(DiiaNotificationMessageDto message,
+      Map<String, String> mdc, int attempt) {
+    var sent = withMdc(mdc, () -> notifyAsync(message));
+    if (attempt >= maxRetries) {
+      return sent;
+    }
+    return sent.handle((result, exception) -> {
+      if (Objects.isNull(exception)) {
+        return CompletableFuture.<Void>completedFuture(null);
+      }
+      runWithMdc(mdc, () -> log.warn("Diia notification failed, retry {} of {} in {}",
+          attempt + 1, maxRetries, retryInterval, cause(exception)));
+      return CompletableFuture.supplyAsync(() -> notifyWithRetries(message, mdc, attempt + 1),
+          retryExecutor.apply(retryInterval.toMillis())).thenCompose(retried -> retried);
+    }).thenCompose(retried -> retried);
+  }
+
+  private CompletableFuture<Void> notifyAsync(DiiaNotificationMessageDto message) {
+    try {
+      return diiaService.notifyAsync(message);
+    } catch (RuntimeException exception) {
+      return CompletableFuture.failedFuture(exception);
+    }
+  }
+
+  private void audit(ConsumerRecord<String, DiiaNotificationMessageDto> record,
+      Throwable exception) {
+    try {
+      if (Objects.isNull(exception)) {
+        notificationAuditFacade.sendAuditOnSuccess(Channel.DIIA, record.value());
+      } else {
+        notificationAuditFacade.sendAuditOnFailure(Channel.DIIA, record.value(), Step.AFTER,
+            cause(exception).getMessage());
+      }
+    } catch (RuntimeException ex) {
+      log.error("Audit of Kafka event at offset {} of {} failed", record.offset(),
+          record.topic(), ex);
+    }
+  }
+
+  /**
+   * Run the action with the logging context of the listener thread, the context of the current
+   * thread is restored afterwards
+   */
+  private static <T> T withMdc(Map<String, String> mdc, Supplier<T> action) {
+    var previous = MDC.getCopyOfContextMap();
+    setMdc(mdc);
+    try {
+      return action.get();
+    } finally {
+      setMdc(previous);
+    }
+  }
+
+  private static void runWithMdc(Map<String, String> mdc, Runnable action) {
+    withMdc(mdc, () -> {
+      action.run();
+      return null;
+    });
+  }
+
+  private static void setMdc(Map<String, String> mdc) {
+    if (Objects.isNull(mdc)) {
+      MDC.clear();
+    } else {
+      MDC.setContextMap(mdc);
+    }
+  }
+
+  private static Throwable cause(Throwable exception) {
+    return exception instanceof CompletionException && Objects.nonNull(exception.getCause())
+        ? exception.getCause() : exception;
+  }
+}
@@ -18,6 +18,7 @@ package com.epam.digital.data.platform.notification.diia.listener;
 
 import com.epam.digital.data.platform.notification.audit.NotificationAuditFacade;
 import com.epam.digital.data.platform.notification.core.listener.AbstractNotificationListener;
+import com.epam.digital.data.platform.notification.core.metrics.NotificationMetrics;
 import com.epam.digital.data.platform.notification.dto.diia.DiiaNotificationMessageDto;
 import com.epam.digital.data.platform.notification.service.NotificationService;
 import com.epam.digital.data.platform.settings.model.dto.Channel;
@@ -29,14 +30,16 @@ public class DiiaNotificationListener extends AbstractNotificationListener<DiiaN
 
   public DiiaNotificationListener(
       NotificationService<DiiaNotificationMessageDto> notificationService,
-      NotificationAuditFacade<DiiaNotificationMessageDto> notificationAuditFacade) {
-    super(notificationService, notificationAuditFacade);
+      NotificationAuditFacade<DiiaNotificationMessageDto> notificationAuditFacade,
+      NotificationMetrics notificationMetrics) {
+    super(notificationService, notificationAuditFacade, notificationMetrics);
   }
 
   @KafkaListener(
       topics = "\u0023{kafkaProperties.topics['diia-notifications']}",
       groupId = "\u0023{kafkaProperties.consumer.groupId}",
-      containerFactory = "concurrentKafkaListenerContainerFactory")
+      containerFactory = "concurrentKafkaListenerContainerFactory",
+      concurrency = "${notifications.channel-listener.concurrency:1}")
   @Override
   public void notify(DiiaNotificationMessageDto message) {
     log.info("Kafka event received. RecipientId: '{}', template: '{}'",
@@ -25,9 +25,11 @@ import com.epam.digital.data.platform.notification.dto.diia.DiiaNotificationMess
 import com.epam.digital.data.platform.notification.dto.diia.DiiaRecipientDto;
 import com.epam.digital.data.platform.notification.template.NotificationTemplateService;
 import com.epam.digital.data.platform.settings.model.dto.Channel;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Objects;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.core.KafkaTemplate;
 
@@ -49,7 +51,7 @@ public class DiiaNotificationProducer extends
 
   public DiiaNotificationMessageDto createMessageDto(Recipient recipient,
       UserNotificationMessageDto message) {
-    var diiaChannel = getChannelObject(recipient.getChannels());
+    var recipientDto = toRecipientDto(recipient);
     var templateName = message.getNotification().getTemplateName();
     return DiiaNotificationMessageDto.builder()
         .context(message.getContext())
@@ -57,11 +59,32 @@ public class DiiaNotificationProducer extends
             .templateName(templateName)
             .externalTemplateId(getTemplateId(templateName))
             .build())
-        .recipient(DiiaRecipientDto.builder()
-            .rnokpp(diiaChannel.getRnokpp())
-            .id(recipient.getId())
-            .parameters(mapToListKeyValue(recipient.getParameters()))
-            .build())
+        .recipient(recipientDto)
+        .build();
+  }
+
+  @Override
+  public DiiaNotificationMessageDto copyForRecipient(
+      DiiaNotificationMessageDto renderedMessageDto, Recipient recipient) {
+    return DiiaNotificationMessageDto.builder()
+        .context(renderedMessageDto.getContext())
+        .diiaNotificationDto(renderedMessageDto.getDiiaNotificationDto())
+        .recipient(toRecipientDto(recipient))
+        .build();
+  }
+
+  @Override
+  protected String getRecipientId(DiiaNotificationMessageDto notificationMessageDto) {
+    var recipient = notificationMessageDto.getRecipient();
+    return Objects.isNull(recipient) ? null : recipient.getId();
+  }
+
+  private DiiaRecipientDto toRecipientDto(Recipient recipient) {
+    var diiaChannel = getChannelObject(recipient.getChannels());
+    return DiiaRecipientDto.builder()
+        .rnokpp(diiaChannel.getRnokpp())
+        .id(recipient.getId())
+        .parameters(mapToListKeyValue(recipient.getParameters()))
         .build();
   }
 
@@ -70,9 +93,23 @@ public class DiiaNotificationProducer extends
         .getExtTemplateId();
   }
 
+  /**
+   * Diia template parameters are strings, so scalar values are passed as their string form.
+   * Collections and maps of the template model (e.g. recipient roles) are not passed to Diia
+   */
   private List<KeyValue> mapToListKeyValue(Map<String, Object> parameters) {
-    return parameters.entrySet().stream()
-        .map(entry -> new KeyValue(entry.getKey(), (String) entry.getValue()))
-        .collect(Collectors.toList());
+    var skippedKeys = new ArrayList<String>();
+    var keyValues = new ArrayList<KeyValue>();
+    parameters.forEach((key, value) -> {
+      if (value instanceof Collection || value instanceof Map) {
+        skippedKeys.add(key);
+      } else {
+        keyValues.add(new KeyValue(key, Objects.toString(value, null)));
+      }
+    });
+    if (!skippedKeys.isEmpty()) {
+      log.debug("Parameters {} are not passed to Diia as they are not scalar values", skippedKeys);
+    }
+    return keyValues;
   }
 }
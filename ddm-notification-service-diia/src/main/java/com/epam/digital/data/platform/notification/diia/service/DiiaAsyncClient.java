@@ -0,0 +1,116 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.diia.service;
+
+import com.epam.digital.data.platform.notification.dto.diia.DiiaSendNotificationRequestDto;
+import com.epam.digital.data.platform.notification.dto.diia.DiiaToken;
+import com.epam.digital.data.platform.notification.dto.diia.DistributionId;
+import com.epam.digital.data.platform.notification.exception.NotificationException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+/**
+ * Non-blocking client of the Diia push notification API.
+ * <p>
+ * Built on the JDK {@link HttpClient} that keeps connections alive between requests and
+ * negotiates HTTP/2 when the server supports it, falling back to HTTP/1.1 otherwise.
+ */
+@Slf4j
+public class DiiaAsyncClient {
+
+  private static final String TOKEN_PATH = "/api/v1/auth/partner/";
+  private static final String SEND_NOTIFICATION_PATH = "/api/v1/notification/distribution/push";
+  private static final String BEARER_HEADER_PATTERN = "Bearer %s";
+
+  private final HttpClient httpClient;
+  private final String baseUrl;
+  private final Duration requestTimeout;
+  private final ObjectMapper objectMapper;
+
+  public DiiaAsyncClient(HttpClient httpClient, String baseUrl, Duration requestTimeout,
+      ObjectMapper objectMapper) {
+    this.httpClient = httpClient;
+    this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    this.requestTimeout = requestTimeout;
+    this.objectMapper = objectMapper;
+  }
+
+  public CompletableFuture<DiiaToken> getToken(String partnerToken) {
+    var request = HttpRequest.newBuilder(
+            uri(TOKEN_PATH + URLEncoder.encode(partnerToken, StandardCharsets.UTF_8)))
+        .timeout(requestTimeout)
+        .GET()
+        .build();
+    return send(request, DiiaToken.class);
+  }
+
+  public CompletableFuture<DistributionId> sendNotification(
+      DiiaSendNotificationRequestDto sendNotificationRequestDto, String accessToken) {
+    byte[] body;
+    try {
+      body = objectMapper.writeValueAsBytes(sendNotificationRequestDto);
+    } catch (JsonProcessingException ex) {
+      return CompletableFuture.failedFuture(
+          new NotificationException("Couldn't serialize diia notification request", ex));
+    }
+    var request = HttpRequest.newBuilder(uri(SEND_NOTIFICATION_PATH))
+        .timeout(requestTimeout)
+        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+        .header(HttpHeaders.AUTHORIZATION, String.format(BEARER_HEADER_PATTERN, accessToken))
+        .POST(BodyPublishers.ofByteArray(body))
+        .build();
+    return send(request, DistributionId.class);
+  }
+
+  private <T> CompletableFuture<T> send(HttpRequest request, Class<T> responseType) {
+    return httpClient.sendAsync(request, BodyHandlers.ofByteArray())
+        .thenApply(response -> readResponse(request, response, responseType));
+  }
+
+  private <T> T readResponse(HttpRequest request, HttpResponse<byte[]> response,
+      Class<T> responseType) {
+    log.debug("Diia responded with {} over {} to {} request", response.statusCode(),
+        response.version(), request.method());
+    if (response.statusCode() < 200 || response.statusCode() >= 300) {
+      throw new NotificationException(String.format("Diia responded with status %d: %s",
+          response.statusCode(), new String(response.body(), StandardCharsets.UTF_8)));
+    }
+    try {
+      return objectMapper.readValue(response.body(), responseType);
+    } catch (IOException ex) {
+      throw new NotificationException("Couldn't parse diia response", ex);
+    }
+  }
+
+  private URI uri(String path) {
+    return URI.create(baseUrl + path);
+  }
+}
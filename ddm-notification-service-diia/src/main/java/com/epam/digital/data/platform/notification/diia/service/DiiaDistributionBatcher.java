@@ -0,0 +1,157 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.diia.service;
+
+import com.epam.digital.data.platform.notification.dto.diia.DiiaRecipientDto;
+import com.epam.digital.data.platform.notification.dto.diia.DistributionId;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+/**
+ * Coalesces recipients of the same diia template into multi-recipient distributions.
+ * <p>
+ * A distribution is sent as soon as it has {@code maxBatchSize} recipients or {@code linger}
+ * after its first recipient was added, whichever comes first. Every recipient gets the id of the
+ * distribution it was sent in.
+ */
+@Slf4j
+public class DiiaDistributionBatcher implements DisposableBean {
+
+  private final int maxBatchSize;
+  private final Duration linger;
+  private final ScheduledExecutorService scheduler;
+
+  private final Map<String, PendingDistribution> pending = new HashMap<>();
+
+  public DiiaDistributionBatcher(int maxBatchSize, Duration linger) {
+    this.maxBatchSize = maxBatchSize;
+    this.linger = linger;
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      var thread = new Thread(runnable, "diia-distribution-batcher");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Add recipient to the pending distribution of the template
+   *
+   * @param templateId diia external template id
+   * @param recipient  distribution recipient
+   * @param sender     sends a distribution to the collected recipients, used if this recipient
+   *                   opens a new distribution
+   * @return future of the id of the distribution the recipient was sent in
+   */
+  public CompletableFuture<String> submit(String templateId, DiiaRecipientDto recipient,
+      Function<List<DiiaRecipientDto>, CompletableFuture<DistributionId>> sender) {
+    var future = new CompletableFuture<String>();
+    PendingDistribution ready = null;
+    synchronized (pending) {
+      var distribution = pending.get(templateId);
+      if (Objects.isNull(distribution)) {
+        distribution = new PendingDistribution(sender);
+        pending.put(templateId, distribution);
+        if (maxBatchSize > 1 && !linger.isZero()) {
+          var scheduled = distribution;
+          distribution.lingerTimeout = scheduler.schedule(() -> flush(templateId, scheduled),
+              linger.toNanos(), TimeUnit.NANOSECONDS);
+        }
+      }
+      distribution.add(recipient, future);
+      if (distribution.recipients.size() >= maxBatchSize || linger.isZero()) {
+        pending.remove(templateId);
+        ready = distribution;
+      }
+    }
+    if (Objects.nonNull(ready)) {
+      send(ready);
+    }
+    return future;
+  }
+
+  @Override
+  public void destroy() {
+    List<PendingDistribution> remaining;
+    synchronized (pending) {
+      remaining = new ArrayList<>(pending.values());
+      pending.clear();
+    }
+    remaining.forEach(this::send);
+    scheduler.shutdownNow();
+  }
+
+  private void flush(String templateId, PendingDistribution distribution) {
+    synchronized (pending) {
+      if (!pending.remove(templateId, distribution)) {
+        return;
+      }
+    }
+    send(distribution);
+  }
+
+  private void send(PendingDistribution distribution) {
+    if (Objects.nonNull(distribution.lingerTimeout)) {
+      distribution.lingerTimeout.cancel(false);
+    }
+    log.debug("Sending diia distribution to {} recipients", distribution.recipients.size());
+    CompletableFuture<DistributionId> sent;
+    try {
+      sent = distribution.sender.apply(List.copyOf(distribution.recipients));
+    } catch (RuntimeException exception) {
+      sent = CompletableFuture.failedFuture(exception);
+    }
+    sent.whenComplete((result, exception) -> {
+      for (var future : distribution.futures) {
+        if (Objects.isNull(exception)) {
+          future.complete(result.getDistributionId());
+        } else {
+          future.completeExceptionally(exception);
+        }
+      }
+    });
+  }
+
+  private static final class PendingDistribution {
+
+    private final Function<List<DiiaRecipientDto>, CompletableFuture<DistributionId>> sender;
+    private final List<DiiaRecipientDto> recipients = new ArrayList<>();
+    private final List<CompletableFuture<String>> futures = new ArrayList<>();
+    private ScheduledFuture<?> lingerTimeout;
+
+    private PendingDistribution(
+        Function<List<DiiaRecipientDto>, CompletableFuture<DistributionId>> sender) {
+      this.sender = sender;
+    }
+
+    private void add(DiiaRecipientDto recipient, CompletableFuture<String> future) {
+      recipients.add(recipient);
+      futures.add(future);
+    }
+  }
+}
@@ -20,10 +20,21 @@ import static org.apache.http.HttpHeaders.AUTHORIZATION;
 
 import com.epam.digital.data.platform.notification.dto.diia.DiiaNotificationMessageDto;
 import com.epam.digital.data.platform.notification.dto.diia.DiiaPublishTemplateRequestDto;
+import com.epam.digital.data.platform.notification.dto.diia.DiiaRecipientDto;
 import com.epam.digital.data.platform.notification.dto.diia.DiiaSendNotificationRequestDto;
+import com.epam.digital.data.platform.notification.dto.diia.DiiaToken;
+import com.epam.digital.data.platform.notification.dto.diia.DistributionId;
 import com.epam.digital.data.platform.notification.dto.diia.ExternalTemplateId;
+import com.epam.digital.data.platform.notification.exception.NotificationException;
 import com.epam.digital.data.platform.notification.service.NotificationService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
@@ -36,8 +47,11 @@ public class DiiaService implements NotificationService<DiiaNotificationMessageD
   private static final String BEARER_HEADER_PATTERN = "Bearer %s";
 
   private final DiiaRestClient diiaRestClient;
+  private final DiiaAsyncClient diiaAsyncClient;
   private final String partnerToken;
   private final TokenCacheService tokenCacheService;
+  private final DiiaDistributionBatcher distributionBatcher;
+  private final boolean asyncClientEnabled;
 
   @Override
   public void notify(DiiaNotificationMessageDto message) {
@@ -47,6 +61,71 @@ public class DiiaService implements NotificationService<DiiaNotificationMessageD
     log.info("Diia notification was sent. DistributionId: '{}'", result.getDistributionId());
   }
 
+  /**
+   * Send notification without blocking the calling thread. Notifications of the same template are
+   * coalesced into multi-recipient distributions.
+   *
+   * @param message notification message, its distribution id is set once the notification is sent
+   * @return future completed when diia accepts the distribution with the notification
+   */
+  public CompletableFuture<Void> notifyAsync(DiiaNotificationMessageDto message) {
+    log.info("Sending notification via diia. RecipientId: '{}'", message.getRecipient().getId());
+    var templateId = message.getDiiaNotificationDto().getExternalTemplateId();
+    return distributionBatcher.submit(templateId, message.getRecipient(),
+            recipients -> sendDistribution(templateId, recipients))
+        .thenAccept(distributionId -> {
+          message.setDistributionId(distributionId);
+          log.info("Diia notification was sent. DistributionId: '{}'", distributionId);
+        });
+  }
+
+  /**
+   * Send the messages through the non-blocking client when it is enabled, otherwise one by one.
+   * Messages of the same recipient are sent one after another in the order of the list.
+   */
+  @Override
+  public Map<Integer, RuntimeException> notifyBatch(List<DiiaNotificationMessageDto> messages) {
+    if (!asyncClientEnabled) {
+      return NotificationService.super.notifyBatch(messages);
+    }
+    var results = new ArrayList<CompletableFuture<Void>>(messages.size());
+    var lastSentByRecipient = new HashMap<String, CompletableFuture<Void>>();
+    for (var message : messages) {
+      var recipientKey = recipientKey(message.getRecipient());
+      var previous = Objects.isNull(recipientKey) ? null : lastSentByRecipient.get(recipientKey);
+      var sent = Objects.isNull(previous) ? notifyAsyncSafely(message)
+          : previous.handle((result, exception) -> null)
+              .thenCompose(ignored -> notifyAsyncSafely(message));
+      if (Objects.nonNull(recipientKey)) {
+        lastSentByRecipient.put(recipientKey, sent);
+      }
+      results.add(sent);
+    }
+    var failures = new LinkedHashMap<Integer, RuntimeException>();
+    for (var i = 0; i < results.size(); i++) {
+      try {
+        results.get(i).join();
+      } catch (CompletionException exception) {
+        var cause = exception.getCause();
+        failures.put(i, cause instanceof RuntimeException ? (RuntimeException) cause
+            : new NotificationException(cause.getMessage(), cause));
+      }
+    }
+    return failures;
+  }
+
+  private CompletableFuture<Void> notifyAsyncSafely(DiiaNotificationMessageDto message) {
+    try {
+      return notifyAsync(message);
+    } catch (RuntimeException exception) {
+      return CompletableFuture.failedFuture(exception);
+    }
+  }
+
+  private static String recipientKey(DiiaRecipientDto recipient) {
+    return Objects.nonNull(recipient.getId()) ? recipient.getId() : recipient.getRnokpp();
+  }
+
   public ExternalTemplateId publishTemplate(DiiaPublishTemplateRequestDto template) {
     return diiaRestClient.publishTemplate(template, createHeaders());
   }
@@ -70,4 +149,20 @@ public class DiiaService implements NotificationService<DiiaNotificationMessageD
     return tokenCacheService.getCachedTokenOrElse(cacheName, cacheName,
         () -> diiaRestClient.getToken(partnerToken).getToken());
   }
+
+  private CompletableFuture<DistributionId> sendDistribution(String templateId,
+      List<DiiaRecipientDto> recipients) {
+    var request = DiiaSendNotificationRequestDto.builder()
+        .templateId(templateId)
+        .recipients(recipients)
+        .build();
+    return getAccessTokenAsync()
+        .thenCompose(accessToken -> diiaAsyncClient.sendNotification(request, accessToken));
+  }
+
+  private CompletableFuture<String> getAccessTokenAsync() {
+    var cacheName = diiaRestClient.getClass().getName();
+    return tokenCacheService.getCachedTokenOrElseAsync(cacheName, cacheName,
+        () -> diiaAsyncClient.getToken(partnerToken).thenApply(DiiaToken::getToken));
+  }
 }
@@ -18,19 +18,33 @@ package com.epam.digital.data.platform.notification.diia.service;
 
 import com.nimbusds.jwt.SignedJWT;
 import java.text.ParseException;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Date;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Supplier;
+import lombok.EqualsAndHashCode;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
-import org.springframework.stereotype.Service;
 
 /**
  * Service that is used for storing and accessing token in cache for its reusing.
+ * <p>
+ * Tokens read from or stored to the cache are kept parsed together with their expiration time,
+ * so a valid token is returned without parsing it again. Concurrent callers that find the token
+ * expired share a single refresh, and a token that expires within {@code refreshAhead} is
+ * refreshed in the background while the current one is still returned.
  */
 @Slf4j
 @RequiredArgsConstructor
@@ -38,6 +52,21 @@ public class TokenCacheService {
 
   private final CacheManager cacheManager;
 
+  private final ConcurrentMap<TokenKey, ParsedToken> parsedTokens = new ConcurrentHashMap<>();
+  private final ConcurrentMap<TokenKey, CompletableFuture<String>> refreshes =
+      new ConcurrentHashMap<>();
+
+  /**
+   * How long before expiration a token is refreshed in the background, zero disables background
+   * refresh
+   */
+  @Setter
+  private Duration refreshAhead = Duration.ZERO;
+  /**
+   * Executor of the background refresh
+   */
+  @Setter
+  private Executor refreshExecutor = ForkJoinPool.commonPool();
 
   /**
    * Checks if there are a token in cache with name {@code cacheName} and key {@code serviceName}.
@@ -46,7 +75,7 @@ public class TokenCacheService {
    * seconds (making sure that the token won't be expired in next 5 seconds) then method returns
    * cached token. Else if token couldn't be parsed (it's not a JWT) or token is expired then use
    * {@code tokenSupplier} to get a new token, store it in cache instead of existing one and return
-   * it.
+   * it. Concurrent callers that need a new token wait for the same {@code tokenSupplier} call.
    * <p>
    * Nullable because it's possible for the {@code tokenSupplier} to return null.
    *
@@ -59,36 +88,210 @@ public class TokenCacheService {
   @Nullable
   public String getCachedTokenOrElse(@NonNull String cacheName, @NonNull String serviceName,
       @NonNull Supplier<String> tokenSupplier) {
+    var key = new TokenKey(cacheName, serviceName);
+    var parsedToken = getParsedToken(key);
+    if (Objects.nonNull(parsedToken)) {
+      if (shouldRefreshAhead(parsedToken)) {
+        refreshInBackground(key, () -> refresh(key, getCache(key), tokenSupplier));
+      }
+      return parsedToken.token;
+    }
+
     log.debug("Getting token for service {} from cache {}", serviceName, cacheName);
-    final var cache = Objects.requireNonNull(cacheManager.getCache(cacheName));
-    final var cachedToken = cache.get(serviceName, String.class);
+    final var cache = getCache(key);
+    final var cachedToken = readCachedToken(key, cache);
+    if (Objects.nonNull(cachedToken)) {
+      return cachedToken.token;
+    }
+    return refresh(key, cache, tokenSupplier);
+  }
 
-    var expirationTime = getExpirationTimeFromToken(cachedToken);
-    if (Objects.nonNull(expirationTime) && expirationTime.after(getCurrentDatePlusFiveSeconds())) {
-      return cachedToken;
+  /**
+   * Non-blocking variant of {@link #getCachedTokenOrElse(String, String, Supplier)}. Returns a
+   * completed future with the cached token if it's not expired, else requests a new token from
+   * {@code tokenSupplier} and stores it in cache once it's received.
+   *
+   * @param cacheName     name of the cache to find token in (token type is normally used)
+   * @param serviceName   name of the service where stored token is used for an authentication (used
+   *                      as token cache key)
+   * @param tokenSupplier supplier of a future token that is used if stored token not found or is
+   *                      expired
+   * @return future of an unexpired token for an input service
+   */
+  @NonNull
+  public CompletableFuture<String> getCachedTokenOrElseAsync(@NonNull String cacheName,
+      @NonNull String serviceName, @NonNull Supplier<CompletableFuture<String>> tokenSupplier) {
+    var key = new TokenKey(cacheName, serviceName);
+    var parsedToken = getParsedToken(key);
+    if (Objects.nonNull(parsedToken)) {
+      if (shouldRefreshAhead(parsedToken)) {
+        refreshInBackground(key, () -> refreshAsync(key, getCache(key), tokenSupplier).join());
+      }
+      return CompletableFuture.completedFuture(parsedToken.token);
     }
 
-    var token = tokenSupplier.get();
-    if (Objects.nonNull(getExpirationTimeFromToken(token))) {
-      cache.put(serviceName, token);
+    log.debug("Getting token for service {} from cache {}", serviceName, cacheName);
+    final var cache = getCache(key);
+    final var cachedToken = readCachedToken(key, cache);
+    if (Objects.nonNull(cachedToken)) {
+      return CompletableFuture.completedFuture(cachedToken.token);
+    }
+    return refreshAsync(key, cache, tokenSupplier);
+  }
+
+  @Nullable
+  private ParsedToken getParsedToken(TokenKey key) {
+    var parsedToken = parsedTokens.get(key);
+    return Objects.nonNull(parsedToken) && isUnexpired(parsedToken) ? parsedToken : null;
+  }
+
+  /**
+   * @return unexpired token that is not due to be refreshed ahead of expiration
+   */
+  @Nullable
+  private ParsedToken getFreshToken(TokenKey key) {
+    var parsedToken = getParsedToken(key);
+    return Objects.nonNull(parsedToken) && !shouldRefreshAhead(parsedToken) ? parsedToken : null;
+  }
+
+  @Nullable
+  private ParsedToken readCachedToken(TokenKey key, Cache cache) {
+    var cachedToken = parse(cache.get(key.serviceName, String.class));
+    if (Objects.isNull(cachedToken) || !isUnexpired(cachedToken)) {
+      return null;
+    }
+    parsedTokens.put(key, cachedToken);
+    return cachedToken;
+  }
+
+  private Cache getCache(TokenKey key) {
+    return Objects.requireNonNull(cacheManager.getCache(key.cacheName));
+  }
+
+  private String refresh(TokenKey key, Cache cache, Supplier<String> tokenSupplier) {
+    var refresh = new CompletableFuture<String>();
+    var inProgress = refreshes.putIfAbsent(key, refresh);
+    if (Objects.nonNull(inProgress)) {
+      return join(inProgress);
+    }
+    try {
+      // another refresh could have completed since the token was read
+      var freshToken = getFreshToken(key);
+      String token;
+      if (Objects.nonNull(freshToken)) {
+        token = freshToken.token;
+      } else {
+        token = tokenSupplier.get();
+        store(key, cache, token);
+      }
+      refreshes.remove(key, refresh);
+      refresh.complete(token);
+      return token;
+    } catch (RuntimeException | Error exception) {
+      refreshes.remove(key, refresh);
+      refresh.completeExceptionally(exception);
+      throw exception;
+    }
+  }
+
+  private CompletableFuture<String> refreshAsync(TokenKey key, Cache cache,
+      Supplier<CompletableFuture<String>> tokenSupplier) {
+    var refresh = new CompletableFuture<String>();
+    var inProgress = refreshes.putIfAbsent(key, refresh);
+    if (Objects.nonNull(inProgress)) {
+      return inProgress;
+    }
+    var freshToken = getFreshToken(key);
+    if (Objects.nonNull(freshToken)) {
+      refreshes.remove(key, refresh);
+      refresh.complete(freshToken.token);
+      return refresh;
+    }
+    CompletableFuture<String> supplied;
+    try {
+      supplied = tokenSupplier.get();
+    } catch (RuntimeException exception) {
+      supplied = CompletableFuture.failedFuture(exception);
+    }
+    supplied.whenComplete((token, exception) -> {
+      try {
+        if (Objects.isNull(exception)) {
+          store(key, cache, token);
+        }
+      } finally {
+        refreshes.remove(key, refresh);
+      }
+      if (Objects.isNull(exception)) {
+        refresh.complete(token);
+      } else {
+        refresh.completeExceptionally(exception);
+      }
+    });
+    return refresh;
+  }
+
+  private void refreshInBackground(TokenKey key, Runnable refresh) {
+    if (refreshes.containsKey(key)) {
+      return;
+    }
+    log.debug("Refreshing token for service {} before it expires", key.serviceName);
+    refreshExecutor.execute(() -> {
+      try {
+        refresh.run();
+      } catch (RuntimeException exception) {
+        log.warn("Couldn't refresh token for service {} in background: {}", key.serviceName,
+            exception.getMessage());
+      }
+    });
+  }
+
+  private void store(TokenKey key, Cache cache, @Nullable String token) {
+    var parsedToken = parse(token);
+    if (Objects.isNull(parsedToken)) {
+      return;
+    }
+    cache.put(key.serviceName, token);
+    parsedTokens.put(key, parsedToken);
+  }
+
+  private boolean isUnexpired(ParsedToken parsedToken) {
+    return parsedToken.expirationTime.after(getCurrentDatePlusFiveSeconds());
+  }
+
+  private boolean shouldRefreshAhead(ParsedToken parsedToken) {
+    if (refreshAhead.isZero()) {
+      return false;
+    }
+    var refreshAt = parsedToken.expirationTime.toInstant().minus(refreshAhead);
+    return !refreshAt.isAfter(getCurrentDatePlusFiveSeconds().toInstant());
+  }
+
+  private static String join(CompletableFuture<String> refresh) {
+    try {
+      return refresh.join();
+    } catch (CompletionException exception) {
+      if (exception.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) exception.getCause();
+      }
+      throw exception;
     }
-    return token;
   }
 
   /**
    * Parses input token and get an expiration time from it. If an input token is {@code null} or
-   * cannot be parsed (it's not a JWT) then returns {@code null} as an expiration time.
+   * cannot be parsed (it's not a JWT) or has no expiration time then returns {@code null}.
    *
-   * @param token nullable token to parse and get expiration time
-   * @return found expiration time or {@code null} if it's not found for any reason
+   * @param token nullable token to parse
+   * @return parsed token or {@code null} if it's not parsed for any reason
    */
   @Nullable
-  private static Date getExpirationTimeFromToken(@Nullable String token) {
+  private static ParsedToken parse(@Nullable String token) {
     if (Objects.isNull(token)) {
       return null;
     }
     try {
-      return SignedJWT.parse(token).getJWTClaimsSet().getExpirationTime();
+      var expirationTime = SignedJWT.parse(token).getJWTClaimsSet().getExpirationTime();
+      return Objects.isNull(expirationTime) ? null : new ParsedToken(token, expirationTime);
     } catch (ParseException e) {
       log.warn("Couldn't parse JWT token: {}", e.getMessage());
       return null;
@@ -98,4 +301,19 @@ public class TokenCacheService {
   Date getCurrentDatePlusFiveSeconds() {
     return Date.from(Instant.now().plusSeconds(5));
   }
+
+  @EqualsAndHashCode
+  @RequiredArgsConstructor
+  private static final class TokenKey {
+
+    private final String cacheName;
+    private final String serviceName;
+  }
+
+  @RequiredArgsConstructor
+  private static final class ParsedToken {
+
+    private final String token;
+    private final Date expirationTime;
+  }
 }
@@ -20,6 +20,7 @@ import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import com.epam.digital.data.platform.notification.core.metrics.NotificationMetrics;
 import com.epam.digital.data.platform.notification.dto.NotificationContextDto;
 import com.epam.digital.data.platform.notification.dto.audit.DeliveryAuditDto;
 import com.epam.digital.data.platform.notification.dto.diia.DiiaNotificationAuditDto;
@@ -32,6 +33,7 @@ import com.epam.digital.data.platform.starter.audit.model.AuditEvent;
 import com.epam.digital.data.platform.starter.audit.model.AuditSourceInfo;
 import com.epam.digital.data.platform.starter.audit.model.Step;
 import com.epam.digital.data.platform.starter.audit.service.AuditService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.time.Clock;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
@@ -50,7 +52,8 @@ class DiiaNotificationAuditFacadeTest {
 
   @BeforeEach
   void init() {
-    auditFacade = new DiiaNotificationAuditFacade(auditService, "app", Clock.systemUTC());
+    auditFacade = new DiiaNotificationAuditFacade(auditService, "app", Clock.systemUTC(),
+        new NotificationMetrics(new SimpleMeterRegistry()));
   }
 
   @Test
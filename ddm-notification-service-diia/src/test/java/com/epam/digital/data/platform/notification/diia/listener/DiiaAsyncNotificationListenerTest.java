@@ -0,0 +1,248 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.diia.listener;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.epam.digital.data.platform.notification.core.metrics.NotificationMetrics;
+import com.epam.digital.data.platform.notification.diia.audit.DiiaNotificationAuditFacade;
+import com.epam.digital.data.platform.notification.diia.service.DiiaService;
+import com.epam.digital.data.platform.notification.dto.diia.DiiaNotificationDto;
+import com.epam.digital.data.platform.notification.dto.diia.DiiaNotificationMessageDto;
+import com.epam.digital.data.platform.notification.dto.diia.DiiaRecipientDto;
+import com.epam.digital.data.platform.notification.exception.NotificationException;
+import com.epam.digital.data.platform.settings.model.dto.Channel;
+import com.epam.digital.data.platform.starter.audit.model.Step;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.MDC;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.kafka.support.Acknowledgment;
+
+@ExtendWith(MockitoExtension.class)
+class DiiaAsyncNotificationListenerTest {
+
+  private static final String TOPIC = "diia-notifications";
+
+  @Mock
+  private DiiaService diiaService;
+  @Mock
+  private DiiaNotificationAuditFacade diiaNotificationAuditFacade;
+  @Mock
+  private ConsumerRecordRecoverer deadLetterRecoverer;
+  @Mock
+  private Acknowledgment acknowledgment;
+
+  private DiiaAsyncNotificationListener listener;
+
+  @BeforeEach
+  void setup() {
+    listener = new DiiaAsyncNotificationListener(diiaService, diiaNotificationAuditFacade,
+        deadLetterRecoverer, 2, Duration.ofSeconds(10), 2, delayMs -> Runnable::run,
+        new NotificationMetrics(new SimpleMeterRegistry()));
+  }
+
+  @Test
+  void shouldAuditAndAcknowledgeOnceSent() {
+    var message = createMessage();
+    var sent = new CompletableFuture<Void>();
+    when(diiaService.notifyAsync(message)).thenReturn(sent);
+
+    listener.notify(new ConsumerRecord<>(TOPIC, 0, 0L, null, message), acknowledgment);
+
+    verifyNoInteractions(acknowledgment, diiaNotificationAuditFacade);
+
+    sent.complete(null);
+
+    verify(diiaNotificationAuditFacade).sendAuditOnSuccess(Channel.DIIA, message);
+    verify(acknowledgment).acknowledge();
+    verifyNoInteractions(deadLetterRecoverer);
+  }
+
+  @Test
+  void shouldAuditPublishToDeadLetterTopicAndAcknowledgeOnFailure() {
+    var message = createMessage();
+    var record = new ConsumerRecord<String, DiiaNotificationMessageDto>(TOPIC, 0, 0L, null,
+        message);
+    when(diiaService.notifyAsync(message))
+        .thenReturn(CompletableFuture.failedFuture(new NotificationException("error")));
+
+    listener.notify(record, acknowledgment);
+
+    verify(diiaNotificationAuditFacade)
+        .sendAuditOnFailure(Channel.DIIA, message, Step.AFTER, "error");
+    verify(deadLetterRecoverer).accept(eq(record), any(NotificationException.class));
+    verify(acknowledgment).acknowledge();
+  }
+
+  @Test
+  void shouldRetryNotificationBeforePublishingToDeadLetterTopic() {
+    var message = createMessage();
+    var record = new ConsumerRecord<String, DiiaNotificationMessageDto>(TOPIC, 0, 0L, null,
+        message);
+    when(diiaService.notifyAsync(message))
+        .thenReturn(CompletableFuture.failedFuture(new NotificationException("error")))
+        .thenReturn(CompletableFuture.completedFuture(null));
+
+    listener.notify(record, acknowledgment);
+
+    verify(diiaService, times(2)).notifyAsync(message);
+    verify(diiaNotificationAuditFacade).sendAuditOnSuccess(Channel.DIIA, message);
+    verify(acknowledgment).acknowledge();
+    verifyNoInteractions(deadLetterRecoverer);
+  }
+
+  @Test
+  void shouldPublishToDeadLetterTopicOnceRetriesAreExhausted() {
+    var message = createMessage();
+    var record = new ConsumerRecord<String, DiiaNotificationMessageDto>(TOPIC, 0, 0L, null,
+        message);
+    when(diiaService.notifyAsync(message))
+        .thenReturn(CompletableFuture.failedFuture(new NotificationException("error")));
+
+    listener.notify(record, acknowledgment);
+
+    verify(diiaService, times(3)).notifyAsync(message);
+    verify(diiaNotificationAuditFacade, times(1))
+        .sendAuditOnFailure(Channel.DIIA, message, Step.AFTER, "error");
+    verify(deadLetterRecoverer, times(1)).accept(eq(record), any(NotificationException.class));
+  }
+
+  @Test
+  void shouldCompleteNotificationWithLoggingContextOfListener() {
+    var message = createMessage();
+    var sent = new CompletableFuture<Void>();
+    var auditTraceId = new AtomicReference<String>();
+    when(diiaService.notifyAsync(message)).thenReturn(sent);
+    doAnswer(invocation -> {
+      auditTraceId.set(MDC.get("X-B3-TraceId"));
+      return null;
+    }).when(diiaNotificationAuditFacade).sendAuditOnSuccess(Channel.DIIA, message);
+
+    MDC.put("X-B3-TraceId", "trace-id");
+    try {
+      listener.notify(new ConsumerRecord<>(TOPIC, 0, 0L, null, message), acknowledgment);
+    } finally {
+      MDC.clear();
+    }
+    CompletableFuture.runAsync(() -> sent.complete(null)).join();
+
+    assertThat(auditTraceId).hasValue("trace-id");
+  }
+
+  @Test
+  void shouldRetryDeadLetterPublishingUntilItSucceeds() {
+    var message = createMessage();
+    var record = new ConsumerRecord<String, DiiaNotificationMessageDto>(TOPIC, 0, 0L, null,
+        message);
+    when(diiaService.notifyAsync(message))
+        .thenReturn(CompletableFuture.failedFuture(new NotificationException("error")));
+    doThrow(new IllegalStateException("kafka is down"))
+        .doThrow(new IllegalStateException("kafka is down"))
+        .doNothing()
+        .when(deadLetterRecoverer).accept(eq(record), any(NotificationException.class));
+
+    listener.notify(record, acknowledgment);
+
+    verify(deadLetterRecoverer, times(3)).accept(eq(record), any(NotificationException.class));
+    verify(acknowledgment).acknowledge();
+  }
+
+  @Test
+  void shouldAcknowledgeIfAuditFails() {
+    var message = createMessage();
+    when(diiaService.notifyAsync(message)).thenReturn(CompletableFuture.completedFuture(null));
+    doThrow(new IllegalStateException("audit is down"))
+        .when(diiaNotificationAuditFacade).sendAuditOnSuccess(Channel.DIIA, message);
+
+    listener.notify(new ConsumerRecord<>(TOPIC, 0, 0L, null, message), acknowledgment);
+
+    verify(acknowledgment).acknowledge();
+  }
+
+  @Test
+  void shouldSendNotificationsWithSameKeyInOrder() {
+    var first = createMessage();
+    var second = createMessage();
+    second.getDiiaNotificationDto().setTemplateName("second");
+    var firstSent = new CompletableFuture<Void>();
+    when(diiaService.notifyAsync(first)).thenReturn(firstSent);
+    when(diiaService.notifyAsync(second)).thenReturn(CompletableFuture.completedFuture(null));
+
+    listener.notify(new ConsumerRecord<>(TOPIC, 0, 0L, "recipient-key", first), acknowledgment);
+    listener.notify(new ConsumerRecord<>(TOPIC, 0, 1L, "recipient-key", second), acknowledgment);
+
+    verify(diiaService, never()).notifyAsync(second);
+
+    firstSent.complete(null);
+
+    verify(diiaService).notifyAsync(second);
+    verify(diiaNotificationAuditFacade).sendAuditOnSuccess(Channel.DIIA, second);
+    verify(acknowledgment, times(2)).acknowledge();
+  }
+
+  @Test
+  void shouldSendNotificationAfterPreviousOneWithSameKeyFailed() {
+    var first = createMessage();
+    var second = createMessage();
+    second.getDiiaNotificationDto().setTemplateName("second");
+    var firstSent = new CompletableFuture<Void>();
+    when(diiaService.notifyAsync(first)).thenReturn(firstSent);
+    when(diiaService.notifyAsync(second)).thenReturn(CompletableFuture.completedFuture(null));
+
+    listener.notify(new ConsumerRecord<>(TOPIC, 0, 0L, "recipient-key", first), acknowledgment);
+    listener.notify(new ConsumerRecord<>(TOPIC, 0, 1L, "recipient-key", second), acknowledgment);
+    firstSent.completeExceptionally(new NotificationException("error"));
+
+    verify(diiaNotificationAuditFacade).sendAuditOnSuccess(Channel.DIIA, second);
+  }
+
+  @Test
+  void shouldPublishNotDeserializedRecordToDeadLetterTopic() {
+    var record = new ConsumerRecord<String, DiiaNotificationMessageDto>(TOPIC, 0, 0L, null, null);
+
+    listener.notify(record, acknowledgment);
+
+    verify(deadLetterRecoverer).accept(eq(record), any(NotificationException.class));
+    verify(acknowledgment).acknowledge();
+    verifyNoInteractions(diiaService);
+  }
+
+  private DiiaNotificationMessageDto createMessage() {
+    return DiiaNotificationMessageDto.builder()
+        .recipient(DiiaRecipientDto.builder().id("100").build())
+        .diiaNotificationDto(new DiiaNotificationDto())
+        .build();
+  }
+}
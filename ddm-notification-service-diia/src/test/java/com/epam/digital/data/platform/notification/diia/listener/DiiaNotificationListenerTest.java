@@ -21,6 +21,7 @@ import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import com.epam.digital.data.platform.notification.core.metrics.NotificationMetrics;
 import com.epam.digital.data.platform.notification.diia.audit.DiiaNotificationAuditFacade;
 import com.epam.digital.data.platform.notification.diia.service.DiiaService;
 import com.epam.digital.data.platform.notification.dto.diia.DiiaNotificationDto;
@@ -29,10 +30,12 @@ import com.epam.digital.data.platform.notification.dto.diia.DiiaRecipientDto;
 import com.epam.digital.data.platform.notification.exception.NotificationException;
 import com.epam.digital.data.platform.settings.model.dto.Channel;
 import com.epam.digital.data.platform.starter.audit.model.Step;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 @ExtendWith(MockitoExtension.class)
@@ -42,6 +45,9 @@ class DiiaNotificationListenerTest {
   private DiiaService diiaService;
   @Mock
   private DiiaNotificationAuditFacade diiaNotificationAuditFacade;
+  @Spy
+  private NotificationMetrics notificationMetrics =
+      new NotificationMetrics(new SimpleMeterRegistry());
   @InjectMocks
   private DiiaNotificationListener listener;
 
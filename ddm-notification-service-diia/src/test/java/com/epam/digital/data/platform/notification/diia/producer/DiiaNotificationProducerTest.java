@@ -16,6 +16,9 @@
 
 package com.epam.digital.data.platform.notification.diia.producer;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -39,6 +42,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.util.concurrent.SettableListenableFuture;
 
 @ExtendWith(MockitoExtension.class)
 class DiiaNotificationProducerTest {
@@ -82,6 +86,8 @@ class DiiaNotificationProducerTest {
     when(notificationTemplateService.getTemplate(templateName, Channel.DIIA)).thenReturn(
         NotificationTemplate.builder().extTemplateId(templateId).build());
 
+    when(kafkaTemplate.send(anyString(), anyString(), any()))
+        .thenReturn(new SettableListenableFuture<>());
     producer.send(recipient, userNotificationMsg);
 
     var expectedMessage = DiiaNotificationMessageDto.builder()
@@ -96,6 +102,32 @@ class DiiaNotificationProducerTest {
             .templateName(templateName)
             .build())
         .build();
-    verify(kafkaTemplate, times(1)).send(topic, expectedMessage);
+    verify(kafkaTemplate, times(1)).send(topic, recipientId, expectedMessage);
+  }
+
+  @Test
+  void shouldPassScalarParametersToDiia() {
+    Map<String, Object> parameters = Map.of("name", "John", "age", 42, "verified", true,
+        "recipientRoles", List.of("citizen"), "address", Map.of("city", "Kyiv"));
+    var recipient = Recipient.builder()
+        .id("testuser")
+        .parameters(parameters)
+        .channels(List.of(ChannelObject.builder()
+            .rnokpp("rnokpp-1")
+            .channel(Channel.DIIA.getValue())
+            .build()))
+        .build();
+    var userNotificationMsg = UserNotificationMessageDto.builder()
+        .notification(UserNotificationDto.builder().templateName("test-template").build())
+        .build();
+    when(notificationTemplateService.getTemplate("test-template", Channel.DIIA)).thenReturn(
+        NotificationTemplate.builder().extTemplateId("templateId-1").build());
+
+    var message = producer.createMessageDto(recipient, userNotificationMsg);
+
+    assertThat(message.getRecipient().getParameters()).containsExactlyInAnyOrder(
+        DiiaRecipientDto.KeyValue.builder().key("name").value("John").build(),
+        DiiaRecipientDto.KeyValue.builder().key("age").value("42").build(),
+        DiiaRecipientDto.KeyValue.builder().key("verified").value("true").build());
   }
 }
\ No newline at end of file
@@ -16,11 +16,13 @@
 
 package com.epam.digital.data.platform.notification.diia.service;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import com.epam.digital.data.platform.notification.dto.diia.DiiaNotificationDto;
@@ -29,10 +31,15 @@ import com.epam.digital.data.platform.notification.dto.diia.DiiaRecipientDto;
 import com.epam.digital.data.platform.notification.dto.diia.DiiaSendNotificationRequestDto;
 import com.epam.digital.data.platform.notification.dto.diia.DiiaToken;
 import com.epam.digital.data.platform.notification.dto.diia.DistributionId;
+import com.epam.digital.data.platform.notification.exception.NotificationException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -48,19 +55,26 @@ class DiiaServiceTest {
   @Mock
   private DiiaRestClient feignClient;
   @Mock
+  private DiiaAsyncClient asyncClient;
+  @Mock
   private TokenCacheService tokenCacheService;
 
   private DiiaService service;
 
   @BeforeEach
   void beforeEach() {
-    service = new DiiaService(feignClient, PARTNER_TOKEN, tokenCacheService);
+    service = new DiiaService(feignClient, asyncClient, PARTNER_TOKEN, tokenCacheService,
+        new DiiaDistributionBatcher(1, Duration.ZERO), true);
 
     var cacheName = feignClient.getClass().getName();
-    Mockito.doAnswer(invocation -> {
+    Mockito.lenient().doAnswer(invocation -> {
       Supplier<String> supplier = invocation.getArgument(2);
       return supplier.get();
     }).when(tokenCacheService).getCachedTokenOrElse(eq(cacheName), eq(cacheName), any());
+    Mockito.lenient().doAnswer(invocation -> {
+      Supplier<CompletableFuture<String>> supplier = invocation.getArgument(2);
+      return supplier.get();
+    }).when(tokenCacheService).getCachedTokenOrElseAsync(eq(cacheName), eq(cacheName), any());
   }
 
   @Test
@@ -85,4 +99,129 @@ class DiiaServiceTest {
     verify(feignClient, times(1))
         .sendNotification(any(DiiaSendNotificationRequestDto.class), any(HttpHeaders.class));
   }
+
+  @Test
+  void shouldNotifyAsync() {
+    when(asyncClient.getToken(PARTNER_TOKEN))
+        .thenReturn(CompletableFuture.completedFuture(new DiiaToken("accessToken")));
+    when(asyncClient.sendNotification(any(DiiaSendNotificationRequestDto.class), eq("accessToken")))
+        .thenReturn(CompletableFuture.completedFuture(new DistributionId("distributionId")));
+
+    var msgDto = DiiaNotificationMessageDto.builder()
+        .diiaNotificationDto(DiiaNotificationDto.builder()
+            .templateName(TEMPLATE_NAME)
+            .externalTemplateId(TEMPLATE_ID)
+            .build())
+        .recipient(DiiaRecipientDto.builder().rnokpp("rnokpp").build())
+        .build();
+
+    service.notifyAsync(msgDto).join();
+
+    assertThat(msgDto.getDistributionId()).isEqualTo("distributionId");
+    verifyNoInteractions(feignClient);
+  }
+
+  @Test
+  void shouldCompleteExceptionallyWhenAsyncSendFails() {
+    when(asyncClient.getToken(PARTNER_TOKEN))
+        .thenReturn(CompletableFuture.completedFuture(new DiiaToken("accessToken")));
+    when(asyncClient.sendNotification(any(DiiaSendNotificationRequestDto.class), eq("accessToken")))
+        .thenReturn(CompletableFuture.failedFuture(new NotificationException("error")));
+
+    var msgDto = DiiaNotificationMessageDto.builder()
+        .diiaNotificationDto(DiiaNotificationDto.builder().externalTemplateId(TEMPLATE_ID).build())
+        .recipient(DiiaRecipientDto.builder().rnokpp("rnokpp").build())
+        .build();
+
+    assertThat(service.notifyAsync(msgDto)).isCompletedExceptionally();
+    assertThat(msgDto.getDistributionId()).isNull();
+  }
+
+  @Test
+  void shouldSendBatchAsMultiRecipientDistributionsPerTemplate() {
+    var batchingService = new DiiaService(feignClient, asyncClient, PARTNER_TOKEN,
+        tokenCacheService, new DiiaDistributionBatcher(2, Duration.ofMillis(50)), true);
+    when(asyncClient.getToken(PARTNER_TOKEN))
+        .thenReturn(CompletableFuture.completedFuture(new DiiaToken("accessToken")));
+    when(asyncClient.sendNotification(any(DiiaSendNotificationRequestDto.class), eq("accessToken")))
+        .thenReturn(CompletableFuture.completedFuture(new DistributionId("first")))
+        .thenReturn(CompletableFuture.completedFuture(new DistributionId("second")));
+    var messages = List.of(createMessage("templateA", "1"), createMessage("templateA", "2"),
+        createMessage("templateB", "3"));
+
+    var failures = batchingService.notifyBatch(messages);
+
+    assertThat(failures).isEmpty();
+    var requests = ArgumentCaptor.forClass(DiiaSendNotificationRequestDto.class);
+    verify(asyncClient, times(2)).sendNotification(requests.capture(), eq("accessToken"));
+    assertThat(requests.getAllValues()).extracting(DiiaSendNotificationRequestDto::getTemplateId)
+        .containsExactly("templateA", "templateB");
+    assertThat(requests.getAllValues().get(0).getRecipients())
+        .extracting(DiiaRecipientDto::getRnokpp).containsExactly("1", "2");
+    assertThat(messages).extracting(DiiaNotificationMessageDto::getDistributionId)
+        .containsExactly("first", "first", "second");
+  }
+
+  @Test
+  void shouldReportEveryRecipientOfFailedDistribution() {
+    var batchingService = new DiiaService(feignClient, asyncClient, PARTNER_TOKEN,
+        tokenCacheService, new DiiaDistributionBatcher(2, Duration.ofMillis(50)), true);
+    when(asyncClient.getToken(PARTNER_TOKEN))
+        .thenReturn(CompletableFuture.completedFuture(new DiiaToken("accessToken")));
+    when(asyncClient.sendNotification(any(DiiaSendNotificationRequestDto.class), eq("accessToken")))
+        .thenReturn(CompletableFuture.failedFuture(new NotificationException("error")));
+
+    var failures = batchingService.notifyBatch(
+        List.of(createMessage("templateA", "1"), createMessage("templateA", "2")));
+
+    assertThat(failures).containsOnlyKeys(0, 1);
+    assertThat(failures.get(0)).isInstanceOf(NotificationException.class);
+  }
+
+  @Test
+  void shouldSendBatchOneByOneWhenAsyncClientIsDisabled() {
+    var blockingService = new DiiaService(feignClient, asyncClient, PARTNER_TOKEN,
+        tokenCacheService, new DiiaDistributionBatcher(2, Duration.ofMillis(50)), false);
+    when(feignClient.getToken(PARTNER_TOKEN)).thenReturn(new DiiaToken("accessToken"));
+    when(feignClient.sendNotification(
+        any(DiiaSendNotificationRequestDto.class), any(HttpHeaders.class)))
+        .thenReturn(new DistributionId("distributionId"));
+
+    var failures = blockingService.notifyBatch(
+        List.of(createMessage("templateA", "1"), createMessage("templateA", "2")));
+
+    assertThat(failures).isEmpty();
+    verify(feignClient, times(2))
+        .sendNotification(any(DiiaSendNotificationRequestDto.class), any(HttpHeaders.class));
+    verifyNoInteractions(asyncClient);
+  }
+
+  @Test
+  void shouldSendBatchMessagesOfSameRecipientInOrder() {
+    var batchingService = new DiiaService(feignClient, asyncClient, PARTNER_TOKEN,
+        tokenCacheService, new DiiaDistributionBatcher(2, Duration.ofMillis(50)), true);
+    when(asyncClient.getToken(PARTNER_TOKEN))
+        .thenReturn(CompletableFuture.completedFuture(new DiiaToken("accessToken")));
+    when(asyncClient.sendNotification(any(DiiaSendNotificationRequestDto.class), eq("accessToken")))
+        .thenReturn(CompletableFuture.completedFuture(new DistributionId("first")))
+        .thenReturn(CompletableFuture.completedFuture(new DistributionId("second")));
+    var messages = List.of(createMessage("templateA", "1"), createMessage("templateA", "1"));
+
+    var failures = batchingService.notifyBatch(messages);
+
+    assertThat(failures).isEmpty();
+    var requests = ArgumentCaptor.forClass(DiiaSendNotificationRequestDto.class);
+    verify(asyncClient, times(2)).sendNotification(requests.capture(), eq("accessToken"));
+    assertThat(requests.getAllValues()).allSatisfy(request ->
+        assertThat(request.getRecipients()).hasSize(1));
+    assertThat(messages).extracting(DiiaNotificationMessageDto::getDistributionId)
+        .containsExactly("first", "second");
+  }
+
+  private DiiaNotificationMessageDto createMessage(String templateId, String rnokpp) {
+    return DiiaNotificationMessageDto.builder()
+        .diiaNotificationDto(DiiaNotificationDto.builder().externalTemplateId(templateId).build())
+        .recipient(DiiaRecipientDto.builder().rnokpp(rnokpp).build())
+        .build();
+  }
 }
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.diia.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+class TokenCacheServiceConcurrencyTest {
+
+  private static final String CACHE_NAME = "TOKEN_CACHE";
+  private static final String SERVICE_NAME = "external-system-1";
+  private static final int CALLERS = 16;
+
+  private ConcurrentMapCacheManager cacheManager;
+  private TokenCacheService tokenCacheService;
+
+  @BeforeEach
+  void setUp() {
+    cacheManager = spy(new ConcurrentMapCacheManager(CACHE_NAME));
+    tokenCacheService = new TokenCacheService(cacheManager);
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldShareSingleRefreshBetweenConcurrentCallers() {
+    var token = generateJWT(Instant.now().plus(Duration.ofHours(1)));
+    var supplierCalls = new AtomicInteger();
+    var start = new CountDownLatch(1);
+    var executor = Executors.newFixedThreadPool(CALLERS);
+    try {
+      var results = new ArrayList<Future<String>>();
+      for (var i = 0; i < CALLERS; i++) {
+        results.add(executor.submit(() -> {
+          start.await();
+          return tokenCacheService.getCachedTokenOrElse(CACHE_NAME, SERVICE_NAME, () -> {
+            supplierCalls.incrementAndGet();
+            sleep(200);
+            return token;
+          });
+        }));
+      }
+      start.countDown();
+
+      for (var result : results) {
+        assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(token);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertThat(supplierCalls).hasValue(1);
+  }
+
+  @Test
+  void shouldNotReadCacheOnceTokenIsParsed() {
+    var token = generateJWT(Instant.now().plus(Duration.ofHours(1)));
+
+    for (var i = 0; i < 100; i++) {
+      assertThat(tokenCacheService.getCachedTokenOrElse(CACHE_NAME, SERVICE_NAME, () -> token))
+          .isEqualTo(token);
+    }
+
+    verify(cacheManager, times(1)).getCache(CACHE_NAME);
+  }
+
+  @Test
+  void shouldRefreshTokenInBackgroundBeforeExpiration() {
+    tokenCacheService.setRefreshAhead(Duration.ofMinutes(1));
+    tokenCacheService.setRefreshExecutor(Runnable::run);
+    var expiringToken = generateJWT(Instant.now().plus(Duration.ofSeconds(30)));
+    var newToken = generateJWT(Instant.now().plus(Duration.ofHours(1)));
+    var supplierCalls = new AtomicInteger();
+
+    var first = tokenCacheService.getCachedTokenOrElse(CACHE_NAME, SERVICE_NAME,
+        () -> supplierCalls.incrementAndGet() == 1 ? expiringToken : newToken);
+    var second = tokenCacheService.getCachedTokenOrElse(CACHE_NAME, SERVICE_NAME,
+        () -> supplierCalls.incrementAndGet() == 1 ? expiringToken : newToken);
+    var third = tokenCacheService.getCachedTokenOrElse(CACHE_NAME, SERVICE_NAME, () -> {
+      throw new AssertionError("Supplier must not be executed");
+    });
+
+    assertThat(first).isEqualTo(expiringToken);
+    assertThat(second).isEqualTo(expiringToken);
+    assertThat(third).isEqualTo(newToken);
+    assertThat(supplierCalls).hasValue(2);
+  }
+
+  @SneakyThrows
+  private static void sleep(long millis) {
+    Thread.sleep(millis);
+  }
+
+  @SneakyThrows
+  private static String generateJWT(Instant expirationTime) {
+    var key = new ECKeyGenerator(Curve.SECP256K1)
+        .keyID(UUID.randomUUID().toString())
+        .generate();
+
+    var header = new JWSHeader.Builder(JWSAlgorithm.ES256K)
+        .type(JOSEObjectType.JWT)
+        .keyID(key.getKeyID())
+        .build();
+    var payload = new JWTClaimsSet.Builder()
+        .issuer("http://keycloak:8080")
+        .subject("admin_user")
+        .expirationTime(Date.from(expirationTime))
+        .build();
+
+    var signedJWT = new SignedJWT(header, payload);
+    signedJWT.sign(new ECDSASigner(key.toECPrivateKey()));
+    return signedJWT.serialize();
+  }
+}
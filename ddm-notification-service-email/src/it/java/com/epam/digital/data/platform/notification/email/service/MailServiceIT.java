@@ -16,10 +16,11 @@
 
 package com.epam.digital.data.platform.notification.email.service;
 
-import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.Assertions.assertThat;
 
 import com.epam.digital.data.platform.notification.email.BaseIT;
 import com.icegreen.greenmail.util.GreenMailUtil;
+import java.util.List;
 import javax.mail.MessagingException;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -44,4 +45,17 @@ class MailServiceIT extends BaseIT {
     assertThat(receivedMessage.getSubject()).isEqualTo(subject);
     assertThat(receivedMessage.getAllRecipients()[0].toString()).isEqualTo(email);
   }
+
+  @Test
+  void shouldSendAllMessages() {
+    var receivedBefore = greenMail.getReceivedMessages().length;
+    var messages = List.of(
+        mailService.createMessage("First", "<html>First</html>", "first@test.com"),
+        mailService.createMessage("Second", "<html>Second</html>", "second@test.com"));
+
+    var failures = mailService.sendAll(messages);
+
+    assertThat(failures).isEmpty();
+    assertThat(greenMail.getReceivedMessages().length - receivedBefore).isEqualTo(2);
+  }
 }
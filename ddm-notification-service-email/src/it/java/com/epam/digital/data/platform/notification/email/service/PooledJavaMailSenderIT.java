@@ -0,0 +1,85 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.email.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.epam.digital.data.platform.notification.email.BaseIT;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+/**
+ * Compares throughput of the pooled sender with the plain connection per message sender
+ * against GreenMail.
+ */
+@Slf4j
+class PooledJavaMailSenderIT extends BaseIT {
+
+  private static final int MESSAGES = 200;
+
+  @Autowired
+  private JavaMailSender javaMailSender;
+
+  @Test
+  void shouldUsePooledSender() {
+    assertThat(javaMailSender).isInstanceOf(PooledJavaMailSender.class);
+  }
+
+  @Test
+  void benchmarkPooledAgainstConnectionPerMessage() {
+    var plainSender = new JavaMailSenderImpl();
+    plainSender.setHost("localhost");
+    plainSender.setPort(greenMail.getSmtp().getPort());
+    plainSender.setUsername("username");
+    plainSender.setPassword("password");
+    var pooledSender = new PooledJavaMailSender(1, Duration.ofMinutes(1), Duration.ofSeconds(5),
+        Duration.ofSeconds(30), Clock.systemUTC());
+    pooledSender.setHost("localhost");
+    pooledSender.setPort(greenMail.getSmtp().getPort());
+    pooledSender.setUsername("username");
+    pooledSender.setPassword("password");
+    var receivedBefore = greenMail.getReceivedMessages().length;
+
+    var plainMessagesPerSecond = measure(plainSender,
+        sender -> new MailService(sender, "from@test.com")
+            .send("subject", "<html>body</html>", "to@test.com"));
+    var pooledMessagesPerSecond = measure(pooledSender,
+        sender -> new MailService(sender, "from@test.com")
+            .send("subject", "<html>body</html>", "to@test.com"));
+    pooledSender.destroy();
+    log.info("Sent {} emails: connection per message {} msg/s, pooled {} msg/s", MESSAGES,
+        plainMessagesPerSecond, pooledMessagesPerSecond);
+
+    assertThat(greenMail.getReceivedMessages().length - receivedBefore)
+        .isEqualTo(2 * MESSAGES);
+  }
+
+  private long measure(JavaMailSender sender, Consumer<JavaMailSender> send) {
+    var start = System.nanoTime();
+    for (var i = 0; i < MESSAGES; i++) {
+      send.accept(sender);
+    }
+    var elapsedNanos = Math.max(System.nanoTime() - start, 1);
+    return MESSAGES * 1_000_000_000L / elapsedNanos;
+  }
+}
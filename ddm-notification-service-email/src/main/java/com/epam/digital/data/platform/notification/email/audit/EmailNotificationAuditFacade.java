@@ -17,6 +17,8 @@
 package com.epam.digital.data.platform.notification.email.audit;
 
 import com.epam.digital.data.platform.notification.core.audit.AbstractNotificationAuditFacade;
+import com.epam.digital.data.platform.notification.core.audit.AuditEventEmitter;
+import com.epam.digital.data.platform.notification.core.metrics.NotificationMetrics;
 import com.epam.digital.data.platform.notification.dto.audit.NotificationAuditDto;
 import com.epam.digital.data.platform.notification.dto.audit.RecipientAuditDto;
 import com.epam.digital.data.platform.notification.dto.email.EmailNotificationAuditDto;
@@ -29,8 +31,15 @@ import java.util.Objects;
 public class EmailNotificationAuditFacade extends
     AbstractNotificationAuditFacade<EmailNotificationMessageDto> {
 
-  public EmailNotificationAuditFacade(AuditService auditService, String appName, Clock clock) {
-    super(auditService, appName, clock);
+  public EmailNotificationAuditFacade(AuditService auditService, String appName, Clock clock,
+      NotificationMetrics notificationMetrics) {
+    super(auditService, appName, clock, notificationMetrics);
+  }
+
+  public EmailNotificationAuditFacade(AuditService auditService, String appName, Clock clock,
+      AuditEventEmitter auditEventEmitter,
+      NotificationMetrics notificationMetrics) {
+    super(auditService, appName, clock, auditEventEmitter, notificationMetrics);
   }
 
   @Override
@@ -16,34 +16,105 @@
 
 package com.epam.digital.data.platform.notification.email.config;
 
+import com.epam.digital.data.platform.notification.core.audit.AuditEventEmitter;
+import com.epam.digital.data.platform.notification.core.metrics.NotificationMetrics;
+import com.epam.digital.data.platform.notification.core.service.NotificationTemplateCache;
 import com.epam.digital.data.platform.notification.core.service.NotificationTemplateServiceImpl;
 import com.epam.digital.data.platform.notification.core.template.FreemarkerTemplateResolver;
 import com.epam.digital.data.platform.notification.email.audit.EmailNotificationAuditFacade;
+import com.epam.digital.data.platform.notification.email.listener.EmailBatchNotificationListener;
 import com.epam.digital.data.platform.notification.email.listener.EmailNotificationListener;
 import com.epam.digital.data.platform.notification.email.producer.EmailNotificationProducer;
 import com.epam.digital.data.platform.notification.email.repository.EmailNotificationTemplateRepository;
 import com.epam.digital.data.platform.notification.email.service.EmailNotificationService;
 import com.epam.digital.data.platform.notification.email.service.MailService;
+import com.epam.digital.data.platform.notification.email.service.MimeBodyCache;
+import com.epam.digital.data.platform.notification.email.service.PooledJavaMailSender;
+import com.epam.digital.data.platform.notification.email.service.SmtpRateLimitProperties;
+import com.epam.digital.data.platform.notification.email.service.SmtpSendScheduler;
 import com.epam.digital.data.platform.notification.template.NotificationTemplateService;
 import com.epam.digital.data.platform.starter.audit.service.AuditService;
 import java.time.Clock;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Properties;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mail.MailProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.util.unit.DataSize;
 
 @Configuration
 @ConditionalOnProperty(prefix = "notifications", name = "enabled", havingValue = "true")
 public class EmailNotificationConfig {
 
+  private static final String SINGLE_LISTENER_ENABLED =
+      "${data-platform.kafka.enabled:false} and !${notifications.batch-listener.enabled:false}";
+  private static final String BATCH_LISTENER_ENABLED =
+      "${data-platform.kafka.enabled:false} and ${notifications.batch-listener.enabled:false}";
+
+  @Bean
+  @ConditionalOnProperty(prefix = "spring.mail", value = "host")
+  public PooledJavaMailSender javaMailSender(MailProperties mailProperties,
+      @Value("${notifications.email.smtp-pool.max-connections:4}") int maxConnections,
+      @Value("${notifications.email.smtp-pool.max-idle:30s}") Duration maxIdle,
+      @Value("${notifications.email.smtp-pool.validation-interval:5s}") Duration validationInterval,
+      @Value("${notifications.email.smtp-pool.borrow-timeout:30s}") Duration borrowTimeout,
+      Clock clock) {
+    var sender = new PooledJavaMailSender(maxConnections, maxIdle, validationInterval,
+        borrowTimeout, clock);
+    sender.setHost(mailProperties.getHost());
+    if (Objects.nonNull(mailProperties.getPort())) {
+      sender.setPort(mailProperties.getPort());
+    }
+    sender.setUsername(mailProperties.getUsername());
+    sender.setPassword(mailProperties.getPassword());
+    sender.setProtocol(mailProperties.getProtocol());
+    if (Objects.nonNull(mailProperties.getDefaultEncoding())) {
+      sender.setDefaultEncoding(mailProperties.getDefaultEncoding().name());
+    }
+    var javaMailProperties = new Properties();
+    javaMailProperties.putAll(mailProperties.getProperties());
+    sender.setJavaMailProperties(javaMailProperties);
+    return sender;
+  }
+
+  @Bean
+  @ConfigurationProperties(prefix = "notifications.email.rate-limit")
+  @ConditionalOnProperty(prefix = "notifications.email.rate-limit", name = "enabled", havingValue = "true")
+  public SmtpRateLimitProperties smtpRateLimitProperties() {
+    return new SmtpRateLimitProperties();
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "notifications.email.rate-limit", name = "enabled", havingValue = "true")
+  public SmtpSendScheduler smtpSendScheduler(SmtpRateLimitProperties smtpRateLimitProperties) {
+    return new SmtpSendScheduler(smtpRateLimitProperties);
+  }
+
   @Bean
   @ConditionalOnProperty(prefix = "spring.mail", value = "host")
   public MailService mailService(JavaMailSender javaMailSender,
-      @Value("${spring.mail.username}") String from) {
-    return new MailService(javaMailSender, from);
+      @Value("${spring.mail.username}") String from,
+      ObjectProvider<SmtpSendScheduler> smtpSendScheduler,
+      ObjectProvider<MimeBodyCache> mimeBodyCache) {
+    return new MailService(javaMailSender, from, smtpSendScheduler.getIfAvailable(),
+        mimeBodyCache.getIfAvailable());
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "notifications.email.mime-cache", name = "enabled", havingValue = "true")
+  public MimeBodyCache mimeBodyCache(
+      @Value("${notifications.email.mime-cache.max-size:16MB}") DataSize maxSize) {
+    return new MimeBodyCache(maxSize.toBytes());
   }
 
   @Bean
@@ -69,23 +140,42 @@ public class EmailNotificationConfig {
   }
 
   @Bean
-  @ConditionalOnProperty(prefix = "data-platform.kafka", name = "enabled", havingValue = "true")
+  @ConditionalOnExpression(SINGLE_LISTENER_ENABLED)
   public EmailNotificationListener emailNotificationListener(
       EmailNotificationService emailNotificationService,
-      EmailNotificationAuditFacade emailNotificationAuditFacade) {
-    return new EmailNotificationListener(emailNotificationService, emailNotificationAuditFacade);
+      EmailNotificationAuditFacade emailNotificationAuditFacade,
+      NotificationMetrics notificationMetrics) {
+    return new EmailNotificationListener(emailNotificationService, emailNotificationAuditFacade,
+        notificationMetrics);
+  }
+
+  @Bean
+  @ConditionalOnExpression(BATCH_LISTENER_ENABLED)
+  public EmailBatchNotificationListener emailBatchNotificationListener(
+      EmailNotificationService emailNotificationService,
+      EmailNotificationAuditFacade emailNotificationAuditFacade,
+      ConsumerRecordRecoverer notificationDeadLetterRecoverer,
+      NotificationMetrics notificationMetrics) {
+    return new EmailBatchNotificationListener(emailNotificationService,
+        emailNotificationAuditFacade, notificationDeadLetterRecoverer, notificationMetrics);
   }
 
   @Bean
   public EmailNotificationAuditFacade emailNotificationAuditFacade(AuditService auditService,
-      @Value("${spring.application.name}") String appName, Clock clock) {
-    return new EmailNotificationAuditFacade(auditService, appName, clock);
+      @Value("${spring.application.name}") String appName, Clock clock,
+      ObjectProvider<AuditEventEmitter> auditEventEmitter,
+      NotificationMetrics notificationMetrics) {
+    return new EmailNotificationAuditFacade(auditService, appName, clock,
+        auditEventEmitter.getIfAvailable(() -> auditService::sendAudit), notificationMetrics);
   }
 
   @Bean
   @Qualifier("emailNotificationTemplateService")
   public NotificationTemplateService<String> emailNotificationTemplateService(
-      EmailNotificationTemplateRepository emailNotificationTemplateRepository) {
-    return new NotificationTemplateServiceImpl(emailNotificationTemplateRepository);
+      EmailNotificationTemplateRepository emailNotificationTemplateRepository,
+      NotificationTemplateCache notificationTemplateCache,
+      NotificationMetrics notificationMetrics) {
+    return new NotificationTemplateServiceImpl(emailNotificationTemplateRepository,
+        notificationTemplateCache, notificationMetrics);
   }
 }
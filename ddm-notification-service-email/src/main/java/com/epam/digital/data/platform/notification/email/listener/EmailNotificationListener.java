@@ -18,6 +18,7 @@ package com.epam.digital.data.platform.notification.email.listener;
 
 import com.epam.digital.data.platform.notification.audit.NotificationAuditFacade;
 import com.epam.digital.data.platform.notification.core.listener.AbstractNotificationListener;
+import com.epam.digital.data.platform.notification.core.metrics.NotificationMetrics;
 import com.epam.digital.data.platform.notification.dto.email.EmailNotificationMessageDto;
 import com.epam.digital.data.platform.notification.service.NotificationService;
 import com.epam.digital.data.platform.settings.model.dto.Channel;
@@ -30,14 +31,18 @@ public class EmailNotificationListener extends
 
   public EmailNotificationListener(
       NotificationService<EmailNotificationMessageDto> notificationService,
-      NotificationAuditFacade<EmailNotificationMessageDto> notificationAuditFacade) {
-    super(notificationService, notificationAuditFacade);
+      NotificationAuditFacade<EmailNotificationMessageDto> notificationAuditFacade,
+      NotificationMetrics notificationMetrics) {
+    super(notificationService, notificationAuditFacade, notificationMetrics);
   }
 
   @KafkaListener(
       topics = "\u0023{kafkaProperties.topics['email-notifications']}",
       groupId = "\u0023{kafkaProperties.consumer.groupId}",
-      containerFactory = "concurrentKafkaListenerContainerFactory")
+      containerFactory = "\u0023{'${notifications.email.rate-limit.enabled:false}' == 'true'"
+          + " ? 'rateLimitedKafkaListenerContainerFactory'"
+          + " : 'concurrentKafkaListenerContainerFactory'}",
+      concurrency = "${notifications.channel-listener.concurrency:1}")
   public void notify(EmailNotificationMessageDto message) {
     log.info("Kafka event received");
     sendNotification(message, Channel.EMAIL);
@@ -25,6 +25,7 @@ import com.epam.digital.data.platform.notification.dto.email.EmailRecipientDto;
 import com.epam.digital.data.platform.notification.email.service.EmailNotificationService;
 import com.epam.digital.data.platform.notification.template.NotificationTemplateService;
 import com.epam.digital.data.platform.settings.model.dto.Channel;
+import java.util.Objects;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.core.KafkaTemplate;
 
@@ -51,7 +52,7 @@ public class EmailNotificationProducer extends
 
   public EmailNotificationMessageDto createMessageDto(Recipient recipient,
       UserNotificationMessageDto message) {
-    var emailChannel = getChannelObject(recipient.getChannels());
+    var recipientDto = toRecipientDto(recipient);
     var messageBody = createEmailMessageBody(recipient, message);
     var title = getTitle(message);
     return EmailNotificationMessageDto.builder()
@@ -60,10 +61,31 @@ public class EmailNotificationProducer extends
             .subject(title)
             .message(messageBody)
             .build())
-        .recipient(EmailRecipientDto.builder()
-            .id(recipient.getId())
-            .email(emailChannel.getEmail())
-            .build())
+        .recipient(recipientDto)
+        .build();
+  }
+
+  @Override
+  public EmailNotificationMessageDto copyForRecipient(
+      EmailNotificationMessageDto renderedMessageDto, Recipient recipient) {
+    return EmailNotificationMessageDto.builder()
+        .context(renderedMessageDto.getContext())
+        .notification(renderedMessageDto.getNotification())
+        .recipient(toRecipientDto(recipient))
+        .build();
+  }
+
+  @Override
+  protected String getRecipientId(EmailNotificationMessageDto notificationMessageDto) {
+    var recipient = notificationMessageDto.getRecipient();
+    return Objects.isNull(recipient) ? null : recipient.getId();
+  }
+
+  private EmailRecipientDto toRecipientDto(Recipient recipient) {
+    var emailChannel = getChannelObject(recipient.getChannels());
+    return EmailRecipientDto.builder()
+        .id(recipient.getId())
+        .email(emailChannel.getEmail())
         .build();
   }
 
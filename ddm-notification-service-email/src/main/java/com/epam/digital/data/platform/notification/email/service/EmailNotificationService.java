@@ -21,7 +21,11 @@ import com.epam.digital.data.platform.notification.dto.email.EmailNotificationMe
 import com.epam.digital.data.platform.notification.service.NotificationService;
 import com.epam.digital.data.platform.notification.template.NotificationTemplateService;
 import com.epam.digital.data.platform.settings.model.dto.Channel;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import javax.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -43,8 +47,36 @@ public class EmailNotificationService implements NotificationService<EmailNotifi
     log.info("Email notification was sent");
   }
 
+  /**
+   * Prepares a message per notification and sends all of them over one mail server session
+   */
+  @Override
+  public Map<Integer, RuntimeException> notifyBatch(List<EmailNotificationMessageDto> messages) {
+    log.info("Sending {} notifications via email", messages.size());
+    var failures = new LinkedHashMap<Integer, RuntimeException>();
+    var mimeMessages = new ArrayList<MimeMessage>(messages.size());
+    var preparedIndexes = new ArrayList<Integer>(messages.size());
+    for (var i = 0; i < messages.size(); i++) {
+      var message = messages.get(i);
+      try {
+        mimeMessages.add(mailService.createMessage(
+            message.getNotification().getSubject(),
+            message.getNotification().getMessage(),
+            message.getRecipient().getEmail()));
+        preparedIndexes.add(i);
+      } catch (RuntimeException exception) {
+        failures.put(i, exception);
+      }
+    }
+    mailService.sendAll(mimeMessages)
+        .forEach((index, exception) -> failures.put(preparedIndexes.get(index), exception));
+    log.info("{} email notifications were sent", messages.size() - failures.size());
+    return failures;
+  }
+
   public String prepareEmailBody(String templateName, Map<String, Object> data) {
-    var template = templateService.getContentByNameAndChannel(templateName, Channel.EMAIL);
-    return templateResolver.resolve(templateName, template, data);
+    var template = templateService.getTemplate(templateName, Channel.EMAIL);
+    return templateResolver.resolve(templateName, Channel.EMAIL, template.getChecksum(),
+        template.getContent(), data);
   }
 }
@@ -16,7 +16,21 @@
 
 package com.epam.digital.data.platform.notification.email.service;
 
-import lombok.RequiredArgsConstructor;
+import com.epam.digital.data.platform.notification.exception.NotificationDeferredException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import javax.mail.MessagingException;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+import org.springframework.mail.MailException;
 import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
@@ -24,11 +38,32 @@ import org.springframework.mail.javamail.MimeMessageHelper;
 /**
  * The service that manages and sends mail messages.
  */
-@RequiredArgsConstructor
 public class MailService {
 
+  private static final String[] PER_MESSAGE_HEADERS = {"Message-ID", "Date"};
+
   private final JavaMailSender javaMailSender;
   private final String from;
+  private final SmtpSendScheduler sendScheduler;
+  private final MimeBodyCache mimeBodyCache;
+
+  public MailService(JavaMailSender javaMailSender, String from) {
+    this(javaMailSender, from, null, null);
+  }
+
+  /**
+   * @param sendScheduler rate limit applied before each message is sent, {@code null} to send
+   *                      without limits
+   * @param mimeBodyCache cache of encoded messages reused for identical bodies, {@code null} to
+   *                      encode every message
+   */
+  public MailService(JavaMailSender javaMailSender, String from,
+      SmtpSendScheduler sendScheduler, MimeBodyCache mimeBodyCache) {
+    this.javaMailSender = javaMailSender;
+    this.from = from;
+    this.sendScheduler = sendScheduler;
+    this.mimeBodyCache = mimeBodyCache;
+  }
 
   /**
    * Send message
@@ -37,19 +72,118 @@ public class MailService {
    * @param body       html message body
    * @param recipients specified recipients to whom send the message
    * @throws {@link MailSendException} in case of validation or transfer error
+   * @throws {@link NotificationDeferredException} if the message is deferred by the rate limit
    */
   public void send(String subject, String body, String... recipients) {
-    var message = javaMailSender.createMimeMessage();
-    var helper = new MimeMessageHelper(message);
+    var message = createMessage(subject, body, recipients);
+    acquire(message);
     try {
-      helper.setFrom(from);
-      helper.setTo(recipients);
-      helper.setSubject(subject);
-      helper.setText(body, true);
       javaMailSender.send(message);
     } catch (Throwable ex) {
       throw new MailSendException(ex.getMessage(), ex);
     }
   }
-}
 
+  /**
+   * Create html message from the configured sender, the encoded body is reused for identical
+   * messages when the body cache is configured
+   *
+   * @param subject    message subject
+   * @param body       html message body
+   * @param recipients specified recipients to whom send the message
+   * @return prepared message
+   * @throws {@link MailSendException} in case of validation error
+   */
+  public MimeMessage createMessage(String subject, String body, String... recipients) {
+    try {
+      var message = Objects.isNull(mimeBodyCache) ? buildMessage(subject, body)
+          : javaMailSender.createMimeMessage(new ByteArrayInputStream(
+              mimeBodyCache.get(from, subject, body, () -> encode(subject, body))));
+      new MimeMessageHelper(message).setTo(recipients);
+      return message;
+    } catch (Throwable ex) {
+      throw new MailSendException(ex.getMessage(), ex);
+    }
+  }
+
+  /**
+   * Send prepared messages over one mail server session. Once a message is deferred by the rate
+   * limit, the messages after it are deferred as well, so they are not sent ahead of it.
+   *
+   * @param messages messages to send
+   * @return failures keyed by index of the failed message in the list, deferred messages fail with
+   * {@link NotificationDeferredException}, empty if all were sent
+   */
+  public Map<Integer, RuntimeException> sendAll(List<MimeMessage> messages) {
+    var failures = new LinkedHashMap<Integer, RuntimeException>();
+    var indexes = new ArrayList<Integer>();
+    for (var i = 0; i < messages.size(); i++) {
+      try {
+        acquire(messages.get(i));
+        indexes.add(i);
+      } catch (NotificationDeferredException ex) {
+        for (var deferred = i; deferred < messages.size(); deferred++) {
+          failures.put(deferred, ex);
+        }
+        break;
+      } catch (MailException ex) {
+        failures.put(i, ex);
+      }
+    }
+    if (indexes.isEmpty()) {
+      return failures;
+    }
+    var toSend = indexes.stream().map(messages::get).toArray(MimeMessage[]::new);
+    try {
+      javaMailSender.send(toSend);
+    } catch (MailSendException ex) {
+      var failedMessages = ex.getFailedMessages();
+      for (var i : indexes) {
+        var failure = failedMessages.isEmpty() ? ex : failedMessages.get(messages.get(i));
+        if (Objects.nonNull(failure)) {
+          failures.put(i, failure instanceof MailException ? (MailException) failure
+              : new MailSendException(failure.getMessage(), failure));
+        }
+      }
+    } catch (MailException ex) {
+      indexes.forEach(i -> failures.put(i, ex));
+    }
+    return failures;
+  }
+
+  private MimeMessage buildMessage(String subject, String body) throws MessagingException {
+    var message = javaMailSender.createMimeMessage();
+    var helper = new MimeMessageHelper(message);
+    helper.setFrom(from);
+    helper.setSubject(subject);
+    helper.setText(body, true);
+    return message;
+  }
+
+  private byte[] encode(String subject, String body) {
+    try {
+      var message = buildMessage(subject, body);
+      message.saveChanges();
+      var out = new ByteArrayOutputStream();
+      message.writeTo(out, PER_MESSAGE_HEADERS);
+      return out.toByteArray();
+    } catch (MessagingException | IOException ex) {
+      throw new MailSendException(ex.getMessage(), ex);
+    }
+  }
+
+  private void acquire(MimeMessage message) {
+    if (Objects.isNull(sendScheduler)) {
+      return;
+    }
+    try {
+      var recipients = message.getAllRecipients();
+      sendScheduler.acquire(Objects.isNull(recipients) ? List.of() : Arrays.stream(recipients)
+          .filter(InternetAddress.class::isInstance)
+          .map(address -> ((InternetAddress) address).getAddress())
+          .collect(Collectors.toList()));
+    } catch (MessagingException ex) {
+      throw new MailSendException(ex.getMessage(), ex);
+    }
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.email.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.function.Supplier;
+import org.springframework.lang.NonNull;
+
+/**
+ * Cache of encoded MIME messages without recipients keyed by hash of sender, subject and body.
+ * <p>
+ * Bounded by the total size of the cached messages, evictions are exposed with the cache
+ * metrics.
+ */
+public class MimeBodyCache implements MeterBinder {
+
+  static final String CACHE_NAME = "mimeBodies";
+
+  private final Cache<String, byte[]> cache;
+
+  public MimeBodyCache(long maxSizeInBytes) {
+    this.cache = Caffeine.newBuilder()
+        .maximumWeight(maxSizeInBytes)
+        .<String, byte[]>weigher((key, value) -> value.length)
+        .recordStats()
+        .build();
+  }
+
+  /**
+   * Get encoded message or encode and cache it
+   *
+   * @param from    message sender
+   * @param subject message subject
+   * @param body    html message body
+   * @param encoder produces the encoded message on cache miss
+   * @return encoded message
+   */
+  public byte[] get(String from, String subject, String body, Supplier<byte[]> encoder) {
+    return cache.get(hash(from, subject, body), key -> encoder.get());
+  }
+
+  @Override
+  public void bindTo(@NonNull MeterRegistry registry) {
+    CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+  }
+
+  private static String hash(String... parts) {
+    try {
+      var digest = MessageDigest.getInstance("SHA-256");
+      for (var part : parts) {
+        digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+      }
+      return Base64.getEncoder().encodeToString(digest.digest());
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException("SHA-256 is not supported", ex);
+    }
+  }
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.email.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import javax.mail.Address;
+import javax.mail.AuthenticationFailedException;
+import javax.mail.MessagingException;
+import javax.mail.Transport;
+import javax.mail.internet.MimeMessage;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+/**
+ * {@link JavaMailSenderImpl} that keeps authenticated SMTP connections open and reuses them
+ * across sends instead of connecting, authenticating (and negotiating STARTTLS) per message.
+ * <p>
+ * At most {@code maxConnections} transports are in use at a time. A transport that stayed idle
+ * longer than {@code validationInterval} is checked with {@link Transport#isConnected()} (SMTP
+ * NOOP) before reuse, transports idle longer than {@code maxIdle} are closed. A connection lost
+ * in the middle of a send is replaced and the failed message is retried once.
+ */
+@Slf4j
+public class PooledJavaMailSender extends JavaMailSenderImpl implements DisposableBean,
+    MeterBinder {
+
+  private final int maxConnections;
+  private final Duration maxIdle;
+  private final Duration validationInterval;
+  private final Duration borrowTimeout;
+  private final Clock clock;
+
+  private final Semaphore permits;
+  private final BlockingDeque<PooledTransport> idleTransports = new LinkedBlockingDeque<>();
+
+  public PooledJavaMailSender(int maxConnections, Duration maxIdle, Duration validationInterval,
+      Duration borrowTimeout, Clock clock) {
+    this.maxConnections = maxConnections;
+    this.maxIdle = maxIdle;
+    this.validationInterval = validationInterval;
+    this.borrowTimeout = borrowTimeout;
+    this.clock = clock;
+    this.permits = new Semaphore(maxConnections, true);
+  }
+
+  @Override
+  protected void doSend(MimeMessage[] mimeMessages, @Nullable Object[] originalMessages) {
+    var failedMessages = new LinkedHashMap<Object, Exception>();
+    var transport = borrowTransport(mimeMessages, originalMessages);
+    try {
+      for (var i = 0; i < mimeMessages.length; i++) {
+        var original = Objects.nonNull(originalMessages) ? originalMessages[i] : mimeMessages[i];
+        try {
+          send(transport, mimeMessages[i]);
+        } catch (MessagingException ex) {
+          if (transport.transport.isConnected()) {
+            failedMessages.put(original, ex);
+            continue;
+          }
+          log.warn("SMTP connection lost during send, reconnecting", ex);
+          close(transport);
+          try {
+            transport = new PooledTransport(connectTransport(), clock.instant());
+            send(transport, mimeMessages[i]);
+          } catch (Exception retryEx) {
+            failedMessages.put(original, retryEx);
+          }
+        } catch (Exception ex) {
+          failedMessages.put(original, ex);
+        }
+      }
+    } finally {
+      releaseTransport(transport);
+    }
+    if (!failedMessages.isEmpty()) {
+      throw new MailSendException(failedMessages);
+    }
+  }
+
+  /**
+   * Number of connected transports waiting for the next send
+   */
+  public int getIdleConnections() {
+    return idleTransports.size();
+  }
+
+  /**
+   * Number of transports currently used for sending
+   */
+  public int getActiveConnections() {
+    return maxConnections - permits.availablePermits();
+  }
+
+  @Override
+  public void bindTo(@NonNull MeterRegistry registry) {
+    Gauge.builder("mail.smtp.connections.idle", this, PooledJavaMailSender::getIdleConnections)
+        .description("Open SMTP connections waiting for reuse")
+        .register(registry);
+    Gauge.builder("mail.smtp.connections.active", this,
+            PooledJavaMailSender::getActiveConnections)
+        .description("SMTP connections in use")
+        .register(registry);
+  }
+
+  @Override
+  public void destroy() {
+    PooledTransport transport;
+    while (Objects.nonNull(transport = idleTransports.pollFirst())) {
+      close(transport);
+    }
+  }
+
+  private void send(PooledTransport transport, MimeMessage mimeMessage)
+      throws MessagingException {
+    if (Objects.isNull(mimeMessage.getSentDate())) {
+      mimeMessage.setSentDate(Date.from(clock.instant()));
+    }
+    var messageId = mimeMessage.getMessageID();
+    mimeMessage.saveChanges();
+    if (Objects.nonNull(messageId)) {
+      // preserve explicitly specified message id, saveChanges generates a new one
+      mimeMessage.setHeader("Message-ID", messageId);
+    }
+    var addresses = mimeMessage.getAllRecipients();
+    transport.transport.sendMessage(mimeMessage,
+        Objects.nonNull(addresses) ? addresses : new Address[0]);
+  }
+
+  private PooledTransport borrowTransport(MimeMessage[] mimeMessages,
+      @Nullable Object[] originalMessages) {
+    try {
+      if (!permits.tryAcquire(borrowTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+        throw new MessagingException("Timed out waiting for a free SMTP connection");
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new MailSendException("Interrupted waiting for a free SMTP connection", ex);
+    } catch (MessagingException ex) {
+      throw connectionFailed(ex, mimeMessages, originalMessages);
+    }
+    try {
+      return pollIdleTransport();
+    } catch (AuthenticationFailedException ex) {
+      permits.release();
+      throw new MailAuthenticationException(ex);
+    } catch (Exception ex) {
+      permits.release();
+      throw connectionFailed(ex, mimeMessages, originalMessages);
+    }
+  }
+
+  private PooledTransport pollIdleTransport() throws MessagingException {
+    PooledTransport transport;
+    while (Objects.nonNull(transport = idleTransports.pollFirst())) {
+      var idle = Duration.between(transport.releasedAt, clock.instant());
+      if (idle.compareTo(maxIdle) > 0) {
+        close(transport);
+      } else if (idle.compareTo(validationInterval) <= 0 || transport.transport.isConnected()) {
+        return transport;
+      } else {
+        log.debug("Discarding broken SMTP connection");
+        close(transport);
+      }
+    }
+    return new PooledTransport(connectTransport(), clock.instant());
+  }
+
+  private void releaseTransport(PooledTransport transport) {
+    try {
+      if (transport.transport.isConnected()) {
+        transport.releasedAt = clock.instant();
+        idleTransports.offerFirst(transport);
+      } else {
+        close(transport);
+      }
+    } finally {
+      permits.release();
+    }
+  }
+
+  private MailSendException connectionFailed(Exception ex, MimeMessage[] mimeMessages,
+      @Nullable Object[] originalMessages) {
+    var failedMessages = new LinkedHashMap<Object, Exception>();
+    for (var i = 0; i < mimeMessages.length; i++) {
+      failedMessages.put(
+          Objects.nonNull(originalMessages) ? originalMessages[i] : mimeMessages[i], ex);
+    }
+    return new MailSendException("Mail server connection failed", ex, failedMessages);
+  }
+
+  private void close(PooledTransport transport) {
+    try {
+      transport.transport.close();
+    } catch (MessagingException ex) {
+      log.debug("Failed to close SMTP connection", ex);
+    }
+  }
+
+  @AllArgsConstructor
+  private static final class PooledTransport {
+
+    private final Transport transport;
+    private Instant releasedAt;
+  }
+}
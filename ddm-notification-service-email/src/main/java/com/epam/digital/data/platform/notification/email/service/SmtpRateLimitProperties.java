@@ -0,0 +1,38 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.email.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Data;
+
+@Data
+public class SmtpRateLimitProperties {
+
+  /**
+   * Messages per second sent through the mail server
+   */
+  private double globalRate = 50;
+  /**
+   * Messages per second sent to a single recipient domain unless overridden in {@link #domains}
+   */
+  private double domainRate = 10;
+  /**
+   * Messages per second by recipient domain, e.g. {@code gmail.com: 5}
+   */
+  private Map<String, Double> domains = new HashMap<>();
+}
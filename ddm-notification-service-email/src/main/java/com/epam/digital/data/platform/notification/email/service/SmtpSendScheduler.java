@@ -0,0 +1,126 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.email.service;
+
+import com.epam.digital.data.platform.notification.exception.NotificationDeferredException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+
+/**
+ * Paces messages sent to the mail server with a global token bucket and a token bucket per
+ * recipient domain. A message that is over budget is not sent and is not waited for on the
+ * calling thread: it fails with {@link NotificationDeferredException} carrying the time until its
+ * tokens are available, and the listener container redelivers it after that delay.
+ */
+@Slf4j
+public class SmtpSendScheduler implements MeterBinder {
+
+  private static final int MAX_DOMAINS = 10_000;
+  private static final Duration DOMAIN_EXPIRE_AFTER_ACCESS = Duration.ofMinutes(10);
+
+  private final SmtpRateLimitProperties properties;
+  private final LongSupplier nanoTime;
+
+  private final TokenBucket globalBucket;
+  private final Cache<String, TokenBucket> domainBuckets;
+  private volatile Counter deferredCounter;
+
+  public SmtpSendScheduler(SmtpRateLimitProperties properties) {
+    this(properties, System::nanoTime);
+  }
+
+  SmtpSendScheduler(SmtpRateLimitProperties properties, LongSupplier nanoTime) {
+    this.properties = properties;
+    this.nanoTime = nanoTime;
+    this.globalBucket = new TokenBucket(properties.getGlobalRate(), nanoTime.getAsLong());
+    this.domainBuckets = Caffeine.newBuilder()
+        .maximumSize(MAX_DOMAINS)
+        .expireAfterAccess(DOMAIN_EXPIRE_AFTER_ACCESS)
+        .build();
+  }
+
+  /**
+   * Take the tokens of a message to the recipients if it can be sent without exceeding the global
+   * and domain limits
+   *
+   * @param recipients message recipient addresses
+   * @throws NotificationDeferredException if the message has to wait for the limits, no tokens
+   *                                       are taken then
+   */
+  public void acquire(Collection<String> recipients) {
+    var waitNanos = tryTake(recipients);
+    if (waitNanos == 0) {
+      return;
+    }
+    var counter = deferredCounter;
+    if (Objects.nonNull(counter)) {
+      counter.increment();
+    }
+    var waitMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(waitNanos));
+    log.debug("Message deferred for {} ms by the send rate limit", waitMillis);
+    throw new NotificationDeferredException(String.format(
+        "Send rate limit exceeded, message is deferred for %d ms", waitMillis),
+        Duration.ofMillis(waitMillis));
+  }
+
+  @Override
+  public void bindTo(@NonNull MeterRegistry registry) {
+    deferredCounter = Counter.builder("mail.send.deferred")
+        .description("Messages deferred by the send rate limit")
+        .register(registry);
+  }
+
+  /**
+   * @return 0 if the tokens are taken, time until they are available otherwise
+   */
+  private synchronized long tryTake(Collection<String> recipients) {
+    var now = nanoTime.getAsLong();
+    var buckets = new ArrayList<TokenBucket>();
+    buckets.add(globalBucket);
+    recipients.stream()
+        .map(SmtpSendScheduler::domainOf)
+        .filter(Objects::nonNull)
+        .collect(Collectors.toSet())
+        .forEach(domain -> buckets.add(domainBuckets.get(domain,
+            key -> new TokenBucket(properties.getDomains()
+                .getOrDefault(key, properties.getDomainRate()), now))));
+
+    var waitNanos = buckets.stream().mapToLong(bucket -> bucket.waitNanos(now)).max().orElse(0);
+    if (waitNanos == 0) {
+      buckets.forEach(TokenBucket::take);
+    }
+    return waitNanos;
+  }
+
+  private static String domainOf(String address) {
+    var at = address.lastIndexOf('@');
+    return at < 0 ? null : address.substring(at + 1).trim().toLowerCase(Locale.ROOT);
+  }
+}
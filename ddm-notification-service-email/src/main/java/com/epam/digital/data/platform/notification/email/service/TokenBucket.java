@@ -0,0 +1,56 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.email.service;
+
+/**
+ * Token bucket refilled continuously at a fixed rate and holding at most one second of tokens.
+ * Not thread safe, callers synchronize access.
+ */
+class TokenBucket {
+
+  private final double capacity;
+  private final double tokensPerNano;
+  private double tokens;
+  private long lastRefillNanos;
+
+  TokenBucket(double tokensPerSecond, long nowNanos) {
+    this.capacity = Math.max(tokensPerSecond, 1);
+    this.tokensPerNano = tokensPerSecond / 1_000_000_000d;
+    this.tokens = capacity;
+    this.lastRefillNanos = nowNanos;
+  }
+
+  /**
+   * Time to wait until a token is available
+   */
+  long waitNanos(long nowNanos) {
+    refill(nowNanos);
+    return tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / tokensPerNano);
+  }
+
+  /**
+   * Take a token, callers check that one is available first
+   */
+  void take() {
+    tokens -= 1;
+  }
+
+  private void refill(long nowNanos) {
+    tokens = Math.min(capacity, tokens + (nowNanos - lastRefillNanos) * tokensPerNano);
+    lastRefillNanos = nowNanos;
+  }
+}
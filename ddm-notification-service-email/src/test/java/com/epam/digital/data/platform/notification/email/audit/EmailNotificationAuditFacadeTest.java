@@ -20,6 +20,7 @@ import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import com.epam.digital.data.platform.notification.core.metrics.NotificationMetrics;
 import com.epam.digital.data.platform.notification.dto.NotificationContextDto;
 import com.epam.digital.data.platform.notification.dto.audit.DeliveryAuditDto;
 import com.epam.digital.data.platform.notification.dto.audit.NotificationDto;
@@ -31,6 +32,7 @@ import com.epam.digital.data.platform.starter.audit.model.AuditEvent;
 import com.epam.digital.data.platform.starter.audit.model.AuditSourceInfo;
 import com.epam.digital.data.platform.starter.audit.model.Step;
 import com.epam.digital.data.platform.starter.audit.service.AuditService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.time.Clock;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -48,7 +50,8 @@ class EmailNotificationAuditFacadeTest {
 
   @BeforeEach
   void init() {
-    auditFacade = new EmailNotificationAuditFacade(auditService, "app", Clock.systemUTC());
+    auditFacade = new EmailNotificationAuditFacade(auditService, "app", Clock.systemUTC(),
+        new NotificationMetrics(new SimpleMeterRegistry()));
   }
 
   @Test
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.email.listener;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.epam.digital.data.platform.notification.core.metrics.NotificationMetrics;
+import com.epam.digital.data.platform.notification.dto.email.EmailNotificationMessageDto;
+import com.epam.digital.data.platform.notification.dto.email.EmailRecipientDto;
+import com.epam.digital.data.platform.notification.email.audit.EmailNotificationAuditFacade;
+import com.epam.digital.data.platform.notification.email.service.EmailNotificationService;
+import com.epam.digital.data.platform.notification.exception.NotificationDeferredException;
+import com.epam.digital.data.platform.notification.exception.NotificationException;
+import com.epam.digital.data.platform.settings.model.dto.Channel;
+import com.epam.digital.data.platform.starter.audit.model.Step;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+
+@ExtendWith(MockitoExtension.class)
+class EmailBatchNotificationListenerTest {
+
+  private static final String TOPIC = "email-notifications";
+
+  @Mock
+  private EmailNotificationService emailNotificationService;
+  @Mock
+  private EmailNotificationAuditFacade emailNotificationAuditFacade;
+  @Mock
+  private ConsumerRecordRecoverer deadLetterRecoverer;
+
+  private EmailBatchNotificationListener listener;
+
+  @BeforeEach
+  void setUp() {
+    listener = new EmailBatchNotificationListener(emailNotificationService,
+        emailNotificationAuditFacade, deadLetterRecoverer,
+        new NotificationMetrics(new SimpleMeterRegistry()));
+  }
+
+  @Test
+  void shouldAuditEachMessageAndRouteOnlyFailedToDeadLetterTopic() {
+    var first = message("first");
+    var second = message("second");
+    var firstRecord = new ConsumerRecord<String, EmailNotificationMessageDto>(TOPIC, 0, 0L, null,
+        first);
+    var secondRecord = new ConsumerRecord<String, EmailNotificationMessageDto>(TOPIC, 0, 1L, null,
+        second);
+    when(emailNotificationService.notifyBatch(List.of(first, second)))
+        .thenReturn(Map.of(1, new NotificationException("error")));
+
+    listener.notify(List.of(firstRecord, secondRecord));
+
+    verify(emailNotificationAuditFacade, times(1)).sendAuditOnSuccess(Channel.EMAIL, first);
+    verify(emailNotificationAuditFacade, times(1)).sendAuditOnFailure(Channel.EMAIL, second,
+        Step.AFTER, "error");
+    verify(deadLetterRecoverer, times(1)).accept(eq(secondRecord), any());
+    verify(deadLetterRecoverer, never()).accept(eq(firstRecord), any());
+  }
+
+  @Test
+  void shouldRouteWholeBatchToDeadLetterTopicOnBatchFailure() {
+    var message = message("first");
+    var record = new ConsumerRecord<String, EmailNotificationMessageDto>(TOPIC, 0, 0L, null,
+        message);
+    when(emailNotificationService.notifyBatch(List.of(message)))
+        .thenThrow(new NotificationException("error"));
+
+    listener.notify(List.of(record));
+
+    verify(emailNotificationAuditFacade, times(1)).sendAuditOnFailure(Channel.EMAIL, message,
+        Step.AFTER, "error");
+    verify(deadLetterRecoverer, times(1)).accept(eq(record), any());
+  }
+
+  @Test
+  void shouldFailBatchAtFirstDeferredMessageWithoutAuditingIt() {
+    var first = message("first");
+    var second = message("second");
+    var third = message("third");
+    var firstRecord = new ConsumerRecord<String, EmailNotificationMessageDto>(TOPIC, 0, 0L, null,
+        first);
+    var secondRecord = new ConsumerRecord<String, EmailNotificationMessageDto>(TOPIC, 0, 1L, null,
+        second);
+    var thirdRecord = new ConsumerRecord<String, EmailNotificationMessageDto>(TOPIC, 0, 2L, null,
+        third);
+    var deferral = new NotificationDeferredException("rate limit", Duration.ofMillis(500));
+    when(emailNotificationService.notifyBatch(List.of(first, second, third)))
+        .thenReturn(Map.of(1, deferral, 2, deferral));
+
+    var exception = assertThrows(BatchListenerFailedException.class,
+        () -> listener.notify(List.of(firstRecord, secondRecord, thirdRecord)));
+
+    assertThat(exception.getRecord()).isEqualTo(secondRecord);
+    assertThat(exception.getCause()).isEqualTo(deferral);
+    verify(emailNotificationAuditFacade, times(1)).sendAuditOnSuccess(Channel.EMAIL, first);
+    verify(emailNotificationAuditFacade, never()).sendAuditOnFailure(any(), any(), any(), any());
+    verifyNoInteractions(deadLetterRecoverer);
+  }
+
+  @Test
+  void shouldRouteUndeserializableRecordWithoutNotifying() {
+    var record = new ConsumerRecord<String, EmailNotificationMessageDto>(TOPIC, 0, 0L, null,
+        null);
+
+    listener.notify(List.of(record));
+
+    verify(deadLetterRecoverer, times(1)).accept(eq(record), any());
+    verifyNoInteractions(emailNotificationService, emailNotificationAuditFacade);
+  }
+
+  private EmailNotificationMessageDto message(String recipient) {
+    return EmailNotificationMessageDto.builder()
+        .recipient(EmailRecipientDto.builder().id(recipient).build())
+        .build();
+  }
+}
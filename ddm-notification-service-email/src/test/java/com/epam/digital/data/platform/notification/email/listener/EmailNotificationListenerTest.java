@@ -20,17 +20,23 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
+import com.epam.digital.data.platform.notification.core.metrics.NotificationMetrics;
 import com.epam.digital.data.platform.notification.dto.email.EmailNotificationMessageDto;
 import com.epam.digital.data.platform.notification.email.audit.EmailNotificationAuditFacade;
 import com.epam.digital.data.platform.notification.email.service.EmailNotificationService;
+import com.epam.digital.data.platform.notification.exception.NotificationDeferredException;
 import com.epam.digital.data.platform.notification.exception.NotificationException;
 import com.epam.digital.data.platform.settings.model.dto.Channel;
 import com.epam.digital.data.platform.starter.audit.model.Step;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 @ExtendWith(MockitoExtension.class)
@@ -40,6 +46,9 @@ class EmailNotificationListenerTest {
   private EmailNotificationService emailNotificationService;
   @Mock
   private EmailNotificationAuditFacade emailNotificationAuditFacade;
+  @Spy
+  private NotificationMetrics notificationMetrics =
+      new NotificationMetrics(new SimpleMeterRegistry());
   @InjectMocks
   private EmailNotificationListener listener;
 
@@ -65,4 +74,15 @@ class EmailNotificationListenerTest {
     verify(emailNotificationAuditFacade, times(1)).sendAuditOnFailure(Channel.EMAIL, message,
         Step.AFTER, errorMsg);
   }
-}
\ No newline at end of file
+
+  @Test
+  void shouldRethrowDeferralWithoutAuditing() {
+    var message = EmailNotificationMessageDto.builder().build();
+    doThrow(new NotificationDeferredException("rate limit", Duration.ofMillis(500)))
+        .when(emailNotificationService).notify(message);
+
+    assertThrows(NotificationDeferredException.class, () -> listener.notify(message));
+
+    verifyNoInteractions(emailNotificationAuditFacade);
+  }
+}
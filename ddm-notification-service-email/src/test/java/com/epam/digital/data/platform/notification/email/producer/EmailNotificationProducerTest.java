@@ -16,11 +16,15 @@
 
 package com.epam.digital.data.platform.notification.email.producer;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.epam.digital.data.platform.notification.dto.ChannelObject;
+import com.epam.digital.data.platform.notification.dto.NotificationContextDto;
 import com.epam.digital.data.platform.notification.dto.Recipient;
 import com.epam.digital.data.platform.notification.dto.UserNotificationDto;
 import com.epam.digital.data.platform.notification.dto.UserNotificationMessageDto;
@@ -38,6 +42,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.util.concurrent.SettableListenableFuture;
 
 @ExtendWith(MockitoExtension.class)
 class EmailNotificationProducerTest {
@@ -82,6 +87,8 @@ class EmailNotificationProducerTest {
     when(emailNotificationService.prepareEmailBody(templateName, parameters)).thenReturn(emailBody);
     when(emailNotificationTemplateService.getTitleByNameAndChannel(templateName, Channel.EMAIL)).thenReturn(title);
 
+    when(kafkaTemplate.send(anyString(), anyString(), any()))
+        .thenReturn(new SettableListenableFuture<>());
     producer.send(recipient, userNotificationMsg);
 
     var expectedMessage = EmailNotificationMessageDto.builder()
@@ -94,6 +101,57 @@ class EmailNotificationProducerTest {
             .subject(title)
             .build())
         .build();
-    verify(kafkaTemplate, times(1)).send(topic, expectedMessage);
+    verify(kafkaTemplate, times(1)).send(topic, recipientId, expectedMessage);
   }
-}
\ No newline at end of file
+
+  @Test
+  void shouldKeyMessagesByRecipient() {
+    var first = EmailNotificationMessageDto.builder()
+        .recipient(EmailRecipientDto.builder().id("first").email("first@dot.com").build())
+        .build();
+    var firstAgain = EmailNotificationMessageDto.builder()
+        .recipient(EmailRecipientDto.builder().id("first").email("first@dot.com").build())
+        .context(NotificationContextDto.builder().businessProcess("other-process").build())
+        .build();
+    var second = EmailNotificationMessageDto.builder()
+        .recipient(EmailRecipientDto.builder().id("second").email("second@dot.com").build())
+        .build();
+    var withoutRecipient = EmailNotificationMessageDto.builder().build();
+    var withoutRecipientId = EmailNotificationMessageDto.builder()
+        .recipient(EmailRecipientDto.builder().email("first@dot.com").build())
+        .build();
+
+    assertThat(producer.getMessageKey(first)).isNotNull()
+        .isEqualTo(producer.getMessageKey(firstAgain))
+        .isNotEqualTo(producer.getMessageKey(second));
+    assertThat(producer.getMessageKey(withoutRecipient)).isNull();
+    assertThat(producer.getMessageKey(withoutRecipientId)).isNull();
+  }
+
+  @Test
+  void shouldCopyRenderedNotificationForRecipient() {
+    var notification = NotificationDto.builder()
+        .message("content")
+        .subject("title")
+        .build();
+    var renderedMessage = EmailNotificationMessageDto.builder()
+        .notification(notification)
+        .recipient(EmailRecipientDto.builder().id("first").email("first@dot.com").build())
+        .build();
+    var recipient = Recipient.builder()
+        .id("second")
+        .channels(List.of(ChannelObject.builder()
+            .email("second@dot.com")
+            .channel(Channel.EMAIL.getValue())
+            .build()))
+        .build();
+
+    var result = producer.copyForRecipient(renderedMessage, recipient);
+
+    assertThat(result.getNotification()).isSameAs(notification);
+    assertThat(result.getRecipient()).isEqualTo(EmailRecipientDto.builder()
+        .id("second")
+        .email("second@dot.com")
+        .build());
+  }
+}
@@ -16,6 +16,8 @@
 
 package com.epam.digital.data.platform.notification.email.service;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -24,15 +26,19 @@ import com.epam.digital.data.platform.notification.core.template.FreemarkerTempl
 import com.epam.digital.data.platform.notification.dto.audit.NotificationDto;
 import com.epam.digital.data.platform.notification.dto.email.EmailNotificationMessageDto;
 import com.epam.digital.data.platform.notification.dto.email.EmailRecipientDto;
+import com.epam.digital.data.platform.notification.entity.NotificationTemplate;
 import com.epam.digital.data.platform.notification.template.NotificationTemplateService;
 import com.epam.digital.data.platform.settings.model.dto.Channel;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import javax.mail.internet.MimeMessage;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailSendException;
 
 @ExtendWith(MockitoExtension.class)
 class EmailNotificationServiceTest {
@@ -63,14 +69,43 @@ class EmailNotificationServiceTest {
     verify(mailService, times(1)).send(subject, message, email);
   }
 
+  @Test
+  void shouldSendPreparedMessagesTogetherAndMapFailuresBack() {
+    var notification = NotificationDto.builder().subject("subject").message("message").build();
+    var invalid = EmailNotificationMessageDto.builder().notification(notification)
+        .recipient(EmailRecipientDto.builder().email("invalid").build()).build();
+    var first = EmailNotificationMessageDto.builder().notification(notification)
+        .recipient(EmailRecipientDto.builder().email("first@dot.com").build()).build();
+    var second = EmailNotificationMessageDto.builder().notification(notification)
+        .recipient(EmailRecipientDto.builder().email("second@dot.com").build()).build();
+    var firstMessage = mock(MimeMessage.class);
+    var secondMessage = mock(MimeMessage.class);
+    var invalidAddress = new MailSendException("invalid address");
+    var rejected = new MailSendException("rejected");
+    when(mailService.createMessage("subject", "message", "invalid")).thenThrow(invalidAddress);
+    when(mailService.createMessage("subject", "message", "first@dot.com"))
+        .thenReturn(firstMessage);
+    when(mailService.createMessage("subject", "message", "second@dot.com"))
+        .thenReturn(secondMessage);
+    when(mailService.sendAll(List.of(firstMessage, secondMessage)))
+        .thenReturn(Map.of(1, rejected));
+
+    var failures = service.notifyBatch(List.of(invalid, first, second));
+
+    assertThat(failures).isEqualTo(Map.of(0, invalidAddress, 2, rejected));
+  }
+
   @Test
   void prepareEmailBody() {
     var data = new HashMap<String, Object>();
-    when(templateService.getContentByNameAndChannel("name", Channel.EMAIL)).thenReturn("content");
+    var template = NotificationTemplate.builder().name("name").content("content")
+        .checksum("checksum").build();
+    when(templateService.getTemplate("name", Channel.EMAIL)).thenReturn(template);
 
     service.prepareEmailBody("name", Map.of());
 
-    verify(templateService, times(1)).getContentByNameAndChannel("name", Channel.EMAIL);
-    verify(templateResolver, times(1)).resolve("name", "content", data);
+    verify(templateService, times(1)).getTemplate("name", Channel.EMAIL);
+    verify(templateResolver, times(1)).resolve("name", Channel.EMAIL, "checksum", "content",
+        data);
   }
 }
\ No newline at end of file
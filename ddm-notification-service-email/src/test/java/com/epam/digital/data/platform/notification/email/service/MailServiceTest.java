@@ -16,25 +16,41 @@
 
 package com.epam.digital.data.platform.notification.email.service;
 
-import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
+import com.epam.digital.data.platform.notification.exception.NotificationDeferredException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import javax.mail.Message.RecipientType;
+import javax.mail.SendFailedException;
+import javax.mail.Session;
+import javax.mail.internet.InternetAddress;
 import javax.mail.internet.MimeMessage;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailAuthenticationException;
 import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
 
 @ExtendWith(MockitoExtension.class)
 class MailServiceTest {
 
   @Mock
   private JavaMailSender javaMailSender;
+  @Mock
+  private SmtpSendScheduler sendScheduler;
   private MailService mailService;
 
   @BeforeEach
@@ -51,4 +67,71 @@ class MailServiceTest {
 
     assertThat(exception).isNotNull();
   }
+
+  @Test
+  void shouldReportFailuresPerMessage() {
+    var first = new MimeMessage((Session) null);
+    var second = new MimeMessage((Session) null);
+    var rejected = new SendFailedException("rejected");
+    doThrow(new MailSendException(Map.of(second, rejected)))
+        .when(javaMailSender).send(first, second);
+
+    var failures = mailService.sendAll(List.of(first, second));
+
+    assertThat(failures).hasSize(1);
+    assertThat(failures.get(1)).hasCause(rejected);
+  }
+
+  @Test
+  void shouldFailAllMessagesOnAuthenticationFailure() {
+    var first = new MimeMessage((Session) null);
+    var second = new MimeMessage((Session) null);
+    doThrow(new MailAuthenticationException("auth"))
+        .when(javaMailSender).send(first, second);
+
+    var failures = mailService.sendAll(List.of(first, second));
+
+    assertThat(failures).containsOnlyKeys(0, 1);
+  }
+
+  @Test
+  void shouldDeferMessagesFromFirstOneDeferredByRateLimit() throws Exception {
+    var rateLimitedMailService = new MailService(javaMailSender, "username", sendScheduler, null);
+    var first = new MimeMessage((Session) null);
+    first.setRecipient(RecipientType.TO, new InternetAddress("a@test.com"));
+    var second = new MimeMessage((Session) null);
+    second.setRecipient(RecipientType.TO, new InternetAddress("b@test.com"));
+    var third = new MimeMessage((Session) null);
+    third.setRecipient(RecipientType.TO, new InternetAddress("c@other.com"));
+    var deferral = new NotificationDeferredException("rate limit", Duration.ofMillis(500));
+    doThrow(deferral).when(sendScheduler).acquire(List.of("b@test.com"));
+
+    var failures = rateLimitedMailService.sendAll(List.of(first, second, third));
+
+    assertThat(failures).containsExactly(Map.entry(1, deferral), Map.entry(2, deferral));
+    verify(sendScheduler, never()).acquire(List.of("c@other.com"));
+    verify(javaMailSender).send(first);
+  }
+
+  @Test
+  void shouldReuseEncodedBodyForIdenticalMessages() throws Exception {
+    var mimeBodyCache = new MimeBodyCache(1024 * 1024);
+    var meterRegistry = new SimpleMeterRegistry();
+    mimeBodyCache.bindTo(meterRegistry);
+    var cachingMailService = new MailService(new JavaMailSenderImpl(), "from@test.com", null,
+        mimeBodyCache);
+
+    var first = cachingMailService.createMessage("subject", "<p>body</p>", "a@test.com");
+    var second = cachingMailService.createMessage("subject", "<p>body</p>", "b@test.com");
+
+    assertThat(first.getAllRecipients()).extracting(Object::toString)
+        .containsExactly("a@test.com");
+    assertThat(second.getAllRecipients()).extracting(Object::toString)
+        .containsExactly("b@test.com");
+    assertThat(second.getSubject()).isEqualTo("subject");
+    assertThat(second.getFrom()).extracting(Object::toString).containsExactly("from@test.com");
+    assertThat(second.getContent()).isEqualTo("<p>body</p>");
+    assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count())
+        .isEqualTo(1);
+  }
 }
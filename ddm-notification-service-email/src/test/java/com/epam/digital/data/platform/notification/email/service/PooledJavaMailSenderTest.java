@@ -0,0 +1,115 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.email.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.SimpleMailMessage;
+
+class PooledJavaMailSenderTest {
+
+  private final List<Transport> transports = new ArrayList<>();
+  private boolean dropFirstConnection;
+  private PooledJavaMailSender sender;
+
+  @BeforeEach
+  void setUp() {
+    sender = new PooledJavaMailSender(2, Duration.ofMinutes(1), Duration.ofSeconds(5),
+        Duration.ofSeconds(1), Clock.systemUTC()) {
+      @Override
+      protected Transport getTransport(Session session) {
+        return createTransport();
+      }
+    };
+    sender.setHost("localhost");
+  }
+
+  @Test
+  void shouldReuseConnectionAcrossSends() throws MessagingException {
+    sender.send(message());
+    sender.send(message());
+    sender.send(message(), message());
+
+    assertThat(transports).hasSize(1);
+    verify(transports.get(0), times(4)).sendMessage(any(), any());
+    assertThat(sender.getIdleConnections()).isEqualTo(1);
+    assertThat(sender.getActiveConnections()).isZero();
+  }
+
+  @Test
+  void shouldReconnectAndRetryWhenConnectionLost() throws MessagingException {
+    dropFirstConnection = true;
+
+    sender.send(message(), message());
+
+    assertThat(transports).hasSize(2);
+    verify(transports.get(0)).close();
+    verify(transports.get(1), times(2)).sendMessage(any(), any());
+    assertThat(sender.getIdleConnections()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldCloseIdleConnectionsOnDestroy() throws MessagingException {
+    sender.send(message());
+
+    sender.destroy();
+
+    verify(transports.get(0)).close();
+    assertThat(sender.getIdleConnections()).isZero();
+  }
+
+  private Transport createTransport() {
+    var transport = mock(Transport.class);
+    if (dropFirstConnection && transports.isEmpty()) {
+      when(transport.isConnected()).thenReturn(false);
+      try {
+        doThrow(new MessagingException("Connection reset")).when(transport)
+            .sendMessage(any(), any());
+      } catch (MessagingException ex) {
+        throw new IllegalStateException(ex);
+      }
+    } else {
+      when(transport.isConnected()).thenReturn(true);
+    }
+    transports.add(transport);
+    return transport;
+  }
+
+  private SimpleMailMessage message() {
+    var message = new SimpleMailMessage();
+    message.setFrom("from@test.com");
+    message.setTo("to@test.com");
+    message.setSubject("subject");
+    message.setText("text");
+    return message;
+  }
+}
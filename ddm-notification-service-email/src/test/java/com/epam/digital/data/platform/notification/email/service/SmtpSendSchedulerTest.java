@@ -0,0 +1,106 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.email.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.epam.digital.data.platform.notification.exception.NotificationDeferredException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SmtpSendSchedulerTest {
+
+  private final AtomicLong now = new AtomicLong();
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private final SmtpRateLimitProperties properties = new SmtpRateLimitProperties();
+  private SmtpSendScheduler scheduler;
+
+  @BeforeEach
+  void setup() {
+    properties.setGlobalRate(4);
+    properties.setDomainRate(2);
+    properties.setDomains(Map.of("slow.com", 1d));
+    scheduler = new SmtpSendScheduler(properties, now::get);
+    scheduler.bindTo(meterRegistry);
+  }
+
+  @Test
+  void shouldSendWithinDomainBudget() {
+    scheduler.acquire(List.of("a@test.com"));
+    scheduler.acquire(List.of("b@TEST.com"));
+
+    assertThat(meterRegistry.get("mail.send.deferred").counter().count()).isZero();
+  }
+
+  @Test
+  void shouldDeferMessageWhenDomainBudgetIsSpent() {
+    scheduler.acquire(List.of("a@test.com"));
+    scheduler.acquire(List.of("b@test.com"));
+    scheduler.acquire(List.of("c@other.com"));
+
+    var deferral = assertThrows(NotificationDeferredException.class,
+        () -> scheduler.acquire(List.of("c@test.com")));
+
+    assertThat(deferral.getDelay()).isEqualTo(Duration.ofMillis(500));
+    assertThat(meterRegistry.get("mail.send.deferred").counter().count()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldDeferMessageWhenGlobalBudgetIsSpent() {
+    scheduler.acquire(List.of("a@one.com"));
+    scheduler.acquire(List.of("a@two.com"));
+    scheduler.acquire(List.of("a@three.com"));
+    scheduler.acquire(List.of("a@four.com"));
+
+    var deferral = assertThrows(NotificationDeferredException.class,
+        () -> scheduler.acquire(List.of("a@five.com")));
+
+    assertThat(deferral.getDelay()).isEqualTo(Duration.ofMillis(250));
+  }
+
+  @Test
+  void shouldApplyDomainOverride() {
+    scheduler.acquire(List.of("a@slow.com"));
+
+    var deferral = assertThrows(NotificationDeferredException.class,
+        () -> scheduler.acquire(List.of("b@slow.com")));
+
+    assertThat(deferral.getDelay()).isEqualTo(Duration.ofSeconds(1));
+  }
+
+  @Test
+  void shouldNotTakeTokensOfDeferredMessage() {
+    scheduler.acquire(List.of("a@slow.com"));
+    assertThrows(NotificationDeferredException.class,
+        () -> scheduler.acquire(List.of("b@slow.com")));
+    assertThrows(NotificationDeferredException.class,
+        () -> scheduler.acquire(List.of("b@slow.com")));
+
+    now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+    scheduler.acquire(List.of("b@slow.com"));
+
+    assertThat(meterRegistry.get("mail.send.deferred").counter().count()).isEqualTo(2);
+  }
+}
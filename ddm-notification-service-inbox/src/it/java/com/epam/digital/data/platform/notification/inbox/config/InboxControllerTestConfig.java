@@ -15,15 +15,19 @@
  */
 package com.epam.digital.data.platform.notification.inbox.config;
 
+import com.epam.digital.data.platform.notification.core.metrics.NotificationMetrics;
 import com.epam.digital.data.platform.notification.core.service.IdmServiceProvider;
+import com.epam.digital.data.platform.notification.core.service.NotificationTemplateCache;
 import com.epam.digital.data.platform.notification.core.service.NotificationTemplateServiceImpl;
 import com.epam.digital.data.platform.notification.core.template.FreemarkerTemplateResolver;
 import com.epam.digital.data.platform.notification.inbox.controller.InboxNotificationController;
 import com.epam.digital.data.platform.notification.inbox.repository.InboxNotificationRepository;
 import com.epam.digital.data.platform.notification.inbox.repository.InboxNotificationTemplateRepository;
 import com.epam.digital.data.platform.notification.inbox.service.InboxNotificationService;
+import com.epam.digital.data.platform.notification.inbox.service.InboxUnreadCountCache;
 import com.epam.digital.data.platform.notification.inbox.service.TokenParserService;
 import com.epam.digital.data.platform.notification.template.NotificationTemplateService;
+import java.time.Duration;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -37,13 +41,20 @@ public class InboxControllerTestConfig {
       FreemarkerTemplateResolver inboxFreemarkerTemplateResolver,
       InboxNotificationRepository inboxNotificationRepository,
       TokenParserService tokenParserService,
-      IdmServiceProvider idmServiceProvider) {
+      IdmServiceProvider idmServiceProvider,
+      InboxUnreadCountCache inboxUnreadCountCache) {
     return new InboxNotificationService(
         inboxNotificationTemplateService,
         inboxFreemarkerTemplateResolver,
         inboxNotificationRepository,
         tokenParserService,
-        idmServiceProvider);
+        idmServiceProvider,
+        inboxUnreadCountCache);
+  }
+
+  @Bean
+  public InboxUnreadCountCache inboxUnreadCountCache() {
+    return new InboxUnreadCountCache(100, Duration.ofSeconds(30));
   }
 
   @Bean
@@ -55,7 +66,10 @@ public class InboxControllerTestConfig {
   @Bean
   @Qualifier("inboxNotificationTemplateService")
   public NotificationTemplateService<String> inboxNotificationTemplateService(
-      InboxNotificationTemplateRepository inboxNotificationTemplateRepository) {
-    return new NotificationTemplateServiceImpl(inboxNotificationTemplateRepository);
+      InboxNotificationTemplateRepository inboxNotificationTemplateRepository,
+      NotificationTemplateCache notificationTemplateCache,
+      NotificationMetrics notificationMetrics) {
+    return new NotificationTemplateServiceImpl(inboxNotificationTemplateRepository,
+        notificationTemplateCache, notificationMetrics);
   }
 }
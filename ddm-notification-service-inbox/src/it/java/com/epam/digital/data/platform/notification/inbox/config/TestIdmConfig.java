@@ -21,6 +21,8 @@ import com.epam.digital.data.platform.integration.idm.factory.IdmServiceFactory;
 import com.epam.digital.data.platform.integration.idm.model.KeycloakClientProperties;
 import com.epam.digital.data.platform.integration.idm.service.IdmService;
 import com.epam.digital.data.platform.notification.core.service.IdmServiceProvider;
+import com.epam.digital.data.platform.notification.core.service.IdmUserCache;
+import java.time.Duration;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -66,10 +68,15 @@ public class TestIdmConfig {
         officerRealmProperties.getClientSecret());
   }
 
+  @Bean
+  public IdmUserCache idmUserCache() {
+    return new IdmUserCache(1000, Duration.ofMinutes(1));
+  }
+
   @Bean
   @ConditionalOnBean(name = {"officerIdmService", "citizenIdmService"})
   public IdmServiceProvider idmServiceProvider(IdmService officerIdmService,
-      IdmService citizenIdmService) {
-    return new IdmServiceProvider(officerIdmService, citizenIdmService);
+      IdmService citizenIdmService, IdmUserCache idmUserCache) {
+    return new IdmServiceProvider(officerIdmService, citizenIdmService, idmUserCache);
   }
 }
\ No newline at end of file
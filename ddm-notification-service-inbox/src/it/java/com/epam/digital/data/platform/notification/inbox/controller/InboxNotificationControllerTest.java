@@ -15,6 +15,7 @@
  */
 package com.epam.digital.data.platform.notification.inbox.controller;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -23,15 +24,22 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.epam.digital.data.platform.notification.dto.inbox.InboxNotificationAcknowledgeDto;
 import com.epam.digital.data.platform.notification.entity.InboxNotification;
 import com.epam.digital.data.platform.notification.inbox.config.InboxControllerTestConfig;
 import com.epam.digital.data.platform.notification.inbox.repository.InboxNotificationRepository;
+import com.jayway.jsonpath.JsonPath;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.SneakyThrows;
 import org.apache.commons.io.FileUtils;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.BeforeAll;
@@ -97,6 +105,59 @@ class InboxNotificationControllerTest {
             jsonPath("$.[0].isAcknowledged", is(false)));
   }
 
+  @Test
+  @SneakyThrows
+  void shouldReturnNotificationsPageByPageUsingCursor() {
+    prefillData();
+    prefillData();
+    prefillData();
+
+    var firstPage = mockMvc
+        .perform(
+            get(BASE_URL + "/cursor")
+                .queryParam("limit", "2")
+                .header("X-Access-Token", TOKEN)
+                .contentType(MediaType.APPLICATION_JSON))
+        .andExpectAll(
+            status().isOk(),
+            jsonPath("$.notifications.length()", is(2)),
+            jsonPath("$.nextCursor", notNullValue()))
+        .andReturn();
+    var nextCursor = JsonPath.<String>read(firstPage.getResponse().getContentAsString(),
+        "$.nextCursor");
+
+    mockMvc
+        .perform(
+            get(BASE_URL + "/cursor")
+                .queryParam("limit", "2")
+                .queryParam("cursor", nextCursor)
+                .header("X-Access-Token", TOKEN)
+                .contentType(MediaType.APPLICATION_JSON))
+        .andExpectAll(
+            status().isOk(),
+            jsonPath("$.notifications.length()", is(1)),
+            jsonPath("$.notifications[0].subject", is("subject")),
+            jsonPath("$.nextCursor").doesNotExist());
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldReturnUnreadCount() {
+    prefillData();
+    var acknowledged = prefillData();
+    acknowledged.setAcknowledged(true);
+    inboxNotificationRepository.save(acknowledged);
+
+    mockMvc
+        .perform(
+            get(BASE_URL + "/unread-count")
+                .header("X-Access-Token", TOKEN)
+                .contentType(MediaType.APPLICATION_JSON))
+        .andExpectAll(
+            status().isOk(),
+            jsonPath("$.unreadCount", is(1)));
+  }
+
   @Test
   @SneakyThrows
   void shouldValidUpdateNotificationState() {
@@ -112,6 +173,70 @@ class InboxNotificationControllerTest {
     assertTrue(inboxNotificationRepository.getById(inboxNotification.getId()).isAcknowledged());
   }
 
+  @Test
+  @SneakyThrows
+  void shouldAcknowledgeOnlyOwnNotificationsByIds() {
+    var own = prefillData();
+    var foreign = inboxNotificationRepository.save(
+        InboxNotification.builder()
+            .subject("subject")
+            .message("message")
+            .recipientId("another-recipient")
+            .build());
+
+    mockMvc
+        .perform(
+            post(BASE_URL + "/ack")
+                .header("X-Access-Token", TOKEN)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(String.format("{\"ids\": [\"%s\", \"%s\"]}", own.getId(),
+                    foreign.getId())))
+        .andExpectAll(
+            status().isOk(),
+            jsonPath("$.acknowledgedCount", is(1)));
+
+    assertTrue(inboxNotificationRepository.findById(own.getId()).orElseThrow().isAcknowledged());
+    assertFalse(
+        inboxNotificationRepository.findById(foreign.getId()).orElseThrow().isAcknowledged());
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldRejectInvalidAcknowledgeRequest() {
+    var tooManyIds = Stream.generate(() -> "\"" + UUID.randomUUID() + "\"")
+        .limit(InboxNotificationAcknowledgeDto.MAX_IDS + 1L)
+        .collect(Collectors.joining(",", "{\"ids\": [", "]}"));
+
+    for (var content : List.of("{\"ids\": []}", "{}", "{\"ids\": [null]}", tooManyIds)) {
+      mockMvc
+          .perform(
+              post(BASE_URL + "/ack")
+                  .header("X-Access-Token", TOKEN)
+                  .contentType(MediaType.APPLICATION_JSON)
+                  .content(content))
+          .andExpect(status().isBadRequest());
+    }
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldAcknowledgeAllNotifications() {
+    prefillData();
+    prefillData();
+
+    mockMvc
+        .perform(
+            post(BASE_URL + "/ack-all")
+                .header("X-Access-Token", TOKEN)
+                .contentType(MediaType.APPLICATION_JSON))
+        .andExpectAll(
+            status().isOk(),
+            jsonPath("$.acknowledgedCount", is(2)));
+
+    assertThat(inboxNotificationRepository.countUnreadByRecipientId(
+        "496fd2fd-3497-4391-9ead-41410522d06f")).isZero();
+  }
+
   private InboxNotification prefillData() {
     return inboxNotificationRepository.save(
         InboxNotification.builder()
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.inbox.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.epam.digital.data.platform.notification.entity.InboxNotification;
+import com.epam.digital.data.platform.notification.inbox.config.InboxControllerTestConfig;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+/**
+ * Checks the JDBC batch insert of inbox notifications. The comparison of its rows per second with
+ * per-entity saves on embedded H2 inserts thousands of rows, so it is opt-in:
+ * <pre>
+ * mvn verify -P test -pl ddm-notification-service-inbox -Dit.test=InboxNotificationBulkInsertIT
+ *     -Dbenchmark.enabled=true
+ * </pre>
+ */
+@Slf4j
+@ActiveProfiles("test")
+@ExtendWith(SpringExtension.class)
+@Import(InboxControllerTestConfig.class)
+@EntityScan("com.epam.digital.data.platform.notification.entity")
+@SpringBootTest(properties = {
+    "notifications.enabled=false"
+})
+@ComponentScan("com.epam.digital.data.platform.notification.core")
+class InboxNotificationBulkInsertIT {
+
+  private static final int ROWS = 5_000;
+  private static final int WARMUP_ROWS = 500;
+
+  @Autowired
+  InboxNotificationRepository inboxNotificationRepository;
+
+  @AfterEach
+  void tearDown() {
+    inboxNotificationRepository.deleteAllInBatch();
+  }
+
+  @Test
+  void shouldInsertAllNotifications() {
+    inboxNotificationRepository.insertAll(createNotifications(10));
+
+    var saved = inboxNotificationRepository.findAll();
+    assertThat(saved).hasSize(10)
+        .allSatisfy(notification -> {
+          assertThat(notification.getId()).isNotNull();
+          assertThat(notification.getCreatedAt()).isNotNull();
+          assertThat(notification.isAcknowledged()).isFalse();
+        });
+  }
+
+  @Test
+  @EnabledIfSystemProperty(named = "benchmark.enabled", matches = "true")
+  void benchmarkBulkInsertAgainstSave() {
+    inboxNotificationRepository.insertAll(createNotifications(WARMUP_ROWS));
+    createNotifications(WARMUP_ROWS).forEach(inboxNotificationRepository::save);
+    inboxNotificationRepository.deleteAllInBatch();
+
+    var bulkRowsPerSecond = measure(
+        () -> inboxNotificationRepository.insertAll(createNotifications(ROWS)));
+    var saveRowsPerSecond = measure(
+        () -> createNotifications(ROWS).forEach(inboxNotificationRepository::save));
+    log.info("Inbox notification inserts of {} rows: bulk {} rows/s, save {} rows/s", ROWS,
+        bulkRowsPerSecond, saveRowsPerSecond);
+
+    assertThat(inboxNotificationRepository.count()).isEqualTo(2L * ROWS);
+  }
+
+  private long measure(Runnable insert) {
+    var start = System.nanoTime();
+    insert.run();
+    var elapsedNanos = Math.max(System.nanoTime() - start, 1);
+    return ROWS * 1_000_000_000L / elapsedNanos;
+  }
+
+  private List<InboxNotification> createNotifications(int count) {
+    return IntStream.range(0, count)
+        .mapToObj(i -> InboxNotification.builder()
+            .recipientId("recipient-" + i % 100)
+            .subject("subject " + i)
+            .message("message " + i)
+            .build())
+        .collect(Collectors.toList());
+  }
+}
@@ -16,6 +16,8 @@
 package com.epam.digital.data.platform.notification.inbox.audit;
 
 import com.epam.digital.data.platform.notification.core.audit.AbstractNotificationAuditFacade;
+import com.epam.digital.data.platform.notification.core.audit.AuditEventEmitter;
+import com.epam.digital.data.platform.notification.core.metrics.NotificationMetrics;
 import com.epam.digital.data.platform.notification.dto.audit.NotificationAuditDto;
 import com.epam.digital.data.platform.notification.dto.audit.RecipientAuditDto;
 import com.epam.digital.data.platform.notification.dto.inbox.InboxNotificationAuditDto;
@@ -30,8 +32,15 @@ public class InboxNotificationAuditFacade extends
 
   public InboxNotificationAuditFacade(
       AuditService auditService, String appName,
-      Clock clock) {
-    super(auditService, appName, clock);
+      Clock clock, NotificationMetrics notificationMetrics) {
+    super(auditService, appName, clock, notificationMetrics);
+  }
+
+  public InboxNotificationAuditFacade(
+      AuditService auditService, String appName,
+      Clock clock, AuditEventEmitter auditEventEmitter,
+      NotificationMetrics notificationMetrics) {
+    super(auditService, appName, clock, auditEventEmitter, notificationMetrics);
   }
 
   @Override
@@ -16,43 +16,66 @@
 
 package com.epam.digital.data.platform.notification.inbox.config;
 
+import com.epam.digital.data.platform.notification.core.audit.AuditEventEmitter;
+import com.epam.digital.data.platform.notification.core.metrics.NotificationMetrics;
 import com.epam.digital.data.platform.notification.core.service.IdmServiceProvider;
+import com.epam.digital.data.platform.notification.core.service.NotificationTemplateCache;
 import com.epam.digital.data.platform.notification.core.service.NotificationTemplateServiceImpl;
 import com.epam.digital.data.platform.notification.core.template.FreemarkerTemplateResolver;
 import com.epam.digital.data.platform.notification.inbox.audit.InboxNotificationAuditFacade;
+import com.epam.digital.data.platform.notification.inbox.listener.InboxBatchNotificationListener;
 import com.epam.digital.data.platform.notification.inbox.listener.InboxNotificationListener;
 import com.epam.digital.data.platform.notification.inbox.producer.InboxNotificationProducer;
 import com.epam.digital.data.platform.notification.inbox.repository.InboxNotificationRepository;
 import com.epam.digital.data.platform.notification.inbox.repository.InboxNotificationTemplateRepository;
 import com.epam.digital.data.platform.notification.inbox.service.InboxNotificationService;
+import com.epam.digital.data.platform.notification.inbox.service.InboxUnreadCountCache;
 import com.epam.digital.data.platform.notification.inbox.service.TokenParserService;
 import com.epam.digital.data.platform.notification.template.NotificationTemplateService;
 import com.epam.digital.data.platform.starter.audit.service.AuditService;
 import java.time.Clock;
+import java.time.Duration;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
 
 @Configuration
 @ConditionalOnProperty(prefix = "notifications", name = "enabled", havingValue = "true")
 public class InboxNotificationConfig {
 
+  private static final String SINGLE_LISTENER_ENABLED =
+      "${data-platform.kafka.enabled:false} and !${notifications.batch-listener.enabled:false}";
+  private static final String BATCH_LISTENER_ENABLED =
+      "${data-platform.kafka.enabled:false} and ${notifications.batch-listener.enabled:false}";
+
   @Bean
   public InboxNotificationService inboxNotificationService(
       @Qualifier("inboxNotificationTemplateService") NotificationTemplateService<String> inboxNotificationTemplateService,
       FreemarkerTemplateResolver inboxFreemarkerTemplateResolver,
       InboxNotificationRepository inboxNotificationRepository,
       TokenParserService tokenParserService,
-      IdmServiceProvider idmServiceProvider) {
+      IdmServiceProvider idmServiceProvider,
+      InboxUnreadCountCache inboxUnreadCountCache) {
     return new InboxNotificationService(
         inboxNotificationTemplateService,
         inboxFreemarkerTemplateResolver,
         inboxNotificationRepository,
         tokenParserService,
-        idmServiceProvider);
+        idmServiceProvider,
+        inboxUnreadCountCache);
+  }
+
+  @Bean
+  public InboxUnreadCountCache inboxUnreadCountCache(
+      @Value("${notifications.inbox.unread-count-cache.max-size:10000}") long maxSize,
+      @Value("${notifications.inbox.unread-count-cache.ttl:30s}") Duration ttl) {
+    return new InboxUnreadCountCache(maxSize, ttl);
   }
 
   @Bean
@@ -70,23 +93,42 @@ public class InboxNotificationConfig {
   }
 
   @Bean
-  @ConditionalOnProperty(prefix = "data-platform.kafka", name = "enabled", havingValue = "true")
+  @ConditionalOnExpression(SINGLE_LISTENER_ENABLED)
   public InboxNotificationListener inboxNotificationListener(
       InboxNotificationService inboxNotificationService,
-      InboxNotificationAuditFacade notificationAuditFacade) {
-    return new InboxNotificationListener(inboxNotificationService, notificationAuditFacade);
+      InboxNotificationAuditFacade notificationAuditFacade,
+      NotificationMetrics notificationMetrics) {
+    return new InboxNotificationListener(inboxNotificationService, notificationAuditFacade,
+        notificationMetrics);
+  }
+
+  @Bean
+  @ConditionalOnExpression(BATCH_LISTENER_ENABLED)
+  public InboxBatchNotificationListener inboxBatchNotificationListener(
+      InboxNotificationService inboxNotificationService,
+      InboxNotificationAuditFacade notificationAuditFacade,
+      ConsumerRecordRecoverer notificationDeadLetterRecoverer,
+      NotificationMetrics notificationMetrics) {
+    return new InboxBatchNotificationListener(inboxNotificationService, notificationAuditFacade,
+        notificationDeadLetterRecoverer, notificationMetrics);
   }
 
   @Bean
   public InboxNotificationAuditFacade inboxNotificationAuditFacade(AuditService auditService,
-      @Value("${spring.application.name}") String appName, Clock clock) {
-    return new InboxNotificationAuditFacade(auditService, appName, clock);
+      @Value("${spring.application.name}") String appName, Clock clock,
+      ObjectProvider<AuditEventEmitter> auditEventEmitter,
+      NotificationMetrics notificationMetrics) {
+    return new InboxNotificationAuditFacade(auditService, appName, clock,
+        auditEventEmitter.getIfAvailable(() -> auditService::sendAudit), notificationMetrics);
   }
 
   @Bean
   @Qualifier("inboxNotificationTemplateService")
   public NotificationTemplateService<String> inboxNotificationTemplateService(
-      InboxNotificationTemplateRepository inboxNotificationTemplateRepository) {
-    return new NotificationTemplateServiceImpl(inboxNotificationTemplateRepository);
+      InboxNotificationTemplateRepository inboxNotificationTemplateRepository,
+      NotificationTemplateCache notificationTemplateCache,
+      NotificationMetrics notificationMetrics) {
+    return new NotificationTemplateServiceImpl(inboxNotificationTemplateRepository,
+        notificationTemplateCache, notificationMetrics);
   }
 }
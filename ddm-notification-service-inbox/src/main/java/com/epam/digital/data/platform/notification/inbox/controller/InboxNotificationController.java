@@ -16,7 +16,11 @@
 package com.epam.digital.data.platform.notification.inbox.controller;
 
 import com.epam.digital.data.platform.notification.dto.SaveNotificationTemplateOutputDto;
+import com.epam.digital.data.platform.notification.dto.inbox.InboxNotificationAcknowledgeDto;
+import com.epam.digital.data.platform.notification.dto.inbox.InboxNotificationAcknowledgeResultDto;
+import com.epam.digital.data.platform.notification.dto.inbox.InboxNotificationCursorPageDto;
 import com.epam.digital.data.platform.notification.dto.inbox.InboxNotificationResponseDto;
+import com.epam.digital.data.platform.notification.dto.inbox.InboxNotificationUnreadCountDto;
 import com.epam.digital.data.platform.notification.dto.inbox.InboxOffsetBasedPageRequest;
 import com.epam.digital.data.platform.notification.inbox.service.InboxNotificationService;
 import com.epam.digital.data.platform.notification.model.DetailedErrorResponse;
@@ -28,6 +32,7 @@ import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import javax.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -36,8 +41,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -133,6 +140,121 @@ public class InboxNotificationController {
         .body(inboxNotificationService.getInboxNotifications(accessToken, request));
   }
 
+  @Operation(
+      summary = "Viewing the list of in-app messages page by page using a cursor",
+      description = "### Endpoint purpose: \n This endpoint is used for viewing notifications page by page, newest first. The response contains _nextCursor_ which is passed as _cursor_ parameter to get the next page, it is absent on the last page. Unlike the offset based endpoint the response time does not depend on the page depth.\n ### Authorization:\n This endpoint requires valid user authentication. To access this endpoint, the request must include a valid access token in the _X-Access-Token_ header, otherwise, the API will return a _401 Unauthorized_ status code",
+      parameters = {
+          @Parameter(
+              name = "X-Access-Token",
+              description = "User access token",
+              in = ParameterIn.HEADER,
+              schema = @Schema(type = "string")
+          ),
+          @Parameter(
+              name = "cursor",
+              description = "Cursor returned with the previous page, omitted for the first page",
+              in = ParameterIn.QUERY,
+              schema = @Schema(type = "string")
+          ),
+          @Parameter(
+              name = "limit",
+              description = "Maximum number of records to return, from 1 to 100",
+              in = ParameterIn.QUERY,
+              schema = @Schema(type = "integer", defaultValue = "10", minimum = "1", maximum = "100")
+          )
+      },
+      responses = {
+          @ApiResponse(
+              responseCode = "200",
+              description = "OK. Page of inbox notifications successfully retrieved.",
+              content = @Content(
+                  mediaType = MediaType.APPLICATION_JSON_VALUE,
+                  schema = @Schema(implementation = InboxNotificationCursorPageDto.class),
+                  examples = @ExampleObject(
+                      value = "{\n" +
+                          "  \"notifications\": [\n" +
+                          "    {\n" +
+                          "      \"id\": \"3fa85f64-5717-4562-b3fc-2c963f66afa6\",\n" +
+                          "      \"subject\": \"Some subject\",\n" +
+                          "      \"message\": \"Some message\",\n" +
+                          "      \"isAcknowledged\": true,\n" +
+                          "      \"createdAt\": \"2021-08-10T10:30:00.000Z\"\n" +
+                          "    }\n" +
+                          "  ],\n" +
+                          "  \"nextCursor\": \"MjAyMS0wOC0xMFQxMDozMHwzZmE4NWY2NC01NzE3LTQ1NjItYjNmYy0yYzk2M2Y2NmFmYTY\"\n" +
+                          "}"
+                  )
+              )
+          ),
+          @ApiResponse(
+              responseCode = "400",
+              description = "Bad Request. Invalid cursor or limit.",
+              content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE)
+          ),
+          @ApiResponse(
+              responseCode = "401",
+              description = "Unauthorized. Missing or invalid access token or digital signature.",
+              content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE)
+          ),
+          @ApiResponse(
+              responseCode = "500",
+              description = "Internal Server Error. Server error while processing the request.",
+              content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                  schema = @Schema(implementation = DetailedErrorResponse.class))
+          ),
+      }
+  )
+  @GetMapping("/cursor")
+  public ResponseEntity<InboxNotificationCursorPageDto> getInboxNotificationsPage(
+      @RequestHeader(ACCESS_TOKEN) String accessToken,
+      @RequestParam(value = "cursor", required = false) String cursor,
+      @RequestParam(value = "limit", defaultValue = "10") int limit) {
+    log.info("processing get notifications page request");
+    return ResponseEntity.ok()
+        .body(inboxNotificationService.getInboxNotifications(accessToken, cursor, limit));
+  }
+
+  @Operation(
+      summary = "Counting unread in-app messages",
+      description = "### Endpoint purpose: \n This endpoint is used for getting the number of notifications that were not acknowledged yet, e.g. to show an unread badge. The value may be cached for a short time.\n ### Authorization:\n This endpoint requires valid user authentication. To access this endpoint, the request must include a valid access token in the _X-Access-Token_ header, otherwise, the API will return a _401 Unauthorized_ status code",
+      parameters = {
+          @Parameter(
+              name = "X-Access-Token",
+              description = "User access token",
+              in = ParameterIn.HEADER,
+              schema = @Schema(type = "string")
+          )
+      },
+      responses = {
+          @ApiResponse(
+              responseCode = "200",
+              description = "OK. Unread notifications count successfully retrieved.",
+              content = @Content(
+                  mediaType = MediaType.APPLICATION_JSON_VALUE,
+                  schema = @Schema(implementation = InboxNotificationUnreadCountDto.class),
+                  examples = @ExampleObject(value = "{\n  \"unreadCount\": 3\n}")
+              )
+          ),
+          @ApiResponse(
+              responseCode = "401",
+              description = "Unauthorized. Missing or invalid access token or digital signature.",
+              content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE)
+          ),
+          @ApiResponse(
+              responseCode = "500",
+              description = "Internal Server Error. Server error while processing the request.",
+              content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                  schema = @Schema(implementation = DetailedErrorResponse.class))
+          ),
+      }
+  )
+  @GetMapping("/unread-count")
+  public ResponseEntity<InboxNotificationUnreadCountDto> getUnreadCount(
+      @RequestHeader(ACCESS_TOKEN) String accessToken) {
+    log.info("processing get unread notifications count request");
+    return ResponseEntity.ok().body(inboxNotificationService.getUnreadCount(accessToken));
+  }
+
   @Operation(
       summary = "Confirmation of in-app message",
       description = "### Endpoint purpose: \n This endpoint is used for confirming notification about the status or result of the business process, receiving official messages.\n ### Authorization:\n This endpoint requires valid user authentication. To access this endpoint, the request must include a valid access token in the _X-Access-Token_ header, otherwise, the API will return a _401 Unauthorized_ status code. If the user's ID provided in the JWT token does not match the recipient ID of the message, a 403 Forbidden error will be returned. Only the recipient of the notification can update its state",
@@ -187,4 +309,104 @@ public class InboxNotificationController {
     inboxNotificationService.acknowledgeNotification(id, accessToken);
     return ResponseEntity.ok().build();
   }
-}
\ No newline at end of file
+
+  @Operation(
+      summary = "Confirmation of several in-app messages",
+      description = "### Endpoint purpose: \n This endpoint is used for confirming several notifications at once by their ids, up to 1000 ids per request. Notifications that do not belong to the user or are already confirmed are skipped, the response contains the number of confirmed notifications.\n ### Authorization:\n This endpoint requires valid user authentication. To access this endpoint, the request must include a valid access token in the _X-Access-Token_ header, otherwise, the API will return a _401 Unauthorized_ status code",
+      parameters = {
+          @Parameter(
+              name = "X-Access-Token",
+              description = "User access token",
+              in = ParameterIn.HEADER,
+              schema = @Schema(type = "string")
+          )
+      },
+      requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+          content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+              schema = @Schema(implementation = InboxNotificationAcknowledgeDto.class),
+              examples = @ExampleObject(value = "{\n  \"ids\": [\"3fa85f64-5717-4562-b3fc-2c963f66afa6\"]\n}"))
+      ),
+      responses = {
+          @ApiResponse(
+              responseCode = "200",
+              description = "OK. Inbox notifications successfully acknowledged.",
+              content = @Content(
+                  mediaType = MediaType.APPLICATION_JSON_VALUE,
+                  schema = @Schema(implementation = InboxNotificationAcknowledgeResultDto.class),
+                  examples = @ExampleObject(value = "{\n  \"acknowledgedCount\": 3\n}")
+              )
+          ),
+          @ApiResponse(
+              responseCode = "400",
+              description = "Bad Request.",
+              content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE)
+          ),
+          @ApiResponse(
+              responseCode = "401",
+              description = "Unauthorized. Missing or invalid access token or digital signature.",
+              content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE)
+          ),
+          @ApiResponse(
+              responseCode = "500",
+              description = "Internal Server Error. Server error while processing the request.",
+              content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                  schema = @Schema(implementation = DetailedErrorResponse.class))
+          ),
+      }
+  )
+  @PostMapping("/ack")
+  public ResponseEntity<InboxNotificationAcknowledgeResultDto> acknowledgeNotifications(
+      @RequestBody @Valid InboxNotificationAcknowledgeDto request,
+      @RequestHeader(ACCESS_TOKEN) String accessToken) {
+    log.info("processing acknowledgeNotifications request");
+    return ResponseEntity.ok()
+        .body(inboxNotificationService.acknowledgeNotifications(request.getIds(), accessToken));
+  }
+
+  @Operation(
+      summary = "Confirmation of all in-app messages",
+      description = "### Endpoint purpose: \n This endpoint is used for confirming all unread notifications of the user at once, e.g. to mark all as read. The response contains the number of confirmed notifications.\n ### Authorization:\n This endpoint requires valid user authentication. To access this endpoint, the request must include a valid access token in the _X-Access-Token_ header, otherwise, the API will return a _401 Unauthorized_ status code",
+      parameters = {
+          @Parameter(
+              name = "X-Access-Token",
+              description = "User access token",
+              in = ParameterIn.HEADER,
+              schema = @Schema(type = "string")
+          )
+      },
+      responses = {
+          @ApiResponse(
+              responseCode = "200",
+              description = "OK. All inbox notifications successfully acknowledged.",
+              content = @Content(
+                  mediaType = MediaType.APPLICATION_JSON_VALUE,
+                  schema = @Schema(implementation = InboxNotificationAcknowledgeResultDto.class),
+                  examples = @ExampleObject(value = "{\n  \"acknowledgedCount\": 3\n}")
+              )
+          ),
+          @ApiResponse(
+              responseCode = "400",
+              description = "Bad Request.",
+              content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE)
+          ),
+          @ApiResponse(
+              responseCode = "401",
+              description = "Unauthorized. Missing or invalid access token or digital signature.",
+              content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE)
+          ),
+          @ApiResponse(
+              responseCode = "500",
+              description = "Internal Server Error. Server error while processing the request.",
+              content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                  schema = @Schema(implementation = DetailedErrorResponse.class))
+          ),
+      }
+  )
+  @PostMapping("/ack-all")
+  public ResponseEntity<InboxNotificationAcknowledgeResultDto> acknowledgeAllNotifications(
+      @RequestHeader(ACCESS_TOKEN) String accessToken) {
+    log.info("processing acknowledgeAllNotifications request");
+    return ResponseEntity.ok()
+        .body(inboxNotificationService.acknowledgeAllNotifications(accessToken));
+  }
+}
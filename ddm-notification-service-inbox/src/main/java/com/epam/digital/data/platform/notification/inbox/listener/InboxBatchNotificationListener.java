@@ -0,0 +1,53 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.inbox.listener;
+
+import com.epam.digital.data.platform.notification.audit.NotificationAuditFacade;
+import com.epam.digital.data.platform.notification.core.listener.AbstractBatchNotificationListener;
+import com.epam.digital.data.platform.notification.core.metrics.NotificationMetrics;
+import com.epam.digital.data.platform.notification.dto.inbox.InboxNotificationMessageDto;
+import com.epam.digital.data.platform.notification.service.NotificationService;
+import com.epam.digital.data.platform.settings.model.dto.Channel;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+
+@Slf4j
+public class InboxBatchNotificationListener extends
+    AbstractBatchNotificationListener<InboxNotificationMessageDto> {
+
+  public InboxBatchNotificationListener(
+      NotificationService<InboxNotificationMessageDto> notificationService,
+      NotificationAuditFacade<InboxNotificationMessageDto> notificationAuditFacade,
+      ConsumerRecordRecoverer deadLetterRecoverer, NotificationMetrics notificationMetrics) {
+    super(notificationService, notificationAuditFacade, deadLetterRecoverer, notificationMetrics);
+  }
+
+  @KafkaListener(
+      topics = "\u0023{kafkaProperties.topics['inbox-notifications']}",
+      groupId = "\u0023{kafkaProperties.consumer.groupId}",
+      containerFactory = "batchKafkaListenerContainerFactory",
+      concurrency = "${notifications.channel-listener.concurrency:1}")
+  @Override
+  public void notify(List<ConsumerRecord<String, InboxNotificationMessageDto>> records) {
+    log.info("Kafka batch of {} events received", records.size());
+    sendNotifications(records, Channel.INBOX);
+    log.info("Kafka batch processed");
+  }
+}
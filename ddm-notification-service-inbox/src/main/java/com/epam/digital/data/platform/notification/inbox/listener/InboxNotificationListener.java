@@ -18,6 +18,7 @@ package com.epam.digital.data.platform.notification.inbox.listener;
 
 import com.epam.digital.data.platform.notification.audit.NotificationAuditFacade;
 import com.epam.digital.data.platform.notification.core.listener.AbstractNotificationListener;
+import com.epam.digital.data.platform.notification.core.metrics.NotificationMetrics;
 import com.epam.digital.data.platform.notification.dto.inbox.InboxNotificationMessageDto;
 import com.epam.digital.data.platform.notification.service.NotificationService;
 import com.epam.digital.data.platform.settings.model.dto.Channel;
@@ -30,14 +31,16 @@ public class InboxNotificationListener extends
 
   public InboxNotificationListener(
       NotificationService<InboxNotificationMessageDto> notificationService,
-      NotificationAuditFacade<InboxNotificationMessageDto> notificationAuditFacade) {
-    super(notificationService, notificationAuditFacade);
+      NotificationAuditFacade<InboxNotificationMessageDto> notificationAuditFacade,
+      NotificationMetrics notificationMetrics) {
+    super(notificationService, notificationAuditFacade, notificationMetrics);
   }
 
   @KafkaListener(
       topics = "\u0023{kafkaProperties.topics['inbox-notifications']}",
       groupId = "\u0023{kafkaProperties.consumer.groupId}",
-      containerFactory = "concurrentKafkaListenerContainerFactory")
+      containerFactory = "concurrentKafkaListenerContainerFactory",
+      concurrency = "${notifications.channel-listener.concurrency:1}")
   @Override
   public void notify(InboxNotificationMessageDto message) {
     log.info("Kafka event received");
@@ -25,6 +25,7 @@ import com.epam.digital.data.platform.notification.exception.NotificationTemplat
 import com.epam.digital.data.platform.notification.inbox.service.InboxNotificationService;
 import com.epam.digital.data.platform.notification.template.NotificationTemplateService;
 import com.epam.digital.data.platform.settings.model.dto.Channel;
+import java.util.Objects;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.core.KafkaTemplate;
 
@@ -73,6 +74,27 @@ public class InboxNotificationProducer extends
         .build();
   }
 
+  @Override
+  public InboxNotificationMessageDto copyForRecipient(
+      InboxNotificationMessageDto renderedMessageDto, Recipient recipient) {
+    return InboxNotificationMessageDto.builder()
+        .recipientName(recipient.getId())
+        .recipientRealm(recipient.getRealm())
+        .context(renderedMessageDto.getContext())
+        .notification(renderedMessageDto.getNotification())
+        .build();
+  }
+
+  @Override
+  protected String getRecipientId(InboxNotificationMessageDto notificationMessageDto) {
+    var recipientName = notificationMessageDto.getRecipientName();
+    var recipientRealm = notificationMessageDto.getRecipientRealm();
+    if (Objects.isNull(recipientName) || Objects.isNull(recipientRealm)) {
+      return recipientName;
+    }
+    return recipientRealm.name() + "/" + recipientName;
+  }
+
   private String createMessageBody(Recipient recipient, UserNotificationMessageDto message) {
     var templateName = message.getNotification().getTemplateName();
     return inboxNotificationService.prepareInboxBody(templateName, recipient.getParameters());
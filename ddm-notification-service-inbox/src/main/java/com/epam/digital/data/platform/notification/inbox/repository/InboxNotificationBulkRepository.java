@@ -0,0 +1,32 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.inbox.repository;
+
+import com.epam.digital.data.platform.notification.entity.InboxNotification;
+import java.util.List;
+
+public interface InboxNotificationBulkRepository {
+
+  /**
+   * Insert the notifications with JDBC batching bypassing the persistence context. Ids and
+   * timestamps are assigned to the passed entities. All the JDBC batches are executed in one
+   * transaction, so either every notification is stored or none of them.
+   *
+   * @param inboxNotifications notifications to insert
+   */
+  void insertAll(List<InboxNotification> inboxNotifications);
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.inbox.repository;
+
+import com.epam.digital.data.platform.notification.entity.InboxNotification;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+@Slf4j
+public class InboxNotificationBulkRepositoryImpl implements InboxNotificationBulkRepository {
+
+  static final String INSERT_SQL = "insert into public.inbox_notification "
+      + "(id, recipient_id, subject, message, is_acknowledged, created_at, updated_at) "
+      + "values (?, ?, ?, ?, ?, ?, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final int batchSize;
+
+  public InboxNotificationBulkRepositoryImpl(JdbcTemplate jdbcTemplate,
+      @Value("${notifications.inbox.bulk-insert.batch-size:500}") int batchSize) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.batchSize = batchSize;
+  }
+
+  @Override
+  @Transactional
+  public void insertAll(List<InboxNotification> inboxNotifications) {
+    var now = LocalDateTime.now();
+    inboxNotifications.forEach(inboxNotification -> {
+      inboxNotification.setId(UUID.randomUUID());
+      inboxNotification.setCreatedAt(now);
+      inboxNotification.setUpdatedAt(now);
+    });
+    jdbcTemplate.batchUpdate(INSERT_SQL, inboxNotifications, batchSize, (ps, notification) -> {
+      ps.setObject(1, notification.getId());
+      ps.setString(2, notification.getRecipientId());
+      ps.setString(3, notification.getSubject());
+      ps.setString(4, notification.getMessage());
+      ps.setBoolean(5, notification.isAcknowledged());
+      ps.setTimestamp(6, Timestamp.valueOf(notification.getCreatedAt()));
+      ps.setTimestamp(7, Timestamp.valueOf(notification.getUpdatedAt()));
+    });
+    log.debug("Inserted {} inbox notifications", inboxNotifications.size());
+  }
+}
@@ -17,14 +17,67 @@
 package com.epam.digital.data.platform.notification.inbox.repository;
 
 import com.epam.digital.data.platform.notification.entity.InboxNotification;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
-public interface InboxNotificationRepository extends JpaRepository<InboxNotification, UUID> {
+public interface InboxNotificationRepository extends JpaRepository<InboxNotification, UUID>,
+    InboxNotificationBulkRepository {
 
   List<InboxNotification> findByRecipientId(String recipientId, Pageable pageable);
+
+  List<InboxNotification> findByRecipientIdOrderByCreatedAtDescIdAsc(String recipientId,
+      Pageable pageable);
+
+  /**
+   * Seek the notifications following the given position in {@code createdAt desc, id asc}
+   * order, served by the {@code (recipient_id, created_at desc, id)} index
+   */
+  @Query("select n from InboxNotification n where n.recipientId = :recipientId "
+      + "and (n.createdAt < :createdAt or (n.createdAt = :createdAt and n.id > :id)) "
+      + "order by n.createdAt desc, n.id asc")
+  List<InboxNotification> findByRecipientIdAfter(@Param("recipientId") String recipientId,
+      @Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id, Pageable pageable);
+
+  /**
+   * Count unread notifications of the recipient, expected to be served by the partial index on
+   * {@code recipient_id where is_acknowledged = false}
+   */
+  @Query("select count(n) from InboxNotification n "
+      + "where n.recipientId = :recipientId and n.isAcknowledged = false")
+  long countUnreadByRecipientId(@Param("recipientId") String recipientId);
+
+  /**
+   * Acknowledge the unread notifications with given ids, notifications of other recipients are
+   * left untouched
+   *
+   * @return number of acknowledged notifications
+   */
+  @Transactional
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("update InboxNotification n set n.isAcknowledged = true, n.updatedAt = :updatedAt "
+      + "where n.id in :ids and n.recipientId = :recipientId and n.isAcknowledged = false")
+  int acknowledgeByIds(@Param("recipientId") String recipientId,
+      @Param("ids") Collection<UUID> ids, @Param("updatedAt") LocalDateTime updatedAt);
+
+  /**
+   * Acknowledge all unread notifications of the recipient
+   *
+   * @return number of acknowledged notifications
+   */
+  @Transactional
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("update InboxNotification n set n.isAcknowledged = true, n.updatedAt = :updatedAt "
+      + "where n.recipientId = :recipientId and n.isAcknowledged = false")
+  int acknowledgeAll(@Param("recipientId") String recipientId,
+      @Param("updatedAt") LocalDateTime updatedAt);
 }
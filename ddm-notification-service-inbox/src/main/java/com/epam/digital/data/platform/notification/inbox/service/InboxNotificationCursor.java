@@ -0,0 +1,65 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.inbox.service;
+
+import com.epam.digital.data.platform.notification.entity.InboxNotification;
+import com.epam.digital.data.platform.notification.exception.ParsingException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Position of the last returned inbox notification in {@code createdAt desc, id asc} order,
+ * passed to clients as an opaque url-safe string.
+ */
+@Getter
+@EqualsAndHashCode
+@RequiredArgsConstructor
+public final class InboxNotificationCursor {
+
+  private static final String SEPARATOR = "|";
+
+  private final LocalDateTime createdAt;
+  private final UUID id;
+
+  public static InboxNotificationCursor of(InboxNotification inboxNotification) {
+    return new InboxNotificationCursor(inboxNotification.getCreatedAt(),
+        inboxNotification.getId());
+  }
+
+  public static InboxNotificationCursor decode(String cursor) {
+    try {
+      var decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      var separatorIndex = decoded.indexOf(SEPARATOR);
+      return new InboxNotificationCursor(
+          LocalDateTime.parse(decoded.substring(0, separatorIndex)),
+          UUID.fromString(decoded.substring(separatorIndex + 1)));
+    } catch (RuntimeException exception) {
+      throw new ParsingException("Invalid inbox notification cursor", exception);
+    }
+  }
+
+  public String encode() {
+    var value = createdAt + SEPARATOR + id;
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString(value.getBytes(StandardCharsets.UTF_8));
+  }
+}
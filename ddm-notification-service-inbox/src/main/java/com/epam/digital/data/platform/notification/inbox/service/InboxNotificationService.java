@@ -18,52 +18,86 @@ package com.epam.digital.data.platform.notification.inbox.service;
 
 import com.epam.digital.data.platform.notification.core.service.IdmServiceProvider;
 import com.epam.digital.data.platform.notification.core.template.FreemarkerTemplateResolver;
+import com.epam.digital.data.platform.notification.dto.inbox.InboxNotificationAcknowledgeResultDto;
+import com.epam.digital.data.platform.notification.dto.inbox.InboxNotificationCursorPageDto;
 import com.epam.digital.data.platform.notification.dto.inbox.InboxNotificationMessageDto;
 import com.epam.digital.data.platform.notification.dto.inbox.InboxNotificationResponseDto;
+import com.epam.digital.data.platform.notification.dto.inbox.InboxNotificationUnreadCountDto;
 import com.epam.digital.data.platform.notification.entity.InboxNotification;
 import com.epam.digital.data.platform.notification.exception.ForbiddenNotificationActionException;
+import com.epam.digital.data.platform.notification.exception.ParsingException;
 import com.epam.digital.data.platform.notification.inbox.repository.InboxNotificationRepository;
 import com.epam.digital.data.platform.notification.model.JwtClaims;
 import com.epam.digital.data.platform.notification.service.NotificationService;
 import com.epam.digital.data.platform.notification.template.NotificationTemplateService;
 import com.epam.digital.data.platform.settings.model.dto.Channel;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.codec.binary.StringUtils;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
 @Slf4j
 @RequiredArgsConstructor
 public class InboxNotificationService implements NotificationService<InboxNotificationMessageDto> {
 
+  public static final int MAX_PAGE_LIMIT = 100;
+
   private final NotificationTemplateService<String> templateService;
   private final FreemarkerTemplateResolver templateResolver;
   private final InboxNotificationRepository inboxNotificationRepository;
   private final TokenParserService tokenParserService;
   private final IdmServiceProvider idmServiceProvider;
+  private final InboxUnreadCountCache unreadCountCache;
 
   public void notify(InboxNotificationMessageDto message) {
     log.info("Sending inbox notification - saving in database");
-    log.info("Getting user id by username");
+    var inboxNotification = toInboxNotification(message);
+    inboxNotificationRepository.save(inboxNotification);
+    unreadCountCache.evict(inboxNotification.getRecipientId());
+    log.info("Inbox notification was sent - saved in database");
+  }
 
-    var idmService = idmServiceProvider.getIdmService(message.getRecipientRealm());
-    var users = idmService.getUserByUserName(message.getRecipientName());
-    if (users.isEmpty()) {
-      throw new IllegalArgumentException("User not found by username");
+  /**
+   * Resolves recipients of the messages one by one and saves all resolved notifications with a
+   * single JDBC batch
+   */
+  @Override
+  public Map<Integer, RuntimeException> notifyBatch(List<InboxNotificationMessageDto> messages) {
+    log.info("Sending {} inbox notifications - saving in database", messages.size());
+    var failures = new LinkedHashMap<Integer, RuntimeException>();
+    var inboxNotifications = new ArrayList<InboxNotification>(messages.size());
+    var resolvedIndexes = new ArrayList<Integer>(messages.size());
+    for (var i = 0; i < messages.size(); i++) {
+      try {
+        inboxNotifications.add(toInboxNotification(messages.get(i)));
+        resolvedIndexes.add(i);
+      } catch (RuntimeException exception) {
+        failures.put(i, exception);
+      }
     }
-
-    inboxNotificationRepository.save(
-        InboxNotification.builder()
-            .subject(message.getNotification().getSubject())
-            .message(message.getNotification().getMessage())
-            .recipientId(users.get(0).getId())
-            .build());
-    log.info("Inbox notification was sent - saved in database");
+    if (!inboxNotifications.isEmpty()) {
+      try {
+        inboxNotificationRepository.insertAll(inboxNotifications);
+        unreadCountCache.evictAll(inboxNotifications.stream()
+            .map(InboxNotification::getRecipientId).collect(Collectors.toSet()));
+      } catch (RuntimeException exception) {
+        resolvedIndexes.forEach(index -> failures.put(index, exception));
+      }
+    }
+    log.info("{} inbox notifications were sent - saved in database",
+        messages.size() - failures.size());
+    return failures;
   }
 
   public List<InboxNotificationResponseDto> getInboxNotifications(
@@ -75,14 +109,43 @@ public class InboxNotificationService implements NotificationService<InboxNotifi
     List<InboxNotification> byRecipientId = inboxNotificationRepository.findByRecipientId(
         jwtClaims.getSubject(), pageable);
 
-    return byRecipientId.stream().map(inboxNotification ->
-        InboxNotificationResponseDto.builder()
-            .id(inboxNotification.getId())
-            .subject(inboxNotification.getSubject())
-            .message(inboxNotification.getMessage())
-            .isAcknowledged(inboxNotification.isAcknowledged())
-            .createdAt(inboxNotification.getCreatedAt())
-            .build()).collect(Collectors.toList());
+    return byRecipientId.stream().map(this::toResponseDto).collect(Collectors.toList());
+  }
+
+  /**
+   * Get the page of inbox notifications following the cursor position using keyset pagination
+   *
+   * @param accessToken user access token
+   * @param cursor      cursor returned with the previous page, {@code null} for the first page
+   * @param limit       maximum number of notifications in the page, from 1 to
+   *                    {@link #MAX_PAGE_LIMIT}
+   * @return page of notifications with the cursor of the next page
+   * @throws ParsingException if the cursor or the limit is invalid
+   */
+  public InboxNotificationCursorPageDto getInboxNotifications(String accessToken, String cursor,
+      int limit) {
+    if (limit < 1 || limit > MAX_PAGE_LIMIT) {
+      throw new ParsingException("Limit must be between 1 and " + MAX_PAGE_LIMIT);
+    }
+    var jwtClaims = tokenParserService.parseClaims(accessToken);
+    // one extra row tells whether the next page exists
+    var pageable = PageRequest.of(0, limit + 1);
+    List<InboxNotification> inboxNotifications;
+    if (Objects.isNull(cursor)) {
+      inboxNotifications = inboxNotificationRepository
+          .findByRecipientIdOrderByCreatedAtDescIdAsc(jwtClaims.getSubject(), pageable);
+    } else {
+      var position = InboxNotificationCursor.decode(cursor);
+      inboxNotifications = inboxNotificationRepository.findByRecipientIdAfter(
+          jwtClaims.getSubject(), position.getCreatedAt(), position.getId(), pageable);
+    }
+
+    var hasNext = inboxNotifications.size() > limit;
+    var page = hasNext ? inboxNotifications.subList(0, limit) : inboxNotifications;
+    return InboxNotificationCursorPageDto.builder()
+        .notifications(page.stream().map(this::toResponseDto).collect(Collectors.toList()))
+        .nextCursor(hasNext ? InboxNotificationCursor.of(page.get(limit - 1)).encode() : null)
+        .build();
   }
 
   public void acknowledgeNotification(UUID notificationId, String accessToken) {
@@ -98,11 +161,89 @@ public class InboxNotificationService implements NotificationService<InboxNotifi
 
       inboxNotification.setAcknowledged(true);
       inboxNotificationRepository.save(inboxNotification);
+      unreadCountCache.evict(inboxNotification.getRecipientId());
     }
   }
 
+  /**
+   * Acknowledge the user notifications with given ids in a single update. Notifications of
+   * other users are skipped.
+   *
+   * @param notificationIds ids of the notifications
+   * @param accessToken     user access token
+   * @return number of acknowledged notifications
+   */
+  public InboxNotificationAcknowledgeResultDto acknowledgeNotifications(
+      List<UUID> notificationIds, String accessToken) {
+    var jwtClaims = tokenParserService.parseClaims(accessToken);
+    if (Objects.isNull(notificationIds) || notificationIds.isEmpty()) {
+      return InboxNotificationAcknowledgeResultDto.builder().acknowledgedCount(0).build();
+    }
+    var acknowledgedCount = inboxNotificationRepository.acknowledgeByIds(
+        jwtClaims.getSubject(), Set.copyOf(notificationIds), LocalDateTime.now());
+    unreadCountCache.evict(jwtClaims.getSubject());
+    log.info("Acknowledged {} of {} requested inbox notifications", acknowledgedCount,
+        notificationIds.size());
+    return InboxNotificationAcknowledgeResultDto.builder()
+        .acknowledgedCount(acknowledgedCount).build();
+  }
+
+  /**
+   * Acknowledge all unread notifications of the user in a single update
+   *
+   * @param accessToken user access token
+   * @return number of acknowledged notifications
+   */
+  public InboxNotificationAcknowledgeResultDto acknowledgeAllNotifications(String accessToken) {
+    var jwtClaims = tokenParserService.parseClaims(accessToken);
+    var acknowledgedCount = inboxNotificationRepository.acknowledgeAll(jwtClaims.getSubject(),
+        LocalDateTime.now());
+    unreadCountCache.evict(jwtClaims.getSubject());
+    log.info("Acknowledged all {} unread inbox notifications", acknowledgedCount);
+    return InboxNotificationAcknowledgeResultDto.builder()
+        .acknowledgedCount(acknowledgedCount).build();
+  }
+
+  /**
+   * Get the number of unread inbox notifications of the user
+   *
+   * @param accessToken user access token
+   * @return unread notifications count
+   */
+  public InboxNotificationUnreadCountDto getUnreadCount(String accessToken) {
+    var jwtClaims = tokenParserService.parseClaims(accessToken);
+    var unreadCount = unreadCountCache.get(jwtClaims.getSubject(),
+        inboxNotificationRepository::countUnreadByRecipientId);
+    return InboxNotificationUnreadCountDto.builder().unreadCount(unreadCount).build();
+  }
+
   public String prepareInboxBody(String templateName, Map<String, Object> data) {
-    var template = templateService.getContentByNameAndChannel(templateName, Channel.INBOX);
-    return templateResolver.resolve(templateName, template, data);
+    var template = templateService.getTemplate(templateName, Channel.INBOX);
+    return templateResolver.resolve(templateName, Channel.INBOX, template.getChecksum(),
+        template.getContent(), data);
+  }
+
+  private InboxNotification toInboxNotification(InboxNotificationMessageDto message) {
+    log.info("Getting user id by username");
+    var users = idmServiceProvider.getUserByUserName(message.getRecipientRealm(),
+        message.getRecipientName());
+    if (users.isEmpty()) {
+      throw new IllegalArgumentException("User not found by username");
+    }
+    return InboxNotification.builder()
+        .subject(message.getNotification().getSubject())
+        .message(message.getNotification().getMessage())
+        .recipientId(users.get(0).getId())
+        .build();
+  }
+
+  private InboxNotificationResponseDto toResponseDto(InboxNotification inboxNotification) {
+    return InboxNotificationResponseDto.builder()
+        .id(inboxNotification.getId())
+        .subject(inboxNotification.getSubject())
+        .message(inboxNotification.getMessage())
+        .isAcknowledged(inboxNotification.isAcknowledged())
+        .createdAt(inboxNotification.getCreatedAt())
+        .build();
   }
 }
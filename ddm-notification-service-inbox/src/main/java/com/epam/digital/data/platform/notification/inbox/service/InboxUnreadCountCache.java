@@ -0,0 +1,65 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.inbox.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.function.Function;
+import org.springframework.lang.NonNull;
+
+/**
+ * Cache of unread inbox notification counts by recipient id.
+ * <p>
+ * Entries are evicted locally on every inbox change of the recipient, the short ttl bounds
+ * staleness caused by changes made on other replicas.
+ */
+public class InboxUnreadCountCache implements MeterBinder {
+
+  static final String CACHE_NAME = "inboxUnreadCounts";
+
+  private final Cache<String, Long> unreadCounts;
+
+  public InboxUnreadCountCache(long maxSize, Duration ttl) {
+    this.unreadCounts = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(ttl)
+        .recordStats()
+        .build();
+  }
+
+  public long get(String recipientId, Function<String, Long> counter) {
+    return unreadCounts.get(recipientId, counter);
+  }
+
+  public void evict(String recipientId) {
+    unreadCounts.invalidate(recipientId);
+  }
+
+  public void evictAll(Collection<String> recipientIds) {
+    unreadCounts.invalidateAll(recipientIds);
+  }
+
+  @Override
+  public void bindTo(@NonNull MeterRegistry registry) {
+    CaffeineCacheMetrics.monitor(registry, unreadCounts, CACHE_NAME);
+  }
+}
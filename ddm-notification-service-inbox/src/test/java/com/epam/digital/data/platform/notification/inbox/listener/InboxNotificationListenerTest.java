@@ -21,16 +21,19 @@ import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import com.epam.digital.data.platform.notification.core.metrics.NotificationMetrics;
 import com.epam.digital.data.platform.notification.dto.inbox.InboxNotificationMessageDto;
 import com.epam.digital.data.platform.notification.exception.NotificationException;
 import com.epam.digital.data.platform.notification.inbox.audit.InboxNotificationAuditFacade;
 import com.epam.digital.data.platform.notification.inbox.service.InboxNotificationService;
 import com.epam.digital.data.platform.settings.model.dto.Channel;
 import com.epam.digital.data.platform.starter.audit.model.Step;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 @ExtendWith(MockitoExtension.class)
@@ -40,6 +43,9 @@ class InboxNotificationListenerTest {
   private InboxNotificationService inboxNotificationService;
   @Mock
   private InboxNotificationAuditFacade inboxNotificationAuditFacade;
+  @Spy
+  private NotificationMetrics notificationMetrics =
+      new NotificationMetrics(new SimpleMeterRegistry());
   @InjectMocks
   private InboxNotificationListener listener;
 
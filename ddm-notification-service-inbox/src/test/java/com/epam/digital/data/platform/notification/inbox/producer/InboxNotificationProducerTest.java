@@ -16,6 +16,8 @@
 
 package com.epam.digital.data.platform.notification.inbox.producer;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -37,6 +39,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.util.concurrent.SettableListenableFuture;
 
 @ExtendWith(MockitoExtension.class)
 class InboxNotificationProducerTest {
@@ -81,6 +84,8 @@ class InboxNotificationProducerTest {
     when(inboxNotificationTemplateService.getTitleByNameAndChannel(templateName,
         Channel.INBOX)).thenReturn(title);
 
+    when(kafkaTemplate.send(anyString(), anyString(), any()))
+        .thenReturn(new SettableListenableFuture<>());
     producer.send(recipient, userNotificationMsg);
 
     var expectedMessage = InboxNotificationMessageDto.builder()
@@ -90,6 +95,6 @@ class InboxNotificationProducerTest {
             .subject(title)
             .build())
         .build();
-    verify(kafkaTemplate, times(1)).send(topic, expectedMessage);
+    verify(kafkaTemplate, times(1)).send(topic, recipientId, expectedMessage);
   }
 }
\ No newline at end of file
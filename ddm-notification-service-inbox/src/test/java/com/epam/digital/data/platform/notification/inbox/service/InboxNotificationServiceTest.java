@@ -27,7 +27,6 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.epam.digital.data.platform.integration.idm.model.IdmUser;
-import com.epam.digital.data.platform.integration.idm.service.IdmService;
 import com.epam.digital.data.platform.notification.core.service.IdmServiceProvider;
 import com.epam.digital.data.platform.notification.core.template.FreemarkerTemplateResolver;
 import com.epam.digital.data.platform.notification.dto.Recipient.RecipientRealm;
@@ -35,15 +34,19 @@ import com.epam.digital.data.platform.notification.dto.audit.NotificationDto;
 import com.epam.digital.data.platform.notification.dto.inbox.InboxNotificationMessageDto;
 import com.epam.digital.data.platform.notification.dto.inbox.InboxNotificationResponseDto;
 import com.epam.digital.data.platform.notification.entity.InboxNotification;
+import com.epam.digital.data.platform.notification.entity.NotificationTemplate;
 import com.epam.digital.data.platform.notification.exception.ForbiddenNotificationActionException;
+import com.epam.digital.data.platform.notification.exception.ParsingException;
 import com.epam.digital.data.platform.notification.inbox.repository.InboxNotificationRepository;
 import com.epam.digital.data.platform.notification.model.JwtClaims;
 import com.epam.digital.data.platform.notification.template.NotificationTemplateService;
 import com.epam.digital.data.platform.settings.model.dto.Channel;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -69,9 +72,9 @@ class InboxNotificationServiceTest {
   @Mock
   private TokenParserService tokenParserService;
   @Mock
-  private IdmService idmService;
-  @Mock
   IdmServiceProvider idmServiceProvider;
+  @Mock
+  InboxUnreadCountCache unreadCountCache;
   @InjectMocks
   private InboxNotificationService service;
 
@@ -87,8 +90,7 @@ class InboxNotificationServiceTest {
         .recipientName(recipientId)
         .recipientRealm(RecipientRealm.CITIZEN)
         .build();
-    when(idmServiceProvider.getIdmService(RecipientRealm.CITIZEN)).thenReturn(idmService);
-    when(idmService.getUserByUserName("recipientId"))
+    when(idmServiceProvider.getUserByUserName(RecipientRealm.CITIZEN, "recipientId"))
         .thenReturn(List.of(
             IdmUser.builder()
                 .id("recipientId")
@@ -102,17 +104,51 @@ class InboxNotificationServiceTest {
             .subject(subject)
             .message(message)
             .build());
+    verify(unreadCountCache).evict(recipientId);
+  }
+
+  @Test
+  void shouldInsertResolvedNotificationsInOneBatch() {
+    var notification = NotificationDto.builder().subject("subject").message("message").build();
+    var resolved = InboxNotificationMessageDto.builder()
+        .notification(notification)
+        .recipientName("resolved")
+        .recipientRealm(RecipientRealm.CITIZEN)
+        .build();
+    var missing = InboxNotificationMessageDto.builder()
+        .notification(notification)
+        .recipientName("missing")
+        .recipientRealm(RecipientRealm.CITIZEN)
+        .build();
+    when(idmServiceProvider.getUserByUserName(RecipientRealm.CITIZEN, "resolved"))
+        .thenReturn(List.of(IdmUser.builder().id("resolvedId").build()));
+    when(idmServiceProvider.getUserByUserName(RecipientRealm.CITIZEN, "missing"))
+        .thenReturn(List.of());
+
+    var failures = service.notifyBatch(List.of(resolved, missing));
+
+    assertThat(failures.keySet()).isEqualTo(Set.of(1));
+    verify(inboxNotificationRepository, times(1)).insertAll(List.of(
+        InboxNotification.builder()
+            .recipientId("resolvedId")
+            .subject("subject")
+            .message("message")
+            .build()));
+    verify(inboxNotificationRepository, never()).save(any());
   }
 
   @Test
   void prepareInboxBody() {
     var data = new HashMap<String, Object>();
-    when(templateService.getContentByNameAndChannel("name", Channel.INBOX)).thenReturn("content");
+    var template = NotificationTemplate.builder().name("name").content("content")
+        .checksum("checksum").build();
+    when(templateService.getTemplate("name", Channel.INBOX)).thenReturn(template);
 
     service.prepareInboxBody("name", Map.of());
 
-    verify(templateService, times(1)).getContentByNameAndChannel("name", Channel.INBOX);
-    verify(templateResolver, times(1)).resolve("name", "content", data);
+    verify(templateService, times(1)).getTemplate("name", Channel.INBOX);
+    verify(templateResolver, times(1)).resolve("name", Channel.INBOX, "checksum", "content",
+        data);
   }
 
 
@@ -129,6 +165,7 @@ class InboxNotificationServiceTest {
 
     assertTrue(inboxNotification.isAcknowledged());
     verify(inboxNotificationRepository).save(inboxNotification);
+    verify(unreadCountCache).evict("recipient-id");
   }
 
   @Test
@@ -167,6 +204,102 @@ class InboxNotificationServiceTest {
     assertEquals(getInboxNotificationResponseDto(), inboxNotifications);
   }
 
+  @Test
+  void shouldReturnNextCursorWhenMoreNotificationsExist() {
+    var createdAt = LocalDateTime.of(2023, 1, 1, 10, 0);
+    var entities = List.of(
+        InboxNotification.builder().id(ID).createdAt(createdAt).build(),
+        InboxNotification.builder().id(UUID.randomUUID()).createdAt(createdAt).build());
+    when(tokenParserService.parseClaims("userToken")).thenReturn(new JwtClaims("recipient-id"));
+    when(inboxNotificationRepository.findByRecipientIdOrderByCreatedAtDescIdAsc("recipient-id",
+        PageRequest.of(0, 2))).thenReturn(entities);
+
+    var page = service.getInboxNotifications("userToken", null, 1);
+
+    assertThat(page.getNotifications()).isEqualTo(
+        List.of(InboxNotificationResponseDto.builder().id(ID).createdAt(createdAt).build()));
+    assertThat(page.getNextCursor())
+        .isEqualTo(new InboxNotificationCursor(createdAt, ID).encode());
+  }
+
+  @Test
+  void shouldSeekAfterCursorPosition() {
+    var createdAt = LocalDateTime.of(2023, 1, 1, 10, 0);
+    var cursor = new InboxNotificationCursor(createdAt, ID).encode();
+    when(tokenParserService.parseClaims("userToken")).thenReturn(new JwtClaims("recipient-id"));
+    when(inboxNotificationRepository.findByRecipientIdAfter("recipient-id", createdAt, ID,
+        PageRequest.of(0, 11))).thenReturn(getInboxNotificationEntities());
+
+    var page = service.getInboxNotifications("userToken", cursor, 10);
+
+    assertEquals(getInboxNotificationResponseDto(), page.getNotifications());
+    assertThat(page.getNextCursor()).isNull();
+  }
+
+  @Test
+  void shouldThrowParsingExceptionOnInvalidCursor() {
+    when(tokenParserService.parseClaims("userToken")).thenReturn(new JwtClaims("recipient-id"));
+
+    assertThrows(ParsingException.class,
+        () -> service.getInboxNotifications("userToken", "invalid", 10));
+  }
+
+  @Test
+  void shouldThrowParsingExceptionOnLimitOutOfBounds() {
+    assertThrows(ParsingException.class,
+        () -> service.getInboxNotifications("userToken", null, 0));
+    assertThrows(ParsingException.class, () -> service.getInboxNotifications("userToken", null,
+        InboxNotificationService.MAX_PAGE_LIMIT + 1));
+    assertThrows(ParsingException.class,
+        () -> service.getInboxNotifications("userToken", null, Integer.MAX_VALUE));
+    verify(tokenParserService, never()).parseClaims(any());
+  }
+
+  @Test
+  void shouldAcknowledgeNotificationsOfRecipientInOneUpdate() {
+    var otherId = UUID.randomUUID();
+    when(tokenParserService.parseClaims("userToken")).thenReturn(new JwtClaims("recipient-id"));
+    when(inboxNotificationRepository.acknowledgeByIds(eq("recipient-id"), eq(Set.of(ID, otherId)),
+        any())).thenReturn(1);
+
+    var result = service.acknowledgeNotifications(List.of(ID, otherId, ID), "userToken");
+
+    assertThat(result.getAcknowledgedCount()).isEqualTo(1);
+    verify(inboxNotificationRepository, never()).findById(any());
+    verify(unreadCountCache).evict("recipient-id");
+  }
+
+  @Test
+  void shouldSkipUpdateForEmptyIds() {
+    when(tokenParserService.parseClaims("userToken")).thenReturn(new JwtClaims("recipient-id"));
+
+    var result = service.acknowledgeNotifications(List.of(), "userToken");
+
+    assertThat(result.getAcknowledgedCount()).isZero();
+    verify(inboxNotificationRepository, never()).acknowledgeByIds(any(), any(), any());
+  }
+
+  @Test
+  void shouldAcknowledgeAllNotificationsOfRecipient() {
+    when(tokenParserService.parseClaims("userToken")).thenReturn(new JwtClaims("recipient-id"));
+    when(inboxNotificationRepository.acknowledgeAll(eq("recipient-id"), any())).thenReturn(5);
+
+    var result = service.acknowledgeAllNotifications("userToken");
+
+    assertThat(result.getAcknowledgedCount()).isEqualTo(5);
+    verify(unreadCountCache).evict("recipient-id");
+  }
+
+  @Test
+  void shouldCountUnreadNotificationsThroughCache() {
+    when(tokenParserService.parseClaims("userToken")).thenReturn(new JwtClaims("recipient-id"));
+    when(unreadCountCache.get(eq("recipient-id"), any())).thenReturn(3L);
+
+    var unreadCount = service.getUnreadCount("userToken");
+
+    assertThat(unreadCount.getUnreadCount()).isEqualTo(3L);
+  }
+
   private List<InboxNotification> getInboxNotificationEntities() {
     return List.of(
         InboxNotification.builder()
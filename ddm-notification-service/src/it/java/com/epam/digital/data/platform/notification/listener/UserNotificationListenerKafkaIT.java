@@ -23,6 +23,7 @@ import static com.github.tomakehurst.wiremock.client.WireMock.post;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -105,7 +106,7 @@ class UserNotificationListenerKafkaIT extends BaseKafkaIT {
     kafkaTemplate.send(topic, userNotificationMessageDto);
 
     await().atMost(Durations.TEN_SECONDS).untilAsserted(() -> {
-      verify(listener, times(1)).notify(userNotificationMessageCaptor.capture());
+      verify(listener, times(1)).notify(userNotificationMessageCaptor.capture(), any());
       var userNotificationMessage = userNotificationMessageCaptor.getValue();
       assertThat(userNotificationMessage).isNotNull();
       assertThat(userNotificationMessage).isEqualTo(userNotificationMessageCaptor.getValue());
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.epam.digital.data.platform.notification.loadtest;
+
+import com.epam.digital.data.platform.settings.model.dto.Channel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * End-to-end latencies of the notification deliveries, from publishing of the user notification
+ * message to arrival of the delivery at the channel stub.
+ */
+class DeliveryLatencies {
+
+  private final long startedAt;
+  private final Map<Channel, List<Long>> latencies = new EnumMap<>(Channel.class);
+  private final Map<Channel, Long> lastArrivals = new EnumMap<>(Channel.class);
+
+  /**
+   * @param startedAt time in millis the first message was published at
+   */
+  DeliveryLatencies(long startedAt) {
+    this.startedAt = startedAt;
+  }
+
+  void record(Channel channel, long publishedAt, long arrivedAt) {
+    latencies.computeIfAbsent(channel, key -> new ArrayList<>()).add(arrivedAt - publishedAt);
+    lastArrivals.merge(channel, arrivedAt, Math::max);
+  }
+
+  int count(Channel channel) {
+    return latencies.getOrDefault(channel, List.of()).size();
+  }
+
+  /**
+   * @return one line per channel and one for all deliveries with the number of deliveries,
+   * deliveries per second and p50, p99 and p999 latencies in millis
+   */
+  String report() {
+    var lines = new ArrayList<String>();
+    latencies.forEach((channel, channelLatencies) -> lines.add(
+        reportLine(channel.getValue(), channelLatencies, lastArrivals.get(channel))));
+    var allLatencies = latencies.values().stream().flatMap(List::stream)
+        .collect(Collectors.toList());
+    var lastArrival = lastArrivals.values().stream().max(Long::compare).orElse(startedAt);
+    lines.add(reportLine("total", allLatencies, lastArrival));
+    return String.join(System.lineSeparator(), lines);
+  }
+
+  private String reportLine(String name, List<Long> latencies, long lastArrival) {
+    var sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+    Arrays.sort(sorted);
+    var elapsedMillis = Math.max(1, lastArrival - startedAt);
+    return String.format("%-6s deliveries=%d throughput=%.1f/s p50=%dms p99=%dms p999=%dms",
+        name, sorted.length, sorted.length * 1000.0 / elapsedMillis, percentile(sorted, 0.5),
+        percentile(sorted, 0.99), percentile(sorted, 0.999));
+  }
+
+  /**
+   * Nearest-rank percentile of the sorted values
+   */
+  static long percentile(long[] sorted, double percentile) {
+    if (sorted.length == 0) {
+      return 0;
+    }
+    var rank = (int) Math.ceil(percentile * sorted.length);
+    return sorted[Math.min(Math.max(rank, 1), sorted.length) - 1];
+  }
+}
@@ -0,0 +1,337 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.epam.digital.data.platform.notification.loadtest;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.epam.digital.data.platform.notification.BaseKafkaIT;
+import com.epam.digital.data.platform.notification.dto.ChannelObject;
+import com.epam.digital.data.platform.notification.dto.NotificationContextDto;
+import com.epam.digital.data.platform.notification.dto.Recipient;
+import com.epam.digital.data.platform.notification.dto.Recipient.RecipientRealm;
+import com.epam.digital.data.platform.notification.dto.UserNotificationDto;
+import com.epam.digital.data.platform.notification.dto.UserNotificationMessageDto;
+import com.epam.digital.data.platform.notification.entity.NotificationTemplate;
+import com.epam.digital.data.platform.notification.inbox.repository.InboxNotificationRepository;
+import com.epam.digital.data.platform.settings.model.dto.Channel;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * End-to-end throughput harness. Publishes user notification messages to the
+ * {@code user-notifications} topic of the embedded Kafka and measures how fast the deliveries
+ * arrive at the SMTP stub, the Diia stub and the inbox table.
+ * <p>
+ * Disabled by default, run with:
+ * <pre>
+ * mvn verify -P test -pl ddm-notification-service -Dit.test=UserNotificationLoadIT
+ *     -Dload-test.enabled=true -Dload-test.messages=1000 -Dload-test.recipients=10
+ *     -Dload-test.channels=email:2,inbox:1,diia:1
+ * </pre>
+ * Each recipient of a message is notified via one channel, channels are assigned to the
+ * recipients round-robin in proportion to the given weights. Email rate limit is disabled, so the
+ * harness measures the service rather than the configured limit. Arrival time of the emails is
+ * taken by polling GreenMail, so their latencies are accurate to the poll interval.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "load-test.enabled", matches = "true")
+@TestPropertySource(properties = "notifications.email.rate-limit.enabled=false")
+class UserNotificationLoadIT extends BaseKafkaIT {
+
+  private static final int MESSAGES = Integer.getInteger("load-test.messages", 100);
+  private static final int RECIPIENTS = Integer.getInteger("load-test.recipients", 10);
+  private static final String CHANNELS = System.getProperty("load-test.channels",
+      "email:1,inbox:1,diia:1");
+  private static final Duration TIMEOUT =
+      Duration.ofSeconds(Long.getLong("load-test.timeout-seconds", 300));
+  private static final long POLL_INTERVAL_MILLIS = 10;
+  private static final long COMPLETION_CHECK_INTERVAL_MILLIS = 200;
+
+  private static final String TEMPLATE_NAME = "load-test";
+  private static final String LOAD_ID_PARAMETER = "loadId";
+  private static final Pattern LOAD_ID_PATTERN = Pattern.compile("load-(\\d+)");
+  private static final String DIIA_PUSH_URL = "/api/v1/notification/distribution/push";
+
+  @Value("${keycloak.citizen-user.realm}")
+  private String realm;
+  @Value("${external-systems.diia.auth.secret.token}")
+  private String diiaPartnerToken;
+  @Autowired
+  private WireMockServer keycloakWireMock;
+  @Autowired
+  private WireMockServer diiaWireMock;
+  @Autowired
+  private InboxNotificationRepository inboxNotificationRepository;
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @BeforeEach
+  @SneakyThrows
+  void setUpStubs() {
+    greenMail.purgeEmailFromAllMailboxes();
+    inboxNotificationRepository.deleteAll();
+    diiaWireMock.resetAll();
+
+    keycloakWireMock.stubFor(
+        post(String.format("/auth/realms/%s/protocol/openid-connect/token", realm))
+            .willReturn(aResponse().withStatus(200)
+                .withHeader("Content-type", "application/json")
+                .withBody(jsonToStr("/json/keycloakTokenResponse.json"))));
+    keycloakWireMock.stubFor(
+        get(urlPathEqualTo(String.format("/auth/admin/realms/%s/users", realm)))
+            .willReturn(aResponse().withStatus(200)
+                .withHeader("Content-type", "application/json")
+                .withBody(jsonToStr("/json/keycloakUserByUsernameResponse.json"))));
+    keycloakWireMock.stubFor(
+        get(urlPathMatching(
+            String.format("/auth/admin/realms/%s/users/.+/role-mappings/realm", realm)))
+            .willReturn(aResponse().withStatus(200)
+                .withHeader("Content-type", "application/json")
+                .withBody(jsonToStr("/json/keycloakUsersRolesResponse.json"))));
+    diiaWireMock.stubFor(get(urlEqualTo("/api/v1/auth/partner/" + diiaPartnerToken))
+        .willReturn(aResponse().withStatus(200)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+            .withBody(String.format("{\"token\":\"%s\"}", generateDiiaToken()))));
+    diiaWireMock.stubFor(post(urlEqualTo(DIIA_PUSH_URL))
+        .willReturn(aResponse().withStatus(200)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+            .withBody("{\"distributionId\":\"loadTestDistributionId\"}")));
+
+    for (var channel : List.of(Channel.EMAIL, Channel.INBOX, Channel.DIIA)) {
+      createTemplateInDb(channel);
+    }
+  }
+
+  @Test
+  void measureDeliveryThroughputAndLatency() throws Exception {
+    var channelMix = parseChannelMix(CHANNELS);
+    var expectedDeliveries = new EnumMap<Channel, Integer>(Channel.class);
+    for (var i = 0; i < RECIPIENTS; i++) {
+      expectedDeliveries.merge(channelMix.get(i % channelMix.size()), MESSAGES, Integer::sum);
+    }
+    var topic = kafkaProperties.getTopics().get("user-notifications");
+    log.info("Publishing {} messages with {} recipients each, channel mix {}", MESSAGES,
+        RECIPIENTS, CHANNELS);
+
+    var publishedAt = new long[MESSAGES];
+    for (var i = 0; i < MESSAGES; i++) {
+      var message = createMessage(i, channelMix);
+      publishedAt[i] = System.currentTimeMillis();
+      kafkaTemplate.send(topic, message);
+    }
+    kafkaTemplate.flush();
+
+    var latencies = new DeliveryLatencies(publishedAt[0]);
+    awaitDeliveries(latencies, publishedAt, expectedDeliveries);
+    recordInboxDeliveries(latencies, publishedAt);
+    recordDiiaDeliveries(latencies, publishedAt);
+    log.info("Load test results:{}{}", System.lineSeparator(), latencies.report());
+
+    expectedDeliveries.forEach((channel, expected) ->
+        assertThat(latencies.count(channel)).as("%s deliveries", channel.getValue())
+            .isEqualTo(expected));
+  }
+
+  /**
+   * Waits until all expected deliveries arrive or the timeout expires, recording arrival of the
+   * emails as there is no receive time stored by GreenMail
+   */
+  private void awaitDeliveries(DeliveryLatencies latencies, long[] publishedAt,
+      Map<Channel, Integer> expectedDeliveries) throws InterruptedException {
+    var deadline = System.currentTimeMillis() + TIMEOUT.toMillis();
+    var expectedEmails = expectedDeliveries.getOrDefault(Channel.EMAIL, 0);
+    var expectedInbox = expectedDeliveries.getOrDefault(Channel.INBOX, 0);
+    var expectedDiia = expectedDeliveries.getOrDefault(Channel.DIIA, 0);
+    var nextCompletionCheck = 0L;
+    var seenEmails = 0;
+    while (System.currentTimeMillis() < deadline) {
+      var emails = greenMail.getReceivedMessages();
+      var now = System.currentTimeMillis();
+      for (; seenEmails < emails.length; seenEmails++) {
+        var loadId = parseLoadId(GreenMailUtil.getBody(emails[seenEmails]));
+        latencies.record(Channel.EMAIL, publishedAt[loadId], now);
+      }
+      if (now >= nextCompletionCheck) {
+        if (seenEmails >= expectedEmails
+            && inboxNotificationRepository.count() >= expectedInbox
+            && getDiiaDeliveries().size() >= expectedDiia) {
+          return;
+        }
+        nextCompletionCheck = now + COMPLETION_CHECK_INTERVAL_MILLIS;
+      }
+      Thread.sleep(POLL_INTERVAL_MILLIS);
+    }
+    log.warn("Not all deliveries arrived in {}", TIMEOUT);
+  }
+
+  private void recordInboxDeliveries(DeliveryLatencies latencies, long[] publishedAt) {
+    for (var inboxNotification : inboxNotificationRepository.findAll()) {
+      var loadId = parseLoadId(inboxNotification.getMessage());
+      latencies.record(Channel.INBOX, publishedAt[loadId],
+          toMillis(inboxNotification.getCreatedAt()));
+    }
+  }
+
+  private void recordDiiaDeliveries(DeliveryLatencies latencies, long[] publishedAt) {
+    getDiiaDeliveries().forEach(delivery ->
+        latencies.record(Channel.DIIA, publishedAt[delivery.getKey()], delivery.getValue()));
+  }
+
+  /**
+   * @return load id of the message of every recipient of the Diia distributions with the time the
+   * distribution arrived at the stub
+   */
+  @SneakyThrows
+  private List<Map.Entry<Integer, Long>> getDiiaDeliveries() {
+    var deliveries = new ArrayList<Map.Entry<Integer, Long>>();
+    for (var serveEvent : diiaWireMock.getAllServeEvents()) {
+      var request = serveEvent.getRequest();
+      if (!DIIA_PUSH_URL.equals(request.getUrl())) {
+        continue;
+      }
+      var arrivedAt = request.getLoggedDate().getTime();
+      for (var recipient : objectMapper.readTree(request.getBodyAsString()).path("recipients")) {
+        for (var parameter : recipient.path("parameters")) {
+          if (LOAD_ID_PARAMETER.equals(parameter.path("key").asText())) {
+            var loadId = Integer.parseInt(parameter.path("value").asText());
+            deliveries.add(Map.entry(loadId, arrivedAt));
+          }
+        }
+      }
+    }
+    return deliveries;
+  }
+
+  private UserNotificationMessageDto createMessage(int loadId, List<Channel> channelMix) {
+    var recipients = new ArrayList<Recipient>(RECIPIENTS);
+    for (var i = 0; i < RECIPIENTS; i++) {
+      var channel = channelMix.get(i % channelMix.size());
+      recipients.add(Recipient.builder()
+          .id("load-user-" + i)
+          .realm(RecipientRealm.CITIZEN)
+          .channels(List.of(ChannelObject.builder()
+              .channel(channel.getValue())
+              .email(Channel.EMAIL == channel ? "load-user-" + i + "@load-test.local" : null)
+              .rnokpp(Channel.DIIA == channel ? String.format("%010d", i) : null)
+              .build()))
+          .parameters(Map.of(LOAD_ID_PARAMETER, String.valueOf(loadId)))
+          .build());
+    }
+    return UserNotificationMessageDto.builder()
+        .context(NotificationContextDto.builder()
+            .system("ddm-platform")
+            .application("load-test")
+            .build())
+        .notification(UserNotificationDto.builder()
+            .templateName(TEMPLATE_NAME)
+            .ignoreChannelPreferences(true)
+            .build())
+        .recipients(recipients)
+        .build();
+  }
+
+  private void createTemplateInDb(Channel channel) {
+    repository.save(NotificationTemplate.builder()
+        .id(UUID.randomUUID())
+        .name(TEMPLATE_NAME)
+        .channel(channel.getValue())
+        .title("load test notification")
+        .content("<html>Load test notification load-${" + LOAD_ID_PARAMETER + "}</html>")
+        .checksum(UUID.randomUUID().toString())
+        .extTemplateId(Channel.DIIA == channel ? "loadTestTemplateId" : null)
+        .createdAt(LocalDateTime.now())
+        .updatedAt(LocalDateTime.now())
+        .build());
+  }
+
+  /**
+   * Parses channel weights in format {@code email:2,inbox:1,diia:1}
+   */
+  private static List<Channel> parseChannelMix(String channels) {
+    var channelMix = new ArrayList<Channel>();
+    for (var channelWeight : channels.split(",")) {
+      var parts = channelWeight.trim().split(":");
+      var channel = Channel.valueOf(parts[0].trim().toUpperCase());
+      var weight = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 1;
+      for (var i = 0; i < weight; i++) {
+        channelMix.add(channel);
+      }
+    }
+    if (channelMix.isEmpty()) {
+      throw new IllegalArgumentException("Channel mix is empty: " + channels);
+    }
+    return channelMix;
+  }
+
+  private static int parseLoadId(String content) {
+    var matcher = LOAD_ID_PATTERN.matcher(content);
+    if (!matcher.find()) {
+      throw new IllegalStateException("Delivery of unknown message: " + content);
+    }
+    return Integer.parseInt(matcher.group(1));
+  }
+
+  private static long toMillis(LocalDateTime dateTime) {
+    return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+  }
+
+  @SneakyThrows
+  private static String generateDiiaToken() {
+    var claims = new JWTClaimsSet.Builder()
+        .subject("load-test-partner")
+        .expirationTime(Date.from(Instant.now().plus(Duration.ofDays(1))))
+        .build();
+    var signedJwt = new SignedJWT(new JWSHeader(JWSAlgorithm.HS256), claims);
+    signedJwt.sign(new MACSigner(
+        "load-test-secret-that-is-at-least-256-bits-long".getBytes(StandardCharsets.UTF_8)));
+    return signedJwt.serialize();
+  }
+}
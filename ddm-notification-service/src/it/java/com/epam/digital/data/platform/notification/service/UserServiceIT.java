@@ -0,0 +1,109 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.service;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.exactly;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.lessThanOrExactly;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.epam.digital.data.platform.notification.BaseIT;
+import com.epam.digital.data.platform.notification.dto.Recipient;
+import com.epam.digital.data.platform.notification.dto.Recipient.RecipientRealm;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import java.util.HashMap;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+class UserServiceIT extends BaseIT {
+
+  private static final String USER_ID = "3fa85f64-1234-4562-b3fc-2c963f66afa6";
+
+  @Value("${keycloak.citizen-user.realm}")
+  private String realm;
+  @Autowired
+  private WireMockServer userSettingsWireMock;
+  @Autowired
+  private WireMockServer keycloakWireMock;
+  @Autowired
+  private UserService userService;
+
+  @BeforeEach
+  void setup() {
+    keycloakWireMock.resetAll();
+    userSettingsWireMock.resetAll();
+    keycloakWireMock.stubFor(
+        post(String.format("/auth/realms/%s/protocol/openid-connect/token", realm))
+            .willReturn(aResponse().withStatus(200)
+                .withHeader("Content-type", "application/json")
+                .withBody(jsonToStr("/json/keycloakTokenResponse.json"))));
+    keycloakWireMock.stubFor(
+        get(urlPathEqualTo(String.format("/auth/admin/realms/%s/users", realm)))
+            .willReturn(aResponse().withStatus(200)
+                .withHeader("Content-type", "application/json")
+                .withBody(jsonToStr("/json/keycloakUserByUsernameResponse.json"))));
+    keycloakWireMock.stubFor(
+        get(urlPathEqualTo(String.format(
+            "/auth/admin/realms/%s/users/%s/role-mappings/realm", realm, USER_ID)))
+            .willReturn(aResponse().withStatus(200)
+                .withHeader("Content-type", "application/json")
+                .withBody(jsonToStr("/json/keycloakUsersRolesResponse.json"))));
+    userSettingsWireMock.stubFor(
+        get(urlPathEqualTo(String.format("/api/settings/%s", USER_ID)))
+            .willReturn(aResponse().withStatus(200)
+                .withHeader("Content-type", "application/json")
+                .withBody(jsonToStr("/json/userSettingsResponse.json"))));
+  }
+
+  @Test
+  void shouldResolveRecipientsWithOneClientTokenPerRealm() {
+    var recipients = List.of(
+        createRecipient("testuser"),
+        createRecipient("otheruser"),
+        createRecipient("testuser"));
+
+    var result = userService.getRecipientsDetails(recipients, true);
+
+    assertThat(result).hasSize(3);
+    assertThat(result).allMatch(details -> details.getSettings() != null);
+    assertThat(result.get(0)).isEqualTo(result.get(2));
+    keycloakWireMock.verify(exactly(1),
+        getRequestedFor(urlPathEqualTo(String.format("/auth/admin/realms/%s/users", realm)))
+            .withQueryParam("username", equalTo("testuser")));
+    keycloakWireMock.verify(lessThanOrExactly(2), postRequestedFor(urlPathEqualTo(
+        String.format("/auth/realms/%s/protocol/openid-connect/token", realm))));
+    userSettingsWireMock.verify(exactly(2),
+        getRequestedFor(urlPathEqualTo(String.format("/api/settings/%s", USER_ID))));
+  }
+
+  private Recipient createRecipient(String username) {
+    return Recipient.builder()
+        .id(username)
+        .realm(RecipientRealm.CITIZEN)
+        .parameters(new HashMap<>())
+        .build();
+  }
+}
@@ -16,9 +16,12 @@
 
 package com.epam.digital.data.platform.notification.audit;
 
+import com.epam.digital.data.platform.notification.core.metrics.NotificationMetrics;
+import com.epam.digital.data.platform.notification.core.metrics.NotificationMetrics.Stage;
 import com.epam.digital.data.platform.notification.dto.NotificationContextDto;
 import com.epam.digital.data.platform.notification.dto.UserNotificationMessageDto;
 import com.epam.digital.data.platform.notification.dto.audit.AuditResultDto;
+import com.epam.digital.data.platform.notification.dto.audit.BroadcastAuditDto;
 import com.epam.digital.data.platform.notification.dto.audit.DeliveryAuditDto;
 import com.epam.digital.data.platform.settings.model.dto.Channel;
 import com.epam.digital.data.platform.starter.audit.model.AuditSourceInfo;
@@ -36,8 +39,12 @@ public class UserNotificationAuditFacade extends AbstractAuditFacade {
 
   private static final String MDC_TRACE_ID_HEADER = "X-B3-TraceId";
 
-  public UserNotificationAuditFacade(AuditService auditService, String appName, Clock clock) {
+  private final NotificationMetrics notificationMetrics;
+
+  public UserNotificationAuditFacade(AuditService auditService, String appName, Clock clock,
+      NotificationMetrics notificationMetrics) {
     super(auditService, appName, clock);
+    this.notificationMetrics = notificationMetrics;
   }
 
   public void sendAuditOnFailure(Channel channel, UserNotificationMessageDto notification, Step step,
@@ -48,6 +55,34 @@ public class UserNotificationAuditFacade extends AbstractAuditFacade {
         channel, notification);
   }
 
+  /**
+   * Audit a user notification message that is delivered in recipient shards
+   *
+   * @param notification user notification message without the recipients
+   * @param step         {@link Step#BEFORE} when the message is split, {@link Step#AFTER} when
+   *                     every shard of it is processed
+   * @param broadcast    broadcast the message is tracked by
+   */
+  public void sendBroadcastAudit(UserNotificationMessageDto notification, Step step,
+      BroadcastAuditDto broadcast) {
+    var action = Operation.SEND_USER_NOTIFICATION.name();
+    var event = createBaseAuditEvent(
+        EventType.SYSTEM_EVENT, action, MDC.get(MDC_TRACE_ID_HEADER));
+    var status = broadcast.getFailedShardCount() > 0 ? Status.FAILURE : Status.SUCCESS;
+    var context = auditService.createContext(action, step.name(), null, null, null,
+        status.name());
+    context.put("notification", notification);
+    context.put("broadcast", broadcast);
+    event.setContext(context);
+
+    event.setSourceInfo(Objects.nonNull(notification.getContext()) ?
+        toAuditSourceDto(notification.getContext()) : null);
+
+    var auditEvent = event.build();
+    notificationMetrics.record(Stage.AUDIT_EMIT, null, null,
+        () -> auditService.sendAudit(auditEvent));
+  }
+
   private void sendNotificationAudit(EventType eventType, String action, String step,
       AuditResultDto result, Channel channel, UserNotificationMessageDto notificationDto) {
     var event = createBaseAuditEvent(
@@ -64,7 +99,9 @@ public class UserNotificationAuditFacade extends AbstractAuditFacade {
     event.setSourceInfo(Objects.nonNull(notificationDto) ?
         toAuditSourceDto(notificationDto.getContext()) : null);
 
-    auditService.sendAudit(event.build());
+    var auditEvent = event.build();
+    notificationMetrics.record(Stage.AUDIT_EMIT, channel, null,
+        () -> auditService.sendAudit(auditEvent));
   }
 
   private AuditSourceInfo toAuditSourceDto(NotificationContextDto notificationContext) {
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.concurrent;
+
+import com.epam.digital.data.platform.notification.exception.NotificationException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+
+/**
+ * Executes per-recipient work of one notification message concurrently.
+ * <p>
+ * At most {@code maxConcurrency} tasks of one message run at the same time. The calling thread
+ * is blocked until every task of the message is finished, so the Kafka offset of the message is
+ * committed only after all recipients are processed. Work that is done for a list of recipients
+ * at once is split into chunks of up to {@code chunkSize} recipients, so a single large list is
+ * processed concurrently as well.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RecipientFanOutExecutor {
+
+  private final Executor executor;
+  private final int maxConcurrency;
+  private final int chunkSize;
+
+  /**
+   * Split the items into consecutive chunks of up to {@code chunkSize} items
+   *
+   * @param items items to split
+   * @return chunks in the order of items
+   */
+  public <T> List<List<T>> partition(List<T> items) {
+    var chunks = new ArrayList<List<T>>((items.size() + chunkSize - 1) / chunkSize);
+    for (var from = 0; from < items.size(); from += chunkSize) {
+      chunks.add(items.subList(from, Math.min(from + chunkSize, items.size())));
+    }
+    return chunks;
+  }
+
+  /**
+   * Apply the function to every item concurrently
+   *
+   * @param items    items to process
+   * @param function function to apply to each item
+   * @return results in the order of items
+   * @throws RuntimeException the first failure of the function if any
+   */
+  public <T, R> List<R> map(List<T> items, Function<T, R> function) {
+    var permits = new Semaphore(maxConcurrency);
+    var mdcContext = MDC.getCopyOfContextMap();
+    var futures = new ArrayList<CompletableFuture<R>>(items.size());
+    for (var item : items) {
+      acquire(permits);
+      futures.add(CompletableFuture.supplyAsync(() -> {
+        var workerMdcContext = MDC.getCopyOfContextMap();
+        try {
+          setMdcContext(mdcContext);
+          return function.apply(item);
+        } finally {
+          setMdcContext(workerMdcContext);
+          permits.release();
+        }
+      }, executor));
+    }
+    return join(futures);
+  }
+
+  /**
+   * Apply the action to every item concurrently
+   *
+   * @param items  items to process
+   * @param action action to apply to each item
+   * @throws RuntimeException the first failure of the action if any
+   */
+  public <T> void forEach(List<T> items, Consumer<T> action) {
+    map(items, item -> {
+      action.accept(item);
+      return null;
+    });
+  }
+
+  /**
+   * Create executor service that runs each task in a virtual thread when the runtime supports
+   * them, otherwise a fixed thread pool of the given size.
+   *
+   * @param virtualThreads whether virtual threads should be used if available
+   * @param poolSize       size of the platform thread pool
+   * @return executor service for fan-out tasks
+   */
+  public static ExecutorService createExecutorService(boolean virtualThreads, int poolSize) {
+    if (virtualThreads) {
+      try {
+        var factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        log.info("Using virtual threads for recipient fan-out");
+        return (ExecutorService) factory.invoke(null);
+      } catch (ReflectiveOperationException ex) {
+        log.info("Virtual threads are not available, using pool of {} threads", poolSize);
+      }
+    }
+    return Executors.newFixedThreadPool(poolSize);
+  }
+
+  private void acquire(Semaphore permits) {
+    try {
+      permits.acquire();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new NotificationException("Recipient fan-out was interrupted", ex);
+    }
+  }
+
+  private <R> List<R> join(List<CompletableFuture<R>> futures) {
+    try {
+      CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+    } catch (CompletionException ex) {
+      if (ex.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) ex.getCause();
+      }
+      throw ex;
+    }
+    var results = new ArrayList<R>(futures.size());
+    futures.forEach(future -> results.add(future.join()));
+    return results;
+  }
+
+  private void setMdcContext(Map<String, String> mdcContext) {
+    if (Objects.isNull(mdcContext)) {
+      MDC.clear();
+    } else {
+      MDC.setContextMap(mdcContext);
+    }
+  }
+}
@@ -21,7 +21,10 @@ import com.epam.digital.data.platform.integration.idm.factory.IdmServiceFactory;
 import com.epam.digital.data.platform.integration.idm.model.KeycloakClientProperties;
 import com.epam.digital.data.platform.integration.idm.service.IdmService;
 import com.epam.digital.data.platform.notification.core.service.IdmServiceProvider;
+import com.epam.digital.data.platform.notification.core.service.IdmUserCache;
+import java.time.Duration;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -66,10 +69,17 @@ public class IdmConfig {
         officerRealmProperties.getClientSecret());
   }
 
+  @Bean
+  public IdmUserCache idmUserCache(
+      @Value("${notifications.idm-cache.max-size:20000}") long maxSize,
+      @Value("${notifications.idm-cache.ttl:1m}") Duration ttl) {
+    return new IdmUserCache(maxSize, ttl);
+  }
+
   @Bean
   @ConditionalOnBean(name = {"officerIdmService", "citizenIdmService"})
   public IdmServiceProvider idmServiceProvider(IdmService officerIdmService,
-      IdmService citizenIdmService) {
-    return new IdmServiceProvider(officerIdmService, citizenIdmService);
+      IdmService citizenIdmService, IdmUserCache idmUserCache) {
+    return new IdmServiceProvider(officerIdmService, citizenIdmService, idmUserCache);
   }
 }
\ No newline at end of file
@@ -16,18 +16,193 @@
 
 package com.epam.digital.data.platform.notification.config;
 
+import com.epam.digital.data.platform.notification.core.listener.DeferringErrorHandler;
+import com.epam.digital.data.platform.notification.core.service.NotificationTemplateCache;
 import com.epam.digital.data.platform.notification.facade.UserNotificationFacade;
+import com.epam.digital.data.platform.notification.listener.NotificationTemplateChangeListener;
 import com.epam.digital.data.platform.notification.listener.UserNotificationListener;
+import com.epam.digital.data.platform.notification.listener.UserNotificationShardListener;
+import com.epam.digital.data.platform.notification.outbox.NotificationOutboxRelay;
+import com.epam.digital.data.platform.notification.repository.NotificationOutboxRepository;
+import com.epam.digital.data.platform.notification.sharding.FailedShardRecoverer;
+import com.epam.digital.data.platform.notification.sharding.NotificationBroadcastTracker;
+import com.epam.digital.data.platform.notification.sharding.UserNotificationSharder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Properties;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.kafka.listener.ContainerProperties.AckMode;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.backoff.FixedBackOff;
 
 @Configuration
 @ConditionalOnProperty(prefix = "data-platform.kafka", name = "enabled", havingValue = "true")
 public class KafkaConfig {
 
   @Bean
-  public UserNotificationListener notificationListener(UserNotificationFacade userNotificationFacade) {
-    return new UserNotificationListener(userNotificationFacade);
+  public UserNotificationListener notificationListener(
+      UserNotificationFacade userNotificationFacade,
+      ObjectProvider<UserNotificationSharder> userNotificationSharder) {
+    var listener = new UserNotificationListener(userNotificationFacade);
+    listener.setUserNotificationSharder(userNotificationSharder.getIfAvailable());
+    return listener;
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "notifications.sharding", name = "enabled", havingValue = "true")
+  public UserNotificationSharder userNotificationSharder(
+      KafkaTemplate<String, Object> kafkaTemplate,
+      NotificationBroadcastTracker notificationBroadcastTracker,
+      @Value("\u0023{kafkaProperties.topics['user-notification-shards']}") String topic,
+      @Value("${notifications.sharding.shard-size:500}") int shardSize,
+      @Value("${notifications.sharding.send-timeout:30s}") Duration sendTimeout) {
+    return new UserNotificationSharder(kafkaTemplate, notificationBroadcastTracker, topic,
+        shardSize, sendTimeout);
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "notifications.sharding", name = "enabled", havingValue = "true")
+  public UserNotificationShardListener userNotificationShardListener(
+      UserNotificationFacade userNotificationFacade,
+      NotificationBroadcastTracker notificationBroadcastTracker) {
+    return new UserNotificationShardListener(userNotificationFacade, notificationBroadcastTracker);
+  }
+
+  @Bean
+  public NotificationTemplateChangeListener notificationTemplateChangeListener(
+      NotificationTemplateCache notificationTemplateCache,
+      KafkaTemplate<String, Object> kafkaTemplate,
+      @Value("\u0023{kafkaProperties.topics['notification-template-changes']}") String topic) {
+    return new NotificationTemplateChangeListener(notificationTemplateCache, kafkaTemplate, topic);
+  }
+
+  @Bean
+  public NewTopic notificationTemplateChangesTopic(
+      @Value("\u0023{kafkaProperties.topics['notification-template-changes']}") String topic) {
+    return TopicBuilder.name(topic)
+        .compact()
+        .build();
+  }
+
+  @Bean
+  public ConcurrentKafkaListenerContainerFactory<String, Object> templateChangesKafkaListenerContainerFactory(
+      ConsumerFactory<String, Object> consumerFactory) {
+    var factory = new ConcurrentKafkaListenerContainerFactory<String, Object>();
+    factory.setConsumerFactory(consumerFactory);
+    // a replica starts with an empty template cache, so only the changes made from now on matter
+    var consumerProperties = new Properties();
+    consumerProperties.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+    consumerProperties.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+    factory.getContainerProperties().setKafkaConsumerProperties(consumerProperties);
+    // records are never acknowledged, so the per-replica group leaves no offsets on the broker
+    factory.getContainerProperties().setAckMode(AckMode.MANUAL);
+    return factory;
+  }
+
+  @Bean
+  @ConditionalOnExpression("${notifications.batch-listener.enabled:false} or ${notifications.diia.async-client.enabled:false} or ${notifications.email.rate-limit.enabled:false} or ${notifications.sharding.enabled:false}")
+  public ConsumerRecordRecoverer notificationDeadLetterRecoverer(
+      KafkaTemplate<String, Object> kafkaTemplate,
+      @Value("${notifications.batch-listener.dlq-suffix:-DLQ}") String dlqSuffix) {
+    return new DeadLetterPublishingRecoverer(kafkaTemplate,
+        (record, exception) -> new TopicPartition(record.topic() + dlqSuffix, -1));
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "notifications.batch-listener", name = "enabled", havingValue = "true")
+  public ConcurrentKafkaListenerContainerFactory<String, Object> batchKafkaListenerContainerFactory(
+      ConsumerFactory<String, Object> consumerFactory,
+      ConsumerRecordRecoverer notificationDeadLetterRecoverer,
+      @Value("${notifications.batch-listener.max-poll-records:100}") int maxPollRecords) {
+    var factory = new ConcurrentKafkaListenerContainerFactory<String, Object>();
+    factory.setConsumerFactory(consumerFactory);
+    factory.setBatchListener(true);
+    var consumerProperties = new Properties();
+    consumerProperties.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+    factory.getContainerProperties().setKafkaConsumerProperties(consumerProperties);
+    // failed records are routed by the listener itself, the handler only covers unexpected errors
+    // and redelivers the records deferred by the email rate limit
+    factory.setCommonErrorHandler(new DeferringErrorHandler(
+        new DefaultErrorHandler(notificationDeadLetterRecoverer, new FixedBackOff(0L, 0L))));
+    return factory;
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "notifications.email.rate-limit", name = "enabled", havingValue = "true")
+  public ConcurrentKafkaListenerContainerFactory<String, Object> rateLimitedKafkaListenerContainerFactory(
+      ConsumerFactory<String, Object> consumerFactory,
+      ConsumerRecordRecoverer notificationDeadLetterRecoverer,
+      @Value("${notifications.email.rate-limit.retry-interval:10s}") Duration retryInterval,
+      @Value("${notifications.email.rate-limit.max-retries:2}") long maxRetries) {
+    var factory = new ConcurrentKafkaListenerContainerFactory<String, Object>();
+    factory.setConsumerFactory(consumerFactory);
+    // records over the send rate limit are redelivered once it allows, without counting as retries
+    factory.setCommonErrorHandler(new DeferringErrorHandler(new DefaultErrorHandler(
+        notificationDeadLetterRecoverer, new FixedBackOff(retryInterval.toMillis(), maxRetries))));
+    return factory;
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "notifications.sharding", name = "enabled", havingValue = "true")
+  public ConcurrentKafkaListenerContainerFactory<String, Object> shardKafkaListenerContainerFactory(
+      ConsumerFactory<String, Object> consumerFactory,
+      ConsumerRecordRecoverer notificationDeadLetterRecoverer,
+      NotificationBroadcastTracker notificationBroadcastTracker,
+      @Value("${notifications.sharding.retry-interval:10s}") Duration retryInterval,
+      @Value("${notifications.sharding.max-retries:2}") long maxRetries) {
+    var factory = new ConcurrentKafkaListenerContainerFactory<String, Object>();
+    factory.setConsumerFactory(consumerFactory);
+    // a shard is completed as failed only once its retries are exhausted
+    factory.setCommonErrorHandler(new DefaultErrorHandler(
+        new FailedShardRecoverer(notificationBroadcastTracker, notificationDeadLetterRecoverer),
+        new FixedBackOff(retryInterval.toMillis(), maxRetries)));
+    return factory;
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "notifications.diia.async-client", name = "enabled", havingValue = "true")
+  public ConcurrentKafkaListenerContainerFactory<String, Object> asyncAckKafkaListenerContainerFactory(
+      ConsumerFactory<String, Object> consumerFactory,
+      ConsumerRecordRecoverer notificationDeadLetterRecoverer) {
+    var factory = new ConcurrentKafkaListenerContainerFactory<String, Object>();
+    factory.setConsumerFactory(consumerFactory);
+    // records are acknowledged from the completion callbacks, offsets are committed in order
+    factory.getContainerProperties().setAckMode(AckMode.MANUAL);
+    factory.getContainerProperties().setAsyncAcks(true);
+    factory.setCommonErrorHandler(
+        new DefaultErrorHandler(notificationDeadLetterRecoverer, new FixedBackOff(0L, 0L)));
+    return factory;
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "notifications.outbox", name = "enabled", havingValue = "true")
+  public NotificationOutboxRelay notificationOutboxRelay(
+      NotificationOutboxRepository outboxRepository,
+      PlatformTransactionManager transactionManager,
+      KafkaTemplate<String, Object> kafkaTemplate, ObjectMapper objectMapper, Clock clock,
+      @Value("${notifications.outbox.batch-size:500}") int batchSize,
+      @Value("${notifications.outbox.poll-interval:500ms}") Duration pollInterval,
+      @Value("${notifications.outbox.send-timeout:30s}") Duration sendTimeout,
+      @Value("${notifications.outbox.retention:7d}") Duration retention) {
+    return new NotificationOutboxRelay(outboxRepository,
+        new TransactionTemplate(transactionManager), kafkaTemplate, objectMapper, clock,
+        batchSize, pollInterval, sendTimeout, retention);
   }
 }
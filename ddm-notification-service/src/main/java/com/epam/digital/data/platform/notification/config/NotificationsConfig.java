@@ -18,23 +18,39 @@ package com.epam.digital.data.platform.notification.config;
 
 import com.epam.digital.data.platform.datafactory.settings.client.UserSettingsFeignClient;
 import com.epam.digital.data.platform.notification.audit.UserNotificationAuditFacade;
+import com.epam.digital.data.platform.notification.concurrent.RecipientFanOutExecutor;
+import com.epam.digital.data.platform.notification.core.audit.AsyncAuditEventEmitter;
+import com.epam.digital.data.platform.notification.core.audit.AsyncAuditEventEmitter.OverflowPolicy;
+import com.epam.digital.data.platform.notification.core.metrics.NotificationMetrics;
 import com.epam.digital.data.platform.notification.core.service.IdmServiceProvider;
 import com.epam.digital.data.platform.notification.facade.UserNotificationFacade;
 import com.epam.digital.data.platform.notification.mapper.ChannelMapper;
+import com.epam.digital.data.platform.notification.outbox.NotificationOutbox;
 import com.epam.digital.data.platform.notification.producer.NotificationProducer;
+import com.epam.digital.data.platform.notification.repository.NotificationBroadcastRepository;
+import com.epam.digital.data.platform.notification.repository.NotificationBroadcastShardRepository;
+import com.epam.digital.data.platform.notification.repository.NotificationOutboxRepository;
 import com.epam.digital.data.platform.notification.service.UserService;
+import com.epam.digital.data.platform.notification.sharding.NotificationBroadcastTracker;
 import com.epam.digital.data.platform.settings.model.dto.Channel;
 import com.epam.digital.data.platform.starter.audit.service.AuditService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.file.Path;
 import java.time.Clock;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * The configuration that contains main notification beans
@@ -58,21 +74,75 @@ public class NotificationsConfig {
 
   @Bean
   public UserService userService(IdmServiceProvider idmServiceProvider,
-      UserSettingsFeignClient userSettingsFeignClient) {
-    return new UserService(idmServiceProvider, userSettingsFeignClient);
+      UserSettingsFeignClient userSettingsFeignClient,
+      RecipientFanOutExecutor recipientFanOutExecutor, NotificationMetrics notificationMetrics) {
+    return new UserService(idmServiceProvider, userSettingsFeignClient, recipientFanOutExecutor,
+        notificationMetrics);
   }
 
   @Bean
   public UserNotificationFacade userNotificationFacade(UserService userService,
       UserNotificationAuditFacade notificationAuditFacade,
-      Map<Channel, NotificationProducer> channelProducerMap, Map<Channel, ChannelMapper> channelMapperMap) {
-    return new UserNotificationFacade(userService, notificationAuditFacade,
-        channelProducerMap, channelMapperMap);
+      Map<Channel, NotificationProducer> channelProducerMap, Map<Channel, ChannelMapper> channelMapperMap,
+      RecipientFanOutExecutor recipientFanOutExecutor, NotificationMetrics notificationMetrics,
+      ObjectProvider<NotificationOutbox> notificationOutbox) {
+    var facade = new UserNotificationFacade(userService, notificationAuditFacade,
+        channelProducerMap, channelMapperMap, recipientFanOutExecutor, notificationMetrics);
+    facade.setNotificationOutbox(notificationOutbox.getIfAvailable());
+    return facade;
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "notifications.outbox", name = "enabled", havingValue = "true")
+  public NotificationOutbox notificationOutbox(NotificationOutboxRepository outboxRepository,
+      PlatformTransactionManager transactionManager, ObjectMapper objectMapper, Clock clock) {
+    return new NotificationOutbox(outboxRepository, new TransactionTemplate(transactionManager),
+        objectMapper, clock);
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "notifications.sharding", name = "enabled", havingValue = "true")
+  public NotificationBroadcastTracker notificationBroadcastTracker(
+      NotificationBroadcastRepository broadcastRepository,
+      NotificationBroadcastShardRepository shardRepository,
+      PlatformTransactionManager transactionManager,
+      UserNotificationAuditFacade notificationAuditFacade, Clock clock) {
+    return new NotificationBroadcastTracker(broadcastRepository, shardRepository,
+        new TransactionTemplate(transactionManager), notificationAuditFacade, clock);
+  }
+
+  @Bean
+  public ExecutorService recipientFanOutExecutorService(
+      @Value("${notifications.fan-out.virtual-threads:true}") boolean virtualThreads,
+      @Value("${notifications.fan-out.pool-size:32}") int poolSize) {
+    return RecipientFanOutExecutor.createExecutorService(virtualThreads, poolSize);
+  }
+
+  @Bean
+  public RecipientFanOutExecutor recipientFanOutExecutor(
+      ExecutorService recipientFanOutExecutorService,
+      @Value("${notifications.fan-out.max-concurrency:16}") int maxConcurrency,
+      @Value("${notifications.fan-out.chunk-size:100}") int chunkSize) {
+    return new RecipientFanOutExecutor(recipientFanOutExecutorService, maxConcurrency,
+        chunkSize);
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "notifications.audit.async", name = "enabled", havingValue = "true")
+  public AsyncAuditEventEmitter auditEventEmitter(AuditService auditService,
+      ObjectMapper objectMapper,
+      @Value("${notifications.audit.async.capacity:10000}") int capacity,
+      @Value("${notifications.audit.async.overflow-policy:BLOCK}") OverflowPolicy overflowPolicy,
+      @Value("${notifications.audit.async.spill-directory:/tmp/notification-audit}") Path spillDirectory,
+      @Value("${notifications.audit.async.shutdown-timeout:30s}") Duration shutdownTimeout) {
+    return new AsyncAuditEventEmitter(auditService, capacity, overflowPolicy, spillDirectory,
+        objectMapper, shutdownTimeout);
   }
 
   @Bean
   public UserNotificationAuditFacade userNotificationAuditFacade(AuditService auditService,
-      @Value("${spring.application.name}") String appName, Clock clock) {
-    return new UserNotificationAuditFacade(auditService, appName, clock);
+      @Value("${spring.application.name}") String appName, Clock clock,
+      NotificationMetrics notificationMetrics) {
+    return new UserNotificationAuditFacade(auditService, appName, clock, notificationMetrics);
   }
 }
@@ -17,21 +17,31 @@
 package com.epam.digital.data.platform.notification.facade;
 
 import com.epam.digital.data.platform.notification.audit.UserNotificationAuditFacade;
-import com.epam.digital.data.platform.notification.dto.ChannelObject;
+import com.epam.digital.data.platform.notification.concurrent.RecipientFanOutExecutor;
+import com.epam.digital.data.platform.notification.core.metrics.NotificationMetrics;
+import com.epam.digital.data.platform.notification.core.metrics.NotificationMetrics.Stage;
 import com.epam.digital.data.platform.notification.dto.Recipient;
 import com.epam.digital.data.platform.notification.dto.UserNotificationMessageDto;
+import com.epam.digital.data.platform.notification.dto.audit.NotificationMessageDto;
+import com.epam.digital.data.platform.notification.entity.NotificationOutboxRecord;
 import com.epam.digital.data.platform.notification.exception.NotificationException;
 import com.epam.digital.data.platform.notification.mapper.ChannelMapper;
+import com.epam.digital.data.platform.notification.outbox.NotificationOutbox;
 import com.epam.digital.data.platform.notification.producer.NotificationProducer;
+import com.epam.digital.data.platform.notification.service.RecipientDetails;
 import com.epam.digital.data.platform.notification.service.UserService;
 import com.epam.digital.data.platform.settings.model.dto.Channel;
 import com.epam.digital.data.platform.settings.model.dto.SettingsReadDto;
 import com.epam.digital.data.platform.starter.audit.model.Step;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.stream.Collectors;
+import lombok.EqualsAndHashCode;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
@@ -50,6 +60,9 @@ public class UserNotificationFacade {
   private final UserNotificationAuditFacade auditFacade;
   private final Map<Channel, NotificationProducer> channelProducerMap;
   private final Map<Channel, ChannelMapper> channelMapperMap;
+  private final RecipientFanOutExecutor fanOutExecutor;
+  private final NotificationMetrics notificationMetrics;
+  private NotificationOutbox notificationOutbox;
 
   /**
    * Send notification to user
@@ -57,36 +70,104 @@ public class UserNotificationFacade {
    * @param notificationRecord contains notification and context
    */
   public void sendNotification(UserNotificationMessageDto notificationRecord) {
+    sendNotification(notificationRecord, null);
+  }
+
+  /**
+   * Send notification to user. When the outbox is enabled, the channel messages are stored in the
+   * outbox instead of being sent, and the id of the source message makes storing them again on
+   * redelivery a no-op.
+   *
+   * @param notificationRecord contains notification and context
+   * @param sourceMessageId    id of the consumed message, may be {@code null}
+   */
+  public void sendNotification(UserNotificationMessageDto notificationRecord,
+      String sourceMessageId) {
     boolean ignoreChannelPreferences = isIgnoreChannelPreferences(notificationRecord);
-    notifyEachRecipient(ignoreChannelPreferences, notificationRecord);
+    notifyEachRecipient(ignoreChannelPreferences, notificationRecord, sourceMessageId);
   }
 
-  private void notifyEachRecipient(boolean ignorePref, UserNotificationMessageDto message) {
+  private void notifyEachRecipient(boolean ignorePref, UserNotificationMessageDto message,
+      String sourceMessageId) {
     verifyNotification(message);
-    message.getRecipients().forEach(recipient -> {
-      var channels = getChannels(ignorePref, recipient, recipient.getChannels(), message);
+    var recipients = message.getRecipients();
+    var recipientsDetails = getRecipientsDetails(recipients, ignorePref, message);
+    var renderingGroups = new LinkedHashMap<RenderingGroupKey, List<Recipient>>();
+    for (var i = 0; i < recipients.size(); i++) {
+      var recipient = recipients.get(i);
+      var recipientDetails = recipientsDetails.get(i);
+      var channels = getChannels(ignorePref, recipient, recipientDetails.getSettings());
       log.info("Allowed communication channels {}", channels);
-      var roles = userService.getUserRoles(recipient);
-      recipient.getParameters().put(RECIPIENT_ROLES_ATTRIBUTE, roles);
-      channels.forEach(
-          channel -> sendNotification(channel, recipient, message));
-    });
+      recipient.getParameters().put(RECIPIENT_ROLES_ATTRIBUTE, recipientDetails.getRoles());
+      channels.forEach(channel -> renderingGroups
+          .computeIfAbsent(new RenderingGroupKey(channel, recipient.getParameters()),
+              key -> new ArrayList<>())
+          .add(recipient));
+    }
+    // a group of recipients sharing one model is split as well, so a broadcast is not sequential
+    var renderingChunks = new ArrayList<RenderingChunk>();
+    renderingGroups.forEach((key, groupRecipients) -> fanOutExecutor.partition(groupRecipients)
+        .forEach(chunk -> renderingChunks.add(new RenderingChunk(key.channel, chunk))));
+    log.info("Recipients are grouped into {} rendering groups of {} chunks",
+        renderingGroups.size(), renderingChunks.size());
+    var templateName = message.getNotification().getTemplateName();
+    notificationMetrics.recordFanOut(templateName, recipients.size(), renderingGroups.size());
+    if (Objects.isNull(notificationOutbox)) {
+      fanOutExecutor.forEach(renderingChunks,
+          chunk -> sendNotification(chunk.channel, chunk.recipients, message,
+              (producer, recipient, messageDto) -> {
+                var sample = notificationMetrics.start();
+                producer.send(messageDto).whenComplete((result, exception) ->
+                    notificationMetrics.stop(sample, Stage.KAFKA_PRODUCE, producer.getChannel(),
+                        templateName, Objects.isNull(exception)));
+              }));
+      return;
+    }
+    var recipientIndexes = new IdentityHashMap<Recipient, Integer>();
+    for (var i = 0; i < recipients.size(); i++) {
+      recipientIndexes.put(recipients.get(i), i);
+    }
+    var outboxRecords = new ConcurrentLinkedQueue<NotificationOutboxRecord>();
+    fanOutExecutor.forEach(renderingChunks,
+        chunk -> sendNotification(chunk.channel, chunk.recipients, message,
+            (producer, recipient, messageDto) -> outboxRecords.add(
+                notificationOutbox.createRecord(sourceMessageId,
+                    producer.getChannel() + "/" + recipientIndexes.get(recipient),
+                    producer.getTopic(), producer.getMessageKey(messageDto), messageDto))));
+    notificationOutbox.store(new ArrayList<>(outboxRecords));
   }
 
-  private void sendNotification(Channel channel, Recipient recipient,
-      UserNotificationMessageDto message) {
-    try {
-      channelProducerMap.get(channel).send(recipient, message);
-    } catch (RuntimeException exception) {
-      auditFacade.sendAuditOnFailure(channel, message, Step.AFTER, exception.getMessage());
-      log.error("Failed to send notification to channel ${}", channel, exception);
+  /**
+   * Send notification to the chunk of recipients that share the same template model, so the
+   * notification is rendered once and reused for each recipient of the chunk.
+   */
+  @SuppressWarnings("unchecked")
+  private void sendNotification(Channel channel, List<Recipient> recipients,
+      UserNotificationMessageDto message, ChannelMessageSender sender) {
+    var producer = channelProducerMap.get(channel);
+    var templateName = message.getNotification().getTemplateName();
+    NotificationMessageDto renderedMessageDto = null;
+    for (var recipient : recipients) {
+      try {
+        var messageDto = Objects.isNull(renderedMessageDto)
+            ? notificationMetrics.record(Stage.RENDER, channel, templateName,
+                () -> producer.createMessageDto(recipient, message))
+            : producer.copyForRecipient(renderedMessageDto, recipient);
+        sender.send(producer, recipient, messageDto);
+        renderedMessageDto = messageDto;
+        notificationMetrics.countChannelMessage(channel, templateName, true);
+      } catch (RuntimeException exception) {
+        notificationMetrics.countChannelMessage(channel, templateName, false);
+        auditFacade.sendAuditOnFailure(channel, message, Step.AFTER, exception.getMessage());
+        log.error("Failed to send notification to channel ${}", channel, exception);
+      }
     }
   }
 
-  private SettingsReadDto getUserSettings(Recipient recipient,
-      UserNotificationMessageDto userNotificationMessageDto) {
+  private List<RecipientDetails> getRecipientsDetails(List<Recipient> recipients,
+      boolean ignorePref, UserNotificationMessageDto userNotificationMessageDto) {
     try {
-      return userService.getUserSettings(recipient);
+      return userService.getRecipientsDetails(recipients, !ignorePref);
     } catch (RuntimeException ex) {
       auditFacade.sendAuditOnFailure(null, userNotificationMessageDto, Step.BEFORE,
           ex.getMessage());
@@ -95,8 +176,7 @@ public class UserNotificationFacade {
   }
 
   private List<Channel> getChannelsFromSettings(Recipient recipient,
-      UserNotificationMessageDto notificationRecord) {
-    var userSettings = getUserSettings(recipient, notificationRecord);
+      SettingsReadDto userSettings) {
     var channelObjects =
         userSettings.getChannels().stream()
             .filter(channelDto ->
@@ -112,15 +192,15 @@ public class UserNotificationFacade {
   }
 
   private List<Channel> getChannels(boolean ignoreChannelPreferences, Recipient recipient,
-      List<ChannelObject> channels, UserNotificationMessageDto notificationRecord) {
+      SettingsReadDto userSettings) {
     if (ignoreChannelPreferences) {
-      return channels.stream()
+      return recipient.getChannels().stream()
           .map(channelObject -> Channel.valueOf(channelObject.getChannel().toUpperCase()))
           .collect(Collectors.toList());
     }
 
     List<Channel> channelsToNotify = getDefaultChannels();
-    channelsToNotify.addAll(this.getChannelsFromSettings(recipient, notificationRecord));
+    channelsToNotify.addAll(this.getChannelsFromSettings(recipient, userSettings));
     return channelsToNotify;
   }
 
@@ -144,4 +224,26 @@ public class UserNotificationFacade {
       throw new NotificationException(msg);
     }
   }
+
+  @FunctionalInterface
+  private interface ChannelMessageSender {
+
+    void send(NotificationProducer producer, Recipient recipient,
+        NotificationMessageDto messageDto);
+  }
+
+  @EqualsAndHashCode
+  @RequiredArgsConstructor
+  private static final class RenderingGroupKey {
+
+    private final Channel channel;
+    private final Map<String, Object> model;
+  }
+
+  @RequiredArgsConstructor
+  private static final class RenderingChunk {
+
+    private final Channel channel;
+    private final List<Recipient> recipients;
+  }
 }
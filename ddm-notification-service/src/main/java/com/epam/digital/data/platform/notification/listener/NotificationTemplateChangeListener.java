@@ -0,0 +1,61 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.listener;
+
+import com.epam.digital.data.platform.notification.core.service.NotificationTemplateCache;
+import com.epam.digital.data.platform.notification.dto.NotificationTemplateChangedEventDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Propagates notification template changes to every service replica through the compacted
+ * template changes topic, so each replica drops its cached copy of the changed template.
+ * <p>
+ * Every replica consumes the topic in a consumer group named after its pod. Offsets of the group
+ * are never committed, so the broker drops the group as soon as the pod stops.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class NotificationTemplateChangeListener {
+
+  private final NotificationTemplateCache notificationTemplateCache;
+  private final KafkaTemplate<String, Object> kafkaTemplate;
+  private final String topic;
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void broadcast(NotificationTemplateChangedEventDto event) {
+    log.info("Broadcasting change of {} template of {} channel", event.getName(),
+        event.getChannel());
+    var key = event.getChannel() + ":" + event.getName();
+    if (kafkaTemplate.isTransactional()) {
+      kafkaTemplate.executeInTransaction(operations -> operations.send(topic, key, event));
+    } else {
+      kafkaTemplate.send(topic, key, event);
+    }
+  }
+
+  @KafkaListener(
+      topics = "\u0023{kafkaProperties.topics['notification-template-changes']}",
+      groupId = "\u0023{kafkaProperties.consumer.groupId}-${HOSTNAME:${random.uuid}}",
+      containerFactory = "templateChangesKafkaListenerContainerFactory")
+  public void evict(NotificationTemplateChangedEventDto event) {
+    notificationTemplateCache.evict(event.getName(), event.getChannel());
+  }
+}
@@ -18,22 +18,49 @@ package com.epam.digital.data.platform.notification.listener;
 
 import com.epam.digital.data.platform.notification.dto.UserNotificationMessageDto;
 import com.epam.digital.data.platform.notification.facade.UserNotificationFacade;
+import com.epam.digital.data.platform.notification.sharding.UserNotificationSharder;
+import java.util.Objects;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.adapter.ConsumerRecordMetadata;
 
 @Slf4j
 @RequiredArgsConstructor
 public class UserNotificationListener {
   private final UserNotificationFacade userNotificationFacade;
 
+  /**
+   * Splits messages with many recipients into shards, if not set every message is fanned out by
+   * this listener
+   */
+  @Setter
+  private UserNotificationSharder userNotificationSharder;
+
   @KafkaListener(
       topics = "\u0023{kafkaProperties.topics['user-notifications']}",
       groupId = "\u0023{kafkaProperties.consumer.groupId}",
       containerFactory = "concurrentKafkaListenerContainerFactory")
-  public void notify(UserNotificationMessageDto userNotificationMessageDto) {
+  public void notify(UserNotificationMessageDto userNotificationMessageDto,
+      ConsumerRecordMetadata metadata) {
     log.info("Kafka event received");
-    userNotificationFacade.sendNotification(userNotificationMessageDto);
+    var sourceMessageId = sourceMessageId(metadata);
+    if (Objects.nonNull(userNotificationSharder)
+        && userNotificationSharder.shouldSplit(userNotificationMessageDto)) {
+      userNotificationSharder.split(userNotificationMessageDto, sourceMessageId);
+    } else {
+      userNotificationFacade.sendNotification(userNotificationMessageDto, sourceMessageId);
+    }
     log.info("Kafka event processed");
   }
+
+  /**
+   * Id of the consumed message. The record timestamp is part of the id because offsets start over
+   * when the topic is recreated, while ids of fanned out messages are remembered for days.
+   */
+  private static String sourceMessageId(ConsumerRecordMetadata metadata) {
+    return String.format("%s-%d@%d/%d", metadata.topic(), metadata.partition(),
+        metadata.offset(), metadata.timestamp());
+  }
 }
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.listener;
+
+import com.epam.digital.data.platform.notification.dto.UserNotificationShardDto;
+import com.epam.digital.data.platform.notification.facade.UserNotificationFacade;
+import com.epam.digital.data.platform.notification.sharding.NotificationBroadcastTracker;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+
+/**
+ * Fans out the recipient shards. A failed shard is retried by the container error handler and
+ * completed as failed only once the retries are exhausted, see {@code FailedShardRecoverer}.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class UserNotificationShardListener {
+  private final UserNotificationFacade userNotificationFacade;
+  private final NotificationBroadcastTracker broadcastTracker;
+
+  @KafkaListener(
+      topics = "\u0023{kafkaProperties.topics['user-notification-shards']}",
+      groupId = "\u0023{kafkaProperties.consumer.groupId}",
+      containerFactory = "shardKafkaListenerContainerFactory",
+      concurrency = "${notifications.sharding.concurrency:1}")
+  public void notify(UserNotificationShardDto shard) {
+    log.info("Shard {} of {} of broadcast {} received", shard.getShardIndex(),
+        shard.getShardCount(), shard.getBroadcastId());
+    var sourceMessageId = shard.getBroadcastId().toString() + '/' + shard.getShardIndex();
+    userNotificationFacade.sendNotification(shard.getMessage(), sourceMessageId);
+    broadcastTracker.completeShard(shard, true);
+    log.info("Shard {} of broadcast {} processed", shard.getShardIndex(), shard.getBroadcastId());
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.outbox;
+
+import com.epam.digital.data.platform.notification.dto.audit.NotificationMessageDto;
+import com.epam.digital.data.platform.notification.entity.NotificationOutboxRecord;
+import com.epam.digital.data.platform.notification.exception.NotificationException;
+import com.epam.digital.data.platform.notification.repository.NotificationOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionOperations;
+
+/**
+ * Stores the channel messages of a user notification in the outbox, so they are published by
+ * {@link NotificationOutboxRelay} only when the whole fan-out is stored.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class NotificationOutbox {
+
+  private final NotificationOutboxRepository outboxRepository;
+  private final TransactionOperations transactionOperations;
+  private final ObjectMapper objectMapper;
+  private final Clock clock;
+
+  /**
+   * Create outbox record for the channel message.
+   * <p>
+   * When the source message id is known, the record id is derived from it and the record key,
+   * so the same fan-out of a redelivered message results in the same records.
+   *
+   * @param sourceMessageId id of the consumed user notification message, may be {@code null}
+   * @param recordKey       key of the record within the fan-out of the source message
+   * @param topic           channel topic
+   * @param messageKey      Kafka key of the channel message, may be {@code null}
+   * @param messageDto      channel message
+   * @return outbox record
+   */
+  public NotificationOutboxRecord createRecord(String sourceMessageId, String recordKey,
+      String topic, String messageKey, NotificationMessageDto messageDto) {
+    var id = Objects.isNull(sourceMessageId) ? UUID.randomUUID()
+        : UUID.nameUUIDFromBytes((sourceMessageId + '/' + recordKey)
+            .getBytes(StandardCharsets.UTF_8));
+    try {
+      return NotificationOutboxRecord.builder()
+          .id(id)
+          .topic(topic)
+          .messageKey(messageKey)
+          .payloadType(messageDto.getClass().getName())
+          .payload(objectMapper.writeValueAsString(messageDto))
+          .createdAt(LocalDateTime.now(clock))
+          .build();
+    } catch (JsonProcessingException ex) {
+      throw new NotificationException("Couldn't serialize notification for outbox", ex);
+    }
+  }
+
+  /**
+   * Store the records of one user notification message in a single transaction
+   *
+   * @param records records of the message fan-out
+   */
+  public void store(List<NotificationOutboxRecord> records) {
+    if (records.isEmpty()) {
+      return;
+    }
+    var inserted = transactionOperations.execute(
+        status -> outboxRepository.insertAllIfAbsent(records));
+    if (!Objects.equals(inserted, records.size())) {
+      log.info("{} of {} outbox records were already stored", records.size() - inserted,
+          records.size());
+    }
+  }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.outbox;
+
+import com.epam.digital.data.platform.notification.dto.audit.NotificationMessageDto;
+import com.epam.digital.data.platform.notification.entity.NotificationOutboxRecord;
+import com.epam.digital.data.platform.notification.repository.NotificationOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.support.TransactionOperations;
+
+/**
+ * Publishes the outbox records to the channel topics.
+ * <p>
+ * Records are locked and published in batches of up to {@code batchSize} records. Every record
+ * the broker acknowledged is marked as sent, only the records that failed or were not
+ * acknowledged within {@code sendTimeout} are published again on the next run. Published records
+ * are removed after {@code retention}.
+ * <p>
+ * Every instance relays its own locked records, and a record that was not acknowledged is
+ * published on a later run, so messages of one recipient may be published out of order.
+ */
+@Slf4j
+public class NotificationOutboxRelay implements InitializingBean, DisposableBean {
+
+  private static final Duration PURGE_INTERVAL = Duration.ofMinutes(1);
+
+  private final NotificationOutboxRepository outboxRepository;
+  private final TransactionOperations transactionOperations;
+  private final KafkaTemplate<String, Object> kafkaTemplate;
+  private final ObjectMapper objectMapper;
+  private final Clock clock;
+  private final int batchSize;
+  private final Duration pollInterval;
+  private final Duration sendTimeout;
+  private final Duration retention;
+  private final ScheduledExecutorService scheduler;
+
+  private LocalDateTime lastPurge = LocalDateTime.MIN;
+
+  public NotificationOutboxRelay(NotificationOutboxRepository outboxRepository,
+      TransactionOperations transactionOperations, KafkaTemplate<String, Object> kafkaTemplate,
+      ObjectMapper objectMapper, Clock clock, int batchSize, Duration pollInterval,
+      Duration sendTimeout, Duration retention) {
+    this.outboxRepository = outboxRepository;
+    this.transactionOperations = transactionOperations;
+    this.kafkaTemplate = kafkaTemplate;
+    this.objectMapper = objectMapper;
+    this.clock = clock;
+    this.batchSize = batchSize;
+    this.pollInterval = pollInterval;
+    this.sendTimeout = sendTimeout;
+    this.retention = retention;
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      var thread = new Thread(runnable, "notification-outbox-relay");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  @Override
+  public void afterPropertiesSet() {
+    scheduler.scheduleWithFixedDelay(this::run, pollInterval.toMillis(), pollInterval.toMillis(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public void destroy() {
+    scheduler.shutdown();
+  }
+
+  /**
+   * Publish all unsent records, stops at the first batch that was not published completely
+   *
+   * @return number of published records
+   */
+  public int relay() {
+    var relayed = 0;
+    int batch;
+    do {
+      batch = Objects.requireNonNull(transactionOperations.execute(status -> relayBatch()));
+      relayed += batch;
+    } while (batch == batchSize);
+    return relayed;
+  }
+
+  /**
+   * Remove records that were published more than {@code retention} ago
+   *
+   * @return number of removed records
+   */
+  public int purge() {
+    var sentBefore = LocalDateTime.now(clock).minus(retention);
+    return Objects.requireNonNull(
+        transactionOperations.execute(status -> outboxRepository.deleteSentBefore(sentBefore)));
+  }
+
+  private void run() {
+    try {
+      var relayed = relay();
+      if (relayed > 0) {
+        log.debug("Relayed {} outbox records", relayed);
+      }
+      var now = LocalDateTime.now(clock);
+      if (lastPurge.plus(PURGE_INTERVAL).isBefore(now)) {
+        lastPurge = now;
+        log.debug("Removed {} published outbox records", purge());
+      }
+    } catch (RuntimeException ex) {
+      log.error("Couldn't relay notification outbox", ex);
+    }
+  }
+
+  private int relayBatch() {
+    var records = outboxRepository.findUnsentForUpdate(batchSize);
+    if (records.isEmpty()) {
+      return 0;
+    }
+    var sentIds = new ArrayList<UUID>(records.size());
+    var acks = new LinkedHashMap<UUID, Future<?>>();
+    for (var record : records) {
+      var message = readPayload(record);
+      if (Objects.isNull(message)) {
+        // the record can never be published, so it is dropped instead of blocking the outbox
+        sentIds.add(record.getId());
+        continue;
+      }
+      try {
+        acks.put(record.getId(),
+            kafkaTemplate.send(record.getTopic(), record.getMessageKey(), message));
+      } catch (RuntimeException ex) {
+        log.warn("Couldn't publish outbox record {}, the rest of the batch is left for the next "
+            + "run", record.getId(), ex);
+        break;
+      }
+    }
+    sentIds.addAll(awaitAcks(acks));
+    if (!sentIds.isEmpty()) {
+      outboxRepository.markSent(sentIds, LocalDateTime.now(clock));
+    }
+    if (sentIds.size() < records.size()) {
+      log.warn("{} of {} outbox records were not published, they are left for the next run",
+          records.size() - sentIds.size(), records.size());
+    }
+    return sentIds.size();
+  }
+
+  private NotificationMessageDto readPayload(NotificationOutboxRecord record) {
+    try {
+      var type = Class.forName(record.getPayloadType()).asSubclass(NotificationMessageDto.class);
+      return objectMapper.readValue(record.getPayload(), type);
+    } catch (ClassNotFoundException | ClassCastException | JsonProcessingException ex) {
+      log.error("Skipping outbox record {} that couldn't be read", record.getId(), ex);
+      return null;
+    }
+  }
+
+  /**
+   * @return ids of the records the broker acknowledged within the send timeout
+   */
+  private List<UUID> awaitAcks(Map<UUID, Future<?>> acks) {
+    var deadline = System.nanoTime() + sendTimeout.toNanos();
+    var acked = new ArrayList<UUID>(acks.size());
+    for (var ack : acks.entrySet()) {
+      try {
+        ack.getValue().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        acked.add(ack.getKey());
+      } catch (InterruptedException ex) {
+        // the records acknowledged so far are still marked as sent
+        Thread.currentThread().interrupt();
+        log.warn("Outbox relay was interrupted while waiting for acknowledgements");
+        break;
+      } catch (ExecutionException | TimeoutException ex) {
+        log.debug("Outbox record {} was not acknowledged", ack.getKey(), ex);
+      }
+    }
+    return acked;
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.repository;
+
+import com.epam.digital.data.platform.notification.entity.NotificationBroadcast;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import javax.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface NotificationBroadcastRepository
+    extends JpaRepository<NotificationBroadcast, UUID> {
+
+  /**
+   * Store the broadcast unless it is already stored for a redelivered message
+   *
+   * @return number of inserted broadcasts
+   */
+  @Modifying
+  @Query(value = "insert into public.notification_broadcast "
+      + "(id, source_message_id, recipient_count, shard_count, created_at) "
+      + "values (:id, :sourceMessageId, :recipientCount, :shardCount, :createdAt) "
+      + "on conflict do nothing", nativeQuery = true)
+  int insertIfAbsent(@Param("id") UUID id, @Param("sourceMessageId") String sourceMessageId,
+      @Param("recipientCount") int recipientCount, @Param("shardCount") int shardCount,
+      @Param("createdAt") LocalDateTime createdAt);
+
+  /**
+   * Lock the broadcast, so the shards of it are completed one at a time
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select b from NotificationBroadcast b where b.id = :id")
+  Optional<NotificationBroadcast> findByIdForUpdate(@Param("id") UUID id);
+}
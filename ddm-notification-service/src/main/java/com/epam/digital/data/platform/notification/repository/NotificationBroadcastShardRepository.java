@@ -0,0 +1,52 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.repository;
+
+import com.epam.digital.data.platform.notification.entity.NotificationBroadcastShard;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface NotificationBroadcastShardRepository
+    extends JpaRepository<NotificationBroadcastShard, UUID> {
+
+  /**
+   * Store the outcome of the processed shard. A redelivered shard updates the stored outcome, but
+   * a shard that once succeeded stays succeeded.
+   *
+   * @return number of stored shards
+   */
+  @Modifying
+  @Query(value = "insert into public.notification_broadcast_shard "
+      + "(id, broadcast_id, shard_index, recipient_count, succeeded, completed_at) "
+      + "values (:id, :broadcastId, :shardIndex, :recipientCount, :succeeded, :completedAt) "
+      + "on conflict (id) do update set "
+      + "succeeded = notification_broadcast_shard.succeeded or excluded.succeeded, "
+      + "completed_at = excluded.completed_at", nativeQuery = true)
+  int saveOutcome(@Param("id") UUID id, @Param("broadcastId") UUID broadcastId,
+      @Param("shardIndex") int shardIndex, @Param("recipientCount") int recipientCount,
+      @Param("succeeded") boolean succeeded, @Param("completedAt") LocalDateTime completedAt);
+
+  long countByBroadcastId(UUID broadcastId);
+
+  long countByBroadcastIdAndSucceededFalse(UUID broadcastId);
+}
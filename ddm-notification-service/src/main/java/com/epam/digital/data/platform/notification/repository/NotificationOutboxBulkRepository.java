@@ -0,0 +1,33 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.repository;
+
+import com.epam.digital.data.platform.notification.entity.NotificationOutboxRecord;
+import java.util.List;
+
+public interface NotificationOutboxBulkRepository {
+
+  /**
+   * Insert the records with JDBC batching bypassing the persistence context. Records with ids
+   * that are already in the outbox are skipped, so storing the fan-out of a redelivered message
+   * does not publish it twice.
+   *
+   * @param records records to insert
+   * @return number of inserted records
+   */
+  int insertAllIfAbsent(List<NotificationOutboxRecord> records);
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.repository;
+
+import com.epam.digital.data.platform.notification.entity.NotificationOutboxRecord;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@Slf4j
+public class NotificationOutboxBulkRepositoryImpl implements NotificationOutboxBulkRepository {
+
+  static final String INSERT_SQL = "insert into public.notification_outbox "
+      + "(id, topic, message_key, payload_type, payload, created_at) values (?, ?, ?, ?, ?, ?) "
+      + "on conflict (id) do nothing";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final int batchSize;
+
+  public NotificationOutboxBulkRepositoryImpl(JdbcTemplate jdbcTemplate,
+      @Value("${notifications.outbox.batch-size:500}") int batchSize) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.batchSize = batchSize;
+  }
+
+  @Override
+  public int insertAllIfAbsent(List<NotificationOutboxRecord> records) {
+    var updateCounts = jdbcTemplate.batchUpdate(INSERT_SQL, records, batchSize, (ps, record) -> {
+      ps.setObject(1, record.getId());
+      ps.setString(2, record.getTopic());
+      ps.setString(3, record.getMessageKey());
+      ps.setString(4, record.getPayloadType());
+      ps.setString(5, record.getPayload());
+      ps.setTimestamp(6, Timestamp.valueOf(record.getCreatedAt()));
+    });
+    var inserted = Arrays.stream(updateCounts).flatMapToInt(Arrays::stream)
+        .filter(count -> count > 0)
+        .sum();
+    log.debug("Inserted {} of {} outbox records", inserted, records.size());
+    return inserted;
+  }
+}
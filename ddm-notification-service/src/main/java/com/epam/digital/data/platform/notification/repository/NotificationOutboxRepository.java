@@ -0,0 +1,56 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.repository;
+
+import com.epam.digital.data.platform.notification.entity.NotificationOutboxRecord;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface NotificationOutboxRepository
+    extends JpaRepository<NotificationOutboxRecord, UUID>, NotificationOutboxBulkRepository {
+
+  /**
+   * Lock the oldest records that are not published yet. Records locked by another relay are
+   * skipped, so several service instances relay the outbox without waiting for each other. The
+   * query relies on the partial index {@code (created_at) where sent_at is null}.
+   */
+  @Query(value = "select * from public.notification_outbox where sent_at is null "
+      + "order by created_at limit :limit for update skip locked", nativeQuery = true)
+  List<NotificationOutboxRecord> findUnsentForUpdate(@Param("limit") int limit);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("update NotificationOutboxRecord r set r.sentAt = :sentAt where r.id in :ids")
+  int markSent(@Param("ids") Collection<UUID> ids, @Param("sentAt") LocalDateTime sentAt);
+
+  /**
+   * Remove published records. Records are kept for a while after publishing to recognize the
+   * fan-out of a redelivered message.
+   *
+   * @return number of removed records
+   */
+  @Modifying
+  @Query("delete from NotificationOutboxRecord r where r.sentAt < :sentBefore")
+  int deleteSentBefore(@Param("sentBefore") LocalDateTime sentBefore);
+}
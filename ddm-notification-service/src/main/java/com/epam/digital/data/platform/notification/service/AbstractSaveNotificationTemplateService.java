@@ -18,6 +18,7 @@ package com.epam.digital.data.platform.notification.service;
 
 import com.epam.digital.data.platform.notification.core.repository.CoreNotificationTemplateRepository;
 import com.epam.digital.data.platform.notification.dto.NotificationTemplateAttributeDto;
+import com.epam.digital.data.platform.notification.dto.NotificationTemplateChangedEventDto;
 import com.epam.digital.data.platform.notification.dto.SaveNotificationTemplateInputDto;
 import com.epam.digital.data.platform.notification.dto.SaveNotificationTemplateOutputDto;
 import com.epam.digital.data.platform.notification.entity.NotificationTemplate;
@@ -31,6 +32,7 @@ import java.util.UUID;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 
 @RequiredArgsConstructor
 public abstract class AbstractSaveNotificationTemplateService
@@ -38,6 +40,14 @@ public abstract class AbstractSaveNotificationTemplateService
 
   protected final CoreNotificationTemplateRepository notificationTemplateRepository;
   protected final NotificationTemplateAttributeRepository notificationTemplateAttributeRepository;
+  protected final ApplicationEventPublisher eventPublisher;
+
+  protected void publishTemplateChanged(String channel, String name) {
+    eventPublisher.publishEvent(NotificationTemplateChangedEventDto.builder()
+        .name(name)
+        .channel(channel)
+        .build());
+  }
 
   protected SaveNotificationTemplateOutputDto buildOutputDtoFromDb(
       NotificationTemplate template, List<NotificationTemplateAttribute> attributes) {
@@ -20,9 +20,12 @@ import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.epam.digital.data.platform.notification.core.repository.CoreNotificationTemplateRepository;
+import com.epam.digital.data.platform.notification.dto.NotificationTemplateChangedEventDto;
 import com.epam.digital.data.platform.notification.dto.NotificationTemplateShortInfoResponseDto;
 
 import lombok.RequiredArgsConstructor;
@@ -34,6 +37,7 @@ import lombok.extern.slf4j.Slf4j;
 public class NotificationTemplateService {
 
   private final CoreNotificationTemplateRepository notificationTemplateRepository;
+  private final ApplicationEventPublisher eventPublisher;
 
   public List<NotificationTemplateShortInfoResponseDto> getAll() {
     return notificationTemplateRepository.findAllProjectedBy().stream()
@@ -45,7 +49,13 @@ public class NotificationTemplateService {
         .collect(Collectors.toList());
   }
 
+  @Transactional
   public void delete(UUID id) {
+    notificationTemplateRepository.findById(id).ifPresent(template ->
+        eventPublisher.publishEvent(NotificationTemplateChangedEventDto.builder()
+            .name(template.getName())
+            .channel(template.getChannel())
+            .build()));
     notificationTemplateRepository.deleteById(id);
   }
 }
@@ -24,6 +24,7 @@ import com.epam.digital.data.platform.notification.repository.NotificationTempla
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -34,8 +35,9 @@ public class SaveDefaultNotificationTemplateService
 
   public SaveDefaultNotificationTemplateService(
       CoreNotificationTemplateRepository notificationTemplateRepository,
-      NotificationTemplateAttributeRepository notificationTemplateAttributeRepository) {
-    super(notificationTemplateRepository, notificationTemplateAttributeRepository);
+      NotificationTemplateAttributeRepository notificationTemplateAttributeRepository,
+      ApplicationEventPublisher eventPublisher) {
+    super(notificationTemplateRepository, notificationTemplateAttributeRepository, eventPublisher);
   }
 
   @Override
@@ -45,6 +47,7 @@ public class SaveDefaultNotificationTemplateService
     log.info("Processing template {} for channel {}", name, channel);
     var template = saveTemplate(channel, name, inputDto);
     var attributes = saveAttributes(template.getId(), inputDto);
+    publishTemplateChanged(channel, name);
     return buildOutputDtoFromDb(template, attributes);
   }
 
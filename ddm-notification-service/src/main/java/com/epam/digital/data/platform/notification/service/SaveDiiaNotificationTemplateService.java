@@ -39,6 +39,7 @@ import java.util.stream.Collectors;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -53,8 +54,9 @@ public class SaveDiiaNotificationTemplateService
   public SaveDiiaNotificationTemplateService(
       CoreNotificationTemplateRepository notificationTemplateRepository,
       NotificationTemplateAttributeRepository notificationTemplateAttributeRepository,
-        DiiaService diiaService, ObjectMapper objectMapper) {
-    super(notificationTemplateRepository, notificationTemplateAttributeRepository);
+        DiiaService diiaService, ObjectMapper objectMapper,
+      ApplicationEventPublisher eventPublisher) {
+    super(notificationTemplateRepository, notificationTemplateAttributeRepository, eventPublisher);
     this.diiaService = diiaService;
     this.objectMapper = objectMapper;
   }
@@ -79,6 +81,7 @@ public class SaveDiiaNotificationTemplateService
           diiaService.publishTemplate(diiaPublishTemplateRequestDto).getTemplateId();
       template = saveTemplate(channel, name, inputDto, externalTemplateId, templateOpt, checksum);
       attributes = saveAttributes(template.getId(), inputDto);
+      publishTemplateChanged(channel, name);
     } else {
       template = templateOpt.get();
       attributes = notificationTemplateAttributeRepository.findByTemplateId(template.getId());
@@ -20,14 +20,22 @@ import static java.util.stream.Collectors.toList;
 
 import com.epam.digital.data.platform.bpms.api.dto.enums.PlatformHttpHeader;
 import com.epam.digital.data.platform.datafactory.settings.client.UserSettingsFeignClient;
+import com.epam.digital.data.platform.notification.concurrent.RecipientFanOutExecutor;
+import com.epam.digital.data.platform.notification.core.metrics.NotificationMetrics;
+import com.epam.digital.data.platform.notification.core.metrics.NotificationMetrics.Stage;
 import com.epam.digital.data.platform.notification.core.service.IdmServiceProvider;
 import com.epam.digital.data.platform.notification.dto.Recipient;
+import com.epam.digital.data.platform.notification.dto.Recipient.RecipientRealm;
 import com.epam.digital.data.platform.settings.model.dto.SettingsReadDto;
 
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
+import lombok.EqualsAndHashCode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.keycloak.representations.idm.RoleRepresentation;
@@ -44,6 +52,36 @@ public class UserService {
 
   private final IdmServiceProvider idmServiceProvider;
   private final UserSettingsFeignClient userSettingsFeignClient;
+  private final RecipientFanOutExecutor fanOutExecutor;
+  private final NotificationMetrics notificationMetrics;
+
+  /**
+   * Retrieves roles and optionally settings of all recipients. Each distinct user is resolved
+   * once and one client access token is requested per realm for all settings requests.
+   *
+   * @param recipients   recipients of the notification message
+   * @param withSettings whether the user settings have to be retrieved
+   * @return {@link RecipientDetails} in the order of recipients
+   */
+  public List<RecipientDetails> getRecipientsDetails(List<Recipient> recipients,
+      boolean withSettings) {
+    var users = recipients.stream().map(UserKey::new).distinct().collect(toList());
+    log.info("Getting details of {} distinct users for {} recipients", users.size(),
+        recipients.size());
+    var accessTokens = withSettings
+        ? getClientAccessTokens(users) : Map.<RecipientRealm, String>of();
+    var details = fanOutExecutor.map(users, user -> RecipientDetails.builder()
+        .roles(getUserRoles(user.recipient))
+        .settings(withSettings
+            ? getUserSettings(user.recipient, accessTokens.get(user.realm)) : null)
+        .build());
+    var detailsByUser = new HashMap<UserKey, RecipientDetails>();
+    for (var i = 0; i < users.size(); i++) {
+      detailsByUser.put(users.get(i), details.get(i));
+    }
+    return recipients.stream().map(recipient -> detailsByUser.get(new UserKey(recipient)))
+        .collect(toList());
+  }
 
   /**
    * Retrieves the user settings for a given recipient.
@@ -52,14 +90,41 @@ public class UserService {
    * @return {@link SettingsReadDto} with user settings data
    */
   public SettingsReadDto getUserSettings(Recipient recipient) {
-    log.info("Getting user settings by username");
     var idmService = idmServiceProvider.getIdmService(recipient.getRealm());
-    var users = idmService.getUserByUserName(recipient.getId());
+    return getUserSettings(recipient, idmService.getClientAccessToken());
+  }
+
+  /**
+   * Retrieves the user settings for a given recipient using already obtained client access
+   * token of the recipient realm.
+   *
+   * @param recipient   the user for which to retrieve the settings.
+   * @param accessToken client access token of the recipient realm
+   * @return {@link SettingsReadDto} with user settings data
+   */
+  public SettingsReadDto getUserSettings(Recipient recipient, String accessToken) {
+    return notificationMetrics.record(Stage.SETTINGS_LOOKUP, null, null,
+        () -> findUserSettings(recipient, accessToken));
+  }
+
+  /**
+   * Retrieves the roles associated with a recipient
+   *
+   * @param recipient the user for which to retrieve the roles
+   * @return a list of roles assigned to the recipient
+   */
+  public List<String> getUserRoles(Recipient recipient) {
+    return notificationMetrics.record(Stage.ROLE_LOOKUP, null, null,
+        () -> findUserRoles(recipient));
+  }
+
+  private SettingsReadDto findUserSettings(Recipient recipient, String accessToken) {
+    log.info("Getting user settings by username");
+    var users = idmServiceProvider.getUserByUserName(recipient.getRealm(), recipient.getId());
     if (users.isEmpty()) {
       throw new IllegalArgumentException("User not found by username");
     }
     var user = users.get(0);
-    var accessToken = idmService.getClientAccessToken();
     var result = userSettingsFeignClient.performGetByUserId(UUID.fromString(user.getId()),
         createHeaders(accessToken));
     if (Objects.nonNull(result)) {
@@ -68,17 +133,11 @@ public class UserService {
     return result;
   }
 
-  /**
-   * Retrieves the roles associated with a recipient
-   *
-   * @param recipient the user for which to retrieve the roles
-   * @return a list of roles assigned to the recipient
-   */
-  public List<String> getUserRoles(Recipient recipient) {
+  private List<String> findUserRoles(Recipient recipient) {
     log.info("Getting recipient roles by username: {}", recipient.getId());
     if (Objects.nonNull(recipient.getId())) {
-      var idmService = idmServiceProvider.getIdmService(recipient.getRealm());
-      var recipientRoles = idmService.getUserRoles(recipient.getId());
+      var recipientRoles = idmServiceProvider.getUserRoles(recipient.getRealm(),
+          recipient.getId());
       log.info("Found {} recipient roles", recipientRoles.size());
       return recipientRoles.stream().map(RoleRepresentation::getName).collect(toList());
     } else {
@@ -86,10 +145,33 @@ public class UserService {
     }
   }
 
+  private Map<RecipientRealm, String> getClientAccessTokens(List<UserKey> users) {
+    var accessTokens = new EnumMap<RecipientRealm, String>(RecipientRealm.class);
+    users.stream().map(user -> user.realm).distinct().forEach(realm -> accessTokens.put(realm,
+        idmServiceProvider.getIdmService(realm).getClientAccessToken()));
+    return accessTokens;
+  }
+
   private HttpHeaders createHeaders(String accessToken) {
     var headers = new HttpHeaders();
     headers.setContentType(MediaType.APPLICATION_JSON);
     headers.add(PlatformHttpHeader.X_ACCESS_TOKEN.getName(), accessToken);
     return headers;
   }
+
+  @EqualsAndHashCode(onlyExplicitlyIncluded = true)
+  private static final class UserKey {
+
+    private final Recipient recipient;
+    @EqualsAndHashCode.Include
+    private final RecipientRealm realm;
+    @EqualsAndHashCode.Include
+    private final String id;
+
+    private UserKey(Recipient recipient) {
+      this.recipient = recipient;
+      this.realm = recipient.getRealm();
+      this.id = recipient.getId();
+    }
+  }
 }
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.sharding;
+
+import com.epam.digital.data.platform.notification.dto.UserNotificationShardDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+
+/**
+ * Recovers a shard whose retries are exhausted: the shard is completed as failed, so the
+ * broadcast does not wait for it forever, and the record is passed on to the delegate, e.g. to be
+ * published to the dead letter topic. A tracking failure is logged and does not hide the original
+ * exception from the delegate.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class FailedShardRecoverer implements ConsumerRecordRecoverer {
+
+  private final NotificationBroadcastTracker broadcastTracker;
+  private final ConsumerRecordRecoverer delegate;
+
+  @Override
+  public void accept(ConsumerRecord<?, ?> record, Exception exception) {
+    if (record.value() instanceof UserNotificationShardDto) {
+      var shard = (UserNotificationShardDto) record.value();
+      log.warn("Shard {} of broadcast {} failed", shard.getShardIndex(), shard.getBroadcastId(),
+          exception);
+      try {
+        broadcastTracker.completeShard(shard, false);
+      } catch (RuntimeException ex) {
+        log.error("Failed shard {} of broadcast {} could not be tracked", shard.getShardIndex(),
+            shard.getBroadcastId(), ex);
+      }
+    }
+    delegate.accept(record, exception);
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.sharding;
+
+import com.epam.digital.data.platform.notification.audit.UserNotificationAuditFacade;
+import com.epam.digital.data.platform.notification.dto.UserNotificationMessageDto;
+import com.epam.digital.data.platform.notification.dto.UserNotificationShardDto;
+import com.epam.digital.data.platform.notification.dto.audit.BroadcastAuditDto;
+import com.epam.digital.data.platform.notification.repository.NotificationBroadcastRepository;
+import com.epam.digital.data.platform.notification.repository.NotificationBroadcastShardRepository;
+import com.epam.digital.data.platform.starter.audit.model.Step;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionOperations;
+
+/**
+ * Tracks the progress of the user notification messages that are split into recipient shards,
+ * so every such message is audited as a unit: once when it is split and once when every shard
+ * of it is processed, with the number of the shards that failed.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class NotificationBroadcastTracker {
+
+  private final NotificationBroadcastRepository broadcastRepository;
+  private final NotificationBroadcastShardRepository shardRepository;
+  private final TransactionOperations transactionOperations;
+  private final UserNotificationAuditFacade auditFacade;
+  private final Clock clock;
+
+  /**
+   * Start tracking the message. A message that is already tracked, e.g. a redelivered one, is not
+   * audited again.
+   *
+   * @param broadcastId     id of the broadcast
+   * @param sourceMessageId id of the consumed user notification message
+   * @param message         user notification message
+   * @param shardCount      number of shards the message is split into
+   */
+  public void start(UUID broadcastId, String sourceMessageId, UserNotificationMessageDto message,
+      int shardCount) {
+    var recipientCount = message.getRecipients().size();
+    var inserted = transactionOperations.execute(status -> broadcastRepository.insertIfAbsent(
+        broadcastId, sourceMessageId, recipientCount, shardCount, LocalDateTime.now(clock)));
+    if (!Objects.equals(inserted, 1)) {
+      log.info("Broadcast {} is already tracked", broadcastId);
+      return;
+    }
+    auditFacade.sendBroadcastAudit(withoutRecipients(message), Step.BEFORE,
+        BroadcastAuditDto.builder()
+            .id(broadcastId)
+            .recipientCount(recipientCount)
+            .shardCount(shardCount)
+            .build());
+  }
+
+  /**
+   * Store the outcome of the processed shard and audit the broadcast if it was the last one
+   *
+   * @param shard     processed shard
+   * @param succeeded whether the shard was fanned out without errors
+   */
+  public void completeShard(UserNotificationShardDto shard, boolean succeeded) {
+    var broadcast = transactionOperations.execute(status -> complete(shard, succeeded));
+    if (Objects.isNull(broadcast)) {
+      return;
+    }
+    log.info("Broadcast {} is completed, {} of {} shards failed", broadcast.getId(),
+        broadcast.getFailedShardCount(), broadcast.getShardCount());
+    auditFacade.sendBroadcastAudit(withoutRecipients(shard.getMessage()), Step.AFTER,
+        broadcast);
+  }
+
+  /**
+   * @return the broadcast if the shard completed it, {@code null} otherwise
+   */
+  private BroadcastAuditDto complete(UserNotificationShardDto shard, boolean succeeded) {
+    var broadcastId = shard.getBroadcastId();
+    // shards of one broadcast are completed under its lock, so only the last one sees them all
+    var broadcast = broadcastRepository.findByIdForUpdate(broadcastId).orElse(null);
+    if (Objects.isNull(broadcast)) {
+      log.warn("Shard {} of unknown broadcast {} is not tracked", shard.getShardIndex(),
+          broadcastId);
+      return null;
+    }
+    var now = LocalDateTime.now(clock);
+    var shardId = UUID.nameUUIDFromBytes((broadcastId.toString() + '/' + shard.getShardIndex())
+        .getBytes(StandardCharsets.UTF_8));
+    var recipients = shard.getMessage().getRecipients();
+    shardRepository.saveOutcome(shardId, broadcastId, shard.getShardIndex(),
+        Objects.isNull(recipients) ? 0 : recipients.size(), succeeded, now);
+    if (Objects.nonNull(broadcast.getCompletedAt())
+        || shardRepository.countByBroadcastId(broadcastId) < broadcast.getShardCount()) {
+      return null;
+    }
+    broadcast.setCompletedAt(now);
+    return BroadcastAuditDto.builder()
+        .id(broadcastId)
+        .recipientCount(broadcast.getRecipientCount())
+        .shardCount(broadcast.getShardCount())
+        .failedShardCount((int) shardRepository.countByBroadcastIdAndSucceededFalse(broadcastId))
+        .build();
+  }
+
+  private UserNotificationMessageDto withoutRecipients(UserNotificationMessageDto message) {
+    return UserNotificationMessageDto.builder()
+        .context(message.getContext())
+        .notification(message.getNotification())
+        .build();
+  }
+}
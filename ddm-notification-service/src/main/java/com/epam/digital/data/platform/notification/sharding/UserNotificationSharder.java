@@ -0,0 +1,108 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.sharding;
+
+import com.epam.digital.data.platform.notification.dto.UserNotificationMessageDto;
+import com.epam.digital.data.platform.notification.dto.UserNotificationShardDto;
+import com.epam.digital.data.platform.notification.exception.NotificationException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+
+/**
+ * Splits user notification messages with many recipients into shards of up to
+ * {@code shardSize} recipients and publishes them to the shard topic.
+ * <p>
+ * Every shard is keyed by its own index, so the shards of one message are spread over all the
+ * partitions of the topic and fanned out by all the service instances. The ids of the broadcast
+ * and of its shards are derived from the source message id, so a redelivered message results in
+ * the same shards.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class UserNotificationSharder {
+
+  private final KafkaTemplate<String, Object> kafkaTemplate;
+  private final NotificationBroadcastTracker broadcastTracker;
+  private final String topic;
+  private final int shardSize;
+  private final Duration sendTimeout;
+
+  /**
+   * @return {@code true} if the message has more recipients than a single shard holds
+   */
+  public boolean shouldSplit(UserNotificationMessageDto message) {
+    return Objects.nonNull(message.getRecipients()) && message.getRecipients().size() > shardSize;
+  }
+
+  /**
+   * Split the message into shards and wait until the broker acknowledged all of them
+   *
+   * @param message         user notification message
+   * @param sourceMessageId id of the consumed user notification message
+   */
+  public void split(UserNotificationMessageDto message, String sourceMessageId) {
+    var recipients = message.getRecipients();
+    var shardCount = (recipients.size() + shardSize - 1) / shardSize;
+    var broadcastId = UUID.nameUUIDFromBytes(sourceMessageId.getBytes(StandardCharsets.UTF_8));
+    broadcastTracker.start(broadcastId, sourceMessageId, message, shardCount);
+
+    var acks = new ArrayList<Future<?>>(shardCount);
+    for (var shardIndex = 0; shardIndex < shardCount; shardIndex++) {
+      var from = shardIndex * shardSize;
+      var shardRecipients = recipients.subList(from, Math.min(from + shardSize, recipients.size()));
+      var shard = UserNotificationShardDto.builder()
+          .broadcastId(broadcastId)
+          .shardIndex(shardIndex)
+          .shardCount(shardCount)
+          .message(UserNotificationMessageDto.builder()
+              .context(message.getContext())
+              .notification(message.getNotification())
+              .recipients(new ArrayList<>(shardRecipients))
+              .build())
+          .build();
+      acks.add(kafkaTemplate.send(topic, broadcastId.toString() + '/' + shardIndex, shard));
+    }
+    awaitAcks(acks);
+    log.info("User notification {} with {} recipients split into {} shards of broadcast {}",
+        sourceMessageId, recipients.size(), shardCount, broadcastId);
+  }
+
+  private void awaitAcks(List<Future<?>> acks) {
+    var deadline = System.nanoTime() + sendTimeout.toNanos();
+    try {
+      for (var ack : acks) {
+        ack.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new NotificationException("User notification sharding was interrupted", ex);
+    } catch (ExecutionException | TimeoutException ex) {
+      throw new NotificationException("Couldn't publish user notification shards", ex);
+    }
+  }
+}
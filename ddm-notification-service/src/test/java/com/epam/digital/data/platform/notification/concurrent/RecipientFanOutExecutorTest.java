@@ -0,0 +1,107 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.concurrent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.epam.digital.data.platform.notification.exception.NotificationException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RecipientFanOutExecutorTest {
+
+  private ExecutorService executorService;
+  private RecipientFanOutExecutor fanOutExecutor;
+
+  @BeforeEach
+  void setUp() {
+    executorService = Executors.newFixedThreadPool(8);
+    fanOutExecutor = new RecipientFanOutExecutor(executorService, 3, 4);
+  }
+
+  @AfterEach
+  void tearDown() {
+    executorService.shutdownNow();
+  }
+
+  @Test
+  void shouldReturnResultsInOrderOfItems() {
+    var items = IntStream.range(0, 50).boxed().collect(Collectors.toList());
+
+    var result = fanOutExecutor.map(items, item -> item * 2);
+
+    assertThat(result).isEqualTo(
+        items.stream().map(item -> item * 2).collect(Collectors.toList()));
+  }
+
+  @Test
+  void shouldNotExceedMaxConcurrency() {
+    var running = new AtomicInteger();
+    var maxRunning = new AtomicInteger();
+    var items = IntStream.range(0, 30).boxed().collect(Collectors.toList());
+
+    fanOutExecutor.forEach(items, item -> {
+      maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+      sleep();
+      running.decrementAndGet();
+    });
+
+    assertThat(maxRunning.get()).isLessThanOrEqualTo(3);
+  }
+
+  @Test
+  void shouldRethrowFailureAfterAllItemsAreProcessed() {
+    var processed = new AtomicInteger();
+    var items = List.of(1, 2, 3, 4);
+
+    var exception = assertThrows(NotificationException.class,
+        () -> fanOutExecutor.forEach(items, item -> {
+          processed.incrementAndGet();
+          if (item == 2) {
+            throw new NotificationException("failed");
+          }
+        }));
+
+    assertThat(exception.getMessage()).isEqualTo("failed");
+    assertThat(processed.get()).isEqualTo(4);
+  }
+
+  @Test
+  void shouldPartitionItemsIntoChunks() {
+    var items = IntStream.range(0, 10).boxed().collect(Collectors.toList());
+
+    var chunks = fanOutExecutor.partition(items);
+
+    assertThat(chunks).containsExactly(List.of(0, 1, 2, 3), List.of(4, 5, 6, 7), List.of(8, 9));
+  }
+
+  private void sleep() {
+    try {
+      Thread.sleep(10);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
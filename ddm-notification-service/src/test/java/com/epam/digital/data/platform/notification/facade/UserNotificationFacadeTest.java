@@ -16,39 +16,56 @@
 
 package com.epam.digital.data.platform.notification.facade;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import com.epam.digital.data.platform.notification.audit.UserNotificationAuditFacade;
+import com.epam.digital.data.platform.notification.concurrent.RecipientFanOutExecutor;
+import com.epam.digital.data.platform.notification.core.metrics.NotificationMetrics;
 import com.epam.digital.data.platform.notification.dto.ChannelObject;
 import com.epam.digital.data.platform.notification.dto.Recipient;
 import com.epam.digital.data.platform.notification.dto.UserNotificationDto;
 import com.epam.digital.data.platform.notification.dto.UserNotificationMessageDto;
+import com.epam.digital.data.platform.notification.dto.email.EmailNotificationMessageDto;
+import com.epam.digital.data.platform.notification.dto.email.EmailRecipientDto;
+import com.epam.digital.data.platform.notification.dto.inbox.InboxNotificationMessageDto;
 import com.epam.digital.data.platform.notification.email.mapper.EmailChannelMapper;
+import com.epam.digital.data.platform.notification.entity.NotificationOutboxRecord;
 import com.epam.digital.data.platform.notification.email.producer.EmailNotificationProducer;
 import com.epam.digital.data.platform.notification.exception.NotificationException;
 import com.epam.digital.data.platform.notification.exception.NotificationTemplateNotFoundException;
 import com.epam.digital.data.platform.notification.inbox.mapper.InboxChannelMapper;
 import com.epam.digital.data.platform.notification.inbox.producer.InboxNotificationProducer;
+import com.epam.digital.data.platform.notification.outbox.NotificationOutbox;
+import com.epam.digital.data.platform.notification.service.RecipientDetails;
 import com.epam.digital.data.platform.notification.service.UserService;
 import com.epam.digital.data.platform.settings.model.dto.Channel;
 import com.epam.digital.data.platform.settings.model.dto.ChannelReadDto;
 import com.epam.digital.data.platform.settings.model.dto.SettingsReadDto;
 import com.epam.digital.data.platform.starter.audit.model.Step;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -63,10 +80,14 @@ public class UserNotificationFacadeTest {
   private InboxNotificationProducer inboxNotificationProducer;
   @Mock
   private UserNotificationAuditFacade notificationAuditFacade;
+  @Mock
+  private NotificationOutbox notificationOutbox;
   private UserNotificationFacade notificationFacade;
+  private ExecutorService executorService;
 
   @BeforeEach
   void setup() {
+    executorService = Executors.newFixedThreadPool(2);
     notificationFacade =
         new UserNotificationFacade(
             userService,
@@ -74,7 +95,18 @@ public class UserNotificationFacadeTest {
             Map.of(Channel.EMAIL, emailNotificationProducer,
                 Channel.INBOX, inboxNotificationProducer),
             Map.of(Channel.EMAIL, new EmailChannelMapper(),
-                Channel.INBOX, new InboxChannelMapper()));
+                Channel.INBOX, new InboxChannelMapper()),
+            new RecipientFanOutExecutor(executorService, 2, 100),
+            new NotificationMetrics(new SimpleMeterRegistry()));
+    lenient().when(emailNotificationProducer.send(any(EmailNotificationMessageDto.class)))
+        .thenReturn(CompletableFuture.completedFuture(null));
+    lenient().when(inboxNotificationProducer.send(any(InboxNotificationMessageDto.class)))
+        .thenReturn(CompletableFuture.completedFuture(null));
+  }
+
+  @AfterEach
+  void tearDown() {
+    executorService.shutdownNow();
   }
 
   @Test
@@ -90,7 +122,8 @@ public class UserNotificationFacadeTest {
     emailChannel.setActivated(false);
     emailChannel.setAddress("address");
     settingsReadDto.setChannels(Collections.singletonList(emailChannel));
-    when(userService.getUserSettings(recipient)).thenReturn(settingsReadDto);
+    when(userService.getRecipientsDetails(List.of(recipient), true))
+        .thenReturn(List.of(recipientDetails(List.of(), settingsReadDto)));
 
     notificationFacade.sendNotification(message);
 
@@ -110,11 +143,12 @@ public class UserNotificationFacadeTest {
     emailChannel.setActivated(true);
     emailChannel.setAddress("address");
     settingsReadDto.setChannels(Collections.singletonList(emailChannel));
-    when(userService.getUserSettings(recipientDto)).thenReturn(settingsReadDto);
+    when(userService.getRecipientsDetails(List.of(recipientDto), true))
+        .thenReturn(List.of(recipientDetails(List.of(), settingsReadDto)));
 
     notificationFacade.sendNotification(message);
 
-    verify(emailNotificationProducer).send(recipientDto, message);
+    verify(emailNotificationProducer).createMessageDto(recipientDto, message);
   }
 
   @Test
@@ -129,7 +163,8 @@ public class UserNotificationFacadeTest {
     emailChannel.setChannel(Channel.DIIA);
     emailChannel.setActivated(true);
     settingsReadDto.setChannels(new ArrayList<>(Collections.singletonList(emailChannel)));
-    when(userService.getUserSettings(recipient)).thenReturn(settingsReadDto);
+    when(userService.getRecipientsDetails(List.of(recipient), true))
+        .thenReturn(List.of(recipientDetails(List.of(), settingsReadDto)));
 
     notificationFacade.sendNotification(message);
 
@@ -155,7 +190,8 @@ public class UserNotificationFacadeTest {
         .notification(UserNotificationDto.builder().build())
         .recipients(List.of(recipient))
         .build();
-    when(userService.getUserSettings(recipient)).thenThrow(IllegalArgumentException.class);
+    when(userService.getRecipientsDetails(List.of(recipient), true))
+        .thenThrow(IllegalArgumentException.class);
 
     assertThrows(NotificationException.class, () -> notificationFacade.sendNotification(message));
 
@@ -179,9 +215,10 @@ public class UserNotificationFacadeTest {
     emailChannel.setActivated(true);
     emailChannel.setAddress("address");
     settingsReadDto.setChannels(Collections.singletonList(emailChannel));
-    when(userService.getUserSettings(recipient)).thenReturn(settingsReadDto);
-    doThrow(new NotificationTemplateNotFoundException("template-id"))
-        .when(emailNotificationProducer).send(recipient, message);
+    when(userService.getRecipientsDetails(List.of(recipient), true))
+        .thenReturn(List.of(recipientDetails(List.of(), settingsReadDto)));
+    when(emailNotificationProducer.createMessageDto(recipient, message))
+        .thenThrow(new NotificationTemplateNotFoundException("template-id"));
 
     notificationFacade.sendNotification(message);
 
@@ -202,12 +239,13 @@ public class UserNotificationFacadeTest {
         .notification(UserNotificationDto.builder().ignoreChannelPreferences(true).build())
         .recipients(List.of(recipientDto))
         .build();
-    when(userService.getUserRoles(recipientDto)).thenReturn(roles);
+    when(userService.getRecipientsDetails(List.of(recipientDto), false))
+        .thenReturn(List.of(recipientDetails(roles, null)));
 
     notificationFacade.sendNotification(message);
 
-    verify(emailNotificationProducer).send(recipientDto, message);
-    verify(inboxNotificationProducer, times(0)).send(recipientDto, message);
+    verify(emailNotificationProducer).createMessageDto(recipientDto, message);
+    verify(inboxNotificationProducer, times(0)).createMessageDto(recipientDto, message);
   }
 
   @Test
@@ -220,11 +258,135 @@ public class UserNotificationFacadeTest {
             .notification(UserNotificationDto.builder().ignoreChannelPreferences(true).build())
             .recipients(List.of(recipientDto))
             .build();
-    when(userService.getUserRoles(recipientDto)).thenCallRealMethod();
+    when(userService.getRecipientsDetails(List.of(recipientDto), false))
+        .thenReturn(List.of(recipientDetails(List.of(), null)));
+
+    notificationFacade.sendNotification(message);
+
+    verify(emailNotificationProducer).createMessageDto(recipientDto, message);
+    verify(inboxNotificationProducer, times(0)).createMessageDto(recipientDto, message);
+  }
+
+  @Test
+  void shouldRenderOnceForRecipientsWithSameParameters() {
+    var firstRecipient = Recipient.builder()
+        .id("first")
+        .parameters(new HashMap<>(Map.of("name", "value")))
+        .channels(List.of(ChannelObject.builder().channel("email").email("first@dot.com").build()))
+        .build();
+    var secondRecipient = Recipient.builder()
+        .id("second")
+        .parameters(new HashMap<>(Map.of("name", "value")))
+        .channels(List.of(ChannelObject.builder().channel("email").email("second@dot.com").build()))
+        .build();
+    var message = UserNotificationMessageDto.builder()
+        .notification(UserNotificationDto.builder().ignoreChannelPreferences(true).build())
+        .recipients(List.of(firstRecipient, secondRecipient))
+        .build();
+    var firstMessageDto = EmailNotificationMessageDto.builder()
+        .recipient(EmailRecipientDto.builder().id("first").build())
+        .build();
+    var secondMessageDto = EmailNotificationMessageDto.builder()
+        .recipient(EmailRecipientDto.builder().id("second").build())
+        .build();
+    when(userService.getRecipientsDetails(List.of(firstRecipient, secondRecipient), false))
+        .thenReturn(List.of(recipientDetails(List.of(), null), recipientDetails(List.of(), null)));
+    when(emailNotificationProducer.createMessageDto(firstRecipient, message))
+        .thenReturn(firstMessageDto);
+    when(emailNotificationProducer.copyForRecipient(firstMessageDto, secondRecipient))
+        .thenReturn(secondMessageDto);
+
+    notificationFacade.sendNotification(message);
+
+    verify(emailNotificationProducer, times(1)).createMessageDto(any(), any());
+    verify(emailNotificationProducer).send(firstMessageDto);
+    verify(emailNotificationProducer).send(secondMessageDto);
+  }
+
+  @Test
+  void shouldSplitRecipientsWithSameParametersIntoChunks() {
+    notificationFacade = new UserNotificationFacade(userService, notificationAuditFacade,
+        Map.of(Channel.EMAIL, emailNotificationProducer),
+        Map.of(Channel.EMAIL, new EmailChannelMapper()),
+        new RecipientFanOutExecutor(executorService, 2, 1),
+        new NotificationMetrics(new SimpleMeterRegistry()));
+    var firstRecipient = Recipient.builder()
+        .id("first")
+        .parameters(new HashMap<>(Map.of("name", "value")))
+        .channels(List.of(ChannelObject.builder().channel("email").email("first@dot.com").build()))
+        .build();
+    var secondRecipient = Recipient.builder()
+        .id("second")
+        .parameters(new HashMap<>(Map.of("name", "value")))
+        .channels(List.of(ChannelObject.builder().channel("email").email("second@dot.com").build()))
+        .build();
+    var message = UserNotificationMessageDto.builder()
+        .notification(UserNotificationDto.builder().ignoreChannelPreferences(true).build())
+        .recipients(List.of(firstRecipient, secondRecipient))
+        .build();
+    when(userService.getRecipientsDetails(List.of(firstRecipient, secondRecipient), false))
+        .thenReturn(List.of(recipientDetails(List.of(), null), recipientDetails(List.of(), null)));
 
     notificationFacade.sendNotification(message);
 
-    verify(emailNotificationProducer).send(recipientDto, message);
-    verify(inboxNotificationProducer, times(0)).send(recipientDto, message);
+    verify(emailNotificationProducer).createMessageDto(firstRecipient, message);
+    verify(emailNotificationProducer).createMessageDto(secondRecipient, message);
+    verify(emailNotificationProducer, never()).copyForRecipient(any(), any());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void shouldStoreFanOutInOutboxInsteadOfSending() {
+    notificationFacade.setNotificationOutbox(notificationOutbox);
+    var firstRecipient = Recipient.builder()
+        .id("first")
+        .parameters(new HashMap<>())
+        .channels(List.of(ChannelObject.builder().channel("email").email("first@dot.com").build()))
+        .build();
+    var secondRecipient = Recipient.builder()
+        .id("second")
+        .parameters(new HashMap<>())
+        .channels(List.of(ChannelObject.builder().channel("email").email("second@dot.com").build()))
+        .build();
+    var message = UserNotificationMessageDto.builder()
+        .notification(UserNotificationDto.builder().ignoreChannelPreferences(true).build())
+        .recipients(List.of(firstRecipient, secondRecipient))
+        .build();
+    var firstMessageDto = EmailNotificationMessageDto.builder()
+        .recipient(EmailRecipientDto.builder().id("first").build())
+        .build();
+    var secondMessageDto = EmailNotificationMessageDto.builder()
+        .recipient(EmailRecipientDto.builder().id("second").build())
+        .build();
+    var firstRecord = NotificationOutboxRecord.builder().id(UUID.randomUUID()).build();
+    var secondRecord = NotificationOutboxRecord.builder().id(UUID.randomUUID()).build();
+    when(userService.getRecipientsDetails(List.of(firstRecipient, secondRecipient), false))
+        .thenReturn(List.of(recipientDetails(List.of(), null), recipientDetails(List.of(), null)));
+    when(emailNotificationProducer.getChannel()).thenReturn(Channel.EMAIL);
+    when(emailNotificationProducer.getTopic()).thenReturn("email-notifications");
+    when(emailNotificationProducer.createMessageDto(firstRecipient, message))
+        .thenReturn(firstMessageDto);
+    when(emailNotificationProducer.copyForRecipient(firstMessageDto, secondRecipient))
+        .thenReturn(secondMessageDto);
+    when(emailNotificationProducer.getMessageKey(firstMessageDto)).thenReturn("first-key");
+    when(emailNotificationProducer.getMessageKey(secondMessageDto)).thenReturn("second-key");
+    when(notificationOutbox.createRecord("user-notifications-0@1", "EMAIL/0",
+        "email-notifications", "first-key", firstMessageDto)).thenReturn(firstRecord);
+    when(notificationOutbox.createRecord("user-notifications-0@1", "EMAIL/1",
+        "email-notifications", "second-key", secondMessageDto)).thenReturn(secondRecord);
+
+    notificationFacade.sendNotification(message, "user-notifications-0@1");
+
+    ArgumentCaptor<List<NotificationOutboxRecord>> records = ArgumentCaptor.forClass(List.class);
+    verify(notificationOutbox).store(records.capture());
+    assertThat(records.getValue()).containsExactly(firstRecord, secondRecord);
+    verify(emailNotificationProducer, never()).send(any(EmailNotificationMessageDto.class));
+  }
+
+  private RecipientDetails recipientDetails(List<String> roles, SettingsReadDto settings) {
+    return RecipientDetails.builder()
+        .roles(roles)
+        .settings(settings)
+        .build();
   }
 }
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.listener;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.epam.digital.data.platform.notification.core.service.NotificationTemplateCache;
+import com.epam.digital.data.platform.notification.dto.NotificationTemplateChangedEventDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationTemplateChangeListenerTest {
+
+  private static final String TOPIC = "notification-template-changes";
+
+  @Mock
+  private NotificationTemplateCache notificationTemplateCache;
+  @Mock
+  private KafkaTemplate<String, Object> kafkaTemplate;
+
+  private NotificationTemplateChangeListener listener;
+
+  @BeforeEach
+  void setUp() {
+    listener = new NotificationTemplateChangeListener(notificationTemplateCache, kafkaTemplate,
+        TOPIC);
+  }
+
+  @Test
+  void shouldBroadcastTemplateChangeKeyedByChannelAndName() {
+    var event = NotificationTemplateChangedEventDto.builder().name("name").channel("email")
+        .build();
+
+    listener.broadcast(event);
+
+    verify(kafkaTemplate, times(1)).send(TOPIC, "email:name", event);
+  }
+
+  @Test
+  void shouldEvictChangedTemplateFromCache() {
+    var event = NotificationTemplateChangedEventDto.builder().name("name").channel("email")
+        .build();
+
+    listener.evict(event);
+
+    verify(notificationTemplateCache, times(1)).evict("name", "email");
+  }
+}
@@ -16,31 +16,61 @@
 
 package com.epam.digital.data.platform.notification.listener;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import com.epam.digital.data.platform.notification.dto.UserNotificationMessageDto;
 import com.epam.digital.data.platform.notification.facade.UserNotificationFacade;
+import com.epam.digital.data.platform.notification.sharding.UserNotificationSharder;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.listener.adapter.ConsumerRecordMetadata;
 
 @ExtendWith(MockitoExtension.class)
 class UserNotificationListenerTest {
 
   @Mock
   private UserNotificationFacade notificationFacade;
+  @Mock
+  private ConsumerRecordMetadata metadata;
+  @Mock
+  private UserNotificationSharder sharder;
   @InjectMocks
   private UserNotificationListener listener;
 
   @Test
   void test() {
     var record = UserNotificationMessageDto.builder().build();
+    when(metadata.topic()).thenReturn("user-notifications");
+    when(metadata.partition()).thenReturn(1);
+    when(metadata.offset()).thenReturn(42L);
+    when(metadata.timestamp()).thenReturn(1700000000000L);
+
+    listener.notify(record, metadata);
+
+    verify(notificationFacade, times(1)).sendNotification(record, "user-notifications-1@42/1700000000000");
+  }
+
+  @Test
+  void shouldSplitMessageWithManyRecipientsIntoShards() {
+    var record = UserNotificationMessageDto.builder().build();
+    when(metadata.topic()).thenReturn("user-notifications");
+    when(metadata.partition()).thenReturn(1);
+    when(metadata.offset()).thenReturn(42L);
+    when(metadata.timestamp()).thenReturn(1700000000000L);
+    when(sharder.shouldSplit(record)).thenReturn(true);
+    listener.setUserNotificationSharder(sharder);
 
-    listener.notify(record);
+    listener.notify(record, metadata);
 
-    verify(notificationFacade, times(1)).sendNotification(record);
+    verify(sharder).split(record, "user-notifications-1@42/1700000000000");
+    verify(notificationFacade, never()).sendNotification(any(), anyString());
   }
 }
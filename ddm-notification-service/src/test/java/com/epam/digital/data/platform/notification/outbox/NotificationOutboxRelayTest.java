@@ -0,0 +1,182 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.epam.digital.data.platform.notification.dto.email.EmailNotificationMessageDto;
+import com.epam.digital.data.platform.notification.dto.email.EmailRecipientDto;
+import com.epam.digital.data.platform.notification.entity.NotificationOutboxRecord;
+import com.epam.digital.data.platform.notification.repository.NotificationOutboxRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import org.apache.kafka.common.KafkaException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.util.concurrent.SettableListenableFuture;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationOutboxRelayTest {
+
+  private static final String TOPIC = "email-notifications";
+  private static final String MESSAGE_KEY = "recipient-key";
+
+  @Mock
+  private NotificationOutboxRepository outboxRepository;
+  @Mock(answer = Answers.RETURNS_MOCKS)
+  private KafkaTemplate<String, Object> kafkaTemplate;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final Clock clock = Clock.fixed(Instant.parse("2023-01-01T10:00:00Z"), ZoneOffset.UTC);
+  private NotificationOutboxRelay relay;
+
+  @BeforeEach
+  void setUp() {
+    relay = createRelay(10);
+  }
+
+  @AfterEach
+  void tearDown() {
+    relay.destroy();
+  }
+
+  @Test
+  void shouldPublishUnsentRecordsAndMarkThemSent() throws Exception {
+    var messageDto = EmailNotificationMessageDto.builder()
+        .recipient(EmailRecipientDto.builder().id("recipient").email("test@test.com").build())
+        .build();
+    var record = createRecord(EmailNotificationMessageDto.class.getName(),
+        objectMapper.writeValueAsString(messageDto));
+    when(outboxRepository.findUnsentForUpdate(10)).thenReturn(List.of(record));
+
+    var relayed = relay.relay();
+
+    assertThat(relayed).isEqualTo(1);
+    verify(kafkaTemplate).send(TOPIC, MESSAGE_KEY, messageDto);
+    verify(outboxRepository).markSent(List.of(record.getId()), LocalDateTime.now(clock));
+  }
+
+  @Test
+  void shouldRelayUntilBatchIsNotFull() {
+    relay = createRelay(1);
+    var first = createRecord(EmailNotificationMessageDto.class.getName(), "{}");
+    var second = createRecord(EmailNotificationMessageDto.class.getName(), "{}");
+    when(outboxRepository.findUnsentForUpdate(1))
+        .thenReturn(List.of(first))
+        .thenReturn(List.of(second))
+        .thenReturn(List.of());
+
+    var relayed = relay.relay();
+
+    assertThat(relayed).isEqualTo(2);
+    verify(outboxRepository).markSent(List.of(first.getId()), LocalDateTime.now(clock));
+    verify(outboxRepository).markSent(List.of(second.getId()), LocalDateTime.now(clock));
+  }
+
+  @Test
+  void shouldNotMarkSentWhenPublishingFails() {
+    var record = createRecord(EmailNotificationMessageDto.class.getName(), "{}");
+    when(outboxRepository.findUnsentForUpdate(10)).thenReturn(List.of(record));
+    when(kafkaTemplate.send(anyString(), any(), any()))
+        .thenThrow(new KafkaException("broker is down"));
+
+    var relayed = relay.relay();
+
+    assertThat(relayed).isZero();
+    verify(outboxRepository, never()).markSent(any(), any());
+  }
+
+  @Test
+  void shouldMarkSentOnlyAcknowledgedRecords() throws Exception {
+    relay = createRelay(2);
+    var acknowledged = createRecord(EmailNotificationMessageDto.class.getName(),
+        objectMapper.writeValueAsString(emailMessage("acknowledged")));
+    var failed = createRecord(EmailNotificationMessageDto.class.getName(),
+        objectMapper.writeValueAsString(emailMessage("failed")));
+    var failedAck = new SettableListenableFuture<SendResult<String, Object>>();
+    failedAck.setException(new KafkaException("not enough replicas"));
+    when(outboxRepository.findUnsentForUpdate(2)).thenReturn(List.of(acknowledged, failed));
+    when(kafkaTemplate.send(TOPIC, MESSAGE_KEY, emailMessage("failed"))).thenReturn(failedAck);
+
+    var relayed = relay.relay();
+
+    assertThat(relayed).isEqualTo(1);
+    verify(outboxRepository).markSent(List.of(acknowledged.getId()), LocalDateTime.now(clock));
+    verify(outboxRepository, times(1)).findUnsentForUpdate(2);
+  }
+
+  @Test
+  void shouldSkipRecordThatCouldNotBeRead() {
+    var record = createRecord(String.class.getName(), "\"message\"");
+    when(outboxRepository.findUnsentForUpdate(10)).thenReturn(List.of(record));
+
+    relay.relay();
+
+    verify(kafkaTemplate, never()).send(anyString(), any(), any());
+    verify(outboxRepository).markSent(List.of(record.getId()), LocalDateTime.now(clock));
+  }
+
+  @Test
+  void shouldPurgeRecordsSentBeforeRetention() {
+    when(outboxRepository.deleteSentBefore(LocalDateTime.now(clock).minusDays(7))).thenReturn(3);
+
+    assertThat(relay.purge()).isEqualTo(3);
+  }
+
+  private static EmailNotificationMessageDto emailMessage(String recipientId) {
+    return EmailNotificationMessageDto.builder()
+        .recipient(EmailRecipientDto.builder().id(recipientId).email("test@test.com").build())
+        .build();
+  }
+
+  private NotificationOutboxRelay createRelay(int batchSize) {
+    return new NotificationOutboxRelay(outboxRepository, TransactionOperations.withoutTransaction(),
+        kafkaTemplate, objectMapper, clock, batchSize, Duration.ofMillis(500),
+        Duration.ofSeconds(5), Duration.ofDays(7));
+  }
+
+  private NotificationOutboxRecord createRecord(String payloadType, String payload) {
+    return NotificationOutboxRecord.builder()
+        .id(UUID.randomUUID())
+        .topic(TOPIC)
+        .messageKey(MESSAGE_KEY)
+        .payloadType(payloadType)
+        .payload(payload)
+        .createdAt(LocalDateTime.now(clock))
+        .build();
+  }
+}
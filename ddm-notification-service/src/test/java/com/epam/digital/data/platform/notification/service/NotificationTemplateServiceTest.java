@@ -2,14 +2,18 @@ package com.epam.digital.data.platform.notification.service;
 
 import static org.mockito.Mockito.*;
 
+import java.util.Optional;
 import java.util.UUID;
 
 import com.epam.digital.data.platform.notification.core.repository.CoreNotificationTemplateRepository;
+import com.epam.digital.data.platform.notification.dto.NotificationTemplateChangedEventDto;
+import com.epam.digital.data.platform.notification.entity.NotificationTemplate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 @ExtendWith(MockitoExtension.class)
 class NotificationTemplateServiceTest {
@@ -18,10 +22,13 @@ class NotificationTemplateServiceTest {
 
   @Mock
   private CoreNotificationTemplateRepository notificationTemplateRepository;
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
 
   @BeforeEach
   void setup() {
-    notificationTemplateService = new NotificationTemplateService(notificationTemplateRepository);
+    notificationTemplateService = new NotificationTemplateService(notificationTemplateRepository,
+        eventPublisher);
   }
 
   @Test
@@ -38,4 +45,17 @@ class NotificationTemplateServiceTest {
 
     verify(notificationTemplateRepository, times(1)).deleteById(uuid);
   }
+
+  @Test
+  void deleteShouldPublishTemplateChangedEvent() {
+    var uuid = UUID.randomUUID();
+    var template = NotificationTemplate.builder().id(uuid).name("name").channel("email").build();
+    when(notificationTemplateRepository.findById(uuid)).thenReturn(Optional.of(template));
+
+    notificationTemplateService.delete(uuid);
+
+    verify(eventPublisher, times(1)).publishEvent(
+        NotificationTemplateChangedEventDto.builder().name("name").channel("email").build());
+    verify(notificationTemplateRepository, times(1)).deleteById(uuid);
+  }
 }
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.epam.digital.data.platform.bpms.api.dto.enums.PlatformHttpHeader;
+import com.epam.digital.data.platform.datafactory.settings.client.UserSettingsFeignClient;
+import com.epam.digital.data.platform.integration.idm.model.IdmUser;
+import com.epam.digital.data.platform.integration.idm.service.IdmService;
+import com.epam.digital.data.platform.notification.concurrent.RecipientFanOutExecutor;
+import com.epam.digital.data.platform.notification.core.metrics.NotificationMetrics;
+import com.epam.digital.data.platform.notification.core.service.IdmServiceProvider;
+import com.epam.digital.data.platform.notification.dto.Recipient;
+import com.epam.digital.data.platform.notification.dto.Recipient.RecipientRealm;
+import com.epam.digital.data.platform.settings.model.dto.SettingsReadDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.keycloak.representations.idm.RoleRepresentation;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+
+@ExtendWith(MockitoExtension.class)
+class UserServiceTest {
+
+  private static final String FIRST_USER_ID = "3fa85f64-1234-4562-b3fc-2c963f66afa6";
+  private static final String SECOND_USER_ID = "4fa85f64-1234-4562-b3fc-2c963f66afa7";
+
+  @Mock
+  private IdmServiceProvider idmServiceProvider;
+  @Mock
+  private IdmService idmService;
+  @Mock
+  private UserSettingsFeignClient userSettingsFeignClient;
+
+  private UserService userService;
+
+  @BeforeEach
+  void setUp() {
+    userService = new UserService(idmServiceProvider, userSettingsFeignClient,
+        new RecipientFanOutExecutor(Runnable::run, 1, 100),
+        new NotificationMetrics(new SimpleMeterRegistry()));
+  }
+
+  @Test
+  void shouldReuseClientAccessTokenAndResolveEachUserOnce() {
+    var first = Recipient.builder().id("first").realm(RecipientRealm.CITIZEN).build();
+    var second = Recipient.builder().id("second").realm(RecipientRealm.CITIZEN).build();
+    var firstDuplicate = Recipient.builder().id("first").realm(RecipientRealm.CITIZEN).build();
+    var firstSettings = new SettingsReadDto();
+    var secondSettings = new SettingsReadDto();
+    when(idmServiceProvider.getIdmService(RecipientRealm.CITIZEN)).thenReturn(idmService);
+    when(idmService.getClientAccessToken()).thenReturn("token");
+    when(idmServiceProvider.getUserByUserName(RecipientRealm.CITIZEN, "first"))
+        .thenReturn(List.of(IdmUser.builder().id(FIRST_USER_ID).build()));
+    when(idmServiceProvider.getUserByUserName(RecipientRealm.CITIZEN, "second"))
+        .thenReturn(List.of(IdmUser.builder().id(SECOND_USER_ID).build()));
+    when(idmServiceProvider.getUserRoles(RecipientRealm.CITIZEN, "first"))
+        .thenReturn(List.of(new RoleRepresentation("citizen", null, false)));
+    when(idmServiceProvider.getUserRoles(RecipientRealm.CITIZEN, "second")).thenReturn(List.of());
+    when(userSettingsFeignClient.performGetByUserId(eq(UUID.fromString(FIRST_USER_ID)), any()))
+        .thenReturn(firstSettings);
+    when(userSettingsFeignClient.performGetByUserId(eq(UUID.fromString(SECOND_USER_ID)), any()))
+        .thenReturn(secondSettings);
+
+    var result = userService.getRecipientsDetails(List.of(first, second, firstDuplicate), true);
+
+    assertThat(result).containsExactly(
+        RecipientDetails.builder().roles(List.of("citizen")).settings(firstSettings).build(),
+        RecipientDetails.builder().roles(List.of()).settings(secondSettings).build(),
+        RecipientDetails.builder().roles(List.of("citizen")).settings(firstSettings).build());
+    verify(idmService, times(1)).getClientAccessToken();
+    verify(idmServiceProvider, times(1)).getUserByUserName(RecipientRealm.CITIZEN, "first");
+    verify(idmServiceProvider, times(1)).getUserRoles(RecipientRealm.CITIZEN, "first");
+    var headersCaptor = ArgumentCaptor.forClass(HttpHeaders.class);
+    verify(userSettingsFeignClient, times(2)).performGetByUserId(any(),
+        headersCaptor.capture());
+    assertThat(headersCaptor.getAllValues())
+        .allMatch(headers -> "token".equals(
+            headers.getFirst(PlatformHttpHeader.X_ACCESS_TOKEN.getName())));
+  }
+
+  @Test
+  void shouldNotRequestClientAccessTokenWithoutSettings() {
+    var recipient = Recipient.builder().id("first").realm(RecipientRealm.OFFICER).build();
+    when(idmServiceProvider.getUserRoles(RecipientRealm.OFFICER, "first")).thenReturn(List.of());
+
+    var result = userService.getRecipientsDetails(List.of(recipient), false);
+
+    assertThat(result).containsExactly(RecipientDetails.builder().roles(List.of()).build());
+    verify(idmServiceProvider, never()).getIdmService(any());
+    verify(userSettingsFeignClient, never()).performGetByUserId(any(), any());
+  }
+}
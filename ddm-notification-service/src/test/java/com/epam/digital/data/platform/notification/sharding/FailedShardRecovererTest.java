@@ -0,0 +1,94 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.sharding;
+
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import com.epam.digital.data.platform.notification.dto.UserNotificationShardDto;
+import com.epam.digital.data.platform.notification.exception.NotificationException;
+import java.util.UUID;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+
+@ExtendWith(MockitoExtension.class)
+class FailedShardRecovererTest {
+
+  private static final String TOPIC = "user-notification-shards";
+
+  @Mock
+  private NotificationBroadcastTracker broadcastTracker;
+  @Mock
+  private ConsumerRecordRecoverer deadLetterRecoverer;
+
+  private FailedShardRecoverer recoverer;
+
+  @BeforeEach
+  void setUp() {
+    recoverer = new FailedShardRecoverer(broadcastTracker, deadLetterRecoverer);
+  }
+
+  @Test
+  void shouldCompleteShardAsFailedAndPublishItToDeadLetterTopic() {
+    var shard = createShard();
+    var record = new ConsumerRecord<String, Object>(TOPIC, 0, 0L, null, shard);
+    var exception = new NotificationException("error");
+
+    recoverer.accept(record, exception);
+
+    verify(broadcastTracker).completeShard(shard, false);
+    verify(deadLetterRecoverer).accept(record, exception);
+  }
+
+  @Test
+  void shouldPublishOriginalExceptionIfShardCouldNotBeTracked() {
+    var shard = createShard();
+    var record = new ConsumerRecord<String, Object>(TOPIC, 0, 0L, null, shard);
+    var exception = new NotificationException("error");
+    doThrow(new IllegalStateException("database is down"))
+        .when(broadcastTracker).completeShard(shard, false);
+
+    recoverer.accept(record, exception);
+
+    verify(deadLetterRecoverer).accept(record, exception);
+  }
+
+  @Test
+  void shouldPublishNotDeserializedRecordToDeadLetterTopic() {
+    var record = new ConsumerRecord<String, Object>(TOPIC, 0, 0L, null, null);
+    var exception = new NotificationException("error");
+
+    recoverer.accept(record, exception);
+
+    verify(deadLetterRecoverer).accept(record, exception);
+    verifyNoInteractions(broadcastTracker);
+  }
+
+  private UserNotificationShardDto createShard() {
+    return UserNotificationShardDto.builder()
+        .broadcastId(UUID.randomUUID())
+        .shardIndex(1)
+        .shardCount(2)
+        .build();
+  }
+}
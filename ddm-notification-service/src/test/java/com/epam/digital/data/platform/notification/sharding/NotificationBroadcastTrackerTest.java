@@ -0,0 +1,196 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.sharding;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.epam.digital.data.platform.notification.audit.UserNotificationAuditFacade;
+import com.epam.digital.data.platform.notification.dto.NotificationContextDto;
+import com.epam.digital.data.platform.notification.dto.Recipient;
+import com.epam.digital.data.platform.notification.dto.UserNotificationDto;
+import com.epam.digital.data.platform.notification.dto.UserNotificationMessageDto;
+import com.epam.digital.data.platform.notification.dto.UserNotificationShardDto;
+import com.epam.digital.data.platform.notification.dto.audit.BroadcastAuditDto;
+import com.epam.digital.data.platform.notification.entity.NotificationBroadcast;
+import com.epam.digital.data.platform.notification.repository.NotificationBroadcastRepository;
+import com.epam.digital.data.platform.notification.repository.NotificationBroadcastShardRepository;
+import com.epam.digital.data.platform.starter.audit.model.Step;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationBroadcastTrackerTest {
+
+  private static final UUID BROADCAST_ID = UUID.randomUUID();
+  private static final String SOURCE_MESSAGE_ID = "user-notifications-1@42";
+
+  @Mock
+  private NotificationBroadcastRepository broadcastRepository;
+  @Mock
+  private NotificationBroadcastShardRepository shardRepository;
+  @Mock
+  private UserNotificationAuditFacade auditFacade;
+
+  private final Clock clock = Clock.fixed(Instant.parse("2023-01-01T10:00:00Z"), ZoneOffset.UTC);
+  private NotificationBroadcastTracker tracker;
+
+  @BeforeEach
+  void setUp() {
+    tracker = new NotificationBroadcastTracker(broadcastRepository, shardRepository,
+        TransactionOperations.withoutTransaction(), auditFacade, clock);
+  }
+
+  @Test
+  void shouldAuditStartedBroadcastWithoutRecipients() {
+    var message = createMessage(List.of(Recipient.builder().id("first").build(),
+        Recipient.builder().id("second").build()));
+    when(broadcastRepository.insertIfAbsent(BROADCAST_ID, SOURCE_MESSAGE_ID, 2, 2,
+        LocalDateTime.now(clock))).thenReturn(1);
+
+    tracker.start(BROADCAST_ID, SOURCE_MESSAGE_ID, message, 2);
+
+    var notificationCaptor = ArgumentCaptor.forClass(UserNotificationMessageDto.class);
+    verify(auditFacade).sendBroadcastAudit(notificationCaptor.capture(), eq(Step.BEFORE),
+        eq(BroadcastAuditDto.builder().id(BROADCAST_ID).recipientCount(2).shardCount(2).build()));
+    assertThat(notificationCaptor.getValue().getRecipients()).isNull();
+    assertThat(notificationCaptor.getValue().getNotification())
+        .isEqualTo(message.getNotification());
+  }
+
+  @Test
+  void shouldNotAuditAlreadyTrackedBroadcast() {
+    var message = createMessage(List.of(Recipient.builder().id("first").build()));
+    when(broadcastRepository.insertIfAbsent(BROADCAST_ID, SOURCE_MESSAGE_ID, 1, 1,
+        LocalDateTime.now(clock))).thenReturn(0);
+
+    tracker.start(BROADCAST_ID, SOURCE_MESSAGE_ID, message, 1);
+
+    verify(auditFacade, never()).sendBroadcastAudit(any(), any(), any());
+  }
+
+  @Test
+  void shouldCompleteBroadcastWhenAllShardsAreProcessed() {
+    var broadcast = createBroadcast();
+    when(broadcastRepository.findByIdForUpdate(BROADCAST_ID)).thenReturn(Optional.of(broadcast));
+    when(shardRepository.countByBroadcastId(BROADCAST_ID)).thenReturn(2L);
+
+    tracker.completeShard(createShard(1), true);
+
+    assertThat(broadcast.getCompletedAt()).isEqualTo(LocalDateTime.now(clock));
+    verify(shardRepository).saveOutcome(any(), eq(BROADCAST_ID), eq(1), eq(1), eq(true),
+        eq(LocalDateTime.now(clock)));
+    verify(auditFacade).sendBroadcastAudit(any(), eq(Step.AFTER),
+        eq(BroadcastAuditDto.builder().id(BROADCAST_ID).recipientCount(3).shardCount(2).build()));
+  }
+
+  @Test
+  void shouldCompleteBroadcastWithFailedShards() {
+    var broadcast = createBroadcast();
+    when(broadcastRepository.findByIdForUpdate(BROADCAST_ID)).thenReturn(Optional.of(broadcast));
+    when(shardRepository.countByBroadcastId(BROADCAST_ID)).thenReturn(2L);
+    when(shardRepository.countByBroadcastIdAndSucceededFalse(BROADCAST_ID)).thenReturn(1L);
+
+    tracker.completeShard(createShard(1), false);
+
+    assertThat(broadcast.getCompletedAt()).isEqualTo(LocalDateTime.now(clock));
+    verify(shardRepository).saveOutcome(any(), eq(BROADCAST_ID), eq(1), eq(1), eq(false),
+        eq(LocalDateTime.now(clock)));
+    verify(auditFacade).sendBroadcastAudit(any(), eq(Step.AFTER),
+        eq(BroadcastAuditDto.builder().id(BROADCAST_ID).recipientCount(3).shardCount(2)
+            .failedShardCount(1).build()));
+  }
+
+  @Test
+  void shouldNotCompleteBroadcastBeforeAllShardsAreProcessed() {
+    var broadcast = createBroadcast();
+    when(broadcastRepository.findByIdForUpdate(BROADCAST_ID)).thenReturn(Optional.of(broadcast));
+    when(shardRepository.countByBroadcastId(BROADCAST_ID)).thenReturn(1L);
+
+    tracker.completeShard(createShard(0), true);
+
+    assertThat(broadcast.getCompletedAt()).isNull();
+    verify(auditFacade, never()).sendBroadcastAudit(any(), any(), any());
+  }
+
+  @Test
+  void shouldNotCompleteBroadcastTwice() {
+    var broadcast = createBroadcast();
+    broadcast.setCompletedAt(LocalDateTime.now(clock).minusMinutes(1));
+    when(broadcastRepository.findByIdForUpdate(BROADCAST_ID)).thenReturn(Optional.of(broadcast));
+
+    tracker.completeShard(createShard(1), true);
+
+    verify(auditFacade, never()).sendBroadcastAudit(any(), any(), any());
+  }
+
+  @Test
+  void shouldSkipShardOfUnknownBroadcast() {
+    when(broadcastRepository.findByIdForUpdate(BROADCAST_ID)).thenReturn(Optional.empty());
+
+    tracker.completeShard(createShard(0), true);
+
+    verify(shardRepository, never())
+        .saveOutcome(any(), any(), anyInt(), anyInt(), anyBoolean(), any());
+    verify(auditFacade, never()).sendBroadcastAudit(any(), any(), any());
+  }
+
+  private NotificationBroadcast createBroadcast() {
+    return NotificationBroadcast.builder()
+        .id(BROADCAST_ID)
+        .sourceMessageId(SOURCE_MESSAGE_ID)
+        .recipientCount(3)
+        .shardCount(2)
+        .createdAt(LocalDateTime.now(clock))
+        .build();
+  }
+
+  private static UserNotificationShardDto createShard(int shardIndex) {
+    return UserNotificationShardDto.builder()
+        .broadcastId(BROADCAST_ID)
+        .shardIndex(shardIndex)
+        .shardCount(2)
+        .message(createMessage(List.of(Recipient.builder().id("recipient").build())))
+        .build();
+  }
+
+  private static UserNotificationMessageDto createMessage(List<Recipient> recipients) {
+    return UserNotificationMessageDto.builder()
+        .context(NotificationContextDto.builder().application("ddm-bpm").build())
+        .notification(UserNotificationDto.builder().templateName("template").build())
+        .recipients(recipients)
+        .build();
+  }
+}
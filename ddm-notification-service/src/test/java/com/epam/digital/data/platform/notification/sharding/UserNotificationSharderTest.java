@@ -0,0 +1,123 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.sharding;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.epam.digital.data.platform.notification.dto.NotificationContextDto;
+import com.epam.digital.data.platform.notification.dto.Recipient;
+import com.epam.digital.data.platform.notification.dto.UserNotificationDto;
+import com.epam.digital.data.platform.notification.dto.UserNotificationMessageDto;
+import com.epam.digital.data.platform.notification.dto.UserNotificationShardDto;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class UserNotificationSharderTest {
+
+  private static final String TOPIC = "user-notification-shards";
+  private static final String SOURCE_MESSAGE_ID = "user-notifications-1@42";
+
+  @Mock(answer = Answers.RETURNS_MOCKS)
+  private KafkaTemplate<String, Object> kafkaTemplate;
+  @Mock
+  private NotificationBroadcastTracker broadcastTracker;
+
+  private UserNotificationSharder sharder;
+
+  @BeforeEach
+  void setUp() {
+    sharder = new UserNotificationSharder(kafkaTemplate, broadcastTracker, TOPIC, 2,
+        Duration.ofSeconds(1));
+  }
+
+  @Test
+  void shouldSplitOnlyMessagesWithMoreRecipientsThanShardSize() {
+    assertThat(sharder.shouldSplit(createMessage(2))).isFalse();
+    assertThat(sharder.shouldSplit(createMessage(3))).isTrue();
+    assertThat(sharder.shouldSplit(UserNotificationMessageDto.builder().build())).isFalse();
+  }
+
+  @Test
+  void shouldPublishShardsKeyedByIndex() {
+    var message = createMessage(5);
+    var broadcastId = UUID.nameUUIDFromBytes(
+        SOURCE_MESSAGE_ID.getBytes(StandardCharsets.UTF_8));
+
+    sharder.split(message, SOURCE_MESSAGE_ID);
+
+    verify(broadcastTracker).start(broadcastId, SOURCE_MESSAGE_ID, message, 3);
+    var keyCaptor = ArgumentCaptor.forClass(String.class);
+    var shardCaptor = ArgumentCaptor.forClass(Object.class);
+    verify(kafkaTemplate, times(3)).send(eq(TOPIC), keyCaptor.capture(), shardCaptor.capture());
+    assertThat(keyCaptor.getAllValues()).containsExactly(broadcastId + "/0", broadcastId + "/1",
+        broadcastId + "/2");
+    var shards = shardCaptor.getAllValues().stream()
+        .map(UserNotificationShardDto.class::cast)
+        .collect(Collectors.toList());
+    assertThat(shards).allSatisfy(shard -> {
+      assertThat(shard.getBroadcastId()).isEqualTo(broadcastId);
+      assertThat(shard.getShardCount()).isEqualTo(3);
+      assertThat(shard.getMessage().getContext()).isSameAs(message.getContext());
+      assertThat(shard.getMessage().getNotification()).isSameAs(message.getNotification());
+    });
+    assertThat(shards.stream().map(UserNotificationShardDto::getShardIndex))
+        .containsExactly(0, 1, 2);
+    assertThat(shards.stream().flatMap(shard -> shard.getMessage().getRecipients().stream()))
+        .containsExactlyElementsOf(message.getRecipients());
+    assertThat(shards.get(2).getMessage().getRecipients()).hasSize(1);
+  }
+
+  @Test
+  void shouldPublishSameShardsForRedeliveredMessage() {
+    var message = createMessage(3);
+
+    sharder.split(message, SOURCE_MESSAGE_ID);
+    sharder.split(message, SOURCE_MESSAGE_ID);
+
+    var keyCaptor = ArgumentCaptor.forClass(String.class);
+    verify(kafkaTemplate, times(4)).send(eq(TOPIC), keyCaptor.capture(),
+        any(UserNotificationShardDto.class));
+    var keys = keyCaptor.getAllValues();
+    assertThat(keys.subList(2, 4)).isEqualTo(keys.subList(0, 2));
+  }
+
+  private static UserNotificationMessageDto createMessage(int recipients) {
+    return UserNotificationMessageDto.builder()
+        .context(NotificationContextDto.builder().application("ddm-bpm").build())
+        .notification(UserNotificationDto.builder().templateName("template").build())
+        .recipients(IntStream.range(0, recipients)
+            .mapToObj(i -> Recipient.builder().id("recipient-" + i).build())
+            .collect(Collectors.toList()))
+        .build();
+  }
+}